@@ -0,0 +1,164 @@
+package com.example.searchservice.benchmark;
+
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.util.SearchDataGenerator;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.message.BasicHeader;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Measures what gzip compression of Elasticsearch traffic costs and saves, matching the
+ * {@code elasticsearch.compression.*} settings of the service.
+ *
+ * <p>First reports the compression ratio and CPU cost of gzipping the corpus as bulk bodies, then loads
+ * the corpus and runs large-page searches with compression off, for responses only, and for requests and
+ * responses. Requires a running Elasticsearch cluster. Configured through system properties:</p>
+ * <ul>
+ *     <li>{@code benchmark.host} - cluster address, defaults to {@code localhost:9200}</li>
+ *     <li>{@code benchmark.documents} - corpus size, defaults to 50000</li>
+ *     <li>{@code benchmark.iterations} - measured queries per mode, defaults to 300</li>
+ *     <li>{@code benchmark.pageSize} - hits per query, defaults to 100</li>
+ * </ul>
+ *
+ * <p>Run with {@code ./gradlew compressionBenchmark -Dbenchmark.host=es.internal:9200}.</p>
+ */
+public class CompressionBenchmark {
+
+    private static final String INDEX = "bench-compression";
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String[] MODES = {"none", "responses", "requests"};
+
+    /**
+     * Entry point for the benchmark.
+     *
+     * @param args ignored; configuration is read from system properties
+     * @throws IOException if a client cannot be closed
+     */
+    public static void main(String[] args) throws IOException {
+        String host = System.getProperty("benchmark.host", "localhost:9200");
+        int documents = Integer.getInteger("benchmark.documents", 50_000);
+        int iterations = Integer.getInteger("benchmark.iterations", 300);
+        int pageSize = Integer.getInteger("benchmark.pageSize", 100);
+
+        List<SearchableDocument> corpus = SearchDataGenerator.generateRandomDocuments(documents);
+
+        System.out.printf("%-10s %12s %14s %10s %10s %10s%n", "mode", "bulk (doc/s)", "search p50", "p95 (ms)",
+                "p99 (ms)", "mean (ms)");
+        for (String mode : MODES) {
+            try (RestHighLevelClient client = createClient(host, mode)) {
+                ElasticsearchRestTemplate template = new ElasticsearchRestTemplate(client);
+                if ("none".equals(mode)) {
+                    reportBulkCompression(template, corpus);
+                }
+
+                IndexOperations indexOps = template.indexOps(IndexCoordinates.of(INDEX));
+                if (indexOps.exists()) {
+                    indexOps.delete();
+                }
+                indexOps.create(indexOps.createSettings(SearchableDocument.class).flatten(),
+                        indexOps.createMapping(SearchableDocument.class));
+
+                long start = System.nanoTime();
+                for (int from = 0; from < corpus.size(); from += BATCH_SIZE) {
+                    template.save(corpus.subList(from, Math.min(from + BATCH_SIZE, corpus.size())), IndexCoordinates.of(INDEX));
+                }
+                indexOps.refresh();
+                double docsPerSecond = corpus.size() / ((System.nanoTime() - start) / 1e9);
+
+                LatencyStats stats = runQueries(template, iterations, pageSize);
+                System.out.printf("%-10s %12.0f %14.2f %10.2f %10.2f %10.2f%n", mode, docsPerSecond,
+                        stats.percentileMillis(50), stats.percentileMillis(95), stats.percentileMillis(99), stats.meanMillis());
+
+                indexOps.delete();
+            }
+        }
+    }
+
+    /**
+     * Creates a client configured the way {@code ElasticsearchConfig} does for the given mode.
+     */
+    private static RestHighLevelClient createClient(String host, String mode) {
+        RestClientBuilder builder = RestClient.builder(HttpHost.create(host))
+                .setRequestConfigCallback(config -> config.setSocketTimeout(60_000));
+        if ("requests".equals(mode)) {
+            builder.setCompressionEnabled(true);
+        } else if ("responses".equals(mode)) {
+            builder.setDefaultHeaders(new Header[]{new BasicHeader(HttpHeaders.ACCEPT_ENCODING, "gzip")});
+        }
+        return new RestHighLevelClient(builder);
+    }
+
+    /**
+     * Gzips the corpus in bulk-sized NDJSON batches and prints the size ratio and CPU time per megabyte.
+     */
+    private static void reportBulkCompression(ElasticsearchRestTemplate template, List<SearchableDocument> corpus)
+            throws IOException {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long originalBytes = 0;
+        long compressedBytes = 0;
+        long cpuNanos = 0;
+
+        for (int from = 0; from < corpus.size(); from += BATCH_SIZE) {
+            StringBuilder body = new StringBuilder();
+            for (SearchableDocument document : corpus.subList(from, Math.min(from + BATCH_SIZE, corpus.size()))) {
+                body.append("{\"index\":{}}\n")
+                        .append(template.getElasticsearchConverter().mapObject(document).toJson())
+                        .append('\n');
+            }
+            byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+
+            long cpuStart = threads.getCurrentThreadCpuTime();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(bytes);
+            }
+            cpuNanos += threads.getCurrentThreadCpuTime() - cpuStart;
+
+            originalBytes += bytes.length;
+            compressedBytes += out.size();
+        }
+
+        double megabytes = originalBytes / (1024.0 * 1024.0);
+        System.out.printf("Bulk bodies: %.1f MB -> %.1f MB (ratio %.3f), %.2f ms CPU per MB%n%n", megabytes,
+                compressedBytes / (1024.0 * 1024.0), (double) compressedBytes / originalBytes, cpuNanos / 1e6 / megabytes);
+    }
+
+    /**
+     * Runs large-page full-text queries, discarding a warm-up round before measuring.
+     */
+    private static LatencyStats runQueries(ElasticsearchRestTemplate template, int iterations, int pageSize) {
+        LatencyStats stats = new LatencyStats(iterations);
+
+        for (int i = 0; i < iterations * 2; i++) {
+            CriteriaQuery query = new CriteriaQuery(new Criteria("content").matches("research"));
+            query.setPageable(PageRequest.of(i % 5, pageSize));
+
+            long start = System.nanoTime();
+            template.search(query, SearchableDocument.class, IndexCoordinates.of(INDEX));
+            if (i >= iterations) {
+                stats.record(System.nanoTime() - start);  // First half is warm-up
+            }
+        }
+
+        return stats;
+    }
+}
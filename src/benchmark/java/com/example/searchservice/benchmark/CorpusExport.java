@@ -0,0 +1,65 @@
+package com.example.searchservice.benchmark;
+
+import com.example.searchservice.util.CorpusGenerator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a generated corpus to NDJSON files with {@link CorpusGenerator}, for loading large test data sets
+ * into a cluster or replaying them in benchmarks.
+ *
+ * <p>The same seed and reference time always produce the same files, whatever the thread count. Configured
+ * through system properties:</p>
+ * <ul>
+ *     <li>{@code benchmark.documents} - number of documents, defaults to 1,000,000</li>
+ *     <li>{@code benchmark.seed} - seed of the corpus, defaults to 42</li>
+ *     <li>{@code benchmark.now} - ISO-8601 instant the dates count back from, defaults to {@code 2025-01-01T00:00:00Z}</li>
+ *     <li>{@code benchmark.threads} - generating threads, defaults to the number of processors</li>
+ *     <li>{@code benchmark.files} - number of files, defaults to the number of threads</li>
+ *     <li>{@code benchmark.format} - {@code bulk} for {@code _bulk} request bodies or {@code documents} for one
+ *     source per line, defaults to {@code bulk}</li>
+ *     <li>{@code benchmark.output} - directory for the files, defaults to {@code build/corpus}</li>
+ * </ul>
+ *
+ * <p>Run with {@code ./gradlew generateCorpus -Dbenchmark.documents=10000000}.</p>
+ */
+public class CorpusExport {
+
+    /**
+     * Entry point for the export.
+     *
+     * @param args ignored; configuration is read from system properties
+     * @throws IOException if a file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        long documents = Long.getLong("benchmark.documents", 1_000_000L);
+        long seed = Long.getLong("benchmark.seed", 42L);
+        Instant now = Instant.parse(System.getProperty("benchmark.now", "2025-01-01T00:00:00Z"));
+        int threads = Integer.getInteger("benchmark.threads", Runtime.getRuntime().availableProcessors());
+        int files = Integer.getInteger("benchmark.files", threads);
+        CorpusGenerator.Format format = CorpusGenerator.Format.valueOf(
+                System.getProperty("benchmark.format", "bulk").toUpperCase(Locale.ROOT));
+        Path output = Paths.get(System.getProperty("benchmark.output", "build/corpus"));
+
+        System.out.printf("Writing %,d documents (seed %d) to %d file(s) in %s with %d thread(s)%n",
+                documents, seed, files, output, threads);
+        long startNanos = System.nanoTime();
+        List<Path> paths = new CorpusGenerator(seed, now.toEpochMilli())
+                .writeNdjson(documents, threads, files, output, format);
+        double seconds = (System.nanoTime() - startNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+
+        long bytes = 0;
+        for (Path path : paths) {
+            bytes += Files.size(path);
+        }
+        System.out.printf("Wrote %,d documents, %,.1f MiB in %.1f s (%,.0f documents/s, %,.1f MiB/s)%n",
+                documents, bytes / 1048576.0, seconds, documents / seconds, bytes / 1048576.0 / seconds);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.searchservice.benchmark;
+
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.util.SearchDataGenerator;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.ClientConfiguration;
+import org.springframework.data.elasticsearch.client.RestClients;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Criteria;
+import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Compares recency-sorted search latency on an index sorted by {@code createdDate} against an unsorted one,
+ * with exact and bounded total hit counting.
+ *
+ * <p>Loads the same generated corpus into two throwaway indices and runs "newest first" queries against each.
+ * Requires a running Elasticsearch cluster. Configured through system properties:</p>
+ * <ul>
+ *     <li>{@code benchmark.host} - cluster address, defaults to {@code localhost:9200}</li>
+ *     <li>{@code benchmark.documents} - corpus size, defaults to 100000</li>
+ *     <li>{@code benchmark.iterations} - measured queries per scenario, defaults to 500</li>
+ *     <li>{@code benchmark.pageSize} - hits per query, defaults to 10</li>
+ * </ul>
+ *
+ * <p>Run with {@code ./gradlew indexSortBenchmark -Dbenchmark.documents=500000}.</p>
+ */
+public class IndexSortBenchmark {
+
+    private static final String SORTED_INDEX = "bench-index-sort-sorted";
+    private static final String UNSORTED_INDEX = "bench-index-sort-unsorted";
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * Entry point for the benchmark.
+     *
+     * @param args ignored; configuration is read from system properties
+     * @throws IOException if the client cannot be closed
+     */
+    public static void main(String[] args) throws IOException {
+        String host = System.getProperty("benchmark.host", "localhost:9200");
+        int documents = Integer.getInteger("benchmark.documents", 100_000);
+        int iterations = Integer.getInteger("benchmark.iterations", 500);
+        int pageSize = Integer.getInteger("benchmark.pageSize", 10);
+
+        try (RestHighLevelClient client = RestClients.create(ClientConfiguration.builder()
+                .connectedTo(host)
+                .withSocketTimeout(Duration.ofMinutes(1))
+                .build()).rest()) {
+            ElasticsearchRestTemplate template = new ElasticsearchRestTemplate(client);
+
+            // Both indices share mapping and analysis; only the index sort differs
+            IndexOperations sortedOps = template.indexOps(IndexCoordinates.of(SORTED_INDEX));
+            Settings sortedSettings = sortedOps.createSettings(SearchableDocument.class).flatten();
+            Settings unsortedSettings = new Settings(sortedSettings);
+            unsortedSettings.keySet().removeIf(key -> key.startsWith("index.sort."));
+            Document mapping = sortedOps.createMapping(SearchableDocument.class);
+
+            recreateIndex(template, SORTED_INDEX, sortedSettings, mapping);
+            recreateIndex(template, UNSORTED_INDEX, unsortedSettings, mapping);
+
+            System.out.printf("Loading %d documents into each index...%n", documents);
+            load(template, documents);
+
+            System.out.printf("Running %d iterations per scenario, page size %d%n", iterations, pageSize);
+            for (String index : new String[]{UNSORTED_INDEX, SORTED_INDEX}) {
+                for (boolean exactTotals : new boolean[]{true, false}) {
+                    LatencyStats stats = run(template, index, exactTotals, iterations, pageSize);
+                    System.out.println(stats.summary(index + (exactTotals ? " exact-totals" : " bounded-totals")));
+                }
+            }
+
+            template.indexOps(IndexCoordinates.of(SORTED_INDEX)).delete();
+            template.indexOps(IndexCoordinates.of(UNSORTED_INDEX)).delete();
+        }
+    }
+
+    /**
+     * Deletes the index if present and creates it with the given settings and mapping.
+     */
+    private static void recreateIndex(ElasticsearchRestTemplate template, String index, Settings settings, Document mapping) {
+        IndexOperations indexOps = template.indexOps(IndexCoordinates.of(index));
+        if (indexOps.exists()) {
+            indexOps.delete();
+        }
+        indexOps.create(settings, mapping);
+    }
+
+    /**
+     * Writes the same generated batches into both indices, then refreshes them.
+     */
+    private static void load(ElasticsearchRestTemplate template, int documents) {
+        for (int loaded = 0; loaded < documents; loaded += BATCH_SIZE) {
+            List<SearchableDocument> batch = SearchDataGenerator.generateRandomDocuments(Math.min(BATCH_SIZE, documents - loaded));
+            template.save(batch, IndexCoordinates.of(SORTED_INDEX));
+            template.save(batch, IndexCoordinates.of(UNSORTED_INDEX));
+        }
+        template.indexOps(IndexCoordinates.of(SORTED_INDEX)).refresh();
+        template.indexOps(IndexCoordinates.of(UNSORTED_INDEX)).refresh();
+    }
+
+    /**
+     * Runs "newest first" queries against one index, discarding a warm-up round before measuring.
+     */
+    private static LatencyStats run(ElasticsearchRestTemplate template, String index, boolean exactTotals,
+                                    int iterations, int pageSize) {
+        IndexCoordinates coordinates = IndexCoordinates.of(index);
+        LatencyStats stats = new LatencyStats(iterations);
+
+        for (int i = 0; i < iterations * 2; i++) {
+            CriteriaQuery query = new CriteriaQuery(new Criteria("content").matches("research"));
+            query.setPageable(PageRequest.of(0, pageSize));
+            query.addSort(Sort.by(Sort.Direction.DESC, "createdDate"));
+            if (exactTotals) {
+                query.setTrackTotalHits(true);
+            } else {
+                query.setTrackTotalHitsUpTo(pageSize + 1);  // Same bound SearchServiceImpl uses for the first page
+            }
+
+            long start = System.nanoTime();
+            template.search(query, SearchableDocument.class, coordinates);
+            if (i >= iterations) {
+                stats.record(System.nanoTime() - start);  // First half is warm-up
+            }
+        }
+
+        return stats;
+    }
+}
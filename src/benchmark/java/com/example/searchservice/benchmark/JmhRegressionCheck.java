@@ -0,0 +1,207 @@
+package com.example.searchservice.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares JMH results with a stored baseline and fails when a benchmark got slower.
+ *
+ * <p>Both files are JMH's JSON output ({@code -rf json}). Benchmarks are matched by name, parameters and mode.
+ * A benchmark regressed when its score is worse than the baseline by more than the threshold, and the difference
+ * is larger than the two scores' error margins combined, so noisy benchmarks are not flagged. For throughput
+ * higher is better, for the time-based modes lower is better.</p>
+ *
+ * <p>Configured through system properties:</p>
+ * <ul>
+ *     <li>{@code benchmark.results} - results to check, defaults to {@code build/reports/jmh/results.json}</li>
+ *     <li>{@code benchmark.baseline} - stored baseline, defaults to {@code src/jmh/baseline.json}</li>
+ *     <li>{@code benchmark.threshold} - tolerated relative slowdown, defaults to 0.10</li>
+ * </ul>
+ *
+ * <p>Run with {@code ./gradlew jmh jmhCompare}; store new results as the baseline with {@code ./gradlew jmhBaseline}.</p>
+ */
+public class JmhRegressionCheck {
+
+    /**
+     * Entry point for the check. Exits with status 1 if any benchmark regressed or the baseline is missing.
+     *
+     * @param args ignored; configuration is read from system properties
+     * @throws IOException if a results file cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        File results = new File(System.getProperty("benchmark.results", "build/reports/jmh/results.json"));
+        File baseline = new File(System.getProperty("benchmark.baseline", "src/jmh/baseline.json"));
+        double threshold = Double.parseDouble(System.getProperty("benchmark.threshold", "0.10"));
+
+        if (!baseline.isFile()) {
+            System.err.printf("No baseline at %s; store one with ./gradlew jmhBaseline%n", baseline);
+            System.exit(1);
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        List<Comparison> comparisons = compare(objectMapper.readTree(baseline), objectMapper.readTree(results), threshold);
+
+        System.out.printf(Locale.ROOT, "%-75s %14s %14s %9s  %s%n", "Benchmark", "Baseline", "Current", "Change", "");
+        int regressions = 0;
+        for (Comparison comparison : comparisons) {
+            System.out.printf(Locale.ROOT, "%-75s %14s %14s %9s  %s%n",
+                    comparison.getKey(),
+                    format(comparison.getBaselineScore(), comparison.getUnit()),
+                    format(comparison.getCurrentScore(), comparison.getUnit()),
+                    Double.isNaN(comparison.getChange()) ? "" : String.format(Locale.ROOT, "%+.1f%%", comparison.getChange() * 100),
+                    comparison.getVerdict());
+            if (comparison.getVerdict() == Verdict.REGRESSION) {
+                regressions++;
+            }
+        }
+
+        if (regressions > 0) {
+            System.err.printf("%d benchmark(s) regressed by more than %.0f%%%n", regressions, threshold * 100);
+            System.exit(1);
+        }
+        System.out.printf("No regressions beyond %.0f%%%n", threshold * 100);
+    }
+
+    /**
+     * Compares each benchmark in the results with the same benchmark in the baseline.
+     *
+     * @param baseline  JMH JSON output stored as the baseline
+     * @param current   JMH JSON output of the current run
+     * @param threshold tolerated relative slowdown, e.g. 0.10 for 10%
+     * @return one comparison per benchmark found in either file, ordered by key
+     */
+    static List<Comparison> compare(JsonNode baseline, JsonNode current, double threshold) {
+        Map<String, JsonNode> baselineScores = index(baseline);
+        Map<String, JsonNode> currentScores = index(current);
+
+        Map<String, Comparison> comparisons = new TreeMap<>();
+        currentScores.forEach((key, result) -> {
+            JsonNode before = baselineScores.get(key);
+            comparisons.put(key, before == null
+                    ? new Comparison(key, result.path("primaryMetric").path("scoreUnit").asText(), Double.NaN,
+                            score(result), Double.NaN, Verdict.NEW)
+                    : compare(key, before, result, threshold));
+        });
+        baselineScores.forEach((key, result) -> comparisons.computeIfAbsent(key, missing -> new Comparison(
+                missing, result.path("primaryMetric").path("scoreUnit").asText(), score(result), Double.NaN,
+                Double.NaN, Verdict.MISSING)));
+
+        return new ArrayList<>(comparisons.values());
+    }
+
+    private static Comparison compare(String key, JsonNode before, JsonNode after, double threshold) {
+        double baselineScore = score(before);
+        double currentScore = score(after);
+        boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+
+        // Positive when the current run is worse, whichever direction is better for this mode
+        double change = (currentScore - baselineScore) / baselineScore;
+        double worse = higherIsBetter ? -change : change;
+        double noise = error(before) + error(after);
+        boolean significant = Math.abs(currentScore - baselineScore) > noise;
+
+        Verdict verdict;
+        if (worse > threshold && significant) {
+            verdict = Verdict.REGRESSION;
+        } else if (worse < -threshold && significant) {
+            verdict = Verdict.IMPROVED;
+        } else {
+            verdict = Verdict.OK;
+        }
+        return new Comparison(key, after.path("primaryMetric").path("scoreUnit").asText(),
+                baselineScore, currentScore, change, verdict);
+    }
+
+    /**
+     * Indexes JMH results by benchmark name, parameters and mode.
+     */
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> indexed = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(shortName(result.path("benchmark").asText()));
+            Map<String, String> params = new TreeMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            fields.forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+            params.forEach((name, value) -> key.append(':').append(name).append('=').append(value));
+            key.append(" (").append(result.path("mode").asText()).append(')');
+            indexed.put(key.toString(), result);
+        }
+        return indexed;
+    }
+
+    /**
+     * Drops the package, keeping the class and method names.
+     */
+    private static String shortName(String benchmark) {
+        int method = benchmark.lastIndexOf('.');
+        int type = benchmark.lastIndexOf('.', method - 1);
+        return benchmark.substring(type + 1);
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+
+    private static double error(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;  // JMH reports NaN with too few iterations for an error estimate
+    }
+
+    private static String format(double score, String unit) {
+        return Double.isNaN(score) ? "-" : String.format(Locale.ROOT, "%.3f %s", score, unit);
+    }
+
+    /**
+     * Outcome of comparing one benchmark.
+     */
+    enum Verdict {
+        OK, IMPROVED, REGRESSION,
+        /**
+         * Only in the current results.
+         */
+        NEW,
+        /**
+         * Only in the baseline.
+         */
+        MISSING
+    }
+
+    /**
+     * A benchmark's score in the baseline and the current run.
+     */
+    @Getter
+    static final class Comparison {
+
+        private final String key;
+        private final String unit;
+        private final double baselineScore;
+        private final double currentScore;
+
+        /**
+         * Relative change of the score, positive when the score went up.
+         */
+        private final double change;
+
+        private final Verdict verdict;
+
+        Comparison(String key, String unit, double baselineScore, double currentScore, double change, Verdict verdict) {
+            this.key = key;
+            this.unit = unit;
+            this.baselineScore = baselineScore;
+            this.currentScore = currentScore;
+            this.change = change;
+            this.verdict = verdict;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.searchservice.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects latency samples in nanoseconds and reports summary statistics for benchmark output.
+ * Not thread-safe; each benchmark scenario records into its own instance.
+ */
+public class LatencyStats {
+
+    private long[] samples;
+    private int count;
+
+    /**
+     * Creates a recorder sized for the expected number of samples.
+     *
+     * @param expectedSamples initial capacity, grown automatically if exceeded
+     */
+    public LatencyStats(int expectedSamples) {
+        this.samples = new long[Math.max(16, expectedSamples)];
+    }
+
+    /**
+     * Records a single latency sample.
+     *
+     * @param nanos the measured latency in nanoseconds
+     */
+    public void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);  // Grow when the initial estimate was too small
+        }
+        samples[count++] = nanos;
+    }
+
+    /**
+     * Returns the number of recorded samples.
+     *
+     * @return sample count
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the value at the given percentile in milliseconds.
+     *
+     * @param percentile percentile between 0 and 100
+     * @return latency in milliseconds, or 0 if nothing was recorded
+     */
+    public double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile / 100.0 * count) - 1;
+        return toMillis(sorted[Math.max(0, Math.min(index, count - 1))]);
+    }
+
+    /**
+     * Returns the arithmetic mean of all samples in milliseconds.
+     *
+     * @return mean latency in milliseconds, or 0 if nothing was recorded
+     */
+    public double meanMillis() {
+        if (count == 0) {
+            return 0;
+        }
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += samples[i];
+        }
+        return toMillis(total / count);
+    }
+
+    /**
+     * Formats the statistics as a single report line.
+     *
+     * @param label scenario name printed at the start of the line
+     * @return formatted summary
+     */
+    public String summary(String label) {
+        return String.format("%-40s n=%-6d mean=%8.2f ms  p50=%8.2f ms  p95=%8.2f ms  p99=%8.2f ms  max=%8.2f ms",
+                label, count, meanMillis(), percentileMillis(50), percentileMillis(95),
+                percentileMillis(99), percentileMillis(100));
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
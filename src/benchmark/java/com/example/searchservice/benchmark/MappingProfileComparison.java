@@ -0,0 +1,138 @@
+package com.example.searchservice.benchmark;
+
+import com.example.searchservice.config.MappingProfile;
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.service.impl.IndexManagementServiceImpl;
+import com.example.searchservice.util.SearchDataGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.elasticsearch.action.admin.indices.forcemerge.ForceMergeRequest;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.ClientConfiguration;
+import org.springframework.data.elasticsearch.client.RestClients;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQuery;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Loads one generated corpus into an index per {@link MappingProfile} and reports index size,
+ * indexing rate and query latency for each.
+ *
+ * <p>Requires a running Elasticsearch cluster. Configured through system properties:</p>
+ * <ul>
+ *     <li>{@code benchmark.host} - cluster address, defaults to {@code localhost:9200}</li>
+ *     <li>{@code benchmark.documents} - corpus size, defaults to 50000</li>
+ *     <li>{@code benchmark.iterations} - measured queries per profile, defaults to 500</li>
+ * </ul>
+ *
+ * <p>Run with {@code ./gradlew mappingProfileComparison -Dbenchmark.documents=200000}.</p>
+ */
+public class MappingProfileComparison {
+
+    private static final int BATCH_SIZE = 1000;
+
+    // Terms drawn from the generator's content vocabulary, rotated across queries
+    private static final String[] QUERY_TERMS = {"research", "analysis", "performance", "strategy", "data", "systems"};
+
+    /**
+     * Entry point for the comparison.
+     *
+     * @param args ignored; configuration is read from system properties
+     * @throws IOException if index statistics cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        String host = System.getProperty("benchmark.host", "localhost:9200");
+        int documents = Integer.getInteger("benchmark.documents", 50_000);
+        int iterations = Integer.getInteger("benchmark.iterations", 500);
+
+        // Every profile indexes the same documents so sizes are directly comparable
+        List<SearchableDocument> corpus = SearchDataGenerator.generateRandomDocuments(documents);
+
+        try (RestHighLevelClient client = RestClients.create(ClientConfiguration.builder()
+                .connectedTo(host)
+                .withSocketTimeout(Duration.ofMinutes(5))
+                .build()).rest()) {
+            ElasticsearchRestTemplate template = new ElasticsearchRestTemplate(client);
+            IndexManagementServiceImpl indexManagementService = new IndexManagementServiceImpl(template, client);
+
+            System.out.printf("%-10s %12s %14s %10s %10s %10s%n", "profile", "size (MB)", "index (doc/s)",
+                    "p50 (ms)", "p95 (ms)", "p99 (ms)");
+
+            for (MappingProfile profile : MappingProfile.values()) {
+                String index = "bench-mapping-" + profile.name().toLowerCase(Locale.ROOT);
+                IndexOperations indexOps = template.indexOps(IndexCoordinates.of(index));
+                if (indexOps.exists()) {
+                    indexOps.delete();
+                }
+                indexManagementService.createIndex(index, profile);
+
+                // Indexing rate, including the final refresh that makes the documents searchable
+                long start = System.nanoTime();
+                for (int from = 0; from < corpus.size(); from += BATCH_SIZE) {
+                    template.save(corpus.subList(from, Math.min(from + BATCH_SIZE, corpus.size())), IndexCoordinates.of(index));
+                }
+                indexOps.refresh();
+                double docsPerSecond = corpus.size() / ((System.nanoTime() - start) / 1e9);
+
+                // Merge down to one segment so the size reflects the mapping rather than merge timing
+                client.indices().forcemerge(new ForceMergeRequest(index).maxNumSegments(1), RequestOptions.DEFAULT);
+                double sizeMb = storeSizeBytes(client, index) / (1024.0 * 1024.0);
+
+                LatencyStats stats = runQueries(template, index, iterations);
+                System.out.printf("%-10s %12.2f %14.0f %10.2f %10.2f %10.2f%n", profile, sizeMb, docsPerSecond,
+                        stats.percentileMillis(50), stats.percentileMillis(95), stats.percentileMillis(99));
+
+                indexOps.delete();
+            }
+        }
+    }
+
+    /**
+     * Runs full-text queries with a category facet, discarding a warm-up round before measuring.
+     */
+    private static LatencyStats runQueries(ElasticsearchRestTemplate template, String index, int iterations) {
+        LatencyStats stats = new LatencyStats(iterations);
+
+        for (int i = 0; i < iterations * 2; i++) {
+            NativeSearchQuery query = new NativeSearchQueryBuilder()
+                    .withQuery(QueryBuilders.multiMatchQuery(QUERY_TERMS[i % QUERY_TERMS.length], "title", "content"))
+                    .withAggregations(AggregationBuilders.terms("categories").field("category"),
+                            AggregationBuilders.terms("tags").field("tags"))
+                    .withPageable(PageRequest.of(0, 10))
+                    .build();
+
+            long start = System.nanoTime();
+            template.search(query, SearchableDocument.class, IndexCoordinates.of(index));
+            if (i >= iterations) {
+                stats.record(System.nanoTime() - start);  // First half is warm-up
+            }
+        }
+
+        return stats;
+    }
+
+    /**
+     * Reads the primary store size of an index from the index stats API.
+     */
+    private static long storeSizeBytes(RestHighLevelClient client, String index) throws IOException {
+        Response response = client.getLowLevelClient().performRequest(new Request("GET", "/" + index + "/_stats/store"));
+        try (InputStream body = response.getEntity().getContent()) {
+            JsonNode stats = new ObjectMapper().readTree(body);
+            return stats.path("_all").path("primaries").path("store").path("size_in_bytes").asLong();
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.searchservice.benchmark;
+
+import lombok.Getter;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Drives {@code /api/search} of a running service at a constant request rate and reports latency percentiles
+ * and throughput per scenario of {@link SearchQueryMix}.
+ *
+ * <p>Uses an open model: requests are scheduled at fixed intervals whether or not earlier ones have completed,
+ * and each latency is measured from the time the request was scheduled to be sent. When the service slows down,
+ * the requests queued behind a slow one are charged the time they waited, instead of the generator quietly
+ * sending fewer requests (coordinated omission). Latencies are recorded in HdrHistogram and the full percentile
+ * distribution of each scenario is written as an {@code .hgrm} file.</p>
+ *
+ * <p>Requires a running service. Configured through system properties:</p>
+ * <ul>
+ *     <li>{@code benchmark.url} - service address, defaults to {@code http://localhost:8080}</li>
+ *     <li>{@code benchmark.user} / {@code benchmark.password} - credentials, default to {@code user} / {@code password}</li>
+ *     <li>{@code benchmark.rate} - requests per second, defaults to 50</li>
+ *     <li>{@code benchmark.duration} - measured seconds per scenario, defaults to 30</li>
+ *     <li>{@code benchmark.warmup} - unmeasured seconds per scenario before that, defaults to 5</li>
+ *     <li>{@code benchmark.scenarios} - comma-separated scenario labels, defaults to all</li>
+ *     <li>{@code benchmark.max-in-flight} - outstanding requests before sending waits, defaults to 256</li>
+ *     <li>{@code benchmark.seed} - seed of the query mix, defaults to 42</li>
+ *     <li>{@code benchmark.output} - directory for the {@code .hgrm} files, defaults to {@code build/reports/load-test}</li>
+ * </ul>
+ *
+ * <p>Run with {@code ./gradlew loadTest -Dbenchmark.rate=200 -Dbenchmark.scenarios=mixed}.</p>
+ */
+public class SearchLoadGenerator {
+
+    private static final int BODIES_PER_SCENARIO = 1000;
+
+    // Latencies above this are recorded as this value
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    /**
+     * Entry point for the load test.
+     *
+     * @param args ignored; configuration is read from system properties
+     * @throws IOException if a report cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        String url = System.getProperty("benchmark.url", "http://localhost:8080");
+        String user = System.getProperty("benchmark.user", "user");
+        String password = System.getProperty("benchmark.password", "password");
+        double rate = Double.parseDouble(System.getProperty("benchmark.rate", "50"));
+        int duration = Integer.getInteger("benchmark.duration", 30);
+        int warmup = Integer.getInteger("benchmark.warmup", 5);
+        int maxInFlight = Integer.getInteger("benchmark.max-in-flight", 256);
+        long seed = Long.getLong("benchmark.seed", 42L);
+        Path output = Paths.get(System.getProperty("benchmark.output", "build/reports/load-test"));
+
+        List<SearchQueryMix.Scenario> scenarios = new ArrayList<>();
+        for (String label : System.getProperty("benchmark.scenarios",
+                "title,category_filtered,tag_filtered_sorted,deep_page,mixed").split(",")) {
+            scenarios.add(SearchQueryMix.Scenario.fromLabel(label));
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        URI searchUri = URI.create(url + "/api/search");
+        String authorization = "Basic " + Base64.getEncoder()
+                .encodeToString((user + ":" + password).getBytes(StandardCharsets.UTF_8));
+        Function<byte[], CompletableFuture<Integer>> sender = body -> client.sendAsync(
+                HttpRequest.newBuilder(searchUri)
+                        .header("Content-Type", "application/json")
+                        .header("Authorization", authorization)
+                        .timeout(Duration.ofMinutes(1))
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding()).thenApply(HttpResponse::statusCode);
+
+        Files.createDirectories(output);
+        SearchQueryMix queryMix = new SearchQueryMix(seed);
+        System.out.printf(Locale.ROOT, "Load test against %s at %.1f requests/s, %d s per scenario after %d s warmup%n%n",
+                searchUri, rate, duration, warmup);
+        System.out.printf(Locale.ROOT, "%-20s %9s %7s %10s %9s %9s %9s %9s %9s %9s %10s%n", "Scenario", "Requests",
+                "Errors", "Req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "p99.99 ms", "Max ms", "Send lag ms");
+
+        for (SearchQueryMix.Scenario scenario : scenarios) {
+            List<byte[]> bodies = queryMix.bodies(scenario, BODIES_PER_SCENARIO);
+            if (warmup > 0) {
+                run(sender, bodies, rate, TimeUnit.SECONDS.toNanos(warmup), maxInFlight);
+            }
+            Result result = run(sender, bodies, rate, TimeUnit.SECONDS.toNanos(duration), maxInFlight);
+            Histogram histogram = result.getHistogram();
+
+            System.out.printf(Locale.ROOT, "%-20s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f %10.2f%n",
+                    scenario.getLabel(), result.getRequests(), result.getErrors(), result.getThroughput(),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getValueAtPercentile(99.99)), millis(histogram.getMaxValue()),
+                    result.getMaxSendLagNanos() / 1e6);
+
+            try (PrintStream out = new PrintStream(Files.newOutputStream(output.resolve(scenario.getLabel() + ".hgrm")),
+                    false, StandardCharsets.UTF_8)) {
+                histogram.outputPercentileDistribution(out, 1000.0);  // Microseconds reported as milliseconds
+            }
+        }
+        System.out.printf("%nPercentile distributions written to %s%n", output.toAbsolutePath());
+    }
+
+    /**
+     * Sends requests at a constant rate for the given duration and waits for the outstanding ones.
+     *
+     * <p>Request {@code n} is scheduled at {@code start + n / rate}, and its latency runs from that time to its
+     * completion, so time spent waiting for the schedule to catch up counts towards the request's latency.</p>
+     *
+     * @param sender        sends a request body and completes with the response status
+     * @param bodies        request bodies, sent in rotation
+     * @param rate          requests per second
+     * @param durationNanos time over which requests are scheduled
+     * @param maxInFlight   outstanding requests before sending waits for one to complete
+     * @return the recorded latencies and counts
+     */
+    static Result run(Function<byte[], CompletableFuture<Integer>> sender, List<byte[]> bodies, double rate,
+                      long durationNanos, int maxInFlight) {
+        ConcurrentHistogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        LongAdder errors = new LongAdder();
+        AtomicLong maxSendLag = new AtomicLong();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        double intervalNanos = 1e9 / rate;
+
+        long start = System.nanoTime();
+        long requests = 0;
+        while (true) {
+            long intended = start + (long) (requests * intervalNanos);
+            if (intended - start >= durationNanos) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquireUninterruptibly();
+
+            long lag = System.nanoTime() - intended;
+            maxSendLag.accumulateAndGet(lag, Math::max);
+            CompletableFuture<Integer> response;
+            try {
+                response = sender.apply(bodies.get((int) (requests % bodies.size())));
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            response.whenComplete((status, error) -> {
+                long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                histogram.recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+                if (error != null || status != 200) {
+                    errors.increment();
+                }
+                inFlight.release();
+            });
+            requests++;
+        }
+
+        inFlight.acquireUninterruptibly(maxInFlight);  // Wait for the outstanding requests
+        inFlight.release(maxInFlight);
+        long elapsed = System.nanoTime() - start;
+
+        return new Result(histogram, requests, errors.sum(), requests / (elapsed / 1e9), maxSendLag.get());
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+
+    /**
+     * Latencies and counts of one scenario run.
+     */
+    @Getter
+    static final class Result {
+
+        /**
+         * Latency of every request in microseconds, from its scheduled send time to its completion.
+         */
+        private final Histogram histogram;
+
+        private final long requests;
+
+        /**
+         * Requests that failed or completed with a status other than 200.
+         */
+        private final long errors;
+
+        /**
+         * Completed requests per second, including the time waiting for the last ones.
+         */
+        private final double throughput;
+
+        /**
+         * Largest delay between a request's scheduled and actual send time. Values approaching the latencies
+         * mean the generator could not keep up with the rate, for example because {@code max-in-flight} was reached.
+         */
+        private final long maxSendLagNanos;
+
+        Result(Histogram histogram, long requests, long errors, double throughput, long maxSendLagNanos) {
+            this.histogram = histogram;
+            this.requests = requests;
+            this.errors = errors;
+            this.throughput = throughput;
+            this.maxSendLagNanos = maxSendLagNanos;
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.searchservice.benchmark;
+
+import com.example.searchservice.model.SearchRequest;
+import com.example.searchservice.util.SearchDataGenerator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Builds {@code /api/search} request bodies for load tests from the vocabulary of {@link SearchDataGenerator},
+ * so queries match the generated documents the way real queries would.
+ *
+ * <p>Bodies are generated up front from a seeded random source, so a given seed always yields the same
+ * requests and generating them does not compete with sending them.</p>
+ */
+public class SearchQueryMix {
+
+    /**
+     * Kinds of search, each exercising a different part of the query path.
+     */
+    public enum Scenario {
+        /**
+         * A few consecutive words of a generated title, first page of 10.
+         */
+        TITLE("title"),
+        /**
+         * A tag as query text, filtered on one category, page of 20.
+         */
+        CATEGORY_FILTERED("category_filtered"),
+        /**
+         * A category as query text, filtered on two tags and sorted by creation date as the index is,
+         * so hit counting can stop early.
+         */
+        TAG_FILTERED_SORTED("tag_filtered_sorted"),
+        /**
+         * Title words on pages 5 to 20, page of 20.
+         */
+        DEEP_PAGE("deep_page"),
+        /**
+         * The other scenarios in proportions of 50, 25, 15 and 10 percent.
+         */
+        MIXED("mixed");
+
+        private final String label;
+
+        Scenario(String label) {
+            this.label = label;
+        }
+
+        /**
+         * @return the name used in reports and in {@code benchmark.scenarios}
+         */
+        public String getLabel() {
+            return label;
+        }
+
+        /**
+         * Looks up a scenario by its label.
+         *
+         * @param label the scenario's label
+         * @return the scenario
+         * @throws IllegalArgumentException if no scenario has that label
+         */
+        public static Scenario fromLabel(String label) {
+            for (Scenario scenario : values()) {
+                if (scenario.label.equalsIgnoreCase(label.trim())) {
+                    return scenario;
+                }
+            }
+            throw new IllegalArgumentException("Unknown scenario '" + label + "', expected one of "
+                    + Arrays.toString(Arrays.stream(values()).map(Scenario::getLabel).toArray()));
+        }
+    }
+
+    private final List<String> categories = SearchDataGenerator.getCategories();
+    private final List<String> tags = SearchDataGenerator.getTags();
+    private final List<String> titleTemplates = SearchDataGenerator.getTitleTemplates();
+
+    private final ObjectMapper objectMapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    private final SplittableRandom random;
+
+    /**
+     * @param seed seed for the random source
+     */
+    public SearchQueryMix(long seed) {
+        this.random = new SplittableRandom(seed);
+    }
+
+    /**
+     * Generates request bodies for a scenario.
+     *
+     * @param scenario the scenario
+     * @param count    number of bodies
+     * @return JSON request bodies, to be sent in rotation
+     */
+    public List<byte[]> bodies(Scenario scenario, int count) {
+        List<byte[]> bodies = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            try {
+                bodies.add(objectMapper.writeValueAsBytes(request(scenario)));
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Search request cannot be serialized", e);
+            }
+        }
+        return bodies;
+    }
+
+    /**
+     * Generates one search request for a scenario.
+     *
+     * @param scenario the scenario
+     * @return the request
+     */
+    SearchRequest request(Scenario scenario) {
+        SearchRequest request = new SearchRequest();
+        request.setDateField(null);  // Not sent; the service applies its default
+        switch (scenario) {
+            case TITLE:
+                request.setQuery(titleWords());
+                request.setSize(10);
+                break;
+            case CATEGORY_FILTERED:
+                request.setQuery(pick(tags).replace('-', ' '));
+                request.setSize(20);
+                request.setFilters(Collections.singletonMap("category", pick(categories)));
+                break;
+            case TAG_FILTERED_SORTED:
+                request.setQuery(pick(categories).toLowerCase(Locale.ROOT));
+                request.setSize(20);
+                request.setTrackTotalHits(false);
+                String first = pick(tags);
+                String second;
+                do {
+                    second = pick(tags);
+                } while (second.equals(first));
+                Map<String, Object> filters = new LinkedHashMap<>();
+                filters.put("tags", Arrays.asList(first, second));
+                request.setFilters(filters);
+                request.setSort(Collections.singletonMap("createdDate", "desc"));
+                break;
+            case DEEP_PAGE:
+                request.setQuery(titleWords());
+                request.setSize(20);
+                request.setPage(5 + random.nextInt(16));
+                break;
+            case MIXED:
+            default:
+                int roll = random.nextInt(100);
+                Scenario picked = roll < 50 ? Scenario.TITLE
+                        : roll < 75 ? Scenario.CATEGORY_FILTERED
+                        : roll < 90 ? Scenario.TAG_FILTERED_SORTED
+                        : Scenario.DEEP_PAGE;
+                return request(picked);
+        }
+        return request;
+    }
+
+    /**
+     * Picks two or three consecutive words from a generated title, e.g. "Guide to Science".
+     */
+    private String titleWords() {
+        String title = String.format(pick(titleTemplates), pick(categories));
+        String[] words = title.replaceAll("[^\\p{L}\\p{Nd} ]", "").trim().split("\\s+");
+        int length = Math.min(words.length, 2 + random.nextInt(2));
+        int start = random.nextInt(words.length - length + 1);
+        return String.join(" ", Arrays.copyOfRange(words, start, start + length));
+    }
+
+    private String pick(List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+}
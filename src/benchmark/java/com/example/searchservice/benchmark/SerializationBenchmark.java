@@ -0,0 +1,90 @@
+package com.example.searchservice.benchmark;
+
+import com.example.searchservice.model.SearchResponse;
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.util.SearchDataGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares JSON, Smile and CBOR for encoding and decoding typical search result pages.
+ *
+ * <p>Builds {@code SearchResponse<SearchableDocument>} pages from generated documents and reports the
+ * average payload size and per-page encode and decode times for each format. Decoding parses into a tree,
+ * as a generic API client would. Runs without Elasticsearch. Configured through system properties:</p>
+ * <ul>
+ *     <li>{@code benchmark.pages} - distinct pages to rotate through, defaults to 50</li>
+ *     <li>{@code benchmark.pageSize} - documents per page, defaults to 20</li>
+ *     <li>{@code benchmark.iterations} - measured encode/decode rounds per format, defaults to 20000</li>
+ * </ul>
+ *
+ * <p>Run with {@code ./gradlew serializationBenchmark -Dbenchmark.pageSize=100}.</p>
+ */
+public class SerializationBenchmark {
+
+    /**
+     * Entry point for the benchmark.
+     *
+     * @param args ignored; configuration is read from system properties
+     * @throws IOException if a page cannot be encoded or decoded
+     */
+    public static void main(String[] args) throws IOException {
+        int pageCount = Integer.getInteger("benchmark.pages", 50);
+        int pageSize = Integer.getInteger("benchmark.pageSize", 20);
+        int iterations = Integer.getInteger("benchmark.iterations", 20_000);
+
+        List<SearchResponse<SearchableDocument>> pages = new ArrayList<>(pageCount);
+        for (int i = 0; i < pageCount; i++) {
+            pages.add(new SearchResponse<>(SearchDataGenerator.generateRandomDocuments(pageSize), 12_345L, i, pageSize, null, 17L));
+        }
+
+        // Same Jackson setup the API uses for each format
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", Jackson2ObjectMapperBuilder.json().build());
+        mappers.put("smile", Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build());
+        mappers.put("cbor", Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build());
+
+        System.out.printf("%d documents per page%n", pageSize);
+        System.out.printf("%-6s %12s %14s %14s %14s %14s%n", "format", "bytes/page", "encode p50 us", "encode p99 us",
+                "decode p50 us", "decode p99 us");
+
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[][] encoded = new byte[pageCount][];
+            long totalBytes = 0;
+            for (int i = 0; i < pageCount; i++) {
+                encoded[i] = mapper.writeValueAsBytes(pages.get(i));
+                totalBytes += encoded[i].length;
+            }
+
+            LatencyStats encode = new LatencyStats(iterations);
+            LatencyStats decode = new LatencyStats(iterations);
+            for (int i = 0; i < iterations * 2; i++) {
+                int page = i % pageCount;
+
+                long start = System.nanoTime();
+                mapper.writeValueAsBytes(pages.get(page));
+                long encodedAt = System.nanoTime();
+                mapper.readTree(encoded[page]);
+                long decodedAt = System.nanoTime();
+
+                if (i >= iterations) {  // First half is warm-up
+                    encode.record(encodedAt - start);
+                    decode.record(decodedAt - encodedAt);
+                }
+            }
+
+            System.out.printf("%-6s %12d %14.1f %14.1f %14.1f %14.1f%n", entry.getKey(), totalBytes / pageCount,
+                    encode.percentileMillis(50) * 1000, encode.percentileMillis(99) * 1000,
+                    decode.percentileMillis(50) * 1000, decode.percentileMillis(99) * 1000);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.searchservice.benchmark;
+
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.util.SearchDataGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link SearchDataGenerator}, which fills the index at startup and feeds the other benchmarks.
+ *
+ * <p>Run with {@code ./gradlew jmh -Pjmh.includes=DataGeneratorBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataGeneratorBenchmark {
+
+    /**
+     * Documents per generated batch.
+     */
+    @Param({"100", "1000"})
+    public int count;
+
+    /**
+     * Creates a single document.
+     */
+    @Benchmark
+    public SearchableDocument createRandomDocument() {
+        return SearchDataGenerator.createRandomDocument();
+    }
+
+    /**
+     * Creates a batch of documents.
+     */
+    @Benchmark
+    public List<SearchableDocument> generateRandomDocuments() {
+        return SearchDataGenerator.generateRandomDocuments(count);
+    }
+}
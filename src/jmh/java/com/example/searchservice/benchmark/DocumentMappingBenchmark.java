@@ -0,0 +1,160 @@
+package com.example.searchservice.benchmark;
+
+import com.example.searchservice.converter.SearchableDocumentConverter;
+import com.example.searchservice.converter.SearchableDocumentMapper;
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.util.SearchDataGenerator;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares Spring Data's reflection-based {@link MappingElasticsearchConverter} with {@link SearchableDocumentMapper}
+ * for a page of documents, in both directions.
+ *
+ * <p>{@code converter*} benchmarks run the current converter, {@code mapperMap*} the generated mapper at the same
+ * source-map boundary (what {@link SearchableDocumentConverter} does inside Spring Data), and {@code mapperStream*}
+ * the mapper directly on JSON bytes. Reads start from the JSON of a hit's source, writes end with index request JSON.</p>
+ *
+ * <p>Run with {@code ./gradlew jmh -Pjmh.includes=DocumentMappingBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DocumentMappingBenchmark {
+
+    /**
+     * Documents per page.
+     */
+    @Param({"20", "100"})
+    public int pageSize;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final SearchableDocumentMapper mapper = new SearchableDocumentMapper();
+
+    private MappingElasticsearchConverter referenceConverter;
+    private SearchableDocumentConverter documentConverter;
+
+    private List<SearchableDocument> documents;
+    private String[] sources;
+
+    /**
+     * Generates the page and the JSON sources it is read from.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        referenceConverter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        referenceConverter.afterPropertiesSet();
+        documentConverter = new SearchableDocumentConverter(new SimpleElasticsearchMappingContext());
+        documentConverter.afterPropertiesSet();
+
+        documents = SearchDataGenerator.generateRandomDocuments(pageSize);
+        sources = new String[pageSize];
+        for (int i = 0; i < pageSize; i++) {
+            sources[i] = referenceConverter.mapObject(documents.get(i)).toJson();
+        }
+    }
+
+    /**
+     * Reads the page with the reflection-based converter.
+     */
+    @Benchmark
+    public SearchableDocument[] converterRead() {
+        SearchableDocument[] page = new SearchableDocument[pageSize];
+        for (int i = 0; i < pageSize; i++) {
+            Document source = Document.parse(sources[i]);
+            source.setId(documents.get(i).getId());
+            page[i] = referenceConverter.read(SearchableDocument.class, source);
+        }
+        return page;
+    }
+
+    /**
+     * Reads the page with the generated mapper from parsed source maps.
+     */
+    @Benchmark
+    public SearchableDocument[] mapperMapRead() {
+        SearchableDocument[] page = new SearchableDocument[pageSize];
+        for (int i = 0; i < pageSize; i++) {
+            Document source = Document.parse(sources[i]);
+            source.setId(documents.get(i).getId());
+            page[i] = documentConverter.read(SearchableDocument.class, source);
+        }
+        return page;
+    }
+
+    /**
+     * Reads the page with the generated mapper straight from the JSON tokens.
+     */
+    @Benchmark
+    public SearchableDocument[] mapperStreamRead() throws IOException {
+        SearchableDocument[] page = new SearchableDocument[pageSize];
+        for (int i = 0; i < pageSize; i++) {
+            try (JsonParser parser = jsonFactory.createParser(sources[i])) {
+                page[i] = mapper.read(parser, documents.get(i).getId());
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Writes the page with the reflection-based converter.
+     */
+    @Benchmark
+    public int converterWrite() {
+        int bytes = 0;
+        for (SearchableDocument document : documents) {
+            bytes += referenceConverter.mapObject(document).toJson().length();
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes the page with the generated mapper into source maps.
+     */
+    @Benchmark
+    public int mapperMapWrite() {
+        int bytes = 0;
+        for (SearchableDocument document : documents) {
+            bytes += documentConverter.mapObject(document).toJson().length();
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes the page with the generated mapper straight to JSON tokens.
+     */
+    @Benchmark
+    public int mapperStreamWrite() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(pageSize * 1024);
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            for (SearchableDocument document : documents) {
+                mapper.write(document, generator);
+            }
+        }
+        return out.size();
+    }
+}
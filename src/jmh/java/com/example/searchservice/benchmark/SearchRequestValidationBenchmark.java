@@ -0,0 +1,100 @@
+package com.example.searchservice.benchmark;
+
+import com.example.searchservice.model.SearchRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures bean validation of {@link SearchRequest}, which runs for every {@code @Valid} request body.
+ *
+ * <p>Run with {@code ./gradlew jmh -Pjmh.includes=SearchRequestValidationBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchRequestValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+
+    private SearchRequest simple;
+    private SearchRequest filteredAndSorted;
+    private SearchRequest invalid;
+
+    /**
+     * Creates the validator and the requests to validate.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        simple = new SearchRequest();
+        simple.setQuery("performance analysis");
+
+        filteredAndSorted = new SearchRequest();
+        filteredAndSorted.setQuery("performance analysis");
+        filteredAndSorted.setSize(50);
+        Map<String, Object> filters = new LinkedHashMap<>();
+        filters.put("category", "Technology");
+        filters.put("tags", Collections.singletonList("search"));
+        filteredAndSorted.setFilters(filters);
+        filteredAndSorted.setSort(Collections.singletonMap("createdDate", "desc"));
+
+        invalid = new SearchRequest();
+        invalid.setQuery("x");
+        invalid.setSize(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    /**
+     * Validates a request with only a query.
+     */
+    @Benchmark
+    public Set<ConstraintViolation<SearchRequest>> validSimple() {
+        return validator.validate(simple);
+    }
+
+    /**
+     * Validates a request with filters and a sort.
+     */
+    @Benchmark
+    public Set<ConstraintViolation<SearchRequest>> validFilteredAndSorted() {
+        return validator.validate(filteredAndSorted);
+    }
+
+    /**
+     * Validates a request with two violations, which also builds their messages.
+     */
+    @Benchmark
+    public Set<ConstraintViolation<SearchRequest>> invalid() {
+        return validator.validate(invalid);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.searchservice.benchmark;
+
+import com.example.searchservice.model.SearchResponse;
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.util.SearchDataGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building a {@link SearchResponse} page and serializing it to JSON, the work done after the hits
+ * have been mapped.
+ *
+ * <p>The object mapper is configured by {@link Jackson2ObjectMapperBuilder} with the features Spring Boot
+ * changes, like the one writing API responses. Run with {@code ./gradlew jmh -Pjmh.includes=SearchResponseBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchResponseBenchmark {
+
+    /**
+     * Documents per page.
+     */
+    @Param({"10", "20", "50", "100"})
+    public int pageSize;
+
+    private ObjectWriter writer;
+    private List<SearchableDocument> documents;
+    private SearchResponse<SearchableDocument> response;
+
+    /**
+     * Generates the page and a response holding it.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        writer = objectMapper.writerFor(SearchResponse.class);
+        documents = SearchDataGenerator.generateRandomDocuments(pageSize);
+        response = construct();
+    }
+
+    /**
+     * Builds the response, including the derived paging fields.
+     */
+    @Benchmark
+    public SearchResponse<SearchableDocument> construct() {
+        SearchResponse<SearchableDocument> page = new SearchResponse<>(documents, 10_000, 3, pageSize, null, 12);
+        page.setTotalHitsExact(true);
+        return page;
+    }
+
+    /**
+     * Serializes a built response to JSON bytes.
+     */
+    @Benchmark
+    public int serialize() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(pageSize * 1024);
+        writer.writeValue(out, response);
+        return out.size();
+    }
+
+    /**
+     * Builds and serializes a response, as for each API call.
+     */
+    @Benchmark
+    public int constructAndSerialize() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(pageSize * 1024);
+        writer.writeValue(out, construct());
+        return out.size();
+    }
+}
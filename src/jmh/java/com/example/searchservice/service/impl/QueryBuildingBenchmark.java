@@ -0,0 +1,113 @@
+package com.example.searchservice.service.impl;
+
+import com.example.searchservice.metrics.SearchMetrics;
+import com.example.searchservice.metrics.SlowQueryLog;
+import com.example.searchservice.model.SearchRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the query building stage of {@link SearchServiceImpl}: turning a {@link SearchRequest} into the
+ * Elasticsearch query and the JSON request sent for it.
+ *
+ * <p>The service runs against a client that is never called, so only query building is measured. It lives in
+ * the service's package to reach the package-private builders. Run with
+ * {@code ./gradlew jmh -Pjmh.includes=QueryBuildingBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryBuildingBenchmark {
+
+    /**
+     * Query shape, using the same names as the {@code shape} tag of the search metrics.
+     */
+    @Param({"text", "text_filtered", "text_filtered_sorted"})
+    public String shape;
+
+    private RestClient restClient;
+    private SearchServiceImpl searchService;
+    private SearchRequest searchRequest;
+
+    /**
+     * Creates the service and a request of the selected shape.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        restClient = RestClient.builder(new HttpHost("localhost", 9200)).build();  // Not connected until a request is sent
+        searchService = new SearchServiceImpl(restClient, null, new SearchMetrics(new SimpleMeterRegistry()),
+                new SlowQueryLog(-1, 1), RequestOptions.DEFAULT);
+        setField("indexName", "documents");
+        setField("earlyTerminationEnabled", true);
+
+        searchRequest = new SearchRequest();
+        searchRequest.setQuery("performance analysis");
+        searchRequest.setSize(20);
+        if (shape.contains("filtered")) {
+            Map<String, Object> filters = new LinkedHashMap<>();
+            filters.put("category", "Technology");
+            filters.put("tags", Arrays.asList("search", "java"));
+            filters.put("metadata.region", "eu");
+            searchRequest.setFilters(filters);
+        }
+        if (shape.contains("sorted")) {
+            searchRequest.setSort(Collections.singletonMap("createdDate", "desc"));
+        }
+    }
+
+    private void setField(String name, Object value) {
+        Field field = ReflectionUtils.findField(SearchServiceImpl.class, name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, searchService, value);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        restClient.close();
+    }
+
+    /**
+     * Builds the query alone.
+     */
+    @Benchmark
+    public QueryBuilder buildQuery() {
+        return searchService.buildQuery(searchRequest);
+    }
+
+    /**
+     * Builds the full request, including the JSON body, as done before each search.
+     */
+    @Benchmark
+    public Request buildSearchRequest() {
+        return searchService.buildSearchRequest(searchRequest, SearchResponseReader.FILTER_PATH);
+    }
+}
@@ -2,23 +2,31 @@ package com.example.searchservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 /**
  * Main application class for the Elasticsearch-based search service.
- * This class bootstraps the Spring Boot application and enables Elasticsearch repository support.
+ * This class bootstraps the Spring Boot application; Elasticsearch repository support is enabled by
+ * {@link com.example.searchservice.config.ElasticsearchConfig}.
  */
 @SpringBootApplication
-@EnableElasticsearchRepositories(basePackages = "com.example.searchservice.repository")
 public class ElasticSearchServiceApplication {
 
+	/**
+	 * Number of startup steps kept for the timing report and the {@code /actuator/startup} endpoint.
+	 */
+	static final int STARTUP_STEPS = 10_000;
+
 	/**
 	 * Entry point for the Spring Boot application.
-	 * Initializes and runs the application with the provided command-line arguments.
+	 * Initializes and runs the application with the provided command-line arguments,
+	 * recording the duration of each startup step for {@link com.example.searchservice.config.StartupConfig}.
 	 *
 	 * @param args command-line arguments passed to the application
 	 */
 	public static void main(String[] args) {
-		SpringApplication.run(ElasticSearchServiceApplication.class, args);  // Start the Spring Boot application
+		SpringApplication application = new SpringApplication(ElasticSearchServiceApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));  // Steps beyond the capacity are dropped
+		application.run(args);  // Start the Spring Boot application
 	}
 }
\ No newline at end of file
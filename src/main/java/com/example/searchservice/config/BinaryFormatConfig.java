@@ -0,0 +1,42 @@
+package com.example.searchservice.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Configuration for the binary Jackson formats offered next to JSON on the API.
+ *
+ * <p>Clients select Smile with {@code Accept: application/x-jackson-smile} or CBOR with
+ * {@code Accept: application/cbor}, and may send request bodies in the same formats. Both converters are
+ * built from the application's Jackson settings, so dates and modules behave exactly as they do for JSON.</p>
+ */
+@Configuration
+public class BinaryFormatConfig {
+
+    /**
+     * Creates the Smile message converter.
+     *
+     * @param builder Jackson builder preconfigured by Spring Boot
+     * @return converter for {@code application/x-jackson-smile}
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    /**
+     * Creates the CBOR message converter.
+     *
+     * @param builder Jackson builder preconfigured by Spring Boot
+     * @return converter for {@code application/cbor}
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
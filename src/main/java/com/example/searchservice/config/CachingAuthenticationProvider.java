@@ -0,0 +1,221 @@
+package com.example.searchservice.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Remembers successful username/password authentications for a limited time, so repeated requests with the same
+ * HTTP Basic credentials skip the deliberately slow password hash check of the wrapped provider.
+ *
+ * <p>Entries are keyed by an HMAC-SHA256 of the username and password under a random key generated at startup;
+ * neither the password nor a hash that could be attacked offline is kept. Only successful authentications are
+ * cached, each for at most the time-to-live. Entries live in a concurrent map, so requests do not contend on a
+ * lock; once the maximum size is exceeded, one request drops the expired and then the least recently used entries
+ * until a tenth of the room is free again, so the size is bounded approximately and eviction stays rare.</p>
+ *
+ * <p>On a hit the user is loaded again and the entry is only used if the stored password hash and the account
+ * flags are unchanged, so a changed password, a disabled or locked account or a removed user takes effect with
+ * the next request. Changed authorities are picked up from the reloaded user.</p>
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private static final String HMAC = "HmacSHA256";
+
+    private final AuthenticationProvider delegate;
+    private final UserDetailsService userDetailsService;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<ByteBuffer, CachedAuthentication> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> macs;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    /**
+     * @param delegate           provider performing the full check on a miss
+     * @param userDetailsService user store, read on every hit to detect changed users
+     * @param ttl                longest time an authentication is reused
+     * @param maxEntries         number of credentials remembered at most
+     * @param registry           registry for the {@code security.authentication.cache} metrics
+     */
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, UserDetailsService userDetailsService,
+                                         Duration ttl, int maxEntries, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.userDetailsService = userDetailsService;
+        this.ttlNanos = ttl.toNanos();
+        this.maxEntries = maxEntries;
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, HMAC);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+
+        this.hits = Counter.builder("security.authentication.cache").tag("result", "hit")
+                .description("Authentications answered from the credential cache").register(registry);
+        this.misses = Counter.builder("security.authentication.cache").tag("result", "miss")
+                .description("Authentications passed to the password check").register(registry);
+        Gauge.builder("security.authentication.cache.size", this, CachingAuthenticationProvider::size)
+                .description("Credentials currently cached").register(registry);
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        Object credentials = authentication.getCredentials();
+        if (!(credentials instanceof String)) {
+            return delegate.authenticate(authentication);
+        }
+
+        ByteBuffer cacheKey = cacheKey(username, (String) credentials);
+        Authentication cached = fromCache(cacheKey, username, authentication);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        Authentication result = delegate.authenticate(authentication);
+        // Read the hash now: the provider manager erases the principal's credentials once we return
+        if (result != null && result.getPrincipal() instanceof UserDetails) {
+            UserDetails user = (UserDetails) result.getPrincipal();
+            if (user.getPassword() != null) {
+                long now = System.nanoTime();
+                entries.put(cacheKey, new CachedAuthentication(user.getPassword(), now + ttlNanos, now));
+                if (entries.size() > maxEntries) {
+                    evict();
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return delegate.supports(authentication);
+    }
+
+    /**
+     * Forgets every cached authentication, e.g. after bulk changes to the user store.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return the number of cached authentications, including expired ones not yet removed
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private Authentication fromCache(ByteBuffer cacheKey, String username, Authentication request) {
+        CachedAuthentication entry = entries.get(cacheKey);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - entry.expiresAtNanos >= 0) {
+            entries.remove(cacheKey, entry);
+            return null;
+        }
+        entry.lastUsedNanos = now;
+
+        UserDetails user;
+        try {
+            user = userDetailsService.loadUserByUsername(username);
+        } catch (UsernameNotFoundException e) {
+            user = null;
+        }
+        if (user == null || !Objects.equals(user.getPassword(), entry.passwordHash) || !user.isEnabled()
+                || !user.isAccountNonLocked() || !user.isAccountNonExpired() || !user.isCredentialsNonExpired()) {
+            entries.remove(cacheKey, entry);
+            return null;  // Let the delegate decide and report the precise reason
+        }
+
+        UsernamePasswordAuthenticationToken result =
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+        result.setDetails(request.getDetails());
+        return result;
+    }
+
+    /**
+     * Drops expired entries, then the least recently used ones until a tenth of the room is free. Only one thread
+     * evicts at a time; others carry on, so the size may briefly exceed the maximum.
+     */
+    private void evict() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.nanoTime();
+            entries.values().removeIf(entry -> now - entry.expiresAtNanos >= 0);
+            int excess = entries.size() - (maxEntries - maxEntries / 10);
+            if (excess <= 0) {
+                return;
+            }
+            List<Map.Entry<ByteBuffer, CachedAuthentication>> candidates = new ArrayList<>(entries.entrySet());
+            candidates.sort(Comparator.comparingLong(candidate -> candidate.getValue().lastUsedNanos - now));
+            for (int i = 0; i < excess && i < candidates.size(); i++) {
+                entries.remove(candidates.get(i).getKey(), candidates.get(i).getValue());
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    private ByteBuffer cacheKey(String username, String password) {
+        Mac mac = macs.get();
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);  // Separator, so "ab"/"c" and "a"/"bc" differ
+        mac.update(password.getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.wrap(mac.doFinal());
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(HMAC);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+
+    private static final class CachedAuthentication {
+
+        private final String passwordHash;
+        private final long expiresAtNanos;
+        private volatile long lastUsedNanos;  // Updated on hits without locking; eviction only needs it roughly
+
+        CachedAuthentication(String passwordHash, long expiresAtNanos, long lastUsedNanos) {
+            this.passwordHash = passwordHash;
+            this.expiresAtNanos = expiresAtNanos;
+            this.lastUsedNanos = lastUsedNanos;
+        }
+    }
+}
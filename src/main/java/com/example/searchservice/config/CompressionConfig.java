@@ -0,0 +1,48 @@
+package com.example.searchservice.config;
+
+import com.example.searchservice.filter.ResponseCompressionFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.MediaType;
+
+/**
+ * Configuration for compressing API responses.
+ *
+ * <p>Registers {@link ResponseCompressionFilter} when {@code api.compression.enabled=true}. Compression of the
+ * traffic to Elasticsearch is configured separately in {@link ElasticsearchConfig}.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "api.compression.enabled", havingValue = "true")
+public class CompressionConfig {
+
+    /**
+     * Smallest response body in bytes that is compressed. Smaller bodies rarely shrink enough to pay for the CPU time.
+     */
+    @Value("${api.compression.min-response-size:2048}")
+    private int minResponseSize;
+
+    /**
+     * Content types eligible for compression.
+     */
+    @Value("${api.compression.mime-types:application/json,application/x-ndjson,text/plain}")
+    private String mimeTypes;
+
+    /**
+     * Registers the compression filter ahead of the security filter chain so every response passes through it.
+     *
+     * @param meterRegistry registry for the compression metrics
+     * @return registration for the compression filter
+     */
+    @Bean
+    public FilterRegistrationBean<ResponseCompressionFilter> responseCompressionFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<ResponseCompressionFilter> registration = new FilterRegistrationBean<>(
+                new ResponseCompressionFilter(minResponseSize, MediaType.parseMediaTypes(mimeTypes), meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.searchservice.config;
+
+import com.example.searchservice.filter.ClusterReadinessFilter;
+import com.example.searchservice.health.ElasticsearchHealthProbe;
+import com.example.searchservice.health.ElasticsearchReadinessIndicator;
+import com.example.searchservice.service.IndexManagementService;
+import com.example.searchservice.util.SearchDataInitializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.ClassUtils;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for deferred startup, enabled with {@code elasticsearch.startup.deferred=true}.
+ *
+ * <p>Keeps Elasticsearch I/O out of the boot path: the index is not checked while the context starts, and once
+ * the application is ready a background task starts the health probe, verifies or creates the index, retrying
+ * until the cluster answers, and then loads the sample data. Until the readiness indicator first reports UP,
+ * searches are answered with 503 by {@link ClusterReadinessFilter}. Combined with
+ * {@code spring.main.lazy-initialization}, as in the {@code fast-startup} profile, the Elasticsearch client is
+ * also only created by that task or the first request needing it.</p>
+ */
+@Configuration
+@Profile("!embedded")
+@ConditionalOnProperty(name = "elasticsearch.startup.deferred", havingValue = "true")
+public class DeferredStartupConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeferredStartupConfig.class);
+
+    private static final long MAX_RETRY_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    /**
+     * Value of the {@code Retry-After} header sent while Elasticsearch is not ready, in seconds.
+     */
+    @Value("${elasticsearch.startup.retry-after:5}")
+    private int retryAfter;
+
+    /**
+     * Delay in milliseconds before the index check is first retried; doubled after each failure up to 30 s.
+     */
+    @Value("${elasticsearch.startup.retry-delay:1000}")
+    private long retryDelay;
+
+    private final ObjectProvider<ElasticsearchHealthProbe> healthProbe;
+    private final ObjectProvider<IndexManagementService> indexManagementService;
+    private final ObjectProvider<SearchDataInitializer> searchDataInitializer;
+
+    private volatile Thread startupTask;
+
+    /**
+     * @param healthProbe            the background probe, created by the startup task
+     * @param indexManagementService service verifying and creating the index
+     * @param searchDataInitializer  sample data loader, present in the dev and test profiles
+     */
+    public DeferredStartupConfig(ObjectProvider<ElasticsearchHealthProbe> healthProbe,
+                                 ObjectProvider<IndexManagementService> indexManagementService,
+                                 ObjectProvider<SearchDataInitializer> searchDataInitializer) {
+        this.healthProbe = healthProbe;
+        this.indexManagementService = indexManagementService;
+        this.searchDataInitializer = searchDataInitializer;
+    }
+
+    /**
+     * Marks the Spring Data repositories lazy. Their definitions are registered as explicitly eager, which
+     * {@code spring.main.lazy-initialization} leaves alone, and creating a repository creates the Elasticsearch
+     * client with it.
+     *
+     * @return post-processor applied before any bean is created
+     */
+    @Bean
+    public static BeanFactoryPostProcessor lazyRepositoryInitialization() {
+        return beanFactory -> {
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String className = definition.getBeanClassName();
+                if (className != null && ClassUtils.isPresent(className, beanFactory.getBeanClassLoader())
+                        && RepositoryFactoryBeanSupport.class.isAssignableFrom(
+                        ClassUtils.resolveClassName(className, beanFactory.getBeanClassLoader()))) {
+                    definition.setLazyInit(true);
+                }
+            }
+        };
+    }
+
+    /**
+     * Registers the filter answering searches, the change feed and saved searches with 503 until Elasticsearch is
+     * ready. It runs after the security filter chain, so unauthenticated requests are still rejected with 401.
+     *
+     * @param readinessIndicator the Elasticsearch readiness indicator, resolved on the first search
+     * @param objectMapper       mapper for the error body
+     * @return registration for the readiness filter
+     */
+    @Bean
+    public FilterRegistrationBean<ClusterReadinessFilter> clusterReadinessFilter(
+            ObjectProvider<ElasticsearchReadinessIndicator> readinessIndicator, ObjectMapper objectMapper) {
+        FilterRegistrationBean<ClusterReadinessFilter> registration = new FilterRegistrationBean<>(
+                new ClusterReadinessFilter(() -> readinessIndicator.getObject().health(), objectMapper, retryAfter));
+        registration.addUrlPatterns("/api/search/*", "/api/changes", "/api/saved-searches/*");
+        return registration;
+    }
+
+    /**
+     * Starts the background startup task once the server is accepting requests.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startClusterInitialization() {
+        Thread thread = new Thread(this::initializeCluster, "cluster-startup");
+        thread.setDaemon(true);
+        startupTask = thread;
+        thread.start();
+    }
+
+    /**
+     * Stops the startup task if it is still waiting for the cluster.
+     */
+    @PreDestroy
+    public void stop() {
+        Thread thread = startupTask;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void initializeCluster() {
+        long startNanos = System.nanoTime();
+        healthProbe.getObject();  // Creates the client and starts probing
+
+        long delay = retryDelay;
+        while (true) {
+            try {
+                indexManagementService.getObject().createIndexIfMissing();
+                break;
+            } catch (Exception e) {
+                logger.warn("Elasticsearch index check failed, retrying in {} ms: {}", delay, e.getMessage());
+            }
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            delay = Math.min(delay * 2, MAX_RETRY_DELAY_MILLIS);
+        }
+        logger.info("Elasticsearch index verified {} ms after startup",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+
+        searchDataInitializer.ifAvailable(SearchDataInitializer::loadSampleData);
+    }
+}
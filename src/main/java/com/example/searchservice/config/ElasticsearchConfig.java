@@ -1,32 +1,71 @@
 package com.example.searchservice.config;
 
+import com.example.searchservice.converter.SearchableDocumentConverter;
+import com.example.searchservice.stub.ElasticsearchStubServer;
+import org.apache.http.Header;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.message.BasicHeader;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.sniff.ElasticsearchNodesSniffer;
+import org.elasticsearch.client.sniff.SniffOnFailureListener;
+import org.elasticsearch.client.sniff.Sniffer;
+import org.elasticsearch.xcontent.XContentType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.data.elasticsearch.client.ClientConfiguration;
-import org.springframework.data.elasticsearch.client.RestClients;
+import org.springframework.context.annotation.Profile;
 import org.springframework.data.elasticsearch.config.AbstractElasticsearchConfiguration;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchCustomConversions;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
 
-import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * Configuration class for setting up Elasticsearch client and operations in a Spring Boot application.
  * <p>
  * This class defines beans for {@link RestHighLevelClient} and {@link ElasticsearchOperations},
- * allowing interaction with an Elasticsearch cluster. Connection details and timeouts are loaded
- * from the application's properties.
+ * allowing interaction with an Elasticsearch cluster. Connection details, pool sizes and timeouts are loaded
+ * from the application's properties. Requests are spread over all configured nodes, preferring the ones
+ * that currently respond fastest, and the node list can optionally be kept up to date by sniffing.
+ * Under the {@code embedded} profile no cluster is used, so neither the client nor the repositories are created.
  */
 @Configuration
+@Profile("!embedded")
+@EnableElasticsearchRepositories(basePackages = "com.example.searchservice.repository")
 public class ElasticsearchConfig extends AbstractElasticsearchConfiguration {
 
     /**
-     * Host URL for the Elasticsearch cluster. Injected from application properties using the key {@code elasticsearch.host}.
+     * Value of {@code elasticsearch.response-format} that requests Smile-encoded responses.
+     */
+    static final String SMILE_FORMAT = "smile";
+
+    /**
+     * Options asking Elasticsearch for Smile-encoded responses.
+     */
+    static final RequestOptions SMILE_OPTIONS = RequestOptions.DEFAULT.toBuilder()
+            .addHeader(HttpHeaders.ACCEPT, XContentType.SMILE.mediaType())
+            .build();
+
+    /**
+     * Addresses of the Elasticsearch nodes, e.g. {@code localhost:9200} or {@code https://es-1:9200,https://es-2:9200}.
+     * Injected from application properties using the key {@code elasticsearch.host} as a comma-separated list.
      */
     @Value("${elasticsearch.host}")
-    private String host;
+    private String[] hosts;
 
     /**
      * Connection timeout in milliseconds. Defaults to 5000 ms if not specified.
@@ -42,6 +81,112 @@ public class ElasticsearchConfig extends AbstractElasticsearchConfiguration {
     @Value("${elasticsearch.socket.timeout:10000}")
     private int socketTimeout;
 
+    /**
+     * Maximum number of open connections across all nodes.
+     */
+    @Value("${spring.elasticsearch.rest.connection.pool.max-connections:30}")
+    private int maxConnections;
+
+    /**
+     * Maximum number of open connections to a single node.
+     */
+    @Value("${spring.elasticsearch.rest.connection.pool.max-connections-per-route:10}")
+    private int maxConnectionsPerRoute;
+
+    /**
+     * Longest time in milliseconds a connection is kept open for reuse.
+     */
+    @Value("${elasticsearch.connection.keep-alive:60000}")
+    private long keepAlive;
+
+    /**
+     * Time in milliseconds after which an unused pooled connection is closed.
+     */
+    @Value("${elasticsearch.connection.idle-timeout:30000}")
+    private long idleTimeout;
+
+    /**
+     * Whether request bodies sent to Elasticsearch are gzip-compressed. Also requests compressed responses.
+     */
+    @Value("${elasticsearch.compression.requests:false}")
+    private boolean compressRequests;
+
+    /**
+     * Whether Elasticsearch is asked to gzip its responses, which the client decompresses transparently.
+     */
+    @Value("${elasticsearch.compression.responses:false}")
+    private boolean compressResponses;
+
+    /**
+     * Encoding Elasticsearch uses for search results: {@code json} or {@code smile}. Search results are parsed
+     * according to their content type, so Smile saves JSON text parsing on large ones; all other responses
+     * stay JSON.
+     */
+    @Value("${elasticsearch.response-format:json}")
+    private String responseFormat;
+
+    /**
+     * Whether the node list is periodically refreshed from the cluster.
+     */
+    @Value("${elasticsearch.sniffer.enabled:false}")
+    private boolean snifferEnabled;
+
+    /**
+     * Interval in milliseconds between node list refreshes when sniffing is enabled.
+     */
+    @Value("${elasticsearch.sniffer.interval:300000}")
+    private int sniffInterval;
+
+    /**
+     * Weight of the newest response time in each node's moving average.
+     */
+    @Value("${elasticsearch.node-selector.ewma-alpha:0.3}")
+    private double ewmaAlpha;
+
+    /**
+     * How many times slower than the fastest node a node may respond before requests avoid it.
+     */
+    @Value("${elasticsearch.node-selector.slow-node-factor:2.0}")
+    private double slowNodeFactor;
+
+    /**
+     * Time in milliseconds after which a node's response time average is discarded and the node is tried again.
+     */
+    @Value("${elasticsearch.node-selector.stale-after:10000}")
+    private long latencyStaleAfter;
+
+    /**
+     * Triggers an immediate sniff when a node fails; connected to the sniffer once it is created.
+     */
+    private final SniffOnFailureListener sniffOnFailureListener = new SniffOnFailureListener();
+
+    /**
+     * Stand-in for the cluster under the {@code bench} profile, see {@link ElasticsearchStubConfig}.
+     */
+    @Autowired
+    private ObjectProvider<ElasticsearchStubServer> stubServer;
+
+    /**
+     * Creates the HTTP connection pool used by the Elasticsearch client.
+     * Pool usage is published as {@code elasticsearch.client.pool.*} metrics.
+     *
+     * @return the connection pool
+     */
+    @Bean
+    public ElasticsearchConnectionPool elasticsearchConnectionPool() {
+        return new ElasticsearchConnectionPool(maxConnections, maxConnectionsPerRoute, idleTimeout);
+    }
+
+    /**
+     * Creates the node selector that steers requests towards the nodes with the lowest response times.
+     *
+     * @return the node selector
+     */
+    @Bean
+    public LatencyAwareNodeSelector latencyAwareNodeSelector() {
+        return new LatencyAwareNodeSelector(ewmaAlpha, slowNodeFactor, latencyStaleAfter);
+    }
+
     /**
      * Creates and configures a {@link RestHighLevelClient} for connecting to the Elasticsearch cluster.
      *
@@ -52,15 +197,105 @@ public class ElasticsearchConfig extends AbstractElasticsearchConfiguration {
     @Override
     @Bean
     public RestHighLevelClient elasticsearchClient() {
-        // Build client configuration with host and timeout settings
-        ClientConfiguration clientConfiguration = ClientConfiguration.builder()
-                .connectedTo(host)  // Elasticsearch host, e.g., "localhost:9200"
-                .withConnectTimeout(Duration.ofMillis(connectionTimeout)) // Time allowed to establish the connection
-                .withSocketTimeout(Duration.ofMillis(socketTimeout)) // Time allowed to wait for data on socket
+        stubServer.getIfAvailable(); // Under the bench profile, start the stub before the client points at it
+        ElasticsearchConnectionPool pool = elasticsearchConnectionPool();
+        LatencyAwareNodeSelector nodeSelector = latencyAwareNodeSelector();
+
+        RestClientBuilder builder = RestClient.builder(parseHosts())
+                .setNodeSelector(nodeSelector)
+                .setRequestConfigCallback(requestConfig -> requestConfig
+                        .setConnectTimeout(connectionTimeout) // Time allowed to establish the connection
+                        .setSocketTimeout(socketTimeout)) // Time allowed to wait for data on socket
+                .setHttpClientConfigCallback(httpClient -> httpClient
+                        .setConnectionManager(pool.getConnectionManager()) // Pool limits are set on the manager
+                        .setKeepAliveStrategy((response, context) -> {
+                            // Honor a shorter keep-alive announced by the server, otherwise use the configured one
+                            long announced = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+                            return announced > 0 ? Math.min(announced, keepAlive) : keepAlive;
+                        })
+                        .addInterceptorFirst(nodeSelector.requestInterceptor())
+                        .addInterceptorLast(nodeSelector.responseInterceptor()));
+
+        List<Header> defaultHeaders = new ArrayList<>();
+        if (compressRequests) {
+            builder.setCompressionEnabled(true); // Gzip bodies such as bulk requests and send Accept-Encoding
+        } else if (compressResponses) {
+            defaultHeaders.add(new BasicHeader(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+        }
+        builder.setDefaultHeaders(defaultHeaders.toArray(new Header[0]));
+
+        if (snifferEnabled) {
+            builder.setFailureListener(sniffOnFailureListener);
+        }
+
+        // Create and return a RestHighLevelClient from the configured low-level client
+        return new RestHighLevelClient(builder);
+    }
+
+    /**
+     * Creates the options for searches whose responses are read according to their content type, asking for
+     * Smile when {@code elasticsearch.response-format=smile}. Every other request, including the sniffer's, is
+     * left to the client's defaults and answered with JSON.
+     *
+     * @return options to send the typed, async and change feed searches with
+     */
+    @Bean
+    public RequestOptions searchResponseOptions() {
+        return SMILE_FORMAT.equalsIgnoreCase(responseFormat) ? SMILE_OPTIONS : RequestOptions.DEFAULT;
+    }
+
+    /**
+     * Exposes the low-level client underlying {@link #elasticsearchClient()}, for requests whose
+     * response bodies are read as token streams.
+     *
+     * @return the low-level client, closed together with the high-level client
+     */
+    @Bean(destroyMethod = "")
+    public RestClient elasticsearchRestClient() {
+        return elasticsearchClient().getLowLevelClient();
+    }
+
+    /**
+     * Creates a sniffer that periodically replaces the client's node list with the cluster's current
+     * HTTP-enabled nodes, and re-sniffs shortly after a node fails.
+     * Only created when {@code elasticsearch.sniffer.enabled=true}.
+     *
+     * @param client client whose node list is kept up to date
+     * @return the sniffer, closed on shutdown
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "elasticsearch.sniffer.enabled", havingValue = "true")
+    public Sniffer elasticsearchSniffer(RestHighLevelClient client) {
+        ElasticsearchNodesSniffer.Scheme scheme = "https".equals(parseHosts()[0].getSchemeName())
+                ? ElasticsearchNodesSniffer.Scheme.HTTPS
+                : ElasticsearchNodesSniffer.Scheme.HTTP;
+
+        Sniffer sniffer = Sniffer.builder(client.getLowLevelClient())
+                .setSniffIntervalMillis(sniffInterval)
+                .setNodesSniffer(new ElasticsearchNodesSniffer(client.getLowLevelClient(),
+                        ElasticsearchNodesSniffer.DEFAULT_SNIFF_REQUEST_TIMEOUT, scheme))
                 .build();
+        sniffOnFailureListener.setSniffer(sniffer);
+        return sniffer;
+    }
 
-        // Create and return a RestHighLevelClient from the configuration
-        return RestClients.create(clientConfiguration).rest();
+    /**
+     * Creates the converter between entities and Elasticsearch documents.
+     *
+     * <p>{@link com.example.searchservice.model.SearchableDocument} is mapped without reflection,
+     * all other types use the regular mapping-based conversion.</p>
+     *
+     * @param mappingContext     the entity mapping context
+     * @param customConversions  custom type conversions
+     * @return the converter used by {@link ElasticsearchOperations}
+     */
+    @Override
+    @Bean(name = {"elasticsearchEntityMapper", "elasticsearchConverter", "mappingElasticsearchConverter"})
+    public ElasticsearchConverter elasticsearchEntityMapper(SimpleElasticsearchMappingContext mappingContext,
+                                                            ElasticsearchCustomConversions customConversions) {
+        SearchableDocumentConverter converter = new SearchableDocumentConverter(mappingContext);
+        converter.setConversions(customConversions);
+        return converter;
     }
 
     /**
@@ -72,7 +307,23 @@ public class ElasticsearchConfig extends AbstractElasticsearchConfiguration {
      */
     @Bean
     public ElasticsearchOperations elasticsearchOperations() {
+        ElasticsearchCustomConversions conversions = elasticsearchCustomConversions();
+        ElasticsearchConverter converter = elasticsearchEntityMapper(elasticsearchMappingContext(conversions), conversions);
+
         // Use RestHighLevelClient to create a higher-level template API
-        return new ElasticsearchRestTemplate(elasticsearchClient());
+        return new ElasticsearchRestTemplate(elasticsearchClient(), converter);
+    }
+
+    /**
+     * Parses the configured host list, accepting entries with or without a scheme.
+     *
+     * @return one {@link HttpHost} per configured node
+     */
+    HttpHost[] parseHosts() {
+        return Arrays.stream(hosts)
+                .map(String::trim)
+                .filter(host -> !host.isEmpty())
+                .map(HttpHost::create)
+                .toArray(HttpHost[]::new);
     }
 }
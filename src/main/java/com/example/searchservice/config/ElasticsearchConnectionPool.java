@@ -0,0 +1,116 @@
+package com.example.searchservice.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
+import org.apache.http.pool.PoolStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * HTTP connection pool shared by all Elasticsearch requests.
+ *
+ * <p>Owns the pooling connection manager so that pool limits are applied directly and pool usage can be
+ * published as metrics. Connections idle for longer than the idle timeout are closed by a background task,
+ * so the pool does not hand out connections that a load balancer or the node has already dropped.</p>
+ */
+public class ElasticsearchConnectionPool implements MeterBinder, Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElasticsearchConnectionPool.class);
+
+    private final PoolingNHttpClientConnectionManager connectionManager;
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * Creates the pool and starts idle connection eviction.
+     *
+     * @param maxConnections        maximum open connections across all nodes
+     * @param maxConnectionsPerNode maximum open connections to a single node
+     * @param idleTimeoutMillis     time after which an unused connection is closed
+     */
+    public ElasticsearchConnectionPool(int maxConnections, int maxConnectionsPerNode, long idleTimeoutMillis) {
+        try {
+            connectionManager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(IOReactorConfig.DEFAULT));
+        } catch (IOReactorException e) {
+            throw new IllegalStateException("Failed to start the Elasticsearch I/O reactor", e);
+        }
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerNode);  // Each node is its own route
+
+        evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "elasticsearch-connection-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(idleTimeoutMillis / 2, 1000);
+        evictor.scheduleWithFixedDelay(() -> evictIdleConnections(idleTimeoutMillis), period, period, TimeUnit.MILLISECONDS);
+
+        logger.info("Elasticsearch connection pool: {} connections total, {} per node, idle timeout {} ms",
+                maxConnections, maxConnectionsPerNode, idleTimeoutMillis);
+    }
+
+    /**
+     * Returns the connection manager to install on the HTTP client.
+     *
+     * @return pooling connection manager
+     */
+    public PoolingNHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    /**
+     * Returns current pool usage across all nodes.
+     *
+     * @return leased, pending, available and maximum connection counts
+     */
+    public PoolStats getStats() {
+        return connectionManager.getTotalStats();
+    }
+
+    /**
+     * Closes connections whose keep-alive has expired or that have been unused for the idle timeout.
+     *
+     * @param idleTimeoutMillis idle time after which a connection is closed
+     */
+    void evictIdleConnections(long idleTimeoutMillis) {
+        connectionManager.closeExpiredConnections();
+        connectionManager.closeIdleConnections(idleTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Publishes pool usage as {@code elasticsearch.client.pool.*} gauges.
+     *
+     * @param registry registry to add the gauges to
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        gauge(registry, "leased", "Connections currently serving a request", PoolStats::getLeased);
+        gauge(registry, "pending", "Requests waiting for a connection", PoolStats::getPending);
+        gauge(registry, "available", "Idle connections ready for reuse", PoolStats::getAvailable);
+        gauge(registry, "max", "Maximum open connections", PoolStats::getMax);
+    }
+
+    /**
+     * Stops idle connection eviction. The connection manager itself is shut down with the client that uses it.
+     */
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+    }
+
+    private void gauge(MeterRegistry registry, String name, String description, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("elasticsearch.client.pool." + name, this, pool -> value.applyAsDouble(pool.getStats()))
+                .description(description)
+                .register(registry);
+    }
+}
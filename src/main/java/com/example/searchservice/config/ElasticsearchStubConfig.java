@@ -0,0 +1,87 @@
+package com.example.searchservice.config;
+
+import com.example.searchservice.stub.ElasticsearchStubServer;
+import com.example.searchservice.stub.LatencyDistribution;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+
+/**
+ * Runs an {@link ElasticsearchStubServer} in place of a cluster under the {@code bench} profile.
+ *
+ * <p>{@code application-bench.properties} points {@code elasticsearch.host} at the stub's port, and
+ * {@link ElasticsearchConfig} starts the stub before it builds the client, so the service runs unchanged
+ * against a node with configurable latency and faults. This isolates the service's own overhead and its
+ * handling of slow and failing responses from the behavior of a real cluster.</p>
+ */
+@Configuration
+@Profile("bench")
+public class ElasticsearchStubConfig {
+
+    @Value("${elasticsearch.index.name}")
+    private String indexName;
+
+    @Value("${elasticsearch.stub.port:9299}")
+    private int port;
+
+    /**
+     * Latency distribution of data requests, see {@link LatencyDistribution#parse(String)}.
+     */
+    @Value("${elasticsearch.stub.latency:none}")
+    private String latency;
+
+    @Value("${elasticsearch.stub.error-rate:0}")
+    private double errorRate;
+
+    @Value("${elasticsearch.stub.rejection-rate:0}")
+    private double rejectionRate;
+
+    @Value("${elasticsearch.stub.item-rejection-rate:0}")
+    private double itemRejectionRate;
+
+    @Value("${elasticsearch.stub.documents:200}")
+    private int documents;
+
+    @Value("${elasticsearch.stub.total-hits:10000}")
+    private long totalHits;
+
+    @Value("${elasticsearch.stub.seed:42}")
+    private long seed;
+
+    /**
+     * Directory of recorded responses; empty to generate all responses.
+     */
+    @Value("${elasticsearch.stub.recordings:}")
+    private String recordings;
+
+    /**
+     * Creates and starts the stub.
+     *
+     * @return the running stub, stopped when the context closes
+     * @throws IOException if the port cannot be bound or a recording cannot be read
+     */
+    @Bean(destroyMethod = "close")
+    public ElasticsearchStubServer elasticsearchStubServer() throws IOException {
+        ElasticsearchStubServer.Settings settings = new ElasticsearchStubServer.Settings();
+        settings.setPort(port);
+        settings.setLatency(LatencyDistribution.parse(latency));
+        settings.setErrorRate(errorRate);
+        settings.setRejectionRate(rejectionRate);
+        settings.setItemRejectionRate(itemRejectionRate);
+        settings.setDocuments(documents);
+        settings.setTotalHits(totalHits);
+        settings.setSeed(seed);
+        settings.setIndices(new LinkedHashSet<>(Collections.singletonList(indexName)));
+        settings.setRecordings(recordings.isEmpty() ? null : Paths.get(recordings));
+
+        ElasticsearchStubServer server = new ElasticsearchStubServer(settings);
+        server.start();
+        return server;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.searchservice.config;
+
+import com.example.searchservice.health.ElasticsearchHealthProbe;
+import com.example.searchservice.health.ElasticsearchLivenessIndicator;
+import com.example.searchservice.health.ElasticsearchReadinessIndicator;
+import org.elasticsearch.client.RestClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configuration for Elasticsearch health checks.
+ *
+ * <p>A single background probe checks Elasticsearch on a fixed schedule. The health indicators and
+ * {@code /api/health} only read its last result, so they answer without I/O. The indicators are included
+ * in the actuator's liveness and readiness groups, see application.properties. Not used by the embedded
+ * profile, which searches without Elasticsearch.</p>
+ */
+@Configuration
+@Profile("!embedded")
+public class HealthConfig {
+
+    @Value("${elasticsearch.index.name}")
+    private String indexName;
+
+    /**
+     * Delay between probes in milliseconds.
+     */
+    @Value("${elasticsearch.health.probe-interval:10000}")
+    private long probeInterval;
+
+    /**
+     * Timeout of each probe request in milliseconds.
+     */
+    @Value("${elasticsearch.health.probe-timeout:2000}")
+    private long probeTimeout;
+
+    /**
+     * Age in milliseconds after which a probe result is no longer trusted.
+     */
+    @Value("${elasticsearch.health.stale-after:30000}")
+    private long staleAfter;
+
+    /**
+     * Creates and starts the background probe.
+     *
+     * @param restClient low-level client used for the probe requests
+     * @return the running probe, stopped when the context closes
+     */
+    @Bean(destroyMethod = "close")
+    public ElasticsearchHealthProbe elasticsearchHealthProbe(RestClient restClient) {
+        ElasticsearchHealthProbe probe = new ElasticsearchHealthProbe(restClient, indexName, probeTimeout);
+        probe.start(probeInterval);
+        return probe;
+    }
+
+    /**
+     * Liveness indicator, registered as {@code elasticsearchLiveness}.
+     *
+     * @param probe the background probe
+     * @return the indicator
+     */
+    @Bean
+    public ElasticsearchLivenessIndicator elasticsearchLivenessHealthIndicator(ElasticsearchHealthProbe probe) {
+        return new ElasticsearchLivenessIndicator(probe, staleAfter);
+    }
+
+    /**
+     * Readiness indicator, registered as {@code elasticsearchReadiness}.
+     *
+     * @param probe the background probe
+     * @return the indicator
+     */
+    @Bean
+    public ElasticsearchReadinessIndicator elasticsearchReadinessHealthIndicator(ElasticsearchHealthProbe probe) {
+        return new ElasticsearchReadinessIndicator(probe, staleAfter);
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.searchservice.config;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequestInterceptor;
+import org.apache.http.HttpResponseInterceptor;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.elasticsearch.client.Node;
+import org.elasticsearch.client.NodeSelector;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Node selector that routes requests away from nodes responding noticeably slower than the fastest one.
+ *
+ * <p>Response times are tracked per node as an exponentially weighted moving average (EWMA), fed by the
+ * HTTP interceptors from {@link #requestInterceptor()} and {@link #responseInterceptor()}. On each request,
+ * nodes whose average exceeds the fastest node's average by more than the slow-node factor are skipped;
+ * the rest keep the client's round-robin. Nodes without a recent sample are always eligible but do not take
+ * part in the comparison, so a node that was skipped while slow is probed again once its average goes stale,
+ * alongside the measured nodes rather than instead of them.</p>
+ */
+public class LatencyAwareNodeSelector implements NodeSelector {
+
+    /**
+     * HTTP context attribute holding the request start time in nanoseconds.
+     */
+    private static final String START_ATTRIBUTE = LatencyAwareNodeSelector.class.getName() + ".start";
+
+    private final double alpha;
+    private final double slowNodeFactor;
+    private final long staleAfterNanos;
+    private final LongSupplier nanoClock;
+
+    private final Map<HttpHost, NodeLatency> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a selector using the system clock.
+     *
+     * @param alpha           weight of the newest sample in the average, between 0 and 1
+     * @param slowNodeFactor  how many times slower than the fastest node a node may be before it is skipped
+     * @param staleAfterMillis age after which a node's average is ignored and the node is probed again
+     */
+    public LatencyAwareNodeSelector(double alpha, double slowNodeFactor, long staleAfterMillis) {
+        this(alpha, slowNodeFactor, staleAfterMillis, System::nanoTime);
+    }
+
+    LatencyAwareNodeSelector(double alpha, double slowNodeFactor, long staleAfterMillis, LongSupplier nanoClock) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("EWMA alpha must be in (0, 1] but was " + alpha);
+        }
+        if (slowNodeFactor < 1) {
+            throw new IllegalArgumentException("Slow node factor must be at least 1 but was " + slowNodeFactor);
+        }
+        this.alpha = alpha;
+        this.slowNodeFactor = slowNodeFactor;
+        this.staleAfterNanos = staleAfterMillis * 1_000_000L;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Removes nodes that are much slower than the fastest measured candidate. Only nodes with a recent sample
+     * are compared; nodes without one are kept without lowering the limit for the others, so a new or re-probed
+     * node shares the traffic rather than taking all of it until its first response.
+     *
+     * @param nodes live nodes the client may send the request to
+     */
+    @Override
+    public void select(Iterable<Node> nodes) {
+        long now = nanoClock.getAsLong();
+
+        double fastest = Double.MAX_VALUE;
+        for (Node node : nodes) {
+            double average = currentAverage(node.getHost(), now);
+            if (average >= 0) {
+                fastest = Math.min(fastest, average);
+            }
+        }
+        if (fastest == Double.MAX_VALUE) {
+            return;  // Nothing measured yet
+        }
+
+        double limit = fastest * slowNodeFactor;
+        for (Iterator<Node> iterator = nodes.iterator(); iterator.hasNext(); ) {
+            if (currentAverage(iterator.next().getHost(), now) > limit) {
+                iterator.remove();  // The fastest node itself never exceeds the limit, so one always remains
+            }
+        }
+    }
+
+    /**
+     * Adds a response time sample for a node.
+     *
+     * @param host          node that served the request
+     * @param durationNanos time from sending the request to receiving the response
+     */
+    public void recordLatency(HttpHost host, long durationNanos) {
+        long now = nanoClock.getAsLong();
+        latencies.compute(host, (key, previous) -> {
+            if (previous == null || now - previous.updatedAt > staleAfterNanos) {
+                return new NodeLatency(durationNanos, now);  // Start over rather than blend with an outdated average
+            }
+            return new NodeLatency(alpha * durationNanos + (1 - alpha) * previous.averageNanos, now);
+        });
+    }
+
+    /**
+     * Returns the current average response time of a node.
+     *
+     * @param host node address
+     * @return average in milliseconds, or 0 if the node has no recent samples
+     */
+    public double getAverageMillis(HttpHost host) {
+        return Math.max(0, currentAverage(host, nanoClock.getAsLong())) / 1_000_000.0;
+    }
+
+    /**
+     * Interceptor marking the start of each request. Register it on the HTTP client together with
+     * {@link #responseInterceptor()}.
+     *
+     * @return request interceptor
+     */
+    public HttpRequestInterceptor requestInterceptor() {
+        return (request, context) -> context.setAttribute(START_ATTRIBUTE, nanoClock.getAsLong());
+    }
+
+    /**
+     * Interceptor recording the response time of each request against the node that served it.
+     *
+     * @return response interceptor
+     */
+    public HttpResponseInterceptor responseInterceptor() {
+        return (response, context) -> {
+            Object start = context.getAttribute(START_ATTRIBUTE);
+            HttpHost host = HttpClientContext.adapt(context).getTargetHost();
+            if (start instanceof Long && host != null) {
+                recordLatency(host, nanoClock.getAsLong() - (Long) start);
+            }
+        };
+    }
+
+    private double currentAverage(HttpHost host, long now) {
+        NodeLatency latency = latencies.get(host);
+        if (latency == null || now - latency.updatedAt > staleAfterNanos) {
+            return -1;  // Unknown or stale: kept, so they get sampled, but not compared
+        }
+        return latency.averageNanos;
+    }
+
+    /**
+     * Immutable snapshot of a node's average, replaced on every sample.
+     */
+    private static final class NodeLatency {
+        private final double averageNanos;
+        private final long updatedAt;
+
+        private NodeLatency(double averageNanos, long updatedAt) {
+            this.averageNanos = averageNanos;
+            this.updatedAt = updatedAt;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.searchservice.config;
+
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.Settings;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Selectable index mapping profiles trading storage size against query latency.
+ *
+ * <p>Each profile adjusts the settings loaded from {@code elasticsearch-settings.json} and the mapping
+ * derived from {@code SearchableDocument} before the index is created. Profiles only take effect when an
+ * index is created; existing indices must be reindexed to switch profile.</p>
+ */
+public enum MappingProfile {
+
+    /**
+     * Settings and mapping exactly as declared on the entity and in the settings file.
+     */
+    DEFAULT,
+
+    /**
+     * Favors query latency: text fields use {@code custom_analyzer} so stop words never reach the postings,
+     * and keyword facet fields build global ordinals at refresh instead of on the first aggregation.
+     */
+    LATENCY,
+
+    /**
+     * Favors disk footprint: {@code best_compression} codec, and {@code content} drops norms and positions.
+     * Phrase queries on {@code content} are not supported under this profile.
+     */
+    STORAGE;
+
+    private static final String CUSTOM_ANALYZER = "custom_analyzer";
+    private static final String[] TEXT_FIELDS = {"title", "content"};
+    private static final String[] FACET_FIELDS = {"author", "category", "tags"};
+
+    /**
+     * Resolves a profile from its case-insensitive name.
+     *
+     * @param name profile name, e.g. "latency"
+     * @return the matching profile
+     * @throws IllegalArgumentException if no profile has that name
+     */
+    public static MappingProfile fromName(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Applies this profile to index settings and mapping in place.
+     *
+     * @param settings flattened index settings, e.g. keys like {@code index.codec}
+     * @param mapping  mapping document with a top-level {@code properties} object
+     */
+    @SuppressWarnings("unchecked")
+    public void apply(Settings settings, Document mapping) {
+        Map<String, Object> properties = mapping.get("properties", Map.class);
+
+        switch (this) {
+            case LATENCY:
+                for (String field : TEXT_FIELDS) {
+                    field(properties, field).put("analyzer", CUSTOM_ANALYZER);
+                }
+                for (String field : FACET_FIELDS) {
+                    field(properties, field).put("eager_global_ordinals", true);
+                }
+                break;
+            case STORAGE:
+                settings.put("index.codec", "best_compression");
+                Map<String, Object> content = field(properties, "content");
+                content.put("analyzer", CUSTOM_ANALYZER);
+                content.put("norms", false);  // Length normalization is least useful on long bodies
+                content.put("index_options", "freqs");  // Keep term frequencies for scoring, drop positions
+                break;
+            default:
+                break;  // Leave settings and mapping untouched
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> field(Map<String, Object> properties, String name) {
+        Object field = properties.get(name);
+        if (!(field instanceof Map)) {
+            throw new IllegalStateException("Mapping has no property '" + name + "'");
+        }
+        return (Map<String, Object>) field;
+    }
+}
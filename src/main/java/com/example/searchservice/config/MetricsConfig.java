@@ -0,0 +1,97 @@
+package com.example.searchservice.config;
+
+import com.example.searchservice.metrics.SearchMetrics;
+import com.example.searchservice.metrics.SearchMetricsInterceptor;
+import com.example.searchservice.metrics.SlowQueryEndpoint;
+import com.example.searchservice.metrics.SlowQueryLog;
+import com.example.searchservice.metrics.TimedValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.Validator;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Configuration for the stage-level search metrics.
+ *
+ * <p>Creates {@link SearchMetrics} and hooks the two stages that run outside the search service into Spring MVC:
+ * request validation, through a timing wrapper around the bean validator, and response serialization,
+ * through {@link SearchMetricsInterceptor}. The remaining stages are recorded by the search service.</p>
+ *
+ * <p>Also creates the slow-query log, which keeps the most recent searches above a threshold together with
+ * their Elasticsearch query and stage timings, and the actuator endpoint exposing it.</p>
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<SearchMetrics> searchMetrics;
+    private final ObjectProvider<javax.validation.Validator> validator;
+
+    /**
+     * @param searchMetrics the search metrics defined below, resolved lazily
+     * @param validator     the bean validator configured by Spring Boot
+     */
+    public MetricsConfig(ObjectProvider<SearchMetrics> searchMetrics, ObjectProvider<javax.validation.Validator> validator) {
+        this.searchMetrics = searchMetrics;
+        this.validator = validator;
+    }
+
+    /**
+     * Creates the stage timers for the search pipeline.
+     *
+     * @param meterRegistry registry the timers are published through
+     * @return the search metrics
+     */
+    @Bean
+    public SearchMetrics searchMetrics(MeterRegistry meterRegistry) {
+        return new SearchMetrics(meterRegistry);
+    }
+
+    /**
+     * Creates the ring buffer of slow searches.
+     *
+     * @param thresholdMillis searches taking at least this long in the search service are recorded; negative disables it
+     * @param capacity        number of searches kept
+     * @return the slow-query log
+     */
+    @Bean
+    public SlowQueryLog slowQueryLog(@Value("${search.slow-query.threshold-ms:500}") long thresholdMillis,
+                                     @Value("${search.slow-query.capacity:100}") int capacity) {
+        return new SlowQueryLog(thresholdMillis, capacity);
+    }
+
+    /**
+     * Exposes the slow-query log at {@code /actuator/slowqueries}.
+     *
+     * @param slowQueryLog the log to expose
+     * @return the endpoint
+     */
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueryEndpoint(slowQueryLog);
+    }
+
+    /**
+     * Validates request bodies with the bean validator, timing search requests.
+     *
+     * @return the validator used for {@code @Valid} arguments
+     */
+    @Override
+    public Validator getValidator() {
+        return new TimedValidator(new SpringValidatorAdapter(validator.getObject()), searchMetrics.getObject());
+    }
+
+    /**
+     * Registers the interceptor recording the serialization stage of search responses.
+     *
+     * @param registry the interceptor registry
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SearchMetricsInterceptor(searchMetrics.getObject())).addPathPatterns("/api/search");
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.searchservice.config;
+
+import com.example.searchservice.filter.RateLimitFilter;
+import com.example.searchservice.filter.TokenBucketRateLimiter;
+import com.example.searchservice.filter.TokenBucketRateLimiter.Budget;
+import com.example.searchservice.filter.TokenBucketRateLimiter.Quota;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Configuration for per-principal rate limiting of the API.
+ *
+ * <p>Registers {@link RateLimitFilter} when {@code api.rate-limit.enabled=true}. Quotas are written as
+ * {@code budget=rate:burst} pairs, with the rate in requests per second, and routes as
+ * {@code pattern=budget} pairs checked in order. A pattern may be preceded by a method, as in
+ * {@code POST /api/saved-searches=batch}, to charge only requests with that method.</p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "api.rate-limit.enabled", havingValue = "true")
+public class RateLimitConfig {
+
+    /**
+     * Quotas of principals without the ADMIN role.
+     */
+    @Value("${api.rate-limit.quotas.user:search=20:40,batch=0.1:1,export=1:2}")
+    private String userQuotas;
+
+    /**
+     * Quotas of principals with the ADMIN role.
+     */
+    @Value("${api.rate-limit.quotas.admin:search=100:200,batch=1:5,export=5:10}")
+    private String adminQuotas;
+
+    /**
+     * Path patterns, optionally preceded by a method, and the budget their requests are charged to; the first
+     * matching pattern wins.
+     */
+    @Value("${api.rate-limit.routes:/api/search/raw=export,/api/search/**=search,/api/changes=export,POST /api/saved-searches=batch,/api/saved-searches/**=search,/api/admin/**=batch}")
+    private String routes;
+
+    /**
+     * Time in milliseconds a principal's buckets stay full before they are dropped.
+     */
+    @Value("${api.rate-limit.idle-timeout:600000}")
+    private long idleTimeout;
+
+    /**
+     * Creates the token buckets, evicting idle principals in the background.
+     *
+     * @return the rate limiter
+     */
+    @Bean
+    public TokenBucketRateLimiter tokenBucketRateLimiter() {
+        return new TokenBucketRateLimiter(idleTimeout);
+    }
+
+    /**
+     * Registers the rate limit filter. It runs after the security filter chain, which identifies the principal.
+     *
+     * @param limiter       the token buckets
+     * @param objectMapper  mapper for the error body
+     * @param meterRegistry registry for the rate limit metrics
+     * @return registration for the rate limit filter
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(TokenBucketRateLimiter limiter,
+                                                                   ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(new RateLimitFilter(
+                limiter, Quota.parse(userQuotas), Quota.parse(adminQuotas), parseRoutes(routes), objectMapper, meterRegistry));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 10);  // Turn excess requests away before other application filters
+        return registration;
+    }
+
+    static Map<String, Budget> parseRoutes(String text) {
+        Map<String, Budget> parsed = new LinkedHashMap<>();
+        for (String pair : text.split(",")) {
+            if (pair.isBlank()) {
+                continue;
+            }
+            String[] patternAndBudget = pair.trim().split("=");
+            if (patternAndBudget.length != 2) {
+                throw new IllegalArgumentException("Expected pattern=budget but got '" + pair.trim() + "'");
+            }
+            String pattern = patternAndBudget[0].trim().replaceAll("\\s+", " ");  // The filter splits off the method at the space
+            parsed.put(pattern, Budget.valueOf(patternAndBudget[1].trim().toUpperCase(Locale.ROOT)));
+        }
+        return parsed;
+    }
+}
@@ -1,10 +1,16 @@
 package com.example.searchservice.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
@@ -13,18 +19,69 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+
 /**
  * Security configuration for the application.
  *
  * <p>Defines the security rules and authentication mechanisms, including in-memory users
- * and password encoding. Uses HTTP Basic and form-based authentication.</p>
+ * and password encoding. The API under {@code /api} is stateless and uses HTTP Basic; everything else
+ * also accepts form-based login with a session.</p>
+ *
+ * <p>Successful password checks are cached by {@link CachingAuthenticationProvider}, so API clients
+ * sending the same credentials with every request pay for BCrypt once per cache lifetime instead of
+ * on every call.</p>
  */
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
 
     /**
-     * Configures the security filter chain for the application.
+     * Whether successful authentications are cached.
+     */
+    @Value("${security.auth-cache.enabled:true}")
+    private boolean authCacheEnabled;
+
+    /**
+     * Longest time in milliseconds a cached authentication is reused.
+     */
+    @Value("${security.auth-cache.ttl:300000}")
+    private long authCacheTtl;
+
+    /**
+     * Number of credentials cached, approximately; the least recently used are dropped beyond it.
+     */
+    @Value("${security.auth-cache.max-entries:10000}")
+    private int authCacheMaxEntries;
+
+    /**
+     * Configures the filter chain for the API. Requests carry HTTP Basic credentials each time,
+     * so no session is created or looked up.
+     *
+     * @param http HttpSecurity to configure
+     * @return Configured SecurityFilterChain for {@code /api/**}
+     * @throws Exception if security configuration fails
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain apiSecurityFilterChain(HttpSecurity http) throws Exception {
+        http
+                .antMatcher("/api/**")
+                .csrf(AbstractHttpConfigurer::disable) // Disable CSRF protection for stateless API calls
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS)) // No HttpSession per call
+                .authorizeRequests()
+                .antMatchers("/api/health").permitAll() // Allow unauthenticated access to health check endpoint
+                .antMatchers("/api/search/**").authenticated() // Require authentication for search-related endpoints
+                .antMatchers("/api/admin/**").hasRole("ADMIN") // Index maintenance is restricted to administrators
+                .anyRequest().authenticated() // All other endpoints require authentication
+                .and()
+                .httpBasic(); // Enable HTTP Basic Authentication
+
+        return http.build(); // Build and return the configured security filter chain
+    }
+
+    /**
+     * Configures the security filter chain for everything outside the API.
      * Sets up authorization rules, CSRF settings, and authentication mechanisms.
      *
      * @param http HttpSecurity to configure
@@ -32,12 +89,14 @@ public class SecurityConfig {
      * @throws Exception if security configuration fails
      */
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .csrf(AbstractHttpConfigurer::disable) // Disable CSRF protection for stateless API calls
                 .authorizeRequests()
-                .antMatchers("/api/health").permitAll() // Allow unauthenticated access to health check endpoint
-                .antMatchers("/api/search/**").authenticated() // Require authentication for search-related endpoints
+                .antMatchers("/actuator/health", "/actuator/health/liveness", "/actuator/health/readiness").permitAll() // Polled by load balancers and orchestrators
+                .antMatchers("/actuator/slowqueries/**").hasRole("ADMIN") // Slow queries include other users' query text
+                .antMatchers("/actuator/startup/**", "/actuator/metrics/**").hasRole("ADMIN") // POST /actuator/startup drains the startup timeline
                 .anyRequest().authenticated() // All other endpoints require authentication
                 .and()
                 .httpBasic() // Enable HTTP Basic Authentication
@@ -47,6 +106,26 @@ public class SecurityConfig {
         return http.build(); // Build and return the configured security filter chain
     }
 
+    /**
+     * Creates the provider checking usernames and passwords, with successful checks cached unless
+     * {@code security.auth-cache.enabled=false}.
+     *
+     * @param userDetailsService user store
+     * @param meterRegistry      registry for the cache hit and miss counters
+     * @return the authentication provider used by both filter chains
+     */
+    @Bean
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService, MeterRegistry meterRegistry) {
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(userDetailsService);
+        provider.setPasswordEncoder(passwordEncoder());
+        if (!authCacheEnabled) {
+            return provider;
+        }
+        return new CachingAuthenticationProvider(provider, userDetailsService, Duration.ofMillis(authCacheTtl),
+                authCacheMaxEntries, meterRegistry);
+    }
+
     /**
      * Defines an in-memory user details service for testing/demo purposes.
      * In production, consider integrating with a persistent user store (e.g., database, LDAP).
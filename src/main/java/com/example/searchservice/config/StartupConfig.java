@@ -0,0 +1,53 @@
+package com.example.searchservice.config;
+
+import com.example.searchservice.metrics.StartupTimingReport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.ApplicationStartup;
+
+/**
+ * Configuration for the startup timing report.
+ *
+ * <p>The application records its startup steps with {@link BufferingApplicationStartup}, see
+ * {@code ElasticSearchServiceApplication}. Once the application is ready, the time spent in each phase and the
+ * beans that took longest to create are logged, so boot time can be tracked from the logs; the full timeline is
+ * served by {@code /actuator/startup}.</p>
+ */
+@Configuration
+public class StartupConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupConfig.class);
+
+    /**
+     * Whether the startup timing report is logged.
+     */
+    @Value("${startup.report.enabled:true}")
+    private boolean reportEnabled;
+
+    /**
+     * Number of beans listed in the report.
+     */
+    @Value("${startup.report.top-beans:10}")
+    private int topBeans;
+
+    /**
+     * Logs the startup timing report when the application is ready.
+     *
+     * @param event the ready event, carrying the context and the time taken to get ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void logStartupReport(ApplicationReadyEvent event) {
+        ApplicationStartup startup = event.getApplicationContext().getApplicationStartup();
+        if (!reportEnabled || !(startup instanceof BufferingApplicationStartup)) {
+            return;  // Not recorded, e.g. when the context is created by tests
+        }
+        StartupTimingReport report = new StartupTimingReport((BufferingApplicationStartup) startup, topBeans);
+        logger.info("Ready in {} ms. {}", event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1,
+                report.format());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.searchservice.controller;
+
+import com.example.searchservice.governor.QueryGovernor;
+import com.example.searchservice.model.AsyncSearchResponse;
+import com.example.searchservice.model.SearchRequest;
+import com.example.searchservice.service.AsyncSearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * REST controller for long-running searches, such as those over the full date range.
+ * A search is submitted, returns an id if it does not complete within a short wait, and is then polled for its
+ * results without holding a request thread or connection open. Searches are visible only to their submitter.
+ */
+@RestController
+@RequestMapping("/api/search/async")
+@Profile("!embedded")  // Same as AsyncSearchServiceImpl
+public class AsyncSearchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncSearchController.class);
+
+    /**
+     * Service running the searches in the background.
+     */
+    private final AsyncSearchService asyncSearchService;
+
+    /**
+     * Governor checking searches against the caller's query budget.
+     */
+    private final QueryGovernor queryGovernor;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param asyncSearchService Service for background searches
+     * @param queryGovernor      Governor checking searches against the caller's query budget
+     */
+    @Autowired
+    public AsyncSearchController(AsyncSearchService asyncSearchService, QueryGovernor queryGovernor) {
+        this.asyncSearchService = asyncSearchService;
+        this.queryGovernor = queryGovernor;
+    }
+
+    /**
+     * POST /api/search/async
+     *
+     * Starts a search in the background. Answered with 200 and the results if the search completes within the
+     * configured wait, otherwise with 202 and the id to poll in the Location header.
+     *
+     * @param searchRequest  Validated search query and pagination info, as for /api/search
+     * @param authentication Caller, owning the search
+     * @return The search's id, state and any results
+     */
+    @PostMapping
+    public ResponseEntity<AsyncSearchResponse> submit(@Valid @RequestBody SearchRequest searchRequest,
+                                                      Authentication authentication) {
+        logger.info("Async search requested with query: {}", searchRequest.getQuery());
+
+        // Reject or shrink searches beyond the caller's budget
+        List<String> rewrites = queryGovernor.review(searchRequest, authentication);
+
+        AsyncSearchResponse response = asyncSearchService.submit(searchRequest, authentication.getName());
+        ResponseEntity.BodyBuilder builder = response.isRunning()
+                ? ResponseEntity.accepted().location(URI.create("/api/search/async/" + response.getId()))
+                : ResponseEntity.ok();
+        if (!rewrites.isEmpty()) {
+            builder.header(SearchController.REWRITTEN_HEADER, String.join("; ", rewrites));
+        }
+        return builder.body(response);
+    }
+
+    /**
+     * GET /api/search/async/{id}
+     *
+     * Returns the state and results so far of a search, and keeps it for another keep-alive period.
+     *
+     * @param id             Id returned on submission
+     * @param wait           Optional time in milliseconds to wait for the search to complete, capped by configuration
+     * @param authentication Caller, who must own the search
+     * @return The search's state and results so far
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<AsyncSearchResponse> get(@PathVariable String id,
+                                                   @RequestParam(value = "wait", defaultValue = "0") long wait,
+                                                   Authentication authentication) {
+        return ResponseEntity.ok(asyncSearchService.get(id, authentication.getName(), wait));
+    }
+
+    /**
+     * DELETE /api/search/async/{id}
+     *
+     * Cancels a search if still running and deletes its results.
+     *
+     * @param id             Id returned on submission
+     * @param authentication Caller, who must own the search
+     * @return 204 No Content
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id, Authentication authentication) {
+        logger.info("Async search {} deletion requested", id);
+
+        asyncSearchService.delete(id, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.searchservice.controller;
+
+import com.example.searchservice.model.ChangeToken;
+import com.example.searchservice.service.ChangeFeedService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.concurrent.CompletionException;
+
+/**
+ * REST controller for the change feed, through which downstream systems sync the documents updated since their
+ * last sync instead of re-exporting the index.
+ */
+@RestController
+@RequestMapping("/api/changes")
+@Profile("!embedded")  // Same as ChangeFeedServiceImpl
+public class ChangeFeedController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedController.class);
+
+    /**
+     * Content type of the response: one JSON object per line.
+     */
+    static final String NDJSON = "application/x-ndjson";
+
+    /**
+     * Service reading the changes.
+     */
+    private final ChangeFeedService changeFeedService;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param changeFeedService Service reading the changes
+     */
+    @Autowired
+    public ChangeFeedController(ChangeFeedService changeFeedService) {
+        this.changeFeedService = changeFeedService;
+    }
+
+    /**
+     * GET /api/changes
+     *
+     * Streams the documents updated after the given token, oldest first, as lines of
+     * {@code {"token": ..., "document": ...}}. A client stores the token of the last line it processed and
+     * passes it as {@code since} on its next request; an empty response means it has caught up.
+     *
+     * The request is processed asynchronously: while waiting for changes it holds no request thread, and the
+     * changes are then streamed from the MVC task executor.
+     *
+     * @param since Token of the last document processed; omitted to start from the oldest document
+     * @param limit Maximum number of documents to return, capped by configuration
+     * @param wait  Optional time in milliseconds to wait for changes if there are none, capped by configuration
+     * @return the deferred stream of changes
+     */
+    @GetMapping
+    public DeferredResult<ResponseEntity<StreamingResponseBody>> changes(
+            @RequestParam(value = "since", required = false) String since,
+            @RequestParam(value = "limit", defaultValue = "1000") int limit,
+            @RequestParam(value = "wait", defaultValue = "0") long wait) {
+        ChangeToken position = since != null && !since.isEmpty() ? ChangeToken.parse(since) : null;
+        logger.info("Changes requested after {}", position != null ? position : "the beginning");
+
+        DeferredResult<ResponseEntity<StreamingResponseBody>> result = new DeferredResult<>();
+        changeFeedService.awaitChanges(position, wait).whenComplete((changed, error) -> {
+            if (error != null) {
+                result.setErrorResult(error instanceof CompletionException ? error.getCause() : error);
+                return;
+            }
+            StreamingResponseBody body = changed
+                    ? outputStream -> changeFeedService.streamChanges(position, limit, outputStream)
+                    : outputStream -> { };  // Still caught up
+            result.setResult(ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body));
+        });
+        return result;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.searchservice.controller;
+
+import com.example.searchservice.model.IndexMigrationRequest;
+import com.example.searchservice.service.IndexManagementService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * REST controller for index maintenance operations.
+ * Supports moving existing data to a newly mapped index without downtime: reindex into the new index,
+ * then promote it so the configured index name points at it.
+ */
+@RestController
+@Profile("!embedded")  // Same as IndexManagementServiceImpl
+@RequestMapping("/api/admin/index")
+public class IndexAdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexAdminController.class);
+
+    /**
+     * Service handling index creation and migration.
+     */
+    private final IndexManagementService indexManagementService;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param indexManagementService Service for index management operations
+     */
+    @Autowired
+    public IndexAdminController(IndexManagementService indexManagementService) {
+        this.indexManagementService = indexManagementService;
+    }
+
+    /**
+     * POST /api/admin/index/reindex
+     *
+     * Starts copying documents into the target index, which is created with the current mapping if missing.
+     *
+     * @param request Source and target index names
+     * @return Id of the Elasticsearch task performing the copy
+     */
+    @PostMapping("/reindex")
+    public ResponseEntity<Map<String, String>> reindex(@Valid @RequestBody IndexMigrationRequest request) {
+        logger.info("Reindex requested into '{}'", request.getTargetIndex());
+
+        String taskId = indexManagementService.startReindex(request.getSourceIndex(), request.getTargetIndex());
+
+        return ResponseEntity.accepted().body(Collections.singletonMap("taskId", taskId));
+    }
+
+    /**
+     * POST /api/admin/index/promote
+     *
+     * Switches the configured index name over to the target index once the reindex has finished.
+     *
+     * @param request Target index to promote
+     * @return Name of the promoted index
+     */
+    @PostMapping("/promote")
+    public ResponseEntity<Map<String, String>> promote(@Valid @RequestBody IndexMigrationRequest request) {
+        logger.info("Promotion of index '{}' requested", request.getTargetIndex());
+
+        indexManagementService.promoteIndex(request.getTargetIndex());
+
+        return ResponseEntity.ok(Collections.singletonMap("index", request.getTargetIndex()));
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.searchservice.controller;
+
+import com.example.searchservice.governor.QueryGovernor;
+import com.example.searchservice.model.SavedSearch;
+import com.example.searchservice.service.SavedSearchService;
+import com.example.searchservice.service.impl.SavedSearchDispatcher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.validation.Valid;
+import java.net.URI;
+import java.util.List;
+
+/**
+ * REST controller for saved searches, which notify their owner of newly indexed documents they match.
+ * Matches are delivered on the owner's event streams and, if the saved search has one, to its webhook.
+ * Saved searches are visible only to the user who registered them.
+ */
+@RestController
+@RequestMapping("/api/saved-searches")
+@Profile("!embedded")  // Same as SavedSearchServiceImpl
+public class SavedSearchController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchController.class);
+
+    /**
+     * Service storing and matching the saved searches.
+     */
+    private final SavedSearchService savedSearchService;
+
+    /**
+     * Dispatcher delivering matches to the open streams.
+     */
+    private final SavedSearchDispatcher dispatcher;
+
+    /**
+     * Governor checking saved searches against the caller's query budget.
+     */
+    private final QueryGovernor queryGovernor;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param savedSearchService Service storing and matching the saved searches
+     * @param dispatcher         Dispatcher delivering matches to the open streams
+     * @param queryGovernor      Governor checking saved searches against the caller's query budget
+     */
+    @Autowired
+    public SavedSearchController(SavedSearchService savedSearchService, SavedSearchDispatcher dispatcher,
+                                 QueryGovernor queryGovernor) {
+        this.savedSearchService = savedSearchService;
+        this.dispatcher = dispatcher;
+        this.queryGovernor = queryGovernor;
+    }
+
+    /**
+     * POST /api/saved-searches
+     *
+     * Registers a saved search. Its query text and filters are matched against every indexed batch, so they
+     * are held to the same query budget as a search.
+     *
+     * @param savedSearch    Validated name, search and optional webhook
+     * @param authentication Caller, owning the saved search
+     * @return 201 Created with the saved search and its Location
+     */
+    @PostMapping
+    public ResponseEntity<SavedSearch> register(@Valid @RequestBody SavedSearch savedSearch,
+                                                Authentication authentication) {
+        logger.info("Saved search '{}' registration requested", savedSearch.getName());
+
+        queryGovernor.review(savedSearch.getSearch(), authentication);
+
+        SavedSearch registered = savedSearchService.register(savedSearch, authentication.getName());
+        return ResponseEntity.created(URI.create("/api/saved-searches/" + registered.getId())).body(registered);
+    }
+
+    /**
+     * GET /api/saved-searches
+     *
+     * @param authentication Caller
+     * @return The caller's saved searches, oldest first
+     */
+    @GetMapping
+    public ResponseEntity<List<SavedSearch>> list(Authentication authentication) {
+        return ResponseEntity.ok(savedSearchService.list(authentication.getName()));
+    }
+
+    /**
+     * DELETE /api/saved-searches/{id}
+     *
+     * @param id             Id returned on registration
+     * @param authentication Caller, who must own the saved search
+     * @return 204 No Content
+     */
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> delete(@PathVariable String id, Authentication authentication) {
+        logger.info("Saved search {} deletion requested", id);
+
+        savedSearchService.delete(id, authentication.getName());
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * GET /api/saved-searches/stream
+     *
+     * Streams the matches of all the caller's saved searches as server-sent {@code match} events, until the
+     * configured timeout; clients reconnect to continue.
+     *
+     * @param authentication Caller
+     * @return The event stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication) {
+        return dispatcher.subscribe(authentication.getName());
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.searchservice.controller;
+
+import com.example.searchservice.model.SearchProfile;
+import com.example.searchservice.model.SearchRequest;
+import com.example.searchservice.service.SearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+
+/**
+ * REST controller for investigating search performance.
+ * Lets administrators run a single search with Elasticsearch's profiler enabled, typically one found
+ * in the slow-query log at {@code /actuator/slowqueries}.
+ */
+@RestController
+@RequestMapping("/api/admin/search")
+public class SearchAdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchAdminController.class);
+
+    /**
+     * Service running the profiled search.
+     */
+    private final SearchService searchService;
+
+    /**
+     * Constructor for dependency injection.
+     *
+     * @param searchService Service for search operations
+     */
+    @Autowired
+    public SearchAdminController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * POST /api/admin/search/profile
+     *
+     * Runs the search once with {@code profile: true} and returns the per-shard profile instead of the hits.
+     *
+     * @param searchRequest The search to profile, in the same form as for /api/search
+     * @return The query sent, hit count, search time and per-shard profile
+     */
+    @PostMapping("/profile")
+    public ResponseEntity<SearchProfile> profile(@Valid @RequestBody SearchRequest searchRequest) {
+        logger.info("Search profile requested for query: {}", searchRequest.getQuery());
+
+        return ResponseEntity.ok(searchService.profile(searchRequest));
+    }
+}
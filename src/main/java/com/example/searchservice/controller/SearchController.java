@@ -1,5 +1,7 @@
 package com.example.searchservice.controller;
 
+import com.example.searchservice.governor.QueryGovernor;
+import com.example.searchservice.metrics.SearchMetrics;
 import com.example.searchservice.model.SearchRequest;
 import com.example.searchservice.model.SearchResponse;
 import com.example.searchservice.model.SearchableDocument;
@@ -7,10 +9,16 @@ import com.example.searchservice.service.SearchService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.util.List;
 
 /**
  * REST controller that handles search-related API endpoints.
@@ -22,19 +30,36 @@ public class SearchController {
 
     private static final Logger logger = LoggerFactory.getLogger(SearchController.class);
 
+    /**
+     * Header with the time in milliseconds the caller waits for a search, e.g. what is left of an upstream deadline.
+     */
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+
+    /**
+     * Header listing the changes the query governor made to fit a search into the caller's budget.
+     */
+    public static final String REWRITTEN_HEADER = "X-Query-Rewritten";
+
     /**
      * Search service to handle search operations.
      */
     private final SearchService searchService;
 
+    /**
+     * Governor checking searches against the caller's query budget.
+     */
+    private final QueryGovernor queryGovernor;
+
     /**
      * Constructor for dependency injection.
      *
      * @param searchService Service for search operations
+     * @param queryGovernor Governor checking searches against the caller's query budget
      */
     @Autowired
-    public SearchController(SearchService searchService) {
+    public SearchController(SearchService searchService, QueryGovernor queryGovernor) {
         this.searchService = searchService;
+        this.queryGovernor = queryGovernor;
     }
 
     /**
@@ -60,25 +85,82 @@ public class SearchController {
      * Endpoint for executing a search query against the Elasticsearch index.
      *
      * @param searchRequest Validated search query and pagination info
+     * @param timeout       Optional {@value #TIMEOUT_HEADER} header; the shorter of it and the request's timeout applies
+     * @param authentication Caller, selecting the query budget
+     * @param request       Current HTTP request, carrying the search request to the serialization timer
      * @return Search response containing a list of matching documents and metadata
      */
     @PostMapping("/search")
     public ResponseEntity<SearchResponse<SearchableDocument>> search(
-            @Valid @RequestBody SearchRequest searchRequest) {
+            @Valid @RequestBody SearchRequest searchRequest,
+            @RequestHeader(value = TIMEOUT_HEADER, required = false) Long timeout,
+            Authentication authentication,
+            HttpServletRequest request) {
 
         // Log the incoming query
         logger.info("Search requested with query: {}", searchRequest.getQuery());
+        request.setAttribute(SearchMetrics.SEARCH_REQUEST_ATTRIBUTE, searchRequest);
+        applyTimeout(searchRequest, timeout);
+
+        // Reject or shrink searches beyond the caller's budget
+        List<String> rewrites = queryGovernor.review(searchRequest, authentication);
 
         // Record start time for performance logging
-        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
 
         // Perform the search operation
         SearchResponse<SearchableDocument> response = searchService.search(searchRequest);
 
         // Log duration and result count
         logger.info("Search completed in {} ms with {} results",
-                System.currentTimeMillis() - startTime, response.getTotalHits());
+                (System.nanoTime() - startNanos) / 1_000_000, response.getTotalHits());
+
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok();
+        if (!rewrites.isEmpty()) {
+            ok.header(REWRITTEN_HEADER, String.join("; ", rewrites));
+        }
+        return ok.body(response);
+    }
 
-        return ResponseEntity.ok(response);
+    /**
+     * POST /api/search/raw
+     *
+     * Passthrough variant of the search endpoint for clients that accept Elasticsearch's hit shape.
+     * Each hit's {@code _id} and {@code _source} are copied straight from the Elasticsearch response
+     * into the paging envelope, skipping document binding and re-serialization.
+     *
+     * @param searchRequest Validated search query and pagination info
+     * @param timeout       Optional {@value #TIMEOUT_HEADER} header; the shorter of it and the request's timeout applies
+     * @param authentication Caller, selecting the query budget
+     * @param response      HTTP response the hits are streamed to
+     * @throws IOException if writing the response fails
+     */
+    @PostMapping("/search/raw")
+    public void searchRaw(@Valid @RequestBody SearchRequest searchRequest,
+                          @RequestHeader(value = TIMEOUT_HEADER, required = false) Long timeout,
+                          Authentication authentication,
+                          HttpServletResponse response) throws IOException {
+        logger.info("Passthrough search requested with query: {}", searchRequest.getQuery());
+        applyTimeout(searchRequest, timeout);
+
+        List<String> rewrites = queryGovernor.review(searchRequest, authentication);
+        if (!rewrites.isEmpty()) {
+            response.setHeader(REWRITTEN_HEADER, String.join("; ", rewrites));
+        }
+
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        searchService.streamSearch(searchRequest, response.getOutputStream());
+    }
+
+    /**
+     * Applies the timeout header to the search request if it is shorter than the request's own timeout.
+     *
+     * @param searchRequest Search request to update
+     * @param timeout       Header value in milliseconds, null if absent
+     */
+    private static void applyTimeout(SearchRequest searchRequest, Long timeout) {
+        if (timeout != null && timeout > 0 && (searchRequest.getTimeout() == null || timeout < searchRequest.getTimeout())) {
+            searchRequest.setTimeout(timeout);
+        }
     }
 }
@@ -0,0 +1,48 @@
+package com.example.searchservice.converter;
+
+import com.example.searchservice.model.SearchableDocument;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentEntity;
+import org.springframework.data.elasticsearch.core.mapping.ElasticsearchPersistentProperty;
+import org.springframework.data.mapping.context.MappingContext;
+
+/**
+ * Spring Data converter that maps {@link SearchableDocument} with {@link SearchableDocumentMapper} instead of
+ * reflection, on both the search path (hits to documents) and the ingest path (documents to index requests).
+ *
+ * <p>All other types, such as projections or other entities, go through the regular mapping-based conversion.</p>
+ */
+public class SearchableDocumentConverter extends MappingElasticsearchConverter {
+
+    private final SearchableDocumentMapper mapper = new SearchableDocumentMapper();
+
+    /**
+     * @param mappingContext mapping context used for all types other than {@link SearchableDocument}
+     */
+    public SearchableDocumentConverter(
+            MappingContext<? extends ElasticsearchPersistentEntity<?>, ElasticsearchPersistentProperty> mappingContext) {
+        super(mappingContext);
+    }
+
+    @Override
+    public <R> R read(Class<R> type, Document source) {
+        if (type == SearchableDocument.class) {
+            return type.cast(mapper.read(source, source.hasId() ? source.getId() : null));
+        }
+        return super.read(type, source);
+    }
+
+    @Override
+    public void write(Object source, Document sink) {
+        if (source instanceof SearchableDocument) {
+            SearchableDocument document = (SearchableDocument) source;
+            mapper.write(document, sink);
+            if (document.getId() != null) {
+                sink.setId(document.getId());
+            }
+            return;
+        }
+        super.write(source, sink);
+    }
+}
@@ -0,0 +1,359 @@
+package com.example.searchservice.converter;
+
+import com.example.searchservice.model.SearchableDocument;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hand-written mapping between {@link SearchableDocument} and its Elasticsearch source, without reflection.
+ *
+ * <p>Produces the same source as Spring Data's {@code MappingElasticsearchConverter}: a {@code _class} type hint,
+ * the fields in declaration order with nulls omitted, and dates as {@code date_optional_time} strings in UTC.
+ * Reading accepts dates as such strings or as epoch milliseconds, and ignores unknown fields.</p>
+ *
+ * <p>Works either on a JSON token stream, for code that owns the request or response bytes, or on the
+ * already parsed source map that Spring Data hands to its converter. Instances are stateless and thread-safe.</p>
+ */
+public class SearchableDocumentMapper {
+
+    /**
+     * Type hint written into every source, as Spring Data does.
+     */
+    static final String TYPE_HINT_FIELD = "_class";
+
+    private static final String TYPE_HINT = SearchableDocument.class.getName();
+
+    /**
+     * Writer for the {@code date_optional_time} format Spring Data uses for {@code FieldType.Date} without a pattern.
+     */
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("uuuu-MM-dd'T'HH:mm:ss.SSSXXX").withZone(ZoneOffset.UTC);
+
+    /**
+     * Reads a document from a JSON object.
+     *
+     * @param parser parser positioned on or just before the {@code START_OBJECT} of the source
+     * @param id     document id from the hit metadata, or {@code null} to take the {@code id} field of the source
+     * @return the document; the parser is left on the matching {@code END_OBJECT}
+     * @throws IOException if the input cannot be read or is not an object
+     */
+    public SearchableDocument read(JsonParser parser, String id) throws IOException {
+        JsonToken token = parser.currentToken() == JsonToken.START_OBJECT ? JsonToken.START_OBJECT : parser.nextToken();
+        if (token != JsonToken.START_OBJECT) {
+            throw new IOException("Expected a document object but found " + token);
+        }
+
+        SearchableDocument document = new SearchableDocument();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (value == JsonToken.VALUE_NULL) {
+                continue;
+            }
+
+            switch (field) {
+                case "id":
+                    document.setId(parser.getText());
+                    break;
+                case "title":
+                    document.setTitle(parser.getText());
+                    break;
+                case "content":
+                    document.setContent(parser.getText());
+                    break;
+                case "author":
+                    document.setAuthor(parser.getText());
+                    break;
+                case "category":
+                    document.setCategory(parser.getText());
+                    break;
+                case "createdDate":
+                    document.setCreatedDate(readDate(parser));
+                    break;
+                case "lastUpdatedDate":
+                    document.setLastUpdatedDate(readDate(parser));
+                    break;
+                case "tags":
+                    document.setTags(readTags(parser));
+                    break;
+                case "metadata":
+                    document.setMetadata(readObject(parser));
+                    break;
+                default:
+                    parser.skipChildren();  // _class and fields unknown to this version
+            }
+        }
+
+        if (id != null) {
+            document.setId(id);
+        }
+        return document;
+    }
+
+    /**
+     * Writes a document as a JSON object.
+     *
+     * @param document document to write
+     * @param generator destination; not flushed or closed
+     * @throws IOException if writing fails
+     */
+    public void write(SearchableDocument document, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField(TYPE_HINT_FIELD, TYPE_HINT);
+        writeString(generator, "id", document.getId());
+        writeString(generator, "title", document.getTitle());
+        writeString(generator, "content", document.getContent());
+        writeString(generator, "author", document.getAuthor());
+        if (document.getCreatedDate() != null) {
+            generator.writeStringField("createdDate", formatDate(document.getCreatedDate()));
+        }
+        if (document.getLastUpdatedDate() != null) {
+            generator.writeStringField("lastUpdatedDate", formatDate(document.getLastUpdatedDate()));
+        }
+        writeString(generator, "category", document.getCategory());
+        if (document.getTags() != null) {
+            generator.writeArrayFieldStart("tags");
+            for (String tag : document.getTags()) {
+                generator.writeString(tag);
+            }
+            generator.writeEndArray();
+        }
+        if (document.getMetadata() != null) {
+            generator.writeFieldName("metadata");
+            writeValue(generator, document.getMetadata());
+        }
+        generator.writeEndObject();
+    }
+
+    /**
+     * Reads a document from a parsed source map.
+     *
+     * @param source source fields as parsed by the client
+     * @param id     document id from the hit metadata, or {@code null} to take the {@code id} field of the source
+     * @return the document
+     */
+    @SuppressWarnings("unchecked")
+    public SearchableDocument read(Map<String, Object> source, String id) {
+        SearchableDocument document = new SearchableDocument();
+        document.setId(id != null ? id : asString(source.get("id")));
+        document.setTitle(asString(source.get("title")));
+        document.setContent(asString(source.get("content")));
+        document.setAuthor(asString(source.get("author")));
+        document.setCategory(asString(source.get("category")));
+        document.setCreatedDate(asDate(source.get("createdDate")));
+        document.setLastUpdatedDate(asDate(source.get("lastUpdatedDate")));
+
+        Object tags = source.get("tags");
+        if (tags instanceof Collection) {
+            Collection<?> values = (Collection<?>) tags;
+            String[] array = new String[values.size()];
+            int i = 0;
+            for (Object tag : values) {
+                array[i++] = asString(tag);
+            }
+            document.setTags(array);
+        } else if (tags != null) {
+            document.setTags(new String[]{tags.toString()});  // A single value is allowed in place of an array
+        }
+
+        Object metadata = source.get("metadata");
+        if (metadata instanceof Map) {
+            document.setMetadata(new LinkedHashMap<>((Map<String, Object>) metadata));
+        }
+        return document;
+    }
+
+    /**
+     * Writes a document into a source map, in the same layout as {@link #write(SearchableDocument, JsonGenerator)}.
+     *
+     * @param document document to write
+     * @param target   map receiving the source fields
+     */
+    public void write(SearchableDocument document, Map<String, Object> target) {
+        target.put(TYPE_HINT_FIELD, TYPE_HINT);
+        putIfNotNull(target, "id", document.getId());
+        putIfNotNull(target, "title", document.getTitle());
+        putIfNotNull(target, "content", document.getContent());
+        putIfNotNull(target, "author", document.getAuthor());
+        if (document.getCreatedDate() != null) {
+            target.put("createdDate", formatDate(document.getCreatedDate()));
+        }
+        if (document.getLastUpdatedDate() != null) {
+            target.put("lastUpdatedDate", formatDate(document.getLastUpdatedDate()));
+        }
+        putIfNotNull(target, "category", document.getCategory());
+        if (document.getTags() != null) {
+            target.put("tags", Arrays.asList(document.getTags()));
+        }
+        putIfNotNull(target, "metadata", document.getMetadata());
+    }
+
+    /**
+     * Formats a date the way Spring Data writes {@code FieldType.Date} fields.
+     *
+     * @param date date to format
+     * @return the date as a UTC {@code date_optional_time} string
+     */
+    static String formatDate(Date date) {
+        return DATE_FORMAT.format(date.toInstant());
+    }
+
+    /**
+     * Parses a date written as epoch milliseconds, a timestamp or a date, as Elasticsearch's
+     * {@code date_optional_time||epoch_millis} accepts them. Values without an offset are UTC.
+     *
+     * @param value date string
+     * @return the parsed date
+     * @throws DateTimeParseException if the value is in none of these forms
+     */
+    static Date parseDate(String value) {
+        if (!value.isEmpty() && value.chars().allMatch(Character::isDigit)) {
+            return new Date(Long.parseLong(value));
+        }
+        if (value.indexOf('T') < 0) {
+            return Date.from(LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant());
+        }
+        try {
+            return Date.from(OffsetDateTime.parse(value).toInstant());
+        } catch (DateTimeParseException e) {
+            return Date.from(LocalDateTime.parse(value).toInstant(ZoneOffset.UTC));  // Timestamps without offset are UTC
+        }
+    }
+
+    private static Date readDate(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+            return new Date(parser.getLongValue());
+        }
+        return parseDate(parser.getText());
+    }
+
+    private static String[] readTags(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            return new String[]{parser.getText()};
+        }
+        List<String> tags = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            tags.add(parser.getText());
+        }
+        return tags.toArray(new String[0]);
+    }
+
+    /**
+     * Reads the current object into a map, with nested objects and arrays as maps and lists.
+     */
+    private static Map<String, Object> readObject(JsonParser parser) throws IOException {
+        Map<String, Object> map = new LinkedHashMap<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            map.put(field, readValue(parser));
+        }
+        return map;
+    }
+
+    private static Object readValue(JsonParser parser) throws IOException {
+        switch (parser.currentToken()) {
+            case START_OBJECT:
+                return readObject(parser);
+            case START_ARRAY:
+                List<Object> list = new ArrayList<>();
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    list.add(readValue(parser));
+                }
+                return list;
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getNumberValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Writes a metadata value; types outside the JSON model are written as their string form.
+     */
+    private static void writeValue(JsonGenerator generator, Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof Map) {
+            generator.writeStartObject();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                generator.writeFieldName(String.valueOf(entry.getKey()));
+                writeValue(generator, entry.getValue());
+            }
+            generator.writeEndObject();
+        } else if (value instanceof Collection) {
+            generator.writeStartArray();
+            for (Object element : (Collection<?>) value) {
+                writeValue(generator, element);
+            }
+            generator.writeEndArray();
+        } else if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            generator.writeNumber(((Number) value).longValue());
+        } else if (value instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            generator.writeNumber((BigInteger) value);
+        } else if (value instanceof Number) {
+            generator.writeNumber(((Number) value).doubleValue());
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else if (value instanceof Date) {
+            generator.writeString(formatDate((Date) value));
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+
+    private static void writeString(JsonGenerator generator, String field, String value) throws IOException {
+        if (value != null) {
+            generator.writeStringField(field, value);
+        }
+    }
+
+    private static void putIfNotNull(Map<String, Object> target, String field, Object value) {
+        if (value != null) {
+            target.put(field, value);
+        }
+    }
+
+    private static String asString(Object value) {
+        return value != null ? value.toString() : null;
+    }
+
+    private static Date asDate(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Number) {
+            return new Date(((Number) value).longValue());
+        }
+        return parseDate(value.toString());
+    }
+}
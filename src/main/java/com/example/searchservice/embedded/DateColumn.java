@@ -0,0 +1,172 @@
+package com.example.searchservice.embedded;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Values of one date field as epoch milliseconds, for sorting and range filters.
+ *
+ * <p>Values are kept per document in a {@code long} array. For ranges, a copy sorted by value with the matching
+ * document numbers alongside is built on first use after documents were added; a range is then a binary
+ * search and a run over the documents up to the upper bound. The copy is published through a volatile field,
+ * so only the range query that builds it takes a lock and the others run without one.</p>
+ */
+final class DateColumn {
+
+    /**
+     * Stored for documents without a value; sorts after every date.
+     */
+    static final long MISSING = Long.MAX_VALUE;
+
+    private long[] values = new long[16];
+    private int size;
+
+    private volatile Sorted sorted;
+
+    /**
+     * Sets the value of the next document.
+     *
+     * @param doc   document number, equal to the number of documents added before
+     * @param value epoch milliseconds, or {@link #MISSING}
+     */
+    void add(int doc, long value) {
+        if (doc >= values.length) {
+            values = Arrays.copyOf(values, Math.max(doc + 1, values.length * 2));
+        }
+        values[doc] = value;
+        size = doc + 1;
+        sorted = null;  // Rebuilt on the next range query
+    }
+
+    /**
+     * @param doc document number
+     * @return the document's value, or {@link #MISSING}
+     */
+    long get(int doc) {
+        return values[doc];
+    }
+
+    /**
+     * Finds the documents whose value lies in a range, bounds included.
+     *
+     * @param from lowest value, or {@link Long#MIN_VALUE} for no lower bound
+     * @param to   highest value, or {@link Long#MAX_VALUE} - 1 for no upper bound
+     * @return the matching documents
+     */
+    BitSet range(long from, long to) {
+        Sorted current = sorted;
+        if (current == null) {
+            current = sorted();
+        }
+        BitSet matches = new BitSet(size);
+        for (int i = current.lowerBound(from); i < current.count && current.values[i] <= to; i++) {
+            matches.set(current.docs[i]);
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the sorted copy, building it if no concurrent search has done so yet.
+     */
+    private synchronized Sorted sorted() {
+        if (sorted == null) {
+            sorted = sort();
+        }
+        return sorted;
+    }
+
+    /**
+     * Builds the sorted copy: the documents with a value, ordered by value and then document number.
+     * Sorted in place as primitives, since boxing millions of document numbers would defeat the column.
+     */
+    private Sorted sort() {
+        int count = 0;
+        for (int doc = 0; doc < size; doc++) {
+            if (values[doc] != MISSING) {
+                count++;
+            }
+        }
+        long[] sortedValues = new long[count];
+        int[] docs = new int[count];
+        int next = 0;
+        for (int doc = 0; doc < size; doc++) {
+            if (values[doc] != MISSING) {
+                docs[next++] = doc;
+            }
+        }
+        sortDocsByValue(docs, 0, count - 1);
+        for (int i = 0; i < count; i++) {
+            sortedValues[i] = values[docs[i]];
+        }
+        return new Sorted(sortedValues, docs, count);
+    }
+
+    /**
+     * Quicksort of document numbers by their value, ties by document number.
+     */
+    private void sortDocsByValue(int[] docs, int low, int high) {
+        while (low < high) {
+            int i = low;
+            int j = high;
+            int pivot = docs[(low + high) >>> 1];
+            while (i <= j) {
+                while (compare(docs[i], pivot) < 0) {
+                    i++;
+                }
+                while (compare(docs[j], pivot) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = docs[i];
+                    docs[i++] = docs[j];
+                    docs[j--] = swap;
+                }
+            }
+            // Recurse into the smaller part and loop on the larger, bounding the stack depth
+            if (j - low < high - i) {
+                sortDocsByValue(docs, low, j);
+                low = i;
+            } else {
+                sortDocsByValue(docs, i, high);
+                high = j;
+            }
+        }
+    }
+
+    private int compare(int left, int right) {
+        int byValue = Long.compare(values[left], values[right]);
+        return byValue != 0 ? byValue : Integer.compare(left, right);
+    }
+
+    /**
+     * Immutable sorted copy of the values of the documents that have one.
+     */
+    private static final class Sorted {
+        private final long[] values;
+        private final int[] docs;
+        private final int count;
+
+        private Sorted(long[] values, int[] docs, int count) {
+            this.values = values;
+            this.docs = docs;
+            this.count = count;
+        }
+
+        /**
+         * Index of the first sorted value that is not below the given one.
+         */
+        private int lowerBound(long value) {
+            int low = 0;
+            int high = count;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (values[middle] < value) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+    }
+}
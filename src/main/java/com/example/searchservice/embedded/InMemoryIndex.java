@@ -0,0 +1,528 @@
+package com.example.searchservice.embedded;
+
+import com.example.searchservice.model.SearchRequest;
+import com.example.searchservice.model.SearchableDocument;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Inverted index over {@link SearchableDocument}s held in memory, answering {@link SearchRequest}s the way the
+ * Elasticsearch index does, for deployments without a cluster.
+ *
+ * <ul>
+ *     <li>{@code title} and {@code content} are split into lowercase words, like the standard analyzer, and
+ *     scored with BM25 ({@code k1 = 1.2}, {@code b = 0.75}, Lucene's idf). A document matches when any query word
+ *     occurs in either field, and its score is the sum of both fields' scores.</li>
+ *     <li>{@code author}, {@code category} and {@code tags} filters match values exactly, each value's documents
+ *     kept as a bitset; a filter on a text field requires all of its words.</li>
+ *     <li>{@code createdDate} and {@code lastUpdatedDate} are {@code long} columns, used for sorting and for the
+ *     request's date range.</li>
+ * </ul>
+ *
+ * <p>Documents are numbered in the order they are added, and postings, field lengths and dates are primitive
+ * arrays indexed by that number. Adding a document whose id exists replaces it: the old number is marked deleted
+ * and no longer matches. Searches run concurrently; adding waits for running searches and blocks new ones.</p>
+ */
+public class InMemoryIndex {
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+
+    private static final List<String> KEYWORD_FIELDS = Arrays.asList("author", "category", "tags");
+    private static final String SCORE = "_score";
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final List<SearchableDocument> documents = new ArrayList<>();
+    private final Map<String, Integer> docsById = new HashMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private final Map<String, TextField> textFields = new HashMap<>();
+    private final Map<String, Map<String, BitSet>> keywordFields = new HashMap<>();
+    private final Map<String, DateColumn> dateColumns = new HashMap<>();
+
+    // Per-thread score accumulator, so a search does not allocate an array the size of the index
+    private final ThreadLocal<float[]> scoreBuffers = ThreadLocal.withInitial(() -> new float[0]);
+
+    public InMemoryIndex() {
+        textFields.put("title", new TextField());
+        textFields.put("content", new TextField());
+        KEYWORD_FIELDS.forEach(field -> keywordFields.put(field, new HashMap<>()));
+        dateColumns.put("createdDate", new DateColumn());
+        dateColumns.put("lastUpdatedDate", new DateColumn());
+    }
+
+    /**
+     * Adds documents, replacing documents with the same id.
+     *
+     * @param newDocuments documents to add; ids must not be null
+     */
+    public void addAll(Collection<SearchableDocument> newDocuments) {
+        lock.writeLock().lock();
+        try {
+            for (SearchableDocument document : newDocuments) {
+                add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return number of documents in the index, not counting replaced ones
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size() - deleted.cardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(SearchableDocument document) {
+        int doc = documents.size();
+        Integer previous = docsById.put(document.getId(), doc);
+        if (previous != null) {
+            deleted.set(previous);
+        }
+        documents.add(document);
+
+        textFields.get("title").add(doc, document.getTitle());
+        textFields.get("content").add(doc, document.getContent());
+        addKeyword("author", doc, document.getAuthor());
+        addKeyword("category", doc, document.getCategory());
+        if (document.getTags() != null) {
+            for (String tag : document.getTags()) {
+                addKeyword("tags", doc, tag);
+            }
+        }
+        dateColumns.get("createdDate").add(doc, millis(document.getCreatedDate()));
+        dateColumns.get("lastUpdatedDate").add(doc, millis(document.getLastUpdatedDate()));
+    }
+
+    private void addKeyword(String field, int doc, String value) {
+        if (value != null) {
+            keywordFields.get(field).computeIfAbsent(value, key -> new BitSet()).set(doc);
+        }
+    }
+
+    private static long millis(Date date) {
+        return date != null ? date.getTime() : DateColumn.MISSING;
+    }
+
+    /**
+     * Runs a search: query text, filters, date range, minimum score, sort and page.
+     *
+     * @param request the search request
+     * @return the requested page of hits and the exact number of matching documents
+     * @throws IllegalArgumentException if the request filters, sorts or ranges on a field the index does not
+     *                                  support, or a date cannot be parsed
+     */
+    public Result search(SearchRequest request) {
+        List<String> terms = analyze(request.getQuery());
+
+        lock.readLock().lock();
+        try {
+            int maxDoc = documents.size();
+            float[] scores = scoreBuffer(maxDoc);
+            BitSet scored = new BitSet(maxDoc);
+            try {
+                for (TextField field : textFields.values()) {
+                    field.score(terms, scores, scored);
+                }
+
+                BitSet candidates = (BitSet) scored.clone();
+                candidates.andNot(deleted);
+                if (request.getFilters() != null) {
+                    request.getFilters().forEach((field, value) -> {
+                        if (value != null) {
+                            candidates.and(filter(field, value));
+                        }
+                    });
+                }
+                if (request.getDateFrom() != null || request.getDateTo() != null) {
+                    candidates.and(dateRange(request));
+                }
+                if (request.getMinScore() != null) {
+                    float minScore = request.getMinScore();
+                    for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+                        if (scores[doc] < minScore) {
+                            candidates.clear(doc);
+                        }
+                    }
+                }
+
+                long offset = (long) request.getPage() * request.getSize();
+                int totalHits = candidates.cardinality();
+                if (offset >= totalHits) {
+                    return new Result(Collections.emptyList(), totalHits);
+                }
+                int[] top = topDocs(candidates, (int) Math.min(offset + request.getSize(), totalHits),
+                        comparator(request.getSort(), scores));
+
+                List<Hit> hits = new ArrayList<>(top.length - (int) offset);
+                for (int i = (int) offset; i < top.length; i++) {
+                    hits.add(new Hit(documents.get(top[i]), scores[top[i]]));
+                }
+                return new Result(hits, totalHits);
+            } finally {
+                for (int doc = scored.nextSetBit(0); doc >= 0; doc = scored.nextSetBit(doc + 1)) {
+                    scores[doc] = 0;  // Leave the buffer zeroed for the thread's next search
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private float[] scoreBuffer(int maxDoc) {
+        float[] scores = scoreBuffers.get();
+        if (scores.length < maxDoc) {
+            scores = new float[Math.max(maxDoc, scores.length + (scores.length >> 1))];
+            scoreBuffers.set(scores);
+        }
+        return scores;
+    }
+
+    /**
+     * Documents matching one filter entry: any of a collection's values, or the single value.
+     */
+    private BitSet filter(String field, Object value) {
+        Function<Object, BitSet> matcher;
+        if (keywordFields.containsKey(field)) {
+            Map<String, BitSet> values = keywordFields.get(field);
+            matcher = element -> values.getOrDefault(String.valueOf(element), new BitSet());
+        } else if (textFields.containsKey(field)) {
+            TextField textField = textFields.get(field);
+            matcher = element -> textField.containingAll(analyze(String.valueOf(element)));
+        } else {
+            throw new IllegalArgumentException("Filter on '" + field + "' is not supported by the embedded index, "
+                    + "expected one of " + KEYWORD_FIELDS + " or " + textFields.keySet());
+        }
+
+        if (!(value instanceof Collection)) {
+            return matcher.apply(value);
+        }
+        BitSet anyOf = new BitSet();
+        for (Object element : (Collection<?>) value) {
+            if (element != null) {
+                anyOf.or(matcher.apply(element));
+            }
+        }
+        return anyOf;
+    }
+
+    private BitSet dateRange(SearchRequest request) {
+        DateColumn column = dateColumns.get(request.getDateField());
+        if (column == null) {
+            throw new IllegalArgumentException("Date range on '" + request.getDateField()
+                    + "' is not supported by the embedded index, expected one of " + dateColumns.keySet());
+        }
+        long from = request.getDateFrom() != null ? parseDate(request.getDateFrom(), false) : Long.MIN_VALUE;
+        long to = request.getDateTo() != null ? parseDate(request.getDateTo(), true) : DateColumn.MISSING - 1;
+        return column.range(from, to);
+    }
+
+    /**
+     * Parses an ISO date or instant. A plain date as upper bound includes that whole day, as Elasticsearch
+     * rounds {@code lte} dates up.
+     */
+    static long parseDate(String value, boolean upperBound) {
+        try {
+            if (value.length() <= 10) {
+                LocalDate date = LocalDate.parse(value);
+                return upperBound
+                        ? date.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli() - 1
+                        : date.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+            }
+            return Instant.parse(value).toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date '" + value + "', expected e.g. 2023-01-01 or "
+                    + "2023-01-01T00:00:00Z", e);
+        }
+    }
+
+    /**
+     * Orders documents by the requested sort, by descending score if none, and by document number on ties.
+     * Missing dates and keywords sort last in either direction.
+     */
+    private DocComparator comparator(Map<String, String> sort, float[] scores) {
+        DocComparator byScore = (left, right) -> Float.compare(scores[right], scores[left]);
+        if (sort == null || sort.isEmpty()) {
+            return byScore.thenByDoc();
+        }
+
+        DocComparator comparator = null;
+        for (Map.Entry<String, String> entry : sort.entrySet()) {
+            boolean descending = "desc".equalsIgnoreCase(entry.getValue());
+            String field = entry.getKey();
+            DocComparator next;
+            if (SCORE.equals(field)) {
+                next = descending ? byScore : (left, right) -> Float.compare(scores[left], scores[right]);
+            } else if (dateColumns.containsKey(field)) {
+                DateColumn column = dateColumns.get(field);
+                next = (left, right) -> compareMissingLast(column.get(left), column.get(right), descending);
+            } else if (field.equals("author") || field.equals("category")) {
+                Function<SearchableDocument, String> getter = field.equals("author")
+                        ? SearchableDocument::getAuthor : SearchableDocument::getCategory;
+                next = (left, right) -> compareMissingLast(getter.apply(documents.get(left)),
+                        getter.apply(documents.get(right)), descending);
+            } else {
+                throw new IllegalArgumentException("Sorting on '" + field + "' is not supported by the embedded "
+                        + "index, expected _score, author, category or one of " + dateColumns.keySet());
+            }
+            comparator = comparator == null ? next : comparator.then(next);
+        }
+        return comparator.thenByDoc();
+    }
+
+    private static int compareMissingLast(long left, long right, boolean descending) {
+        if (left == DateColumn.MISSING || right == DateColumn.MISSING) {
+            return Boolean.compare(left == DateColumn.MISSING, right == DateColumn.MISSING);
+        }
+        return descending ? Long.compare(right, left) : Long.compare(left, right);
+    }
+
+    private static int compareMissingLast(String left, String right, boolean descending) {
+        if (left == null || right == null) {
+            return Boolean.compare(left == null, right == null);
+        }
+        return descending ? right.compareTo(left) : left.compareTo(right);
+    }
+
+    /**
+     * Selects the first {@code count} candidates in comparator order, keeping a heap of {@code count} document
+     * numbers with the last-ranked at the root.
+     *
+     * @return the selected documents in order
+     */
+    private static int[] topDocs(BitSet candidates, int count, DocComparator comparator) {
+        int[] heap = new int[count];
+        int size = 0;
+        for (int doc = candidates.nextSetBit(0); doc >= 0; doc = candidates.nextSetBit(doc + 1)) {
+            if (size < count) {
+                heap[size] = doc;
+                siftUp(heap, size++, comparator);
+            } else if (comparator.compare(doc, heap[0]) < 0) {
+                heap[0] = doc;
+                siftDown(heap, size, comparator);
+            }
+        }
+        // Take the last-ranked document off the root until the heap is empty, filling the result from the back
+        int[] sorted = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            sorted[i] = heap[0];
+            heap[0] = heap[i];
+            siftDown(heap, i, comparator);
+        }
+        return sorted;
+    }
+
+    private static void siftUp(int[] heap, int index, DocComparator comparator) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (comparator.compare(heap[index], heap[parent]) <= 0) {
+                return;
+            }
+            swap(heap, index, parent);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(int[] heap, int size, DocComparator comparator) {
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) {
+                return;
+            }
+            if (child + 1 < size && comparator.compare(heap[child + 1], heap[child]) > 0) {
+                child++;
+            }
+            if (comparator.compare(heap[index], heap[child]) >= 0) {
+                return;
+            }
+            swap(heap, index, child);
+            index = child;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int swap = heap[i];
+        heap[i] = heap[j];
+        heap[j] = swap;
+    }
+
+    /**
+     * Splits text into lowercase runs of letters and digits, as the standard analyzer does for the languages
+     * in the sample data.
+     *
+     * @param text text to split, may be null
+     * @return the words in order, with repetitions
+     */
+    public static List<String> analyze(String text) {
+        if (text == null || text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Ranks two documents: negative if the first comes first.
+     */
+    @FunctionalInterface
+    private interface DocComparator {
+
+        int compare(int left, int right);
+
+        default DocComparator then(DocComparator next) {
+            return (left, right) -> {
+                int result = compare(left, right);
+                return result != 0 ? result : next.compare(left, right);
+            };
+        }
+
+        default DocComparator thenByDoc() {
+            return then(Integer::compare);
+        }
+    }
+
+    /**
+     * Postings and length statistics of one analyzed field.
+     */
+    private static final class TextField {
+
+        private final Map<String, Postings> postings = new HashMap<>();
+        private int[] lengths = new int[16];
+        private long totalLength;
+        private int docCount;  // Documents with at least one word in the field
+
+        void add(int doc, String text) {
+            if (doc >= lengths.length) {
+                lengths = Arrays.copyOf(lengths, Math.max(doc + 1, lengths.length * 2));
+            }
+            List<String> terms = analyze(text);
+            if (terms.isEmpty()) {
+                return;
+            }
+            Map<String, int[]> freqs = new HashMap<>();
+            for (String term : terms) {
+                freqs.computeIfAbsent(term, key -> new int[1])[0]++;
+            }
+            freqs.forEach((term, freq) -> postings.computeIfAbsent(term, key -> new Postings()).add(doc, freq[0]));
+            lengths[doc] = terms.size();
+            totalLength += terms.size();
+            docCount++;
+        }
+
+        /**
+         * Adds each term's BM25 score to the documents containing it.
+         */
+        void score(List<String> terms, float[] scores, BitSet matched) {
+            if (docCount == 0) {
+                return;
+            }
+            double averageLength = (double) totalLength / docCount;
+            for (String term : terms) {
+                Postings termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                int docFreq = termPostings.size();
+                double idf = Math.log(1 + (docCount - docFreq + 0.5) / (docFreq + 0.5));
+                for (int i = 0; i < docFreq; i++) {
+                    int doc = termPostings.doc(i);
+                    int freq = termPostings.freq(i);
+                    double norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                    scores[doc] += (float) (idf * freq / (freq + norm));
+                    matched.set(doc);
+                }
+            }
+        }
+
+        /**
+         * Documents containing every term; none if there are no terms.
+         */
+        BitSet containingAll(List<String> terms) {
+            BitSet result = null;
+            for (String term : terms) {
+                BitSet docs = new BitSet();
+                Postings termPostings = postings.get(term);
+                if (termPostings != null) {
+                    for (int i = 0; i < termPostings.size(); i++) {
+                        docs.set(termPostings.doc(i));
+                    }
+                }
+                if (result == null) {
+                    result = docs;
+                } else {
+                    result.and(docs);
+                }
+            }
+            return result != null ? result : new BitSet();
+        }
+    }
+
+    /**
+     * A matching document and its score.
+     */
+    @Getter
+    public static final class Hit {
+
+        private final SearchableDocument document;
+        private final float score;
+
+        Hit(SearchableDocument document, float score) {
+            this.document = document;
+            this.score = score;
+        }
+    }
+
+    /**
+     * The requested page of hits.
+     */
+    @Getter
+    public static final class Result {
+
+        private final List<Hit> hits;
+
+        /**
+         * Exact number of matching documents.
+         */
+        private final long totalHits;
+
+        Result(List<Hit> hits, long totalHits) {
+            this.hits = hits;
+            this.totalHits = totalHits;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.searchservice.embedded;
+
+import java.util.Arrays;
+
+/**
+ * Documents containing one term of one field, with the term's frequency in each, in ascending document order.
+ *
+ * <p>Held in two growing {@code int} arrays rather than lists of objects, so a term costs two array headers
+ * however many documents contain it and the garbage collector has little to trace.</p>
+ */
+final class Postings {
+
+    private int[] docs = new int[4];
+    private int[] freqs = new int[4];
+    private int size;
+
+    /**
+     * Adds a document. Documents are numbered in the order they are indexed, so appending keeps the order.
+     *
+     * @param doc  document number, greater than any added before
+     * @param freq occurrences of the term in the document's field
+     */
+    void add(int doc, int freq) {
+        if (size == docs.length) {
+            docs = Arrays.copyOf(docs, size * 2);
+            freqs = Arrays.copyOf(freqs, size * 2);
+        }
+        docs[size] = doc;
+        freqs[size] = freq;
+        size++;
+    }
+
+    /**
+     * @return number of documents containing the term
+     */
+    int size() {
+        return size;
+    }
+
+    int doc(int index) {
+        return docs[index];
+    }
+
+    int freq(int index) {
+        return freqs[index];
+    }
+}
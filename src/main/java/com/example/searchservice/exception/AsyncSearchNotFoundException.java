@@ -0,0 +1,17 @@
+package com.example.searchservice.exception;
+
+/**
+ * Exception thrown when an async search does not exist, has expired or was submitted by another user.
+ * Answered with 404 Not Found in all cases, so ids of other users' searches cannot be probed.
+ */
+public class AsyncSearchNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new AsyncSearchNotFoundException.
+     *
+     * @param id the id that was looked up
+     */
+    public AsyncSearchNotFoundException(String id) {
+        super("Async search " + id + " not found");
+    }
+}
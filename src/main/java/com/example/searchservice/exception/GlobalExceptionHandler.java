@@ -39,6 +39,140 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    /**
+     * Handles SearchTimeoutException and returns a 504 Gateway Timeout response.
+     *
+     * @param ex SearchTimeoutException thrown when a search missed its deadline
+     * @param request Current HTTP request
+     * @return ResponseEntity with error information
+     */
+    @ExceptionHandler(SearchTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleSearchTimeoutException(
+            SearchTimeoutException ex, HttpServletRequest request) {
+
+        logger.warn("Search timeout: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.GATEWAY_TIMEOUT.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    /**
+     * Handles AsyncSearchNotFoundException and returns a 404 Not Found response.
+     *
+     * @param ex AsyncSearchNotFoundException thrown when an async search is unknown, expired or another user's
+     * @param request Current HTTP request
+     * @return ResponseEntity with error information
+     */
+    @ExceptionHandler(AsyncSearchNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleAsyncSearchNotFoundException(
+            AsyncSearchNotFoundException ex, HttpServletRequest request) {
+
+        logger.info("Async search not found: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.NOT_FOUND.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles SavedSearchNotFoundException and returns a 404 Not Found response.
+     *
+     * @param ex SavedSearchNotFoundException thrown when a saved search is unknown or another user's
+     * @param request Current HTTP request
+     * @return ResponseEntity with error information
+     */
+    @ExceptionHandler(SavedSearchNotFoundException.class)
+    public ResponseEntity<ErrorResponse> handleSavedSearchNotFoundException(
+            SavedSearchNotFoundException ex, HttpServletRequest request) {
+
+        logger.info("Saved search not found: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.NOT_FOUND.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Handles InvalidSavedSearchException and returns a 400 Bad Request response.
+     *
+     * @param ex InvalidSavedSearchException thrown when a saved search cannot be registered
+     * @param request Current HTTP request
+     * @return ResponseEntity with error information
+     */
+    @ExceptionHandler(InvalidSavedSearchException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidSavedSearchException(
+            InvalidSavedSearchException ex, HttpServletRequest request) {
+
+        logger.info("Saved search refused: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles InvalidChangeTokenException and returns a 400 Bad Request response.
+     *
+     * @param ex InvalidChangeTokenException thrown when a change feed token cannot be decoded
+     * @param request Current HTTP request
+     * @return ResponseEntity with error information
+     */
+    @ExceptionHandler(InvalidChangeTokenException.class)
+    public ResponseEntity<ErrorResponse> handleInvalidChangeTokenException(
+            InvalidChangeTokenException ex, HttpServletRequest request) {
+
+        logger.info("Change feed request refused: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                ex.getMessage(),
+                request.getRequestURI()
+        );
+        errorResponse.addValidationError("since", "Pass a token returned by the change feed");
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
+    /**
+     * Handles QueryRejectedException and returns a 400 Bad Request response listing each exceeded limit.
+     *
+     * @param ex QueryRejectedException thrown when a search exceeds the caller's query budget
+     * @param request Current HTTP request
+     * @return ResponseEntity with the exceeded limits as validation errors
+     */
+    @ExceptionHandler(QueryRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleQueryRejectedException(
+            QueryRejectedException ex, HttpServletRequest request) {
+
+        logger.warn("Query rejected: {}", ex.getMessage());
+
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.BAD_REQUEST.value(),
+                "Search exceeds the query budget",
+                request.getRequestURI()
+        );
+        ex.getViolations().forEach(errorResponse::addValidationError);
+
+        return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+    }
+
     /**
      * Handles ElasticsearchException and returns a 500 Internal Server Error response.
      *
@@ -0,0 +1,16 @@
+package com.example.searchservice.exception;
+
+/**
+ * Exception thrown when a change feed resume token cannot be decoded.
+ */
+public class InvalidChangeTokenException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidChangeTokenException.
+     *
+     * @param token the token that was passed
+     */
+    public InvalidChangeTokenException(String token) {
+        super("Invalid change token: " + token);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.searchservice.exception;
+
+/**
+ * Exception thrown when a saved search cannot be registered, such as when its webhook points to a host that
+ * is not allowed or the user already has the maximum number of saved searches.
+ */
+public class InvalidSavedSearchException extends RuntimeException {
+
+    /**
+     * Constructs a new InvalidSavedSearchException.
+     *
+     * @param message why the saved search was refused
+     */
+    public InvalidSavedSearchException(String message) {
+        super(message);
+    }
+}
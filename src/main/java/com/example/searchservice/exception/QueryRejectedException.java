@@ -0,0 +1,30 @@
+package com.example.searchservice.exception;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Exception thrown when a search exceeds the caller's query budget and cannot be rewritten to fit it.
+ * Carries one message per request field at fault, answered like validation errors.
+ */
+public class QueryRejectedException extends RuntimeException {
+
+    private final Map<String, String> violations;
+
+    /**
+     * Constructs a new QueryRejectedException.
+     *
+     * @param violations messages keyed by the request field they concern, in the order found
+     */
+    public QueryRejectedException(Map<String, String> violations) {
+        super("Search exceeds the query budget: " + String.join("; ", violations.values()));
+        this.violations = Collections.unmodifiableMap(violations);
+    }
+
+    /**
+     * @return messages keyed by the request field they concern
+     */
+    public Map<String, String> getViolations() {
+        return violations;
+    }
+}
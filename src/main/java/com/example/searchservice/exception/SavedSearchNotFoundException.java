@@ -0,0 +1,17 @@
+package com.example.searchservice.exception;
+
+/**
+ * Exception thrown when a saved search does not exist or was registered by another user.
+ * Answered with 404 Not Found in both cases, so ids of other users' saved searches cannot be probed.
+ */
+public class SavedSearchNotFoundException extends RuntimeException {
+
+    /**
+     * Constructs a new SavedSearchNotFoundException.
+     *
+     * @param id the id that was looked up
+     */
+    public SavedSearchNotFoundException(String id) {
+        super("Saved search " + id + " not found");
+    }
+}
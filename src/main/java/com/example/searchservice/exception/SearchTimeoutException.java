@@ -0,0 +1,17 @@
+package com.example.searchservice.exception;
+
+/**
+ * Exception thrown when a search has not completed by the caller's deadline and has been cancelled.
+ * Answered with 504 Gateway Timeout, since the time was spent waiting for Elasticsearch.
+ */
+public class SearchTimeoutException extends RuntimeException {
+
+    /**
+     * Constructs a new SearchTimeoutException with the specified detail message.
+     *
+     * @param message the detail message explaining which deadline was missed
+     */
+    public SearchTimeoutException(String message) {
+        super(message);
+    }
+}
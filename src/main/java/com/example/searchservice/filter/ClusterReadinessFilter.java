@@ -0,0 +1,70 @@
+package com.example.searchservice.filter;
+
+import com.example.searchservice.model.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Answers requests with 503 Service Unavailable until Elasticsearch is first reported ready, for deferred
+ * startup where the server accepts connections before the cluster has been reached.
+ *
+ * <p>Once the readiness indicator has reported UP, the filter lets every request through for the rest of the
+ * application's life: later outages are handled by the readiness probe and the regular error responses, not by
+ * turning all searches away here.</p>
+ */
+public class ClusterReadinessFilter extends OncePerRequestFilter {
+
+    private final HealthIndicator readiness;
+    private final ObjectMapper objectMapper;
+    private final int retryAfterSeconds;
+
+    private volatile boolean ready;
+
+    /**
+     * @param readiness         indicator reporting whether Elasticsearch is ready; only read until it reports UP
+     * @param objectMapper      mapper for the error body
+     * @param retryAfterSeconds value of the {@code Retry-After} header of rejected requests
+     */
+    public ClusterReadinessFilter(HealthIndicator readiness, ObjectMapper objectMapper, int retryAfterSeconds) {
+        this.readiness = readiness;
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isReady()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ErrorResponse error = new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE.value(),
+                "Search service is starting: Elasticsearch is not ready yet", request.getRequestURI());
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    /**
+     * @return whether Elasticsearch has been reported ready since startup
+     */
+    public boolean isReady() {
+        if (!ready && Status.UP.equals(readiness.health().getStatus())) {
+            ready = true;  // Latched, see class description
+        }
+        return ready;
+    }
+}
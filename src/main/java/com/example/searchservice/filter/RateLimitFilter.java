@@ -0,0 +1,152 @@
+package com.example.searchservice.filter;
+
+import com.example.searchservice.filter.TokenBucketRateLimiter.Budget;
+import com.example.searchservice.filter.TokenBucketRateLimiter.Quota;
+import com.example.searchservice.model.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limits the request rate of each authenticated principal, with a separate budget for search, batch and export
+ * endpoints. Principals with the ADMIN role get the admin quotas, everyone else the user quotas.
+ *
+ * <p>Requests over the quota are answered with 429 Too Many Requests and a {@code Retry-After} header; every
+ * limited request carries {@code X-RateLimit-Limit} and {@code X-RateLimit-Remaining}. The filter runs after the
+ * security filter chain, so unauthenticated requests are rejected with 401 before they use any budget, and
+ * endpoints open to anonymous callers are not limited.</p>
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * Bucket size of the budget the request was charged to.
+     */
+    public static final String LIMIT_HEADER = "X-RateLimit-Limit";
+
+    /**
+     * Tokens left in the bucket after the request.
+     */
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    private static final String ADMIN_AUTHORITY = "ROLE_ADMIN";
+
+    private final TokenBucketRateLimiter limiter;
+    private final Map<Budget, Quota> userQuotas;
+    private final Map<Budget, Quota> adminQuotas;
+    private final Map<String, Budget> routes;
+    private final ObjectMapper objectMapper;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private final Map<Budget, Counter> admitted = new EnumMap<>(Budget.class);
+    private final Map<Budget, Counter> throttled = new EnumMap<>(Budget.class);
+
+    /**
+     * @param limiter       the token buckets
+     * @param userQuotas    quotas of principals without the ADMIN role; budgets not listed are not limited
+     * @param adminQuotas   quotas of principals with the ADMIN role
+     * @param routes        path patterns, optionally preceded by a method as in {@code POST /api/saved-searches},
+     *                      and the budget they are charged to, first match wins
+     * @param objectMapper  mapper for the error body
+     * @param meterRegistry registry for the {@code api.rate.limit} metrics
+     */
+    public RateLimitFilter(TokenBucketRateLimiter limiter, Map<Budget, Quota> userQuotas, Map<Budget, Quota> adminQuotas,
+                           Map<String, Budget> routes, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.userQuotas = userQuotas;
+        this.adminQuotas = adminQuotas;
+        this.routes = new LinkedHashMap<>(routes);
+        this.objectMapper = objectMapper;
+
+        for (Budget budget : Budget.values()) {
+            String name = budget.name().toLowerCase(Locale.ROOT);
+            admitted.put(budget, Counter.builder("api.rate.limit").tag("budget", name).tag("result", "admitted")
+                    .description("Requests within their principal's quota").register(meterRegistry));
+            throttled.put(budget, Counter.builder("api.rate.limit").tag("budget", name).tag("result", "throttled")
+                    .description("Requests rejected with 429").register(meterRegistry));
+        }
+        Gauge.builder("api.rate.limit.principals", limiter, TokenBucketRateLimiter::size)
+                .description("Principals with rate limit buckets").register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Budget budget = budgetOf(request);
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        Quota quota = budget == null || authentication == null || authentication instanceof AnonymousAuthenticationToken
+                ? null : quotasOf(authentication).get(budget);
+        if (quota == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long result = limiter.tryAcquire(authentication.getName(), budget, quota);
+        response.setHeader(LIMIT_HEADER, Integer.toString(quota.getBurst()));
+        if (TokenBucketRateLimiter.isAdmitted(result)) {
+            admitted.get(budget).increment();
+            response.setHeader(REMAINING_HEADER, Long.toString(result));
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        throttled.get(budget).increment();
+        long retryAfterSeconds = Math.max(1,
+                (TokenBucketRateLimiter.retryAfterNanos(result) + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        ErrorResponse error = new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS.value(),
+                "Rate limit exceeded for " + budget.name().toLowerCase(Locale.ROOT) + " requests", request.getRequestURI());
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(REMAINING_HEADER, "0");
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), error);
+    }
+
+    private Budget budgetOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        for (Map.Entry<String, Budget> route : routes.entrySet()) {
+            String pattern = route.getKey();
+            int space = pattern.indexOf(' ');
+            if (space > 0) {  // Only requests with that method
+                if (space != method.length() || !pattern.regionMatches(true, 0, method, 0, space)) {
+                    continue;
+                }
+                pattern = pattern.substring(space + 1);
+            }
+            if (pathMatcher.match(pattern, path)) {
+                return route.getValue();
+            }
+        }
+        return null;
+    }
+
+    private Map<Budget, Quota> quotasOf(Authentication authentication) {
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (ADMIN_AUTHORITY.equals(authority.getAuthority())) {
+                return adminQuotas;
+            }
+        }
+        return userQuotas;
+    }
+}
@@ -0,0 +1,417 @@
+package com.example.searchservice.filter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.WebUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Collection;
+import java.util.Enumeration;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compresses API responses for clients that accept it, once the body reaches a size threshold.
+ *
+ * <p>Only the first {@code minResponseSize} bytes are held back to decide; from then on the body is compressed
+ * as it is written, and a flush sends what has been compressed so far, so streaming responses keep streaming.
+ * A flush before the threshold is reached sends the body uncompressed, since its size is not known yet. Every
+ * compressed response records its compressed-to-original size ratio, the CPU time spent compressing, and the
+ * bytes before and after, under {@code http.server.compression.*}.</p>
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final int minResponseSize;
+    private final Collection<MediaType> mimeTypes;
+
+    private final DistributionSummary ratio;
+    private final Timer cpuTime;
+    private final Counter originalBytes;
+    private final Counter compressedBytes;
+
+    /**
+     * Creates the filter and registers its metrics.
+     *
+     * @param minResponseSize smallest body in bytes worth compressing
+     * @param mimeTypes       content types that are compressed
+     * @param registry        registry for the compression metrics
+     */
+    public ResponseCompressionFilter(int minResponseSize, Collection<MediaType> mimeTypes, MeterRegistry registry) {
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = mimeTypes;
+        this.ratio = DistributionSummary.builder("http.server.compression.ratio")
+                .description("Compressed size divided by original size of compressed responses")
+                .publishPercentiles(0.5, 0.95)
+                .register(registry);
+        this.cpuTime = Timer.builder("http.server.compression.cpu")
+                .description("CPU time spent compressing responses")
+                .register(registry);
+        this.originalBytes = Counter.builder("http.server.compression.bytes")
+                .description("Response bytes before and after compression")
+                .tag("stage", "original")
+                .register(registry);
+        this.compressedBytes = Counter.builder("http.server.compression.bytes")
+                .description("Response bytes before and after compression")
+                .tag("stage", "compressed")
+                .register(registry);
+    }
+
+    /**
+     * Async dispatches are filtered too, so the compressed body of an asynchronous request is completed when it ends.
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (!acceptsGzip(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        // Reuse the wrapper from the initial dispatch when this is an async dispatch
+        CompressingResponseWrapper wrapper = WebUtils.getNativeResponse(response, CompressingResponseWrapper.class);
+        if (wrapper == null) {
+            wrapper = new CompressingResponseWrapper(response);
+            wrapper.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+
+        filterChain.doFilter(request, wrapper);
+
+        if (!isAsyncStarted(request)) {
+            wrapper.finish();
+        }
+    }
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MediaType type = MediaType.parseMediaType(contentType);
+        return mimeTypes.stream().anyMatch(candidate -> candidate.includes(type));
+    }
+
+    private static boolean acceptsGzip(HttpServletRequest request) {
+        Enumeration<String> values = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (values != null && values.hasMoreElements()) {
+            for (String coding : values.nextElement().split(",")) {
+                String[] parts = coding.trim().split(";");
+                if (GZIP.equalsIgnoreCase(parts[0].trim()) && !(parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static long currentThreadCpuNanos() {
+        return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    /**
+     * Response whose body is held back until it reaches the size threshold or is flushed, and then either
+     * compressed or passed through. Content-Length is only passed on for uncompressed bodies.
+     */
+    private final class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+        private final CompressingOutputStream outputStream = new CompressingOutputStream(this);
+        private PrintWriter writer;
+        private long contentLength = -1;
+
+        private CompressingResponseWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called for this response");
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            if (!outputStream.isDecided()) {
+                contentLength = length;
+            } else if (!outputStream.isCompressing()) {
+                super.setContentLengthLong(length);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.setIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.addIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            outputStream.flush();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void resetBuffer() {
+            outputStream.reset();
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            outputStream.reset();
+            contentLength = -1;
+            super.reset();
+        }
+
+        /**
+         * Writes what is still held back and completes the compressed body.
+         */
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            outputStream.finish();
+        }
+
+        private HttpServletResponse rawResponse() {
+            return (HttpServletResponse) getResponse();
+        }
+    }
+
+    /**
+     * Body stream deciding between compressing and passing through once it holds enough bytes or is flushed.
+     */
+    private final class CompressingOutputStream extends ServletOutputStream {
+
+        private final CompressingResponseWrapper response;
+        private ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private OutputStream target;
+        private GZIPOutputStream gzip;
+        private long original;
+        private long compressed;
+        private long cpuNanos;
+        private boolean finished;
+
+        private CompressingOutputStream(CompressingResponseWrapper response) {
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            if (target == null) {
+                pending.write(bytes, offset, length);
+                if (pending.size() >= minResponseSize) {
+                    decide(true);
+                }
+                return;
+            }
+            writeTarget(bytes, offset, length);
+        }
+
+        /**
+         * Sends what has been written so far. Before the threshold the body is then sent uncompressed.
+         */
+        @Override
+        public void flush() throws IOException {
+            if (target == null) {
+                decide(false);
+            }
+            if (gzip != null) {
+                long cpuStart = currentThreadCpuNanos();
+                gzip.flush();  // Sync flush, so the client can decompress everything written so far
+                cpuNanos += currentThreadCpuNanos() - cpuStart;
+            } else {
+                target.flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+            response.rawResponse().getOutputStream().close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return rawOutputStream().isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            rawOutputStream().setWriteListener(writeListener);
+        }
+
+        private ServletOutputStream rawOutputStream() {
+            try {
+                return response.rawResponse().getOutputStream();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private boolean isDecided() {
+            return target != null;
+        }
+
+        private boolean isCompressing() {
+            return gzip != null;
+        }
+
+        private void reset() {
+            if (target == null) {
+                pending.reset();
+            }
+        }
+
+        private void decide(boolean largeEnough) throws IOException {
+            HttpServletResponse raw = response.rawResponse();
+            boolean compress = largeEnough && !response.containsHeader(HttpHeaders.CONTENT_ENCODING)
+                    && isCompressible(response.getContentType());
+            if (compress) {
+                raw.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+                gzip = new GZIPOutputStream(new FilterOutputStream(raw.getOutputStream()) {
+                    @Override
+                    public void write(byte[] bytes, int offset, int length) throws IOException {
+                        compressed += length;
+                        out.write(bytes, offset, length);
+                    }
+
+                    @Override
+                    public void write(int b) throws IOException {
+                        compressed++;
+                        out.write(b);
+                    }
+                }, true);
+                target = gzip;
+            } else {
+                if (response.contentLength >= 0) {
+                    raw.setContentLengthLong(response.contentLength);
+                }
+                target = raw.getOutputStream();
+            }
+
+            byte[] held = pending.toByteArray();
+            pending = null;
+            writeTarget(held, 0, held.length);
+        }
+
+        private void writeTarget(byte[] bytes, int offset, int length) throws IOException {
+            if (gzip == null) {
+                target.write(bytes, offset, length);
+                return;
+            }
+            long cpuStart = currentThreadCpuNanos();
+            gzip.write(bytes, offset, length);
+            cpuNanos += currentThreadCpuNanos() - cpuStart;
+            original += length;
+        }
+
+        private void finish() throws IOException {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (target == null && pending.size() == 0) {
+                if (response.contentLength >= 0) {
+                    response.rawResponse().setContentLengthLong(response.contentLength);
+                }
+                return;  // No body, or one written directly, such as an error page
+            }
+            if (target == null) {
+                decide(false);  // Ended below the threshold
+            }
+            if (gzip == null) {
+                return;
+            }
+
+            long cpuStart = currentThreadCpuNanos();
+            gzip.finish();
+            cpuTime.record(cpuNanos + currentThreadCpuNanos() - cpuStart, TimeUnit.NANOSECONDS);
+            if (original > 0) {
+                ratio.record((double) compressed / original);
+            }
+            originalBytes.increment(original);
+            compressedBytes.increment(compressed);
+            response.rawResponse().flushBuffer();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.searchservice.filter;
+
+import java.io.Closeable;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per principal and budget, refilled continuously at the quota's rate up to its burst size.
+ *
+ * <p>Each bucket is a single {@code long}: the time at which it will be full again (the generic cell rate
+ * algorithm, which admits exactly the requests a token bucket admits). Taking a token is one compare-and-set on
+ * that value, so the hot path neither locks nor allocates. A principal's buckets share one
+ * {@link AtomicLongArray}, spaced a cache line apart so that concurrent search and export requests of the same
+ * principal do not contend; different principals never share a stripe.</p>
+ *
+ * <p>A bucket whose refill time has passed is full, which is exactly the state of a new bucket, so principals
+ * whose buckets have all been full for the idle timeout are evicted by a background task without changing any
+ * outcome. A request racing with the eviction of its own principal may go uncounted.</p>
+ */
+public class TokenBucketRateLimiter implements Closeable {
+
+    /**
+     * Separately limited groups of endpoints.
+     */
+    public enum Budget {
+        SEARCH,
+        /**
+         * Index maintenance operations working on many documents at once.
+         */
+        BATCH,
+        /**
+         * Streaming responses carrying raw hits.
+         */
+        EXPORT
+    }
+
+    private static final int STRIDE = 8;  // 8 longs = 64 bytes, one cache line per bucket
+
+    private final Map<String, AtomicLongArray> buckets = new ConcurrentHashMap<>();
+    private final long idleTimeoutNanos;
+    private final LongSupplier nanoClock;
+    private final ScheduledExecutorService evictor;
+
+    /**
+     * Creates the limiter on the system clock and starts evicting idle principals.
+     *
+     * @param idleTimeoutMillis time a principal's buckets stay full before they are evicted
+     */
+    public TokenBucketRateLimiter(long idleTimeoutMillis) {
+        this(idleTimeoutMillis, System::nanoTime);
+        long period = Math.max(idleTimeoutMillis / 2, 1000);
+        evictor.scheduleWithFixedDelay(this::evictIdle, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates the limiter without background eviction, for tests driving the clock and {@link #evictIdle()}.
+     *
+     * @param idleTimeoutMillis time a principal's buckets stay full before they are evicted
+     * @param nanoClock         source of the current time in nanoseconds
+     */
+    TokenBucketRateLimiter(long idleTimeoutMillis, LongSupplier nanoClock) {
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMillis);
+        this.nanoClock = nanoClock;
+        this.evictor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rate-limit-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Takes a token from the principal's bucket for the budget.
+     *
+     * @param principal name of the authenticated principal
+     * @param budget    budget the request is charged to
+     * @param quota     refill rate and size of the bucket
+     * @return the tokens left if the request is admitted, otherwise minus the nanoseconds until a token is available;
+     * see {@link #isAdmitted(long)}
+     */
+    public long tryAcquire(String principal, Budget budget, Quota quota) {
+        AtomicLongArray principalBuckets = buckets.get(principal);
+        if (principalBuckets == null) {
+            principalBuckets = buckets.computeIfAbsent(principal, key -> newBuckets());
+        }
+        int slot = budget.ordinal() * STRIDE;
+        long capacityNanos = quota.intervalNanos * quota.burst;
+
+        while (true) {
+            long now = nanoClock.getAsLong();
+            long fullAt = principalBuckets.get(slot);
+            long next = Math.max(fullAt, now) + quota.intervalNanos;
+            long debt = next - now;  // Time the bucket needs to refill after this request
+            if (debt > capacityNanos) {
+                return -(debt - capacityNanos);
+            }
+            if (principalBuckets.compareAndSet(slot, fullAt, next)) {
+                return (capacityNanos - debt) / quota.intervalNanos;
+            }
+        }
+    }
+
+    /**
+     * @param result value returned by {@link #tryAcquire}
+     * @return whether the request was admitted
+     */
+    public static boolean isAdmitted(long result) {
+        return result >= 0;
+    }
+
+    /**
+     * @param result value returned by {@link #tryAcquire} for a rejected request
+     * @return nanoseconds until the next request would be admitted
+     */
+    public static long retryAfterNanos(long result) {
+        return -result;
+    }
+
+    /**
+     * Removes the principals whose buckets have all been full for the idle timeout.
+     */
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        buckets.entrySet().removeIf(entry -> isIdle(entry.getValue(), now));
+    }
+
+    /**
+     * @return the number of principals with buckets
+     */
+    public int size() {
+        return buckets.size();
+    }
+
+    /**
+     * Stops evicting idle principals.
+     */
+    @Override
+    public void close() {
+        evictor.shutdownNow();
+    }
+
+    private AtomicLongArray newBuckets() {
+        AtomicLongArray principalBuckets = new AtomicLongArray(Budget.values().length * STRIDE);
+        long now = nanoClock.getAsLong();
+        for (Budget budget : Budget.values()) {
+            principalBuckets.set(budget.ordinal() * STRIDE, now);  // Full
+        }
+        return principalBuckets;
+    }
+
+    private boolean isIdle(AtomicLongArray principalBuckets, long now) {
+        for (Budget budget : Budget.values()) {
+            if (now - principalBuckets.get(budget.ordinal() * STRIDE) < idleTimeoutNanos) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Refill rate and size of a bucket.
+     */
+    public static final class Quota {
+
+        private final long intervalNanos;
+        private final int burst;
+
+        /**
+         * @param permitsPerSecond tokens added per second
+         * @param burst            tokens the bucket holds, i.e. requests admitted at once after a pause
+         */
+        public Quota(double permitsPerSecond, int burst) {
+            if (permitsPerSecond <= 0 || burst < 1) {
+                throw new IllegalArgumentException("Rate and burst must be positive: " + permitsPerSecond + ":" + burst);
+            }
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+            this.burst = burst;
+        }
+
+        /**
+         * @return tokens the bucket holds
+         */
+        public int getBurst() {
+            return burst;
+        }
+
+        /**
+         * Parses quotas written as {@code budget=rate:burst} pairs separated by commas, e.g.
+         * {@code search=20:40,export=1:2} for 20 searches per second with bursts of 40. Budgets not listed are
+         * not limited.
+         *
+         * @param text the quotas
+         * @return the quota of each listed budget
+         * @throws IllegalArgumentException if the text is malformed
+         */
+        public static Map<Budget, Quota> parse(String text) {
+            Map<Budget, Quota> quotas = new EnumMap<>(Budget.class);
+            for (String pair : text.split(",")) {
+                if (pair.isBlank()) {
+                    continue;
+                }
+                String[] budgetAndQuota = pair.trim().split("=");
+                String[] rateAndBurst = budgetAndQuota.length == 2 ? budgetAndQuota[1].split(":") : new String[0];
+                if (rateAndBurst.length != 2) {
+                    throw new IllegalArgumentException("Expected budget=rate:burst but got '" + pair.trim() + "'");
+                }
+                quotas.put(Budget.valueOf(budgetAndQuota[0].trim().toUpperCase(Locale.ROOT)),
+                        new Quota(Double.parseDouble(rateAndBurst[0].trim()), Integer.parseInt(rateAndBurst[1].trim())));
+            }
+            return quotas;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.searchservice.governor;
+
+import lombok.Getter;
+
+/**
+ * Limits a search must stay within to be executed, see {@link QueryGovernor}.
+ */
+@Getter
+public class QueryBudget {
+
+    /**
+     * Largest page size; larger pages are clamped to it.
+     */
+    private final int maxSize;
+
+    /**
+     * Deepest hit that can be requested, i.e. the largest {@code (page + 1) * size}.
+     */
+    private final int maxWindow;
+
+    /**
+     * Most terms in the query text.
+     */
+    private final int maxTerms;
+
+    /**
+     * Most query and filter clauses.
+     */
+    private final int maxClauses;
+
+    /**
+     * Largest estimated cost, see {@link QueryGovernor#estimateCost}.
+     */
+    private final long maxCost;
+
+    /**
+     * @param maxSize    largest page size
+     * @param maxWindow  deepest hit that can be requested
+     * @param maxTerms   most terms in the query text
+     * @param maxClauses most query and filter clauses
+     * @param maxCost    largest estimated cost
+     */
+    public QueryBudget(int maxSize, int maxWindow, int maxTerms, int maxClauses, long maxCost) {
+        this.maxSize = maxSize;
+        this.maxWindow = maxWindow;
+        this.maxTerms = maxTerms;
+        this.maxClauses = maxClauses;
+        this.maxCost = maxCost;
+    }
+
+    /**
+     * Parses a budget written as {@code size=100,window=10000,terms=32,clauses=64,cost=20000}. Every limit must
+     * be given.
+     *
+     * @param text the budget
+     * @return the parsed budget
+     * @throws IllegalArgumentException if a limit is missing, unknown or not a positive number
+     */
+    public static QueryBudget parse(String text) {
+        long[] limits = {-1, -1, -1, -1, -1};
+        String[] names = {"size", "window", "terms", "clauses", "cost"};
+        for (String pair : text.split(",")) {
+            String[] nameAndValue = pair.trim().split("=");
+            int index = nameAndValue.length == 2 ? indexOf(names, nameAndValue[0].trim()) : -1;
+            if (index < 0) {
+                throw new IllegalArgumentException("Expected one of size, window, terms, clauses or cost=<limit> but got '"
+                        + pair.trim() + "'");
+            }
+            limits[index] = Long.parseLong(nameAndValue[1].trim());
+        }
+        for (int i = 0; i < limits.length; i++) {
+            if (limits[i] < 1 || (i < 4 && limits[i] > Integer.MAX_VALUE)) {
+                throw new IllegalArgumentException("Missing or invalid " + names[i] + " limit in '" + text + "'");
+            }
+        }
+        return new QueryBudget((int) limits[0], (int) limits[1], (int) limits[2], (int) limits[3], limits[4]);
+    }
+
+    private static int indexOf(String[] names, String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.searchservice.governor;
+
+import com.example.searchservice.exception.QueryRejectedException;
+import com.example.searchservice.model.SearchRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Checks searches against the caller's query budget before they are executed, rewriting or rejecting those that
+ * would be expensive for the cluster. Principals with the ADMIN role get the admin budget, everyone else the user
+ * budget.
+ *
+ * <p>Pages larger than the budget's size are clamped when the first requested hit can be kept, i.e. when the
+ * offset is a multiple of the allowed size. Searches reaching deeper than the allowed window, with too many terms
+ * or clauses, or estimated above the cost limit are rejected with a message per offending field.</p>
+ *
+ * <p>The cost estimate, in rough units of hits collected, is {@code window + 10 * size + 100 * clauses}: every shard
+ * collects {@code (page + 1) * size} hits, the page's sources are fetched and returned, and each clause walks a
+ * posting list. Clauses are the query terms times the two searched fields plus one per filter value. Query text
+ * is matched, never parsed, so wildcard and fuzzy syntax is matched literally and adds no cost, and the API offers
+ * no facets to account for.</p>
+ */
+@Component
+public class QueryGovernor {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryGovernor.class);
+
+    private static final String ADMIN_AUTHORITY = "ROLE_ADMIN";
+    private static final int SEARCHED_FIELDS = 2;  // title and content, see SearchServiceImpl#buildQuery
+    private static final int FETCH_COST = 10;
+    private static final int CLAUSE_COST = 100;
+
+    @Value("${search.governor.enabled:true}")
+    private boolean enabled;
+
+    private final QueryBudget userBudget;
+    private final QueryBudget adminBudget;
+
+    private final Counter accepted;
+    private final Counter rewritten;
+    private final Counter rejected;
+
+    /**
+     * @param userBudget    budget of principals without the ADMIN role
+     * @param adminBudget   budget of principals with the ADMIN role
+     * @param meterRegistry registry for the {@code search.governor} outcome counter
+     */
+    public QueryGovernor(@Value("${search.governor.budget.user:size=100,window=10000,terms=32,clauses=64,cost=20000}") String userBudget,
+                         @Value("${search.governor.budget.admin:size=1000,window=10000,terms=128,clauses=256,cost=100000}") String adminBudget,
+                         MeterRegistry meterRegistry) {
+        this.userBudget = QueryBudget.parse(userBudget);
+        this.adminBudget = QueryBudget.parse(adminBudget);
+        this.accepted = outcome(meterRegistry, "accepted", "Searches within the query budget");
+        this.rewritten = outcome(meterRegistry, "rewritten", "Searches changed to fit the query budget");
+        this.rejected = outcome(meterRegistry, "rejected", "Searches rejected for exceeding the query budget");
+    }
+
+    /**
+     * Checks a search against the caller's budget, clamping its page size if needed.
+     *
+     * @param searchRequest  search to check, changed in place when rewritten
+     * @param authentication caller, selecting the budget; null for the user budget
+     * @return a description of each change made, empty if the search was accepted as is
+     * @throws QueryRejectedException if the search exceeds the budget and cannot be rewritten to fit it
+     */
+    public List<String> review(SearchRequest searchRequest, Authentication authentication) {
+        if (!enabled) {
+            return Collections.emptyList();
+        }
+        QueryBudget budget = isAdmin(authentication) ? adminBudget : userBudget;
+        List<String> rewrites = new ArrayList<>();
+        Map<String, String> violations = new LinkedHashMap<>();
+
+        int size = searchRequest.getSize();
+        long offset = (long) searchRequest.getPage() * size;
+        if (size > budget.getMaxSize()) {
+            if (offset % budget.getMaxSize() == 0) {
+                searchRequest.setSize(budget.getMaxSize());
+                searchRequest.setPage((int) (offset / budget.getMaxSize()));
+                rewrites.add("size clamped from " + size + " to " + budget.getMaxSize());
+            } else {
+                violations.put("size", "Page size " + size + " exceeds the limit of " + budget.getMaxSize());
+            }
+        }
+
+        long window = offset + searchRequest.getSize();
+        if (window > budget.getMaxWindow()) {
+            violations.put("page", "Page " + searchRequest.getPage() + " reaches hit " + window + ", beyond the deepest "
+                    + budget.getMaxWindow() + "; narrow the search with filters instead of paging further");
+        }
+
+        int terms = countTerms(searchRequest.getQuery());
+        if (terms > budget.getMaxTerms()) {
+            violations.put("query", "Query has " + terms + " terms, more than the limit of " + budget.getMaxTerms());
+        }
+
+        int clauses = countClauses(searchRequest, terms);
+        if (clauses > budget.getMaxClauses()) {
+            violations.put("filters", "Search has " + clauses + " query and filter clauses, more than the limit of "
+                    + budget.getMaxClauses());
+        }
+
+        if (violations.isEmpty()) {
+            long cost = estimateCost(searchRequest);
+            if (cost > budget.getMaxCost()) {
+                violations.put("query", "Estimated cost " + cost + " exceeds the limit of " + budget.getMaxCost()
+                        + "; request a smaller page or fewer terms and filters");
+            }
+        }
+
+        if (!violations.isEmpty()) {
+            rejected.increment();
+            logger.info("Rejected search over budget: {}", violations.values());
+            throw new QueryRejectedException(violations);
+        }
+        if (!rewrites.isEmpty()) {
+            rewritten.increment();
+            logger.info("Rewrote search to fit budget: {}", rewrites);
+        } else {
+            accepted.increment();
+        }
+        return rewrites;
+    }
+
+    /**
+     * Estimates the cost of a search, see the class description.
+     *
+     * @param searchRequest the search
+     * @return the estimated cost
+     */
+    public long estimateCost(SearchRequest searchRequest) {
+        long size = searchRequest.getSize();
+        long window = ((long) searchRequest.getPage() + 1) * size;
+        int clauses = countClauses(searchRequest, countTerms(searchRequest.getQuery()));
+        return window + FETCH_COST * size + (long) CLAUSE_COST * clauses;
+    }
+
+    /**
+     * Counts the terms the query text is analyzed into, approximated as runs of letters and digits.
+     */
+    static int countTerms(String query) {
+        if (query == null) {
+            return 0;
+        }
+        int terms = 0;
+        boolean inTerm = false;
+        for (int i = 0; i < query.length(); ) {
+            int codePoint = query.codePointAt(i);
+            boolean termCharacter = Character.isLetterOrDigit(codePoint);
+            if (termCharacter && !inTerm) {
+                terms++;
+            }
+            inTerm = termCharacter;
+            i += Character.charCount(codePoint);
+        }
+        return terms;
+    }
+
+    private static int countClauses(SearchRequest searchRequest, int terms) {
+        int clauses = terms * SEARCHED_FIELDS;
+        if (searchRequest.getFilters() != null) {
+            for (Object value : searchRequest.getFilters().values()) {
+                if (value instanceof Collection) {
+                    clauses += ((Collection<?>) value).size();
+                } else if (value != null) {
+                    clauses++;
+                }
+            }
+        }
+        return clauses;
+    }
+
+    private static boolean isAdmin(Authentication authentication) {
+        if (authentication == null) {
+            return false;
+        }
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            if (ADMIN_AUTHORITY.equals(authority.getAuthority())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome, String description) {
+        return Counter.builder("search.governor").tag("outcome", outcome).description(description).register(registry);
+    }
+}
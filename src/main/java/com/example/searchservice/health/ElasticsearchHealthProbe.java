@@ -0,0 +1,220 @@
+package com.example.searchservice.health;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import org.apache.http.client.config.RequestConfig;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks Elasticsearch in the background and keeps the outcome of the last check.
+ *
+ * <p>Each check asks for the cluster health, whether the index exists and runs a canary search that matches at
+ * most one document, all with a short timeout. Health checks read {@link #getLastResult()} instead of calling
+ * Elasticsearch themselves, so they answer immediately however often they are polled and however slow the
+ * cluster is, and the cluster sees one probe per interval regardless of the number of pollers.</p>
+ */
+public class ElasticsearchHealthProbe implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElasticsearchHealthProbe.class);
+
+    private final RestClient restClient;
+    private final String indexName;
+    private final long timeoutMillis;
+    private final RequestOptions requestOptions;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService scheduler;
+
+    private final long startedAtMillis = System.currentTimeMillis();
+    private volatile Result lastResult;
+
+    /**
+     * @param restClient    client used for the probe requests
+     * @param indexName     index whose existence is checked and that the canary search runs against
+     * @param timeoutMillis connect and socket timeout of each probe request
+     */
+    public ElasticsearchHealthProbe(RestClient restClient, String indexName, long timeoutMillis) {
+        this.restClient = restClient;
+        this.indexName = indexName;
+        this.timeoutMillis = timeoutMillis;
+        this.requestOptions = RequestOptions.DEFAULT.toBuilder()
+                .setRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) timeoutMillis)
+                        .setSocketTimeout((int) timeoutMillis)
+                        .build())
+                .build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "elasticsearch-health-probe");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Starts probing: once right away, then after each interval.
+     *
+     * @param intervalMillis delay between the end of one probe and the start of the next
+     */
+    public void start(long intervalMillis) {
+        scheduler.scheduleWithFixedDelay(this::probeQuietly, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        logger.info("Probing Elasticsearch every {} ms with a timeout of {} ms", intervalMillis, timeoutMillis);
+    }
+
+    /**
+     * Returns the outcome of the most recent probe.
+     *
+     * @return the last result, or null if no probe has completed yet
+     */
+    public Result getLastResult() {
+        return lastResult;
+    }
+
+    /**
+     * @return wall-clock time the probe was created, in epoch milliseconds
+     */
+    public long getStartedAtMillis() {
+        return startedAtMillis;
+    }
+
+    /**
+     * Stops probing.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    private void probeQuietly() {
+        try {
+            probe();
+        } catch (RuntimeException e) {
+            logger.error("Elasticsearch health probe failed unexpectedly: {}", e.getMessage(), e);  // Keep the schedule alive
+        }
+    }
+
+    /**
+     * Runs one probe and stores its result.
+     *
+     * @return the result
+     */
+    Result probe() {
+        long startNanos = System.nanoTime();
+        String clusterStatus = null;
+        boolean indexExists = false;
+        long canaryMillis = -1;
+        String error = null;
+
+        try {
+            Request health = new Request("GET", "/_cluster/health");
+            health.addParameter("filter_path", "status");
+            clusterStatus = readJson(perform(health)).path("status").asText(null);
+
+            Request exists = new Request("HEAD", "/" + indexName);
+            indexExists = perform(exists).getStatusLine().getStatusCode() == 200;  // HEAD reports a missing index as 404
+
+            if (indexExists) {
+                Request canary = new Request("POST", "/" + indexName + "/_search");
+                canary.addParameter("filter_path", "took");
+                canary.setJsonEntity("{\"size\":0,\"track_total_hits\":false,\"terminate_after\":1,"
+                        + "\"timeout\":\"" + timeoutMillis + "ms\",\"query\":{\"match_all\":{}}}");
+                long canaryStart = System.nanoTime();
+                perform(canary);
+                canaryMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - canaryStart);
+            }
+        } catch (IOException e) {
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+
+        Result result = new Result(System.currentTimeMillis(), clusterStatus, indexExists, canaryMillis, error,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        Result previous = lastResult;
+        if (previous == null || previous.isReady() != result.isReady()) {
+            logger.info("Elasticsearch is {}: cluster status {}, index '{}' {}{}", result.isReady() ? "ready" : "not ready",
+                    clusterStatus, indexName, indexExists ? "exists" : "missing", error != null ? ", " + error : "");
+        }
+        lastResult = result;
+        return result;
+    }
+
+    private Response perform(Request request) throws IOException {
+        request.setOptions(requestOptions);
+        return restClient.performRequest(request);
+    }
+
+    private JsonNode readJson(Response response) throws IOException {
+        try (InputStream content = response.getEntity().getContent()) {
+            return objectMapper.readTree(content);
+        }
+    }
+
+    /**
+     * Outcome of one probe.
+     */
+    @Getter
+    public static final class Result {
+
+        /**
+         * Wall-clock time the probe completed, in epoch milliseconds.
+         */
+        private final long checkedAtMillis;
+
+        /**
+         * Cluster status ({@code green}, {@code yellow} or {@code red}), or null if it could not be read.
+         */
+        private final String clusterStatus;
+
+        /**
+         * Whether the index exists.
+         */
+        private final boolean indexExists;
+
+        /**
+         * Duration of the canary search in milliseconds, or -1 if it did not run.
+         */
+        private final long canaryMillis;
+
+        /**
+         * Why the probe could not complete, or null if it did.
+         */
+        private final String error;
+
+        /**
+         * Duration of the whole probe in milliseconds.
+         */
+        private final long durationMillis;
+
+        public Result(long checkedAtMillis, String clusterStatus, boolean indexExists, long canaryMillis,
+                      String error, long durationMillis) {
+            this.checkedAtMillis = checkedAtMillis;
+            this.clusterStatus = clusterStatus;
+            this.indexExists = indexExists;
+            this.canaryMillis = canaryMillis;
+            this.error = error;
+            this.durationMillis = durationMillis;
+        }
+
+        /**
+         * Whether searches can be served: the cluster is green or yellow, the index exists and the canary search succeeded.
+         *
+         * @return true if Elasticsearch is ready
+         */
+        public boolean isReady() {
+            return error == null
+                    && ("green".equals(clusterStatus) || "yellow".equals(clusterStatus))
+                    && indexExists
+                    && canaryMillis >= 0;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.searchservice.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.time.Instant;
+
+/**
+ * Liveness check for the Elasticsearch integration: reports DOWN only when {@link ElasticsearchHealthProbe}
+ * has stopped completing probes, not when Elasticsearch itself is unavailable, since restarting the service
+ * would not help with that.
+ *
+ * <p>Only reads the probe's last result, so it never waits for Elasticsearch.</p>
+ */
+public class ElasticsearchLivenessIndicator implements HealthIndicator {
+
+    private final ElasticsearchHealthProbe probe;
+    private final long staleAfterMillis;
+
+    /**
+     * @param probe            the background probe
+     * @param staleAfterMillis time without a completed probe after which the probe is considered stuck
+     */
+    public ElasticsearchLivenessIndicator(ElasticsearchHealthProbe probe, long staleAfterMillis) {
+        this.probe = probe;
+        this.staleAfterMillis = staleAfterMillis;
+    }
+
+    /**
+     * Reports whether the probe completed recently.
+     *
+     * @return UP while probes complete, DOWN once the last one is older than the stale limit
+     */
+    @Override
+    public Health health() {
+        ElasticsearchHealthProbe.Result result = probe.getLastResult();
+        long lastActivity = result != null ? result.getCheckedAtMillis() : probe.getStartedAtMillis();
+        long age = System.currentTimeMillis() - lastActivity;
+
+        Health.Builder builder = age <= staleAfterMillis ? Health.up() : Health.down();
+        if (result != null) {
+            builder.withDetail("lastProbe", Instant.ofEpochMilli(result.getCheckedAtMillis()).toString());
+        }
+        return builder.withDetail("probeAgeMillis", age).build();
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.searchservice.health;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+
+import java.time.Instant;
+
+/**
+ * Readiness check for the Elasticsearch integration, based on the last result of {@link ElasticsearchHealthProbe}.
+ * Reports OUT_OF_SERVICE, so load balancers stop routing searches here, until a recent probe found the cluster
+ * green or yellow, the index present and the canary search successful.
+ *
+ * <p>Only reads the probe's last result, so it never waits for Elasticsearch.</p>
+ */
+public class ElasticsearchReadinessIndicator implements HealthIndicator {
+
+    private final ElasticsearchHealthProbe probe;
+    private final long staleAfterMillis;
+
+    /**
+     * @param probe            the background probe
+     * @param staleAfterMillis age after which a probe result is no longer trusted
+     */
+    public ElasticsearchReadinessIndicator(ElasticsearchHealthProbe probe, long staleAfterMillis) {
+        this.probe = probe;
+        this.staleAfterMillis = staleAfterMillis;
+    }
+
+    /**
+     * Reports the last probe result.
+     *
+     * @return UP if Elasticsearch was ready at the last recent probe, OUT_OF_SERVICE otherwise
+     */
+    @Override
+    public Health health() {
+        ElasticsearchHealthProbe.Result result = probe.getLastResult();
+        if (result == null) {
+            return Health.outOfService().withDetail("reason", "Elasticsearch has not been probed yet").build();
+        }
+
+        long age = System.currentTimeMillis() - result.getCheckedAtMillis();
+        boolean ready = result.isReady() && age <= staleAfterMillis;
+
+        Health.Builder builder = (ready ? Health.up() : Health.outOfService())
+                .withDetail("clusterStatus", String.valueOf(result.getClusterStatus()))
+                .withDetail("indexExists", result.isIndexExists())
+                .withDetail("canaryMillis", result.getCanaryMillis())
+                .withDetail("lastProbe", Instant.ofEpochMilli(result.getCheckedAtMillis()).toString());
+        if (result.getError() != null) {
+            builder.withDetail("error", result.getError());
+        }
+        if (age > staleAfterMillis) {
+            builder.withDetail("reason", "Last probe is " + age + " ms old");
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.searchservice.health;
+
+import com.example.searchservice.util.SearchDataInitializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the progress of the background sample data load, registered as {@code sampleData} and included in
+ * the readiness group.
+ *
+ * <p>Loading does not affect readiness unless {@code elasticsearch.data.gate-readiness} is set, in which case
+ * the instance reports OUT_OF_SERVICE until loading has finished. A failed load does not hold readiness back,
+ * since the service can search whatever was indexed.</p>
+ */
+@Component
+@Profile("(dev | test) & !embedded")  // Same profiles as SearchDataInitializer
+public class SampleDataHealthIndicator implements HealthIndicator {
+
+    private final SearchDataInitializer initializer;
+    private final boolean gateReadiness;
+
+    /**
+     * @param initializer   the sample data loader
+     * @param gateReadiness whether readiness waits for loading to finish
+     */
+    public SampleDataHealthIndicator(SearchDataInitializer initializer,
+                                     @Value("${elasticsearch.data.gate-readiness:false}") boolean gateReadiness) {
+        this.initializer = initializer;
+        this.gateReadiness = gateReadiness;
+    }
+
+    /**
+     * Reports the load's state and progress.
+     *
+     * @return OUT_OF_SERVICE while loading if readiness is gated, UP otherwise
+     */
+    @Override
+    public Health health() {
+        SearchDataInitializer.State state = initializer.getState();
+        boolean loading = state == SearchDataInitializer.State.PENDING || state == SearchDataInitializer.State.LOADING;
+        return (gateReadiness && loading ? Health.outOfService() : Health.up())
+                .withDetail("state", state.name())
+                .withDetail("indexed", initializer.getIndexedDocuments())
+                .withDetail("target", initializer.getDocumentCount())
+                .build();
+    }
+}
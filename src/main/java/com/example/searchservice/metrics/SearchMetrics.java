@@ -0,0 +1,181 @@
+package com.example.searchservice.metrics;
+
+import com.example.searchservice.model.SearchRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Stage-level timers for the search pipeline, published through actuator.
+ *
+ * <p>Each stage of a search is recorded under {@code search.stage} and the time Elasticsearch reports for the
+ * search itself under {@code search.elasticsearch.took}, both with percentile histograms. Tags are limited to a
+ * fixed set of values so the number of series stays small: the stage, the query shape (whether filters and a
+ * sort were requested) and a page size bucket.</p>
+ *
+ * <p>Timers are registered on first use and looked up by array index afterwards, so recording costs no more
+ * than the timer update itself.</p>
+ */
+public class SearchMetrics {
+
+    /**
+     * Name of the per-stage timer.
+     */
+    public static final String STAGE_TIMER = "search.stage";
+
+    /**
+     * Name of the timer for the {@code took} value reported by Elasticsearch.
+     */
+    public static final String TOOK_TIMER = "search.elasticsearch.took";
+
+    /**
+     * Request attribute holding the {@link SearchRequest} of the current API call, used to tag stages
+     * that are recorded outside the controller.
+     */
+    public static final String SEARCH_REQUEST_ATTRIBUTE = SearchMetrics.class.getName() + ".searchRequest";
+
+    /**
+     * Stages of a search request, in the order they run.
+     */
+    public enum Stage {
+        VALIDATION("validation"),
+        QUERY_BUILDING("query_building"),
+        ELASTICSEARCH("elasticsearch"),
+        HIT_MAPPING("hit_mapping"),
+        SERIALIZATION("serialization"),
+        /**
+         * Copying hits from the Elasticsearch response into the API response; replaces hit mapping
+         * and serialization for passthrough searches.
+         */
+        PASSTHROUGH("passthrough"),
+        /**
+         * Searching the in-process index of the embedded profile; replaces query building, Elasticsearch
+         * and hit mapping.
+         */
+        EMBEDDED("embedded");
+
+        private final String tag;
+
+        Stage(String tag) {
+            this.tag = tag;
+        }
+
+        /**
+         * @return the value of the {@code stage} tag
+         */
+        public String getTag() {
+            return tag;
+        }
+    }
+
+    private static final String[] SHAPES = {"text", "text_filtered", "text_sorted", "text_filtered_sorted"};
+    private static final int[] PAGE_SIZE_BOUNDS = {10, 20, 50, 100};
+    private static final String[] PAGE_SIZE_BUCKETS = {"le_10", "le_20", "le_50", "le_100", "gt_100"};
+
+    private static final int STAGES = Stage.values().length;
+
+    private final MeterRegistry registry;
+    private final AtomicReferenceArray<Timer> stageTimers;
+    private final AtomicReferenceArray<Timer> tookTimers;
+
+    /**
+     * @param registry registry the timers are registered with
+     */
+    public SearchMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.stageTimers = new AtomicReferenceArray<>(STAGES * SHAPES.length * PAGE_SIZE_BUCKETS.length);
+        this.tookTimers = new AtomicReferenceArray<>(SHAPES.length * PAGE_SIZE_BUCKETS.length);
+    }
+
+    /**
+     * Records the duration of a stage.
+     *
+     * @param stage   the stage that completed
+     * @param request the search request, for the shape and page size tags
+     * @param nanos   duration in nanoseconds
+     */
+    public void record(Stage stage, SearchRequest request, long nanos) {
+        int shape = shapeIndex(request);
+        int pageSize = pageSizeIndex(request.getSize());
+        int index = (stage.ordinal() * SHAPES.length + shape) * PAGE_SIZE_BUCKETS.length + pageSize;
+
+        Timer timer = stageTimers.get(index);
+        if (timer == null) {
+            timer = histogramTimer(STAGE_TIMER, "Duration of each stage of a search request")
+                    .tag("stage", stage.tag)
+                    .tag("shape", SHAPES[shape])
+                    .tag("page_size", PAGE_SIZE_BUCKETS[pageSize])
+                    .register(registry);
+            stageTimers.set(index, timer);  // Registration is idempotent, so a racing thread gets the same timer
+        }
+        timer.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the search time reported by Elasticsearch in the response's {@code took} field.
+     *
+     * @param request    the search request, for the shape and page size tags
+     * @param tookMillis reported time in milliseconds
+     */
+    public void recordTook(SearchRequest request, long tookMillis) {
+        int shape = shapeIndex(request);
+        int pageSize = pageSizeIndex(request.getSize());
+        int index = shape * PAGE_SIZE_BUCKETS.length + pageSize;
+
+        Timer timer = tookTimers.get(index);
+        if (timer == null) {
+            timer = histogramTimer(TOOK_TIMER, "Search time reported by Elasticsearch")
+                    .tag("shape", SHAPES[shape])
+                    .tag("page_size", PAGE_SIZE_BUCKETS[pageSize])
+                    .register(registry);
+            tookTimers.set(index, timer);
+        }
+        timer.record(tookMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Classifies a request by the parts of the query it uses.
+     *
+     * @param request the search request
+     * @return one of {@code text}, {@code text_filtered}, {@code text_sorted} or {@code text_filtered_sorted}
+     */
+    static String queryShape(SearchRequest request) {
+        return SHAPES[shapeIndex(request)];
+    }
+
+    /**
+     * Buckets a page size into one of a few ranges.
+     *
+     * @param size requested page size
+     * @return the bucket tag, e.g. {@code le_20} or {@code gt_100}
+     */
+    static String pageSizeBucket(int size) {
+        return PAGE_SIZE_BUCKETS[pageSizeIndex(size)];
+    }
+
+    private static int shapeIndex(SearchRequest request) {
+        boolean filtered = request.getFilters() != null && !request.getFilters().isEmpty();
+        boolean sorted = request.getSort() != null && !request.getSort().isEmpty();
+        return (filtered ? 1 : 0) + (sorted ? 2 : 0);
+    }
+
+    private static int pageSizeIndex(int size) {
+        for (int i = 0; i < PAGE_SIZE_BOUNDS.length; i++) {
+            if (size <= PAGE_SIZE_BOUNDS[i]) {
+                return i;
+            }
+        }
+        return PAGE_SIZE_BOUNDS.length;
+    }
+
+    private static Timer.Builder histogramTimer(String name, String description) {
+        return Timer.builder(name)
+                .description(description)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1_000))  // Validation and serialization take microseconds
+                .maximumExpectedValue(Duration.ofSeconds(30));
+    }
+}
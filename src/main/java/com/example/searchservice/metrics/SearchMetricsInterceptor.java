@@ -0,0 +1,35 @@
+package com.example.searchservice.metrics;
+
+import com.example.searchservice.model.SearchRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Records the {@code serialization} stage of search requests: the time from
+ * {@link SerializationTimingAdvice} handing the response to the message converter until the handler completes.
+ */
+public class SearchMetricsInterceptor implements HandlerInterceptor {
+
+    private final SearchMetrics searchMetrics;
+
+    /**
+     * @param searchMetrics destination for the serialization timings
+     */
+    public SearchMetricsInterceptor(SearchMetrics searchMetrics) {
+        this.searchMetrics = searchMetrics;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        Object start = request.getAttribute(SerializationTimingAdvice.SERIALIZATION_START_ATTRIBUTE);
+        Object searchRequest = request.getAttribute(SearchMetrics.SEARCH_REQUEST_ATTRIBUTE);
+        if (start instanceof Long && searchRequest instanceof SearchRequest) {
+            searchMetrics.record(SearchMetrics.Stage.SERIALIZATION, (SearchRequest) searchRequest,
+                    System.nanoTime() - (Long) start);
+        }
+    }
+}
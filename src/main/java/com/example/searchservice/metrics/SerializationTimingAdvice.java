@@ -0,0 +1,40 @@
+package com.example.searchservice.metrics;
+
+import com.example.searchservice.model.SearchResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Marks the moment a {@link SearchResponse} is handed to the message converter, so that
+ * {@link SearchMetricsInterceptor} can time its serialization once the handler completes.
+ */
+@ControllerAdvice
+public class SerializationTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    /**
+     * Request attribute holding the {@link System#nanoTime()} at which serialization started.
+     */
+    static final String SERIALIZATION_START_ATTRIBUTE = SerializationTimingAdvice.class.getName() + ".start";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;  // The body type is only known once it is written
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body instanceof SearchResponse && request instanceof ServletServerHttpRequest) {
+            ((ServletServerHttpRequest) request).getServletRequest()
+                    .setAttribute(SERIALIZATION_START_ATTRIBUTE, System.nanoTime());
+        }
+        return body;
+    }
+}
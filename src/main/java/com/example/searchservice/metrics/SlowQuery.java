@@ -0,0 +1,72 @@
+package com.example.searchservice.metrics;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Getter;
+
+import java.util.Map;
+
+/**
+ * A search that exceeded the slow-query threshold, as captured by {@link SlowQueryLog}.
+ */
+@Getter
+public final class SlowQuery {
+
+    /**
+     * Time the search completed, in ISO-8601 UTC.
+     */
+    private final String timestamp;
+
+    /**
+     * Query text of the API request.
+     */
+    private final String query;
+
+    /**
+     * Search body sent to Elasticsearch, exposed as JSON rather than as a string.
+     */
+    @JsonRawValue
+    private final String dsl;
+
+    /**
+     * Requested page number.
+     */
+    private final int page;
+
+    /**
+     * Requested page size.
+     */
+    private final int size;
+
+    /**
+     * Number of matching documents reported by Elasticsearch.
+     */
+    private final long totalHits;
+
+    /**
+     * Search time reported by Elasticsearch in milliseconds, or -1 when not requested from it.
+     */
+    private final long tookMillis;
+
+    /**
+     * Time spent in the search service in milliseconds.
+     */
+    private final long totalMillis;
+
+    /**
+     * Duration of each recorded stage in microseconds, keyed by the stage's metric tag.
+     */
+    private final Map<String, Long> stageMicros;
+
+    public SlowQuery(String timestamp, String query, String dsl, int page, int size, long totalHits,
+                     long tookMillis, long totalMillis, Map<String, Long> stageMicros) {
+        this.timestamp = timestamp;
+        this.query = query;
+        this.dsl = dsl;
+        this.page = page;
+        this.size = size;
+        this.totalHits = totalHits;
+        this.tookMillis = tookMillis;
+        this.totalMillis = totalMillis;
+        this.stageMicros = stageMicros;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.searchservice.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint listing the searches captured by {@link SlowQueryLog}, at {@code /actuator/slowqueries}.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    /**
+     * @param slowQueryLog the log to expose
+     */
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * Lists the slow searches currently held, newest first, with the log's settings.
+     *
+     * @return threshold, capacity, number recorded since startup and the entries
+     */
+    @ReadOperation
+    public Map<String, Object> slowQueries() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("thresholdMillis", slowQueryLog.getThresholdMillis());
+        body.put("capacity", slowQueryLog.getCapacity());
+        body.put("recorded", slowQueryLog.getRecorded());
+        body.put("queries", slowQueryLog.entries());
+        return body;
+    }
+}
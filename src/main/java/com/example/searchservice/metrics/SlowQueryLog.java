@@ -0,0 +1,116 @@
+package com.example.searchservice.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps the most recent searches that took longer than a threshold, for the {@code slowqueries} actuator endpoint.
+ *
+ * <p>Entries go into a fixed-size ring buffer: a writer claims the next sequence number and stores the entry in
+ * that slot, overwriting the oldest one, without taking a lock. A writer delayed until the slot already holds a
+ * newer entry drops its own, so the buffer never goes back to an older one. Readers copy the slots and skip any that were
+ * overwritten or not yet filled while they read, so a snapshot may miss an entry being written but never
+ * repeats one.</p>
+ */
+public class SlowQueryLog {
+
+    private final long thresholdNanos;
+    private final AtomicReferenceArray<Slot> slots;
+    private final AtomicLong sequence = new AtomicLong();
+
+    /**
+     * @param thresholdMillis searches taking at least this long are recorded; negative disables recording
+     * @param capacity        number of entries kept
+     */
+    public SlowQueryLog(long thresholdMillis, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Slow query log capacity must be positive, was " + capacity);
+        }
+        this.thresholdNanos = thresholdMillis < 0 ? -1 : TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     * Checks whether a search of the given duration should be recorded, so callers only build an entry when needed.
+     *
+     * @param nanos duration of the search in nanoseconds
+     * @return true if the duration reaches the threshold
+     */
+    public boolean isSlow(long nanos) {
+        return thresholdNanos >= 0 && nanos >= thresholdNanos;
+    }
+
+    /**
+     * Adds an entry, replacing the oldest one once the buffer is full.
+     *
+     * @param slowQuery the slow search
+     */
+    public void record(SlowQuery slowQuery) {
+        store(sequence.getAndIncrement(), slowQuery);
+    }
+
+    void store(long seq, SlowQuery slowQuery) {
+        int index = (int) (seq % slots.length());
+        Slot slot = new Slot(seq, slowQuery);
+        Slot current = slots.get(index);
+        while (current == null || current.sequence < seq) {
+            if (slots.compareAndSet(index, current, slot)) {
+                return;
+            }
+            current = slots.get(index);
+        }
+    }
+
+    /**
+     * Returns the entries currently held, newest first.
+     *
+     * @return a snapshot of the buffer
+     */
+    public List<SlowQuery> entries() {
+        long end = sequence.get();
+        long start = Math.max(0, end - slots.length());
+        List<SlowQuery> entries = new ArrayList<>((int) (end - start));
+        for (long seq = end - 1; seq >= start; seq--) {
+            Slot slot = slots.get((int) (seq % slots.length()));
+            if (slot != null && slot.sequence == seq) {  // Otherwise overwritten by a newer entry or still being written
+                entries.add(slot.slowQuery);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @return the number of entries recorded since startup, including those already overwritten
+     */
+    public long getRecorded() {
+        return sequence.get();
+    }
+
+    /**
+     * @return the threshold in milliseconds, or -1 if recording is disabled
+     */
+    public long getThresholdMillis() {
+        return thresholdNanos < 0 ? -1 : TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    /**
+     * @return the number of entries kept
+     */
+    public int getCapacity() {
+        return slots.length();
+    }
+
+    private static final class Slot {
+
+        private final long sequence;
+        private final SlowQuery slowQuery;
+
+        private Slot(long sequence, SlowQuery slowQuery) {
+            this.sequence = sequence;
+            this.slowQuery = slowQuery;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.searchservice.metrics;
+
+import lombok.Getter;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.core.metrics.StartupStep;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summarizes the startup steps recorded by {@link BufferingApplicationStartup} into the time spent in each
+ * startup phase and the slowest bean creations.
+ *
+ * <p>Phases are the top-level steps, such as {@code spring.context.refresh}, in the order they started. Beans
+ * are ranked by self time: the time spent creating the bean minus the time spent creating the beans it pulled
+ * in, so a controller is not charged for the Elasticsearch client it depends on. The full timeline is also
+ * available from {@code /actuator/startup}.</p>
+ */
+public class StartupTimingReport {
+
+    private static final String BEAN_INSTANTIATION = "spring.beans.instantiate";
+
+    private final List<Entry> phases;
+    private final List<Entry> slowestBeans;
+
+    /**
+     * Builds the report from the steps recorded so far; recording continues unaffected.
+     *
+     * @param startup the recorded startup steps
+     * @param top     number of beans to include
+     */
+    public StartupTimingReport(BufferingApplicationStartup startup, int top) {
+        List<StartupTimeline.TimelineEvent> events = new ArrayList<>(startup.getBufferedTimeline().getEvents());
+        events.sort(Comparator.comparing(StartupTimeline.TimelineEvent::getStartTime));  // Recorded as steps end
+
+        Map<Long, Duration> childTime = new HashMap<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            Long parentId = event.getStartupStep().getParentId();
+            if (parentId != null) {
+                childTime.merge(parentId, event.getDuration(), Duration::plus);
+            }
+        }
+
+        List<Entry> phases = new ArrayList<>();
+        List<Entry> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent event : events) {
+            StartupStep step = event.getStartupStep();
+            if (step.getParentId() == null) {
+                phases.add(new Entry(step.getName(), event.getDuration()));
+            }
+            if (BEAN_INSTANTIATION.equals(step.getName())) {
+                Duration self = event.getDuration().minus(childTime.getOrDefault(step.getId(), Duration.ZERO));
+                beans.add(new Entry(tag(step, "beanName"), self));
+            }
+        }
+        beans.sort(Comparator.comparing(Entry::getDuration).reversed());
+
+        this.phases = phases;
+        this.slowestBeans = beans.subList(0, Math.min(top, beans.size()));
+    }
+
+    /**
+     * @return the top-level startup steps in the order they started
+     */
+    public List<Entry> getPhases() {
+        return phases;
+    }
+
+    /**
+     * @return the beans with the longest self time, slowest first
+     */
+    public List<Entry> getSlowestBeans() {
+        return slowestBeans;
+    }
+
+    /**
+     * Formats the report for the log, one step per line.
+     *
+     * @return the report text
+     */
+    public String format() {
+        StringBuilder text = new StringBuilder("Startup phases:");
+        phases.forEach(phase -> append(text, phase));
+        text.append(System.lineSeparator()).append("Slowest beans (self time):");
+        slowestBeans.forEach(bean -> append(text, bean));
+        return text.toString();
+    }
+
+    private static void append(StringBuilder text, Entry entry) {
+        text.append(String.format("%n  %8d ms  %s", entry.getDuration().toMillis(), entry.getName()));
+    }
+
+    private static String tag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (key.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+
+    /**
+     * A startup step and the time attributed to it.
+     */
+    @Getter
+    public static class Entry {
+
+        /**
+         * Step name, or bean name for bean creations.
+         */
+        private final String name;
+
+        /**
+         * Time attributed to the step.
+         */
+        private final Duration duration;
+
+        Entry(String name, Duration duration) {
+            this.name = name;
+            this.duration = duration;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.searchservice.metrics;
+
+import com.example.searchservice.model.SearchRequest;
+import org.springframework.validation.Errors;
+import org.springframework.validation.SmartValidator;
+
+/**
+ * Validator that times the validation of {@link SearchRequest} bodies as the {@code validation} stage
+ * and delegates everything else unchanged.
+ */
+public class TimedValidator implements SmartValidator {
+
+    private final SmartValidator delegate;
+    private final SearchMetrics searchMetrics;
+
+    /**
+     * @param delegate      validator doing the actual work
+     * @param searchMetrics destination for the validation timings
+     */
+    public TimedValidator(SmartValidator delegate, SearchMetrics searchMetrics) {
+        this.delegate = delegate;
+        this.searchMetrics = searchMetrics;
+    }
+
+    @Override
+    public boolean supports(Class<?> clazz) {
+        return delegate.supports(clazz);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors) {
+        validate(target, errors, new Object[0]);
+    }
+
+    @Override
+    public void validate(Object target, Errors errors, Object... validationHints) {
+        if (!(target instanceof SearchRequest)) {
+            delegate.validate(target, errors, validationHints);
+            return;
+        }
+
+        long start = System.nanoTime();
+        delegate.validate(target, errors, validationHints);
+        searchMetrics.record(SearchMetrics.Stage.VALIDATION, (SearchRequest) target, System.nanoTime() - start);
+    }
+
+    @Override
+    public void validateValue(Class<?> targetType, String fieldName, Object value, Errors errors, Object... validationHints) {
+        delegate.validateValue(targetType, fieldName, value, errors, validationHints);
+    }
+}
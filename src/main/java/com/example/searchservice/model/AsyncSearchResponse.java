@@ -0,0 +1,48 @@
+package com.example.searchservice.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+/**
+ * State of a search submitted to run in the background, with the results found so far.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AsyncSearchResponse {
+
+    /**
+     * Id to poll or delete the search with.
+     */
+    private String id;
+
+    /**
+     * Whether the search is still running.
+     */
+    private boolean running;
+
+    /**
+     * Whether {@link #results} cover only the shards searched so far, or the search failed on some shards.
+     */
+    private boolean partial;
+
+    /**
+     * When the search was started.
+     */
+    private Instant startTime;
+
+    /**
+     * When the search is cancelled, if still running, and its results deleted; polling extends it.
+     */
+    private Instant expirationTime;
+
+    /**
+     * Results found so far; Elasticsearch reports totals while running, but the hits of the page only once done.
+     */
+    private SearchResponse<SearchableDocument> results;
+}
@@ -0,0 +1,105 @@
+package com.example.searchservice.model;
+
+import com.example.searchservice.exception.InvalidChangeTokenException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * Position in the change feed: the {@code lastUpdatedDate} and id of the last document read. Documents are fed
+ * in that order, so the token identifies exactly which documents come next. Encoded as URL-safe base64 of
+ * {@code <epoch millis>:<id>}, so clients can pass it back as a query parameter without escaping.
+ */
+public final class ChangeToken {
+
+    private final long lastUpdatedMillis;
+    private final String id;
+
+    /**
+     * Constructs a new ChangeToken.
+     *
+     * @param lastUpdatedMillis {@code lastUpdatedDate} of the last document read, in epoch milliseconds
+     * @param id                id of the last document read
+     */
+    public ChangeToken(long lastUpdatedMillis, String id) {
+        this.lastUpdatedMillis = lastUpdatedMillis;
+        this.id = Objects.requireNonNull(id, "id");
+    }
+
+    /**
+     * Returns the position just after a document.
+     *
+     * @param document a document with an id and a {@code lastUpdatedDate}
+     * @return the token to resume after the document
+     */
+    public static ChangeToken after(SearchableDocument document) {
+        Date lastUpdated = document.getLastUpdatedDate();
+        return new ChangeToken(lastUpdated.getTime(), document.getId());
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token the encoded token
+     * @return the decoded token
+     * @throws InvalidChangeTokenException if the token is malformed
+     */
+    public static ChangeToken parse(String token) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(':');
+            if (separator < 1 || separator == decoded.length() - 1) {
+                throw new InvalidChangeTokenException(token);
+            }
+            return new ChangeToken(Long.parseLong(decoded.substring(0, separator)), decoded.substring(separator + 1));
+        } catch (IllegalArgumentException e) {  // Also covers NumberFormatException
+            throw new InvalidChangeTokenException(token);
+        }
+    }
+
+    /**
+     * @return the token in the form clients pass back
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((lastUpdatedMillis + ":" + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return {@code lastUpdatedDate} of the last document read, in epoch milliseconds
+     */
+    public long getLastUpdatedMillis() {
+        return lastUpdatedMillis;
+    }
+
+    /**
+     * @return id of the last document read
+     */
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof ChangeToken)) {
+            return false;
+        }
+        ChangeToken token = (ChangeToken) other;
+        return lastUpdatedMillis == token.lastUpdatedMillis && id.equals(token.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(lastUpdatedMillis, id);
+    }
+
+    @Override
+    public String toString() {
+        return encode();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.searchservice.model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.validation.constraints.NotBlank;
+
+/**
+ * Represents a request to copy documents into a newly mapped index or to switch reads over to it.
+ */
+@Getter
+@Setter
+public class IndexMigrationRequest {
+
+    /**
+     * Index or alias to copy documents from. If null, the configured index is used.
+     */
+    private String sourceIndex;
+
+    /**
+     * Index that receives the documents and is promoted once the copy is complete.
+     */
+    @NotBlank(message = "Target index is required")
+    private String targetIndex;
+}
@@ -0,0 +1,50 @@
+package com.example.searchservice.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.time.Instant;
+
+/**
+ * A search registered to be matched against newly indexed documents.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class SavedSearch {
+
+    /**
+     * Id assigned on registration.
+     */
+    private String id;
+
+    /**
+     * Name chosen by the user, included in each match.
+     */
+    @NotBlank(message = "Name is required")
+    @Size(max = 100, message = "Name must be at most 100 characters")
+    private String name;
+
+    /**
+     * The search to match; query text and filters apply, while paging, sorting and scoring options do not.
+     */
+    @NotNull(message = "Search is required")
+    @Valid
+    private SearchRequest search;
+
+    /**
+     * Optional URL that matches are posted to as JSON, in addition to the user's match streams.
+     * Only hosts allowed by configuration are accepted.
+     */
+    private String webhook;
+
+    /**
+     * When the search was registered.
+     */
+    private Instant createdAt;
+}
@@ -0,0 +1,52 @@
+package com.example.searchservice.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Newly indexed documents matching a saved search, as delivered to its owner.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchMatch {
+
+    /**
+     * Id of the saved search that matched.
+     */
+    private String savedSearchId;
+
+    /**
+     * Name of the saved search that matched.
+     */
+    private String name;
+
+    /**
+     * The matching documents of one indexed batch.
+     */
+    private List<SearchableDocument> documents;
+
+    /**
+     * When the documents were matched.
+     */
+    private Instant matchedAt;
+
+    /**
+     * User who registered the saved search; used for routing, not delivered.
+     */
+    @JsonIgnore
+    private String owner;
+
+    /**
+     * URL the match is posted to, if any; not delivered.
+     */
+    @JsonIgnore
+    private String webhook;
+}
@@ -0,0 +1,37 @@
+package com.example.searchservice.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Result of running a search with Elasticsearch's profiler enabled.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchProfile {
+
+    /**
+     * Search body sent to Elasticsearch, with {@code profile} enabled.
+     */
+    private JsonNode query;
+
+    /**
+     * Number of matching documents reported by Elasticsearch.
+     */
+    private long totalHits;
+
+    /**
+     * Search time reported by Elasticsearch in milliseconds, including the profiling overhead.
+     */
+    private long took;
+
+    /**
+     * Per-shard profile as returned by Elasticsearch under {@code profile.shards}.
+     */
+    private JsonNode shards;
+}
@@ -69,4 +69,18 @@ public class SearchRequest {
      * Minimum relevance score for results to be included in the response.
      */
     private Float minScore;
+
+    /**
+     * Whether an exact total hit count is required. When false, searches sorted the same way as the
+     * index ({@code createdDate} descending) can stop collecting early and report a lower bound instead.
+     */
+    private boolean trackTotalHits = true;  // Default to exact totals
+
+    /**
+     * Time in milliseconds the caller is willing to wait for the results. Elasticsearch is asked to return the
+     * hits found shortly before it passes, marked as partial, and the search is cancelled once it has passed.
+     * The {@code X-Request-Timeout} header sets the same limit; the shorter one applies.
+     */
+    @Min(value = 1, message = "Timeout must be positive")
+    private Long timeout;
 }
\ No newline at end of file
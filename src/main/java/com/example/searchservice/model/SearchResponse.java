@@ -1,6 +1,7 @@
 package com.example.searchservice.model;
 
 import lombok.Getter;
+import lombok.Setter;
 
 import java.util.List;
 import java.util.Map;
@@ -48,6 +49,24 @@ public class SearchResponse<T> {
      */
     private long took;
 
+    /**
+     * Flag indicating if {@code totalHits} is an exact count rather than a lower bound.
+     */
+    @Setter
+    private boolean totalHitsExact = true;
+
+    /**
+     * Flag indicating that Elasticsearch reached the request's timeout and returned the hits found until then.
+     */
+    @Setter
+    private boolean timedOut;
+
+    /**
+     * Number of shards that could not be searched; their hits are missing from the results.
+     */
+    @Setter
+    private int failedShards;
+
     /**
      * Constructor for creating a search response with results and metadata.
      *
@@ -70,4 +89,12 @@ public class SearchResponse<T> {
         this.took = took;
     }
 
+    /**
+     * Indicates that the results cover only part of the index, because the search timed out or shards failed.
+     *
+     * @return true if the items and total may be incomplete
+     */
+    public boolean isPartial() {
+        return timedOut || failedShards > 0;
+    }
 }
\ No newline at end of file
@@ -11,16 +11,18 @@ import org.springframework.data.elasticsearch.annotations.Setting;
 import java.util.Date;
 import java.util.Map;
 
-@Document(indexName = "#{@environment.getProperty('elasticsearch.index.name')}")
+@Document(indexName = "#{@environment.getProperty('elasticsearch.index.name')}", createIndex = false)  // Created by IndexManagementService
 @Setting(settingPath = "elasticsearch-settings.json")
 @Getter
 @Setter
 public class SearchableDocument {
 
     /**
-     * Unique identifier for the document.
+     * Unique identifier for the document. Mapped as a keyword so the change feed can sort by it; indices created
+     * before then map it as text, and the change feed sorts by its keyword subfield instead.
      */
     @Id
+    @Field(type = FieldType.Keyword)
     private String id;
 
     /**
@@ -67,6 +69,7 @@ public class SearchableDocument {
 
     /**
      * Dynamic fields that can store additional document properties.
+     * Mapped as a single flattened field instead when {@code elasticsearch.index.metadata.mapping=flattened}.
      */
     @Field(type = FieldType.Object)
     private Map<String, Object> metadata;
@@ -0,0 +1,40 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.model.AsyncSearchResponse;
+import com.example.searchservice.model.SearchRequest;
+
+/**
+ * Service interface for searches that run in the background and are polled for their results.
+ * Each search is visible only to the user who submitted it.
+ */
+public interface AsyncSearchService {
+
+    /**
+     * Starts a search and waits briefly for it to complete.
+     *
+     * @param searchRequest the search request containing query parameters and filters
+     * @param owner         name of the submitting user
+     * @return the search's id and state, with its results if it completed in time
+     */
+    AsyncSearchResponse submit(SearchRequest searchRequest, String owner);
+
+    /**
+     * Returns the state and results so far of a search, extending how long it is kept.
+     *
+     * @param id          id returned on submission
+     * @param owner       name of the requesting user
+     * @param waitMillis  time to wait for the search to complete, 0 to return immediately
+     * @return the search's state and results so far
+     * @throws com.example.searchservice.exception.AsyncSearchNotFoundException if the user has no such search
+     */
+    AsyncSearchResponse get(String id, String owner, long waitMillis);
+
+    /**
+     * Cancels a search if still running and deletes its results.
+     *
+     * @param id    id returned on submission
+     * @param owner name of the requesting user
+     * @throws com.example.searchservice.exception.AsyncSearchNotFoundException if the user has no such search
+     */
+    void delete(String id, String owner);
+}
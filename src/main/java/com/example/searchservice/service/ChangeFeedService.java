@@ -0,0 +1,37 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.model.ChangeToken;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Service interface for the change feed, which lets downstream systems read the documents updated since they
+ * last synced instead of exporting the whole index.
+ */
+public interface ChangeFeedService {
+
+    /**
+     * Waits for changes after a position without holding the calling thread: checks for them now and then every
+     * poll interval until some are found or the wait runs out.
+     *
+     * @param since      position to resume after, or {@code null} to start from the oldest document
+     * @param waitMillis time to wait for changes if there are none, 0 to return immediately
+     * @return a future completed with whether the changes should be streamed: {@code true} once some were found,
+     * or right away when not waiting, and {@code false} if the wait ran out without any
+     */
+    CompletableFuture<Boolean> awaitChanges(ChangeToken since, long waitMillis);
+
+    /**
+     * Streams the documents updated after a position, in {@code lastUpdatedDate} and id order, as one JSON line
+     * per document holding the document and the token to resume after it.
+     *
+     * @param since        position to resume after, or {@code null} to start from the oldest document
+     * @param limit        maximum number of documents to stream
+     * @param outputStream destination for the lines, left open
+     * @return the position after the last document streamed, or {@code since} if there were none
+     * @throws IOException if writing to the output fails
+     */
+    ChangeToken streamChanges(ChangeToken since, int limit, OutputStream outputStream) throws IOException;
+}
@@ -0,0 +1,31 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.model.SearchableDocument;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Published after a batch of documents has been written to the index, so they can be matched against
+ * saved searches. Ingest paths publish it once per bulk request rather than per document.
+ */
+public class DocumentsIndexedEvent {
+
+    private final List<SearchableDocument> documents;
+
+    /**
+     * Constructs a new DocumentsIndexedEvent.
+     *
+     * @param documents the documents that were indexed
+     */
+    public DocumentsIndexedEvent(List<SearchableDocument> documents) {
+        this.documents = Collections.unmodifiableList(documents);
+    }
+
+    /**
+     * @return the documents that were indexed, in request order
+     */
+    public List<SearchableDocument> getDocuments() {
+        return documents;
+    }
+}
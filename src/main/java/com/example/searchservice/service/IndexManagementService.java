@@ -0,0 +1,54 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.config.MappingProfile;
+
+/**
+ * Service interface for creating the search index with the configured settings and mapping,
+ * and for migrating existing data to a newly mapped index.
+ */
+public interface IndexManagementService {
+
+    /**
+     * Creates the configured search index using the configured mapping profile, unless it already exists.
+     *
+     * @return true if the index was created, false if it already existed
+     */
+    boolean createIndexIfMissing();
+
+    /**
+     * Creates an index for SearchableDocument with the given mapping profile applied.
+     *
+     * @param indexName name of the index to create
+     * @param profile   mapping profile to apply to settings and mapping
+     * @return true if the index was created
+     */
+    boolean createIndex(String indexName, MappingProfile profile);
+
+    /**
+     * Creates an index of percolator queries over SearchableDocument fields, unless it already exists.
+     * It has the document mapping, so stored queries are parsed like searches, plus a {@code query} percolator
+     * field and a {@code subscription} object describing who registered the query.
+     *
+     * @param indexName name of the index to create
+     * @return true if the index was created, false if it already existed
+     */
+    boolean createPercolatorIndexIfMissing(String indexName);
+
+    /**
+     * Starts copying all documents from one index into another as a background Elasticsearch task.
+     * The target index is created with the current configuration first if it does not exist.
+     *
+     * @param sourceIndex index or alias to copy from, or null for the configured index
+     * @param targetIndex index to copy into
+     * @return the Elasticsearch task id, usable with the tasks API to follow progress
+     */
+    String startReindex(String sourceIndex, String targetIndex);
+
+    /**
+     * Atomically points the configured index name at the given index as an alias.
+     * A concrete index with the configured name is deleted in the same operation.
+     *
+     * @param targetIndex index that should serve reads and writes from now on
+     */
+    void promoteIndex(String targetIndex);
+}
@@ -0,0 +1,50 @@
+package com.example.searchservice.service;
+
+import com.example.searchservice.model.SavedSearch;
+import com.example.searchservice.model.SavedSearchMatch;
+import com.example.searchservice.model.SearchableDocument;
+
+import java.util.List;
+
+/**
+ * Service interface for saved searches, which are matched against documents as they are indexed.
+ * Each saved search is visible only to the user who registered it.
+ */
+public interface SavedSearchService {
+
+    /**
+     * Registers a saved search.
+     *
+     * @param savedSearch the name, search and optional webhook to register
+     * @param owner       name of the registering user
+     * @return the saved search with its id and registration time
+     * @throws com.example.searchservice.exception.InvalidSavedSearchException if the webhook is not allowed or
+     *                                                                          the user has too many saved searches
+     */
+    SavedSearch register(SavedSearch savedSearch, String owner);
+
+    /**
+     * Lists a user's saved searches, oldest first.
+     *
+     * @param owner name of the requesting user
+     * @return the user's saved searches
+     */
+    List<SavedSearch> list(String owner);
+
+    /**
+     * Deletes a saved search, so it no longer matches.
+     *
+     * @param id    id returned on registration
+     * @param owner name of the requesting user
+     * @throws com.example.searchservice.exception.SavedSearchNotFoundException if the user has no such search
+     */
+    void delete(String id, String owner);
+
+    /**
+     * Matches documents against all saved searches at once.
+     *
+     * @param documents the documents of one indexed batch
+     * @return one match per saved search that matched any of the documents
+     */
+    List<SavedSearchMatch> percolate(List<SearchableDocument> documents);
+}
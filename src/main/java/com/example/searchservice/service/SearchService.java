@@ -1,9 +1,13 @@
 package com.example.searchservice.service;
 
+import com.example.searchservice.model.SearchProfile;
 import com.example.searchservice.model.SearchRequest;
 import com.example.searchservice.model.SearchResponse;
 import com.example.searchservice.model.SearchableDocument;
 
+import java.io.IOException;
+import java.io.OutputStream;
+
 /**
  * Service interface defining search operations and health checks for the search system.
  */
@@ -17,10 +21,30 @@ public interface SearchService {
      */
     SearchResponse<SearchableDocument> search(SearchRequest searchRequest);
 
+    /**
+     * Performs a search and writes the matching hits to the output as JSON in Elasticsearch's hit shape
+     * ({@code _id} and {@code _source}), wrapped in the paging envelope, without binding them to documents.
+     *
+     * @param searchRequest the search request containing query parameters and filters
+     * @param outputStream  destination for the JSON response
+     * @throws IOException if writing to the output fails
+     */
+    void streamSearch(SearchRequest searchRequest, OutputStream outputStream) throws IOException;
+
+    /**
+     * Runs a search once with Elasticsearch's profiler enabled and returns the per-shard profile.
+     * Profiling adds considerable overhead, so this is meant for investigating individual slow queries.
+     *
+     * @param searchRequest the search request to profile
+     * @return the query sent, hit count, search time and per-shard profile
+     */
+    SearchProfile profile(SearchRequest searchRequest);
+
     /**
      * Checks the health status of the Elasticsearch cluster.
+     * Reads the result of the background probe rather than contacting the cluster, so it returns immediately.
      *
-     * @return a string representing the cluster health status (e.g., "green", "yellow", "red")
+     * @return a status message starting with OK, WARNING, ERROR or UNKNOWN
      */
     String checkHealth();
 }
\ No newline at end of file
@@ -0,0 +1,267 @@
+package com.example.searchservice.service.impl;
+
+import com.example.searchservice.converter.SearchableDocumentMapper;
+import com.example.searchservice.exception.AsyncSearchNotFoundException;
+import com.example.searchservice.exception.ElasticsearchQueryException;
+import com.example.searchservice.model.AsyncSearchResponse;
+import com.example.searchservice.model.SearchRequest;
+import com.example.searchservice.model.SearchResponse;
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.service.AsyncSearchService;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.apache.http.Header;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.RestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+@Service
+@Profile("!embedded")  // Backed by Elasticsearch's _async_search, which the embedded index has no counterpart for
+public class AsyncSearchServiceImpl implements AsyncSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncSearchServiceImpl.class);
+
+    /**
+     * Response filter: the async search's state and, under {@code response}, what the search response reader uses.
+     */
+    static final String FILTER_PATH = "id,is_running,is_partial,start_time_in_millis,expiration_time_in_millis,"
+            + Arrays.stream(SearchResponseReader.FILTER_PATH.split(",")).map("response."::concat).collect(Collectors.joining(","));
+
+    private static final long MIN_KEEP_ALIVE = 1000;  // Elasticsearch rejects keep-alives under a second
+
+    private final RestClient restClient;
+    private final SearchServiceImpl searchService;
+    private final RequestOptions searchResponseOptions;
+    private final SearchResponseReader responseReader = new SearchResponseReader(new SearchableDocumentMapper());
+
+    /**
+     * Searches by id, recording who submitted them and the page they asked for. Kept in memory, so a search
+     * can only be polled on the instance it was submitted to.
+     */
+    private final Map<String, Submission> submissions = new ConcurrentHashMap<>();
+
+    @Value("${elasticsearch.index.name}")
+    private String indexName;
+
+    @Value("${elasticsearch.async-search.wait-for-completion:1000}")
+    private long waitForCompletion;  // Milliseconds a submission waits for the search before returning its id
+
+    @Value("${elasticsearch.async-search.keep-alive:300000}")
+    private long keepAlive;  // Milliseconds a search is kept after submission or the last poll
+
+    @Value("${elasticsearch.async-search.max-retention:3600000}")
+    private long maxRetention;  // Milliseconds from submission after which polling no longer extends the keep-alive
+
+    @Value("${elasticsearch.async-search.max-wait:5000}")
+    private long maxWait;  // Longest wait a poll may ask for, below the client's socket timeout
+
+    @Autowired
+    public AsyncSearchServiceImpl(RestClient restClient, SearchServiceImpl searchService,
+                                  RequestOptions searchResponseOptions) {
+        this.restClient = restClient;
+        this.searchService = searchService;
+        this.searchResponseOptions = searchResponseOptions;
+    }
+
+    /**
+     * Submits the search to {@code _async_search} with the same body as a regular search. Results are kept on
+     * completion, so they can be polled under the returned id even if the search finished within the wait.
+     */
+    @Override
+    public AsyncSearchResponse submit(SearchRequest searchRequest, String owner) {
+        logger.info("Submitting async search with query: {}", searchRequest.getQuery());
+        removeExpired();
+
+        Request request = new Request("POST", "/" + indexName + "/_async_search");
+        request.addParameter("wait_for_completion_timeout", waitForCompletion + "ms");
+        request.addParameter("keep_alive", keepAlive + "ms");
+        request.addParameter("keep_on_completion", "true");
+        request.addParameter("filter_path", FILTER_PATH);
+        request.setJsonEntity(searchService.buildSearchSource(searchRequest).toString());
+        request.setOptions(searchResponseOptions);  // Read according to its content type
+
+        Submission submission = new Submission(owner, searchRequest.getPage(), searchRequest.getSize(),
+                System.currentTimeMillis());
+        try {
+            AsyncSearchResponse response = read(restClient.performRequest(request), submission);
+            if (response.getId() == null) {
+                throw new IOException("Unexpected Elasticsearch response: no async search id");
+            }
+            submissions.put(response.getId(), submission);
+            return response;
+        } catch (IOException e) {
+            logger.error("Error submitting async search: {}", e.getMessage(), e);
+            throw new ElasticsearchQueryException("Failed to submit async search", e);
+        }
+    }
+
+    /**
+     * Polls the search, extending its keep-alive unless that would keep it beyond the maximum retention.
+     */
+    @Override
+    public AsyncSearchResponse get(String id, String owner, long waitMillis) {
+        Submission submission = find(id, owner);
+
+        Request request = new Request("GET", "/_async_search/" + id);
+        request.addParameter("wait_for_completion_timeout", Math.max(0, Math.min(waitMillis, maxWait)) + "ms");
+        long extension = Math.min(keepAlive, submission.submittedMillis + maxRetention - System.currentTimeMillis());
+        if (extension >= MIN_KEEP_ALIVE) {
+            request.addParameter("keep_alive", extension + "ms");
+        }
+        request.addParameter("filter_path", FILTER_PATH);
+        request.setOptions(searchResponseOptions);
+
+        try {
+            return read(restClient.performRequest(request), submission);
+        } catch (ResponseException e) {
+            throw notFoundOrFailure(id, e, "Failed to get async search");
+        } catch (IOException e) {
+            logger.error("Error getting async search {}: {}", id, e.getMessage(), e);
+            throw new ElasticsearchQueryException("Failed to get async search", e);
+        }
+    }
+
+    @Override
+    public void delete(String id, String owner) {
+        find(id, owner);
+
+        try {
+            restClient.performRequest(new Request("DELETE", "/_async_search/" + id));
+            logger.info("Deleted async search {}", id);
+        } catch (ResponseException e) {
+            if (e.getResponse().getStatusLine().getStatusCode() != 404) {  // Expired in the meantime: gone either way
+                throw notFoundOrFailure(id, e, "Failed to delete async search");
+            }
+        } catch (IOException e) {
+            logger.error("Error deleting async search {}: {}", id, e.getMessage(), e);
+            throw new ElasticsearchQueryException("Failed to delete async search", e);
+        }
+        submissions.remove(id);
+    }
+
+    /**
+     * @return the number of searches currently tracked
+     */
+    int size() {
+        return submissions.size();
+    }
+
+    /**
+     * Looks up a search of the given user, treating expired searches and those of other users as unknown.
+     */
+    private Submission find(String id, String owner) {
+        Submission submission = submissions.get(id);
+        if (submission == null || !submission.owner.equals(owner)) {
+            throw new AsyncSearchNotFoundException(id);
+        }
+        if (submission.isExpired(System.currentTimeMillis())) {
+            submissions.remove(id);
+            throw new AsyncSearchNotFoundException(id);
+        }
+        return submission;
+    }
+
+    private RuntimeException notFoundOrFailure(String id, ResponseException e, String message) {
+        if (e.getResponse().getStatusLine().getStatusCode() == 404) {
+            submissions.remove(id);
+            return new AsyncSearchNotFoundException(id);
+        }
+        logger.error("{} {}: {}", message, id, e.getMessage(), e);
+        return new ElasticsearchQueryException(message, e);
+    }
+
+    private void removeExpired() {
+        long now = System.currentTimeMillis();
+        submissions.values().removeIf(submission -> submission.isExpired(now));
+    }
+
+    /**
+     * Reads an async search response, recording its expiration on the submission.
+     */
+    private AsyncSearchResponse read(Response response, Submission submission) throws IOException {
+        AsyncSearchResponse asyncResponse = new AsyncSearchResponse();
+        Header contentType = response.getEntity().getContentType();
+        try (InputStream body = response.getEntity().getContent();
+             JsonParser parser = responseReader.createParser(body, contentType != null ? contentType.getValue() : null)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected Elasticsearch response: expected an object but found " + parser.currentToken());
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
+                if ("id".equals(field)) {
+                    asyncResponse.setId(parser.getText());
+                } else if ("is_running".equals(field)) {
+                    asyncResponse.setRunning(parser.getBooleanValue());
+                } else if ("is_partial".equals(field)) {
+                    asyncResponse.setPartial(parser.getBooleanValue());
+                } else if ("start_time_in_millis".equals(field)) {
+                    asyncResponse.setStartTime(Instant.ofEpochMilli(parser.getLongValue()));
+                } else if ("expiration_time_in_millis".equals(field)) {
+                    submission.expiresMillis = parser.getLongValue();
+                    asyncResponse.setExpirationTime(Instant.ofEpochMilli(submission.expiresMillis));
+                } else if ("response".equals(field) && value == JsonToken.START_OBJECT) {
+                    asyncResponse.setResults(toSearchResponse(responseReader.readSearchResponse(parser), submission));
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return asyncResponse;
+    }
+
+    private static SearchResponse<SearchableDocument> toSearchResponse(SearchResponseReader.Result result,
+                                                                       Submission submission) {
+        SearchResponse<SearchableDocument> searchResponse = new SearchResponse<>(
+                result.getDocuments(),
+                result.getTotalHits(),
+                submission.page,
+                submission.size,
+                null,
+                result.getTook()
+        );
+        searchResponse.setTotalHitsExact(result.isTotalHitsExact());
+        searchResponse.setTimedOut(result.isTimedOut());
+        searchResponse.setFailedShards(result.getFailedShards());
+        return searchResponse;
+    }
+
+    /**
+     * An async search as submitted through this service.
+     */
+    private static final class Submission {
+
+        private final String owner;
+        private final int page;
+        private final int size;
+        private final long submittedMillis;
+        private volatile long expiresMillis = Long.MAX_VALUE;  // Until Elasticsearch reports the expiration
+
+        private Submission(String owner, int page, int size, long submittedMillis) {
+            this.owner = owner;
+            this.page = page;
+            this.size = size;
+            this.submittedMillis = submittedMillis;
+        }
+
+        private boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresMillis;
+        }
+    }
+}
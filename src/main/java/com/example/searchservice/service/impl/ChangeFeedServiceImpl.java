@@ -0,0 +1,326 @@
+package com.example.searchservice.service.impl;
+
+import com.example.searchservice.converter.SearchableDocumentMapper;
+import com.example.searchservice.exception.ElasticsearchQueryException;
+import com.example.searchservice.model.ChangeToken;
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.service.ChangeFeedService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.apache.http.Header;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Profile("!embedded")  // Reads pages with search_after, which the embedded index does not support
+public class ChangeFeedServiceImpl implements ChangeFeedService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedServiceImpl.class);
+
+    private static final String DATE_FIELD = "lastUpdatedDate";
+
+    private final RestClient restClient;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter documentWriter;
+    private final ScheduledExecutorService scheduler;
+    private final RequestOptions searchResponseOptions;
+    private final SearchResponseReader responseReader = new SearchResponseReader(new SearchableDocumentMapper());
+
+    @Value("${elasticsearch.index.name}")
+    private String indexName;
+
+    @Value("${changes.tie-breaker:id}")
+    private String tieBreaker;  // Field ordering documents updated in the same millisecond
+
+    private volatile String sortField;  // Tie-breaker as mapped in the index, resolved once per instance
+
+    @Value("${changes.page-size:1000}")
+    private int pageSize;  // Documents fetched per search_after request
+
+    @Value("${changes.max-limit:10000}")
+    private int maxLimit;  // Most documents streamed per request; clients resume with the last token
+
+    @Value("${changes.settle-time:5000}")
+    private long settleTime;  // Milliseconds before now that documents must have been updated to be fed
+
+    @Value("${changes.max-wait:30000}")
+    private long maxWait;  // Longest time a request may wait for changes
+
+    @Value("${changes.poll-interval:1000}")
+    private long pollInterval;  // Milliseconds between checks for changes while waiting
+
+    @Autowired
+    public ChangeFeedServiceImpl(RestClient restClient, ObjectMapper objectMapper,
+                                 RequestOptions searchResponseOptions) {
+        this.restClient = restClient;
+        this.objectMapper = objectMapper;
+        this.searchResponseOptions = searchResponseOptions;
+        // Flushed per page rather than per document, so the response can still be compressed
+        this.documentWriter = objectMapper.writerFor(SearchableDocument.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-poll");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Checks with a single-document search, sent asynchronously, and schedules the next check rather than
+     * sleeping, so waiting requests hold neither a request thread nor a scheduler thread.
+     */
+    @Override
+    public CompletableFuture<Boolean> awaitChanges(ChangeToken since, long waitMillis) {
+        CompletableFuture<Boolean> changed = new CompletableFuture<>();
+        long wait = Math.max(0, Math.min(waitMillis, maxWait));
+        if (wait == 0) {
+            changed.complete(true);  // Not waiting, so let the stream find out
+        } else {
+            poll(since, sortField(), System.currentTimeMillis() + wait, changed);
+        }
+        return changed;
+    }
+
+    /**
+     * Reads the changes in pages, each continuing with {@code search_after} from the last document of the previous
+     * one, and writes each page as soon as it is read. Only documents updated after the position are searched and
+     * hits are not counted, so a request costs in proportion to the changes it returns rather than the index size.
+     *
+     * <p>Documents updated within the settle time are held back: they may not be searchable yet, and feeding a
+     * later document first would move the position past them. Documents must therefore be indexed with a
+     * {@code lastUpdatedDate} no older than the settle time, and documents without one are not fed.</p>
+     */
+    @Override
+    public ChangeToken streamChanges(ChangeToken since, int limit, OutputStream outputStream) throws IOException {
+        int remaining = Math.max(1, Math.min(limit, maxLimit));
+        String tieBreakerField = sortField();
+        ChangeToken position = since;
+        int streamed = 0;
+
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream);
+        generator.setRootValueSeparator(null);  // Lines are separated by the newlines written below
+        while (remaining > 0) {
+            int size = Math.min(pageSize, remaining);
+            List<SearchableDocument> page = fetch(position, size, tieBreakerField);
+
+            for (SearchableDocument document : page) {
+                position = ChangeToken.after(document);
+                generator.writeStartObject();
+                generator.writeStringField("token", position.encode());
+                generator.writeFieldName("document");
+                documentWriter.writeValue(generator, document);
+                generator.writeEndObject();
+                generator.writeRaw('\n');
+            }
+            generator.flush();  // Send each page as it is read
+            streamed += page.size();
+            remaining -= page.size();
+            if (page.size() < size) {
+                break;  // Caught up
+            }
+        }
+
+        logger.debug("Streamed {} changes after {}", streamed, since);
+        return position;
+    }
+
+    /**
+     * Builds the search for the next page: documents updated after the position and before the upper bound,
+     * sorted by update time with the tie-breaker, without counting hits.
+     *
+     * @param since           position to continue after, or {@code null} for the first page
+     * @param size            documents to fetch
+     * @param upperMillis     latest {@code lastUpdatedDate} to include, in epoch milliseconds
+     * @param tieBreakerField keyword field to sort documents updated in the same millisecond by
+     * @return the search source
+     */
+    SearchSourceBuilder buildSearchSource(ChangeToken since, int size, long upperMillis, String tieBreakerField) {
+        RangeQueryBuilder range = QueryBuilders.rangeQuery(DATE_FIELD).lte(upperMillis).format("epoch_millis");
+        SearchSourceBuilder source = new SearchSourceBuilder()
+                .size(size)
+                .trackTotalHits(false)
+                .sort(DATE_FIELD, SortOrder.ASC)
+                .sort(tieBreakerField, SortOrder.ASC);
+        if (since != null) {
+            range.gte(since.getLastUpdatedMillis());  // Lets each shard skip older documents outright
+            source.searchAfter(new Object[]{since.getLastUpdatedMillis(), since.getId()});
+        }
+        return source.query(QueryBuilders.boolQuery().filter(range));
+    }
+
+    /**
+     * Returns the keyword field to sort by: the tie-breaker, or its {@code keyword} subfield if the index maps
+     * the tie-breaker as text, as dynamic mapping does for {@code id} in indices created before it was mapped
+     * as a keyword. Sorting by a text field fails, so a text tie-breaker without a keyword subfield is refused.
+     * The field is resolved once the index has a mapping for it, and checked again until then.
+     *
+     * @return the field to sort documents updated in the same millisecond by
+     * @throws IllegalStateException if the tie-breaker is mapped as text without a keyword subfield
+     */
+    String sortField() {
+        String field = sortField;
+        if (field != null) {
+            return field;
+        }
+
+        Request request = new Request("GET", "/" + indexName + "/_mapping/field/" + tieBreaker);
+        JsonNode body;
+        try (InputStream content = restClient.performRequest(request).getEntity().getContent()) {
+            body = objectMapper.readTree(content);
+        } catch (ResponseException e) {
+            if (e.getResponse().getStatusLine().getStatusCode() == 404) {
+                return tieBreaker;  // No index yet, so nothing to sort either
+            }
+            throw mappingFailure(e);
+        } catch (IOException e) {
+            throw mappingFailure(e);
+        }
+
+        String leaf = tieBreaker.substring(tieBreaker.lastIndexOf('.') + 1);
+        boolean mapped = false;
+        field = tieBreaker;
+        for (Iterator<Map.Entry<String, JsonNode>> indices = body.fields(); indices.hasNext(); ) {
+            Map.Entry<String, JsonNode> index = indices.next();
+            JsonNode mapping = index.getValue().path("mappings").path(tieBreaker).path("mapping").path(leaf);
+            if (mapping.isMissingNode()) {
+                continue;
+            }
+            mapped = true;
+            if ("text".equals(mapping.path("type").asText())) {
+                if (!"keyword".equals(mapping.path("fields").path("keyword").path("type").asText())) {
+                    throw new IllegalStateException("changes.tie-breaker " + tieBreaker + " is mapped as text without"
+                            + " a keyword subfield in " + index.getKey() + "; set it to a keyword field");
+                }
+                field = tieBreaker + ".keyword";
+            }
+        }
+        if (!mapped) {
+            return tieBreaker;  // No documents yet, so nothing to sort either
+        }
+        if (!field.equals(tieBreaker)) {
+            logger.warn("Index {} maps {} as text, so changes are ordered by {}; reindex to map it as a keyword",
+                    indexName, tieBreaker, field);
+        }
+        sortField = field;
+        return field;
+    }
+
+    /**
+     * Checks the tie-breaker's mapping at startup, so a tie-breaker the index cannot sort by fails the start
+     * rather than every request. If Elasticsearch is not reachable yet, the mapping is checked on first use.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void checkSortField() {
+        try {
+            logger.info("Ordering changes updated in the same millisecond by {}", sortField());
+        } catch (ElasticsearchQueryException e) {
+            logger.warn("Cannot check the mapping of {} yet: {}", tieBreaker, e.getMessage());
+        }
+    }
+
+    /**
+     * Stops checking for changes when the application shuts down; waiting requests time out.
+     */
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    private List<SearchableDocument> fetch(ChangeToken since, int size, String tieBreakerField) {
+        try {
+            return read(restClient.performRequest(request(since, size, tieBreakerField)));
+        } catch (IOException e) {
+            throw failure(since, e);
+        }
+    }
+
+    private void poll(ChangeToken since, String tieBreakerField, long deadline, CompletableFuture<Boolean> changed) {
+        restClient.performRequestAsync(request(since, 1, tieBreakerField), new ResponseListener() {
+            @Override
+            public void onSuccess(Response response) {
+                List<SearchableDocument> documents;
+                try {
+                    documents = read(response);
+                } catch (IOException | RuntimeException e) {
+                    onFailure(e);
+                    return;
+                }
+
+                long delay = Math.min(pollInterval, deadline - System.currentTimeMillis());
+                if (!documents.isEmpty() || delay <= 0) {
+                    changed.complete(!documents.isEmpty());
+                    return;
+                }
+                try {
+                    scheduler.schedule(() -> poll(since, tieBreakerField, deadline, changed), delay,
+                            TimeUnit.MILLISECONDS);
+                } catch (RejectedExecutionException e) {
+                    changed.complete(false);  // Shutting down
+                }
+            }
+
+            @Override
+            public void onFailure(Exception exception) {
+                changed.completeExceptionally(failure(since, exception));
+            }
+        });
+    }
+
+    private Request request(ChangeToken since, int size, String tieBreakerField) {
+        long upperMillis = System.currentTimeMillis() - settleTime;
+        Request request = new Request("POST", "/" + indexName + "/_search");
+        request.addParameter("filter_path", SearchResponseReader.FILTER_PATH);
+        request.setJsonEntity(buildSearchSource(since, size, upperMillis, tieBreakerField).toString());
+        request.setOptions(searchResponseOptions);
+        return request;
+    }
+
+    private List<SearchableDocument> read(Response response) throws IOException {
+        Header contentType = response.getEntity().getContentType();
+        try (InputStream body = response.getEntity().getContent()) {
+            return responseReader.read(body, contentType != null ? contentType.getValue() : null).getDocuments();
+        }
+    }
+
+    private static ElasticsearchQueryException failure(ChangeToken since, Exception e) {
+        logger.error("Error reading changes after {}: {}", since, e.getMessage(), e);
+        return new ElasticsearchQueryException("Failed to read changes", e);
+    }
+
+    private ElasticsearchQueryException mappingFailure(IOException e) {
+        logger.error("Error reading the mapping of {}: {}", tieBreaker, e.getMessage(), e);
+        return new ElasticsearchQueryException("Failed to read the mapping of " + tieBreaker, e);
+    }
+}
@@ -0,0 +1,208 @@
+package com.example.searchservice.service.impl;
+
+import com.example.searchservice.converter.SearchableDocumentMapper;
+import com.example.searchservice.embedded.InMemoryIndex;
+import com.example.searchservice.exception.ElasticsearchQueryException;
+import com.example.searchservice.metrics.SearchMetrics;
+import com.example.searchservice.metrics.SlowQuery;
+import com.example.searchservice.metrics.SlowQueryLog;
+import com.example.searchservice.model.SearchProfile;
+import com.example.searchservice.model.SearchRequest;
+import com.example.searchservice.model.SearchResponse;
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.service.SearchService;
+import com.example.searchservice.util.SearchDataGenerator;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Profile("embedded")
+public class EmbeddedSearchServiceImpl implements SearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmbeddedSearchServiceImpl.class);
+
+    private final InMemoryIndex index = new InMemoryIndex();
+    private final SearchMetrics searchMetrics;
+    private final SlowQueryLog slowQueryLog;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final SearchableDocumentMapper documentMapper = new SearchableDocumentMapper();
+
+    @Value("${search.embedded.documents:500}")
+    private int documentCount;  // Sample documents generated into the index at startup
+
+    @Autowired
+    public EmbeddedSearchServiceImpl(SearchMetrics searchMetrics, SlowQueryLog slowQueryLog) {
+        this.searchMetrics = searchMetrics;
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    /**
+     * Fills the index with generated sample documents, standing in for the data a cluster would hold.
+     */
+    @PostConstruct
+    public void loadSampleData() {
+        if (documentCount > 0) {
+            long startNanos = System.nanoTime();
+            index(SearchDataGenerator.generateRandomDocuments(documentCount));
+            logger.info("Embedded index loaded {} sample documents in {} ms", documentCount,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        }
+    }
+
+    /**
+     * Adds documents to the in-memory index, replacing documents with the same id.
+     *
+     * @param documents documents to add
+     */
+    public void index(Collection<SearchableDocument> documents) {
+        index.addAll(documents);
+    }
+
+    /**
+     * Searches the in-memory index. Totals are always exact, since counting every match costs no more
+     * than scoring it here.
+     *
+     * @param searchRequest The search request containing query parameters
+     * @return A search response with results and metadata
+     */
+    @Override
+    public SearchResponse<SearchableDocument> search(SearchRequest searchRequest) {
+        logger.info("Performing embedded search with query: {}", searchRequest.getQuery());
+
+        long startNanos = System.nanoTime();
+        InMemoryIndex.Result result = execute(searchRequest, "Failed to execute search query");
+        long searchedNanos = System.nanoTime() - startNanos;
+        searchMetrics.record(SearchMetrics.Stage.EMBEDDED, searchRequest, searchedNanos);
+        recordIfSlow(searchRequest, result.getTotalHits(), searchedNanos);
+
+        List<SearchableDocument> documents = new ArrayList<>(result.getHits().size());
+        result.getHits().forEach(hit -> documents.add(hit.getDocument()));
+        return new SearchResponse<>(documents, result.getTotalHits(), searchRequest.getPage(),
+                searchRequest.getSize(), null, TimeUnit.NANOSECONDS.toMillis(searchedNanos));
+    }
+
+    /**
+     * Searches the in-memory index and writes the hits in Elasticsearch's hit shape inside the paging
+     * envelope, like the passthrough search of the Elasticsearch backend.
+     *
+     * @param searchRequest The search request containing query parameters
+     * @param outputStream  Destination for the JSON response, left open
+     * @throws IOException if writing to the output fails
+     */
+    @Override
+    public void streamSearch(SearchRequest searchRequest, OutputStream outputStream) throws IOException {
+        logger.info("Performing embedded passthrough search with query: {}", searchRequest.getQuery());
+
+        long startNanos = System.nanoTime();
+        InMemoryIndex.Result result = execute(searchRequest, "Failed to execute search query");
+        long searchedNanos = System.nanoTime();
+        searchMetrics.record(SearchMetrics.Stage.EMBEDDED, searchRequest, searchedNanos - startNanos);
+
+        long totalHits = result.getTotalHits();
+        int size = searchRequest.getSize();
+        int totalPages = size > 0 ? (int) Math.ceil((double) totalHits / size) : 0;
+        try (JsonGenerator generator = jsonFactory.createGenerator(outputStream)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.writeStartObject();
+            generator.writeNumberField("totalHits", totalHits);
+            generator.writeBooleanField("totalHitsExact", true);
+            generator.writeNumberField("page", searchRequest.getPage());
+            generator.writeNumberField("size", size);
+            generator.writeNumberField("totalPages", totalPages);
+            generator.writeBooleanField("hasNext", searchRequest.getPage() + 1 < totalPages);
+            generator.writeArrayFieldStart("hits");
+            for (InMemoryIndex.Hit hit : result.getHits()) {
+                generator.writeStartObject();
+                generator.writeStringField("_id", hit.getDocument().getId());
+                generator.writeFieldName("_source");
+                documentMapper.write(hit.getDocument(), generator);
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeNumberField("took", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            generator.writeEndObject();
+        }
+        long writtenNanos = System.nanoTime();
+        searchMetrics.record(SearchMetrics.Stage.PASSTHROUGH, searchRequest, writtenNanos - searchedNanos);
+        recordIfSlow(searchRequest, totalHits, writtenNanos - startNanos);
+    }
+
+    /**
+     * Runs the search once and reports the analyzed query and the time spent. The embedded index has no
+     * shards, so the profile is a single entry for the whole index.
+     *
+     * @param searchRequest The search request to profile
+     * @return The analyzed query, hit count, search time and a single profile entry
+     */
+    @Override
+    public SearchProfile profile(SearchRequest searchRequest) {
+        logger.info("Profiling embedded search with query: {}", searchRequest.getQuery());
+
+        long startNanos = System.nanoTime();
+        InMemoryIndex.Result result = execute(searchRequest, "Failed to profile search query");
+        long searchNanos = System.nanoTime() - startNanos;
+
+        ObjectNode query = objectMapper.createObjectNode();
+        query.set("terms", objectMapper.valueToTree(InMemoryIndex.analyze(searchRequest.getQuery())));
+        query.set("filters", objectMapper.valueToTree(searchRequest.getFilters()));
+        query.set("sort", objectMapper.valueToTree(searchRequest.getSort()));
+        query.put("dateField", searchRequest.getDateField());
+        query.put("dateFrom", searchRequest.getDateFrom());
+        query.put("dateTo", searchRequest.getDateTo());
+
+        ObjectNode shard = objectMapper.createObjectNode();
+        shard.put("id", "embedded");
+        shard.put("documents", index.size());
+        shard.put("time_in_nanos", searchNanos);
+        return new SearchProfile(query, result.getTotalHits(), TimeUnit.NANOSECONDS.toMillis(searchNanos),
+                objectMapper.valueToTree(Collections.singletonList(shard)));
+    }
+
+    /**
+     * Reports the size of the in-memory index; it is always available.
+     *
+     * @return A status message starting with OK
+     */
+    @Override
+    public String checkHealth() {
+        return "OK: Embedded index holds " + index.size() + " documents";
+    }
+
+    private InMemoryIndex.Result execute(SearchRequest searchRequest, String failureMessage) {
+        try {
+            return index.search(searchRequest);
+        } catch (RuntimeException e) {
+            logger.error("Error during embedded search: {}", e.getMessage(), e);
+            throw new ElasticsearchQueryException(failureMessage, e);
+        }
+    }
+
+    private void recordIfSlow(SearchRequest searchRequest, long totalHits, long totalNanos) {
+        if (slowQueryLog.isSlow(totalNanos)) {
+            long totalMillis = TimeUnit.NANOSECONDS.toMillis(totalNanos);
+            logger.warn("Slow embedded search ({} ms, {} hits): {}", totalMillis, totalHits, searchRequest.getQuery());
+            slowQueryLog.record(new SlowQuery(Instant.now().toString(), searchRequest.getQuery(), null,
+                    searchRequest.getPage(), searchRequest.getSize(), totalHits, -1, totalMillis,
+                    Collections.singletonMap(SearchMetrics.Stage.EMBEDDED.getTag(), TimeUnit.NANOSECONDS.toMicros(totalNanos))));
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.searchservice.service.impl;
+
+import com.example.searchservice.config.MappingProfile;
+import com.example.searchservice.exception.ElasticsearchQueryException;
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.service.IndexManagementService;
+import org.elasticsearch.ElasticsearchException;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.index.reindex.ReindexRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.AliasData;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@Profile("!embedded")  // The embedded index has no Elasticsearch index to manage
+public class IndexManagementServiceImpl implements IndexManagementService {
+
+    private static final Logger logger = LoggerFactory.getLogger(IndexManagementServiceImpl.class);
+
+    /**
+     * Value of {@code elasticsearch.index.metadata.mapping} that maps metadata as a single flattened field.
+     */
+    static final String FLATTENED_METADATA = "flattened";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final RestHighLevelClient restHighLevelClient;
+
+    @Value("${elasticsearch.index.name}")
+    private String indexName;
+
+    @Value("${elasticsearch.index.mapping-profile:default}")
+    private String mappingProfile;  // One of the MappingProfile names, case-insensitive
+
+    @Value("${elasticsearch.index.metadata.mapping:object}")
+    private String metadataMapping;  // "object" for dynamic sub-fields or "flattened"
+
+    @Value("${elasticsearch.index.metadata.depth-limit:20}")
+    private int metadataDepthLimit;  // Maximum nesting depth accepted for flattened metadata
+
+    @Value("${elasticsearch.startup.deferred:false}")
+    private boolean deferredStartup;  // Index is then verified in the background by DeferredStartupConfig
+
+    @Autowired
+    public IndexManagementServiceImpl(ElasticsearchOperations elasticsearchOperations,
+                                      RestHighLevelClient restHighLevelClient) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.restHighLevelClient = restHighLevelClient;
+    }
+
+    /**
+     * Creates the search index at startup, replacing Spring Data's automatic index creation
+     * so the configured mapping profile can be applied. Skipped with deferred startup, which creates the index
+     * in the background once the application is ready.
+     */
+    @PostConstruct
+    public void initializeIndex() {
+        if (deferredStartup) {
+            return;
+        }
+        try {
+            createIndexIfMissing();
+        } catch (Exception e) {
+            logger.error("Failed to create Elasticsearch index '{}': {}", indexName, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Creates the configured index with the configured mapping profile if it does not exist yet.
+     *
+     * @return true if the index was created, false if it already existed
+     */
+    @Override
+    public boolean createIndexIfMissing() {
+        if (elasticsearchOperations.indexOps(IndexCoordinates.of(indexName)).exists()) {
+            logger.debug("Index '{}' already exists, keeping its current mapping", indexName);
+            return false;
+        }
+
+        return createIndex(indexName, MappingProfile.fromName(mappingProfile));
+    }
+
+    /**
+     * Creates an index from the SearchableDocument settings and mapping with the given profile applied.
+     *
+     * @param indexName name of the index to create
+     * @param profile   mapping profile to apply
+     * @return true if Elasticsearch acknowledged the creation
+     */
+    @Override
+    public boolean createIndex(String indexName, MappingProfile profile) {
+        IndexOperations indexOps = elasticsearchOperations.indexOps(IndexCoordinates.of(indexName));
+
+        // Start from elasticsearch-settings.json and the @Field annotations, then let the profile adjust them
+        Settings settings = indexOps.createSettings(SearchableDocument.class).flatten();
+        Document mapping = indexOps.createMapping(SearchableDocument.class);
+        profile.apply(settings, mapping);
+        applyMetadataMapping(mapping);
+
+        logger.info("Creating index '{}' with mapping profile {} and {} metadata", indexName, profile, metadataMapping);
+        return indexOps.create(settings, mapping);
+    }
+
+    /**
+     * Creates a percolator index from the SearchableDocument settings and mapping with the configured profile
+     * applied. It has a single shard, since every percolation searches all stored queries, and maps fields that
+     * queries use but documents have not introduced yet, such as metadata keys, as text.
+     *
+     * @param indexName name of the index to create
+     * @return true if the index was created, false if it already existed
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public boolean createPercolatorIndexIfMissing(String indexName) {
+        IndexOperations indexOps = elasticsearchOperations.indexOps(IndexCoordinates.of(indexName));
+        if (indexOps.exists()) {
+            return false;
+        }
+
+        Settings settings = indexOps.createSettings(SearchableDocument.class).flatten();
+        Document mapping = indexOps.createMapping(SearchableDocument.class);
+        MappingProfile.fromName(mappingProfile).apply(settings, mapping);
+        applyMetadataMapping(mapping);
+        settings.put("index.number_of_shards", 1);
+        settings.put("index.percolator.map_unmapped_fields_as_text", true);
+
+        Map<String, Object> properties = mapping.get("properties", Map.class);
+        properties.put("query", Collections.singletonMap("type", "percolator"));
+        Map<String, Object> subscription = new LinkedHashMap<>();
+        subscription.put("owner", Collections.singletonMap("type", "keyword"));
+        subscription.put("name", Collections.singletonMap("type", "keyword"));
+        subscription.put("webhook", keywordNotIndexed());
+        subscription.put("created", Collections.singletonMap("type", "date"));
+        subscription.put("request", Collections.singletonMap("enabled", false));  // Kept to be returned as registered
+        properties.put("subscription", Collections.singletonMap("properties", subscription));
+
+        logger.info("Creating percolator index '{}'", indexName);
+        return indexOps.create(settings, mapping);
+    }
+
+    private static Map<String, Object> keywordNotIndexed() {
+        Map<String, Object> field = new LinkedHashMap<>();
+        field.put("type", "keyword");
+        field.put("index", false);
+        return field;
+    }
+
+    /**
+     * Submits a reindex task copying the source index into the target, creating the target first if needed.
+     *
+     * @param sourceIndex index or alias to copy from, or null for the configured index
+     * @param targetIndex index to copy into
+     * @return the Elasticsearch task id
+     */
+    @Override
+    public String startReindex(String sourceIndex, String targetIndex) {
+        String source = StringUtils.hasText(sourceIndex) ? sourceIndex : indexName;
+        if (!elasticsearchOperations.indexOps(IndexCoordinates.of(targetIndex)).exists()) {
+            createIndex(targetIndex, MappingProfile.fromName(mappingProfile));
+        }
+
+        try {
+            String taskId = restHighLevelClient.submitReindexTask(buildReindexRequest(source, targetIndex),
+                    RequestOptions.DEFAULT).getTask();
+            logger.info("Started reindex from '{}' to '{}' as task {}", source, targetIndex, taskId);
+            return taskId;
+        } catch (IOException | ElasticsearchException e) {
+            throw new ElasticsearchQueryException("Failed to start reindex from '" + source + "' to '" + targetIndex + "'", e);
+        }
+    }
+
+    /**
+     * Builds the reindex request copying every document from the source into the target index.
+     *
+     * @param sourceIndex index or alias to copy from
+     * @param targetIndex index to copy into
+     * @return the reindex request
+     */
+    ReindexRequest buildReindexRequest(String sourceIndex, String targetIndex) {
+        return new ReindexRequest()
+                .setSourceIndices(sourceIndex)
+                .setDestIndex(targetIndex)
+                .setRefresh(true);  // Make copied documents visible as soon as the task completes
+    }
+
+    /**
+     * Moves the configured index name onto the target index as an alias in a single atomic alias update.
+     * Refuses to switch while the target holds fewer documents than the current index, which usually
+     * means a reindex into it has not finished yet.
+     *
+     * @param targetIndex index that should serve reads and writes from now on
+     */
+    @Override
+    public void promoteIndex(String targetIndex) {
+        long currentCount = elasticsearchOperations.count(Query.findAll(), IndexCoordinates.of(indexName));
+        long targetCount = elasticsearchOperations.count(Query.findAll(), IndexCoordinates.of(targetIndex));
+        if (targetCount < currentCount) {
+            throw new IllegalStateException("Index '" + targetIndex + "' has " + targetCount + " documents but '"
+                    + indexName + "' has " + currentCount + "; wait for the reindex to finish");
+        }
+
+        IndexOperations indexOps = elasticsearchOperations.indexOps(IndexCoordinates.of(indexName));
+        Map<String, Set<AliasData>> aliasHolders = indexOps.getAliases(indexName);
+
+        AliasActions actions = new AliasActions();
+        if (aliasHolders.isEmpty()) {
+            if (indexOps.exists()) {
+                // The configured name is still a concrete index, so it has to go before the alias can take its name
+                actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder().withIndices(indexName).build()));
+            }
+        } else {
+            aliasHolders.keySet().stream()
+                    .filter(index -> !index.equals(targetIndex))
+                    .forEach(index -> actions.add(new AliasAction.Remove(
+                            AliasActionParameters.builder().withIndices(index).withAliases(indexName).build())));
+        }
+        actions.add(new AliasAction.Add(
+                AliasActionParameters.builder().withIndices(targetIndex).withAliases(indexName).build()));
+
+        indexOps.alias(actions);
+        logger.info("Alias '{}' now points to index '{}'", indexName, targetIndex);
+    }
+
+    /**
+     * Replaces the dynamic object mapping of {@code metadata} with a single flattened field when configured,
+     * so new metadata keys no longer add fields to the index mapping.
+     *
+     * @param mapping mapping document with a top-level {@code properties} object
+     */
+    @SuppressWarnings("unchecked")
+    private void applyMetadataMapping(Document mapping) {
+        if (!FLATTENED_METADATA.equalsIgnoreCase(metadataMapping)) {
+            return;
+        }
+
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("type", "flattened");
+        metadata.put("depth_limit", metadataDepthLimit);
+        mapping.get("properties", Map.class).put("metadata", metadata);
+    }
+}
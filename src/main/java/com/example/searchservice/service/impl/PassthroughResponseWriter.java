@@ -0,0 +1,138 @@
+package com.example.searchservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Copies the hits of an Elasticsearch search response into the API envelope token by token,
+ * without binding them to documents.
+ *
+ * <p>Expects a response limited by {@link #FILTER_PATH} and writes
+ * {@code {"totalHits", "totalHitsExact", "page", "size", "totalPages", "hasNext", "timedOut", "failedShards", "partial",
+ * "hits": [{"_id", "_source"}...], "took"}}. Elasticsearch writes the total, timeout flag and shard counts before
+ * the hits, so the envelope is complete before the first hit is copied.</p>
+ */
+class PassthroughResponseWriter {
+
+    /**
+     * Response filter restricting Elasticsearch's output to what the envelope needs.
+     */
+    static final String FILTER_PATH = "timed_out,_shards.failed,hits.total,hits.hits._id,hits.hits._source";
+
+    private final JsonFactory jsonFactory;
+
+    /**
+     * @param jsonFactory factory for the parser and generator; JSON is used in both directions
+     */
+    PassthroughResponseWriter(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * Streams the hits of a search response to the output, wrapped in the envelope.
+     *
+     * @param searchResponse Elasticsearch search response body
+     * @param output         destination, left open
+     * @param page           requested page number
+     * @param size           requested page size
+     * @param startNanos     {@link System#nanoTime()} at the start of the request, for the {@code took} field
+     * @return the total hit count reported by Elasticsearch
+     * @throws IOException if reading the response or writing the output fails
+     */
+    long write(InputStream searchResponse, OutputStream output, int page, int size, long startNanos) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(searchResponse);
+             JsonGenerator generator = jsonFactory.createGenerator(output)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+            long totalHits = 0;
+            boolean exact = true;
+            boolean timedOut = false;
+            int failedShards = 0;
+            boolean hitsWritten = false;
+
+            generator.writeStartObject();
+            expect(parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("timed_out".equals(field)) {
+                    timedOut = parser.getBooleanValue();
+                    continue;
+                } else if ("_shards".equals(field)) {
+                    failedShards = SearchResponseReader.readFailedShards(parser);
+                    continue;
+                } else if (!"hits".equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String hitsField = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if ("total".equals(hitsField)) {
+                        if (value == JsonToken.START_OBJECT) {
+                            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                                String totalField = parser.getCurrentName();
+                                parser.nextToken();
+                                if ("value".equals(totalField)) {
+                                    totalHits = parser.getLongValue();
+                                } else if ("relation".equals(totalField)) {
+                                    exact = !"gte".equals(parser.getText());
+                                }
+                            }
+                        } else {
+                            totalHits = parser.getLongValue();  // rest_total_hits_as_int form
+                        }
+                    } else if ("hits".equals(hitsField)) {
+                        writeEnvelope(generator, totalHits, exact, page, size, timedOut, failedShards);
+                        generator.writeArrayFieldStart("hits");
+                        while (parser.nextToken() == JsonToken.START_OBJECT) {
+                            generator.copyCurrentStructure(parser);
+                        }
+                        generator.writeEndArray();
+                        hitsWritten = true;
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+
+            // The filter path drops the hits array entirely when nothing matched
+            if (!hitsWritten) {
+                writeEnvelope(generator, totalHits, exact, page, size, timedOut, failedShards);
+                generator.writeArrayFieldStart("hits");
+                generator.writeEndArray();
+            }
+
+            generator.writeNumberField("took", (System.nanoTime() - startNanos) / 1_000_000);
+            generator.writeEndObject();
+            return totalHits;
+        }
+    }
+
+    private static void writeEnvelope(JsonGenerator generator, long totalHits, boolean exact, int page, int size,
+                                      boolean timedOut, int failedShards) throws IOException {
+        int totalPages = size > 0 ? (int) Math.ceil((double) totalHits / size) : 0;
+        generator.writeNumberField("totalHits", totalHits);
+        generator.writeBooleanField("totalHitsExact", exact);
+        generator.writeNumberField("page", page);
+        generator.writeNumberField("size", size);
+        generator.writeNumberField("totalPages", totalPages);
+        generator.writeBooleanField("hasNext", page + 1 < totalPages);
+        generator.writeBooleanField("timedOut", timedOut);
+        generator.writeNumberField("failedShards", failedShards);
+        generator.writeBooleanField("partial", timedOut || failedShards > 0);
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Unexpected Elasticsearch response: expected " + expected + " but found " + actual);
+        }
+    }
+}
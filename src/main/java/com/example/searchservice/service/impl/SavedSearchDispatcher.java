@@ -0,0 +1,218 @@
+package com.example.searchservice.service.impl;
+
+import com.example.searchservice.model.SavedSearchMatch;
+import com.example.searchservice.service.DocumentsIndexedEvent;
+import com.example.searchservice.service.SavedSearchService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Matches each indexed batch against the saved searches and delivers the matches to their owners: as
+ * {@code match} events on the owner's open streams, and posted as JSON to the saved search's webhook if it has one.
+ *
+ * <p>Matching runs on the indexing thread, so saved searches see documents in the order they were indexed.
+ * Delivery runs on a separate thread and webhooks are posted asynchronously, so slow subscribers do not hold up
+ * indexing. Delivery is best effort: failures are counted under {@code saved.search.deliveries} and not retried.
+ * Streams are held in memory, so a user receives the matches of batches indexed by the instance they are
+ * connected to.</p>
+ */
+@Component
+@Profile("!embedded")  // Same as SavedSearchServiceImpl
+public class SavedSearchDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchDispatcher.class);
+
+    private static final String MATCH_EVENT = "match";
+
+    private final SavedSearchService savedSearchService;
+    private final ObjectMapper objectMapper;
+    private final ExecutorService deliveryExecutor;
+    private final Map<String, List<SseEmitter>> streams = new ConcurrentHashMap<>();
+
+    private final Counter streamDelivered;
+    private final Counter streamFailed;
+    private final Counter webhookDelivered;
+    private final Counter webhookFailed;
+
+    private HttpClient httpClient;
+
+    @Value("${saved-search.webhook.timeout:5000}")
+    private long webhookTimeout;  // Milliseconds to connect to and get a response from a webhook
+
+    @Value("${saved-search.stream.timeout:1800000}")
+    private long streamTimeout;  // Milliseconds after which a stream is closed; clients reconnect
+
+    @Autowired
+    public SavedSearchDispatcher(SavedSearchService savedSearchService, ObjectMapper objectMapper,
+                                 MeterRegistry registry) {
+        this(savedSearchService, objectMapper, registry, Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "saved-search-delivery");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    SavedSearchDispatcher(SavedSearchService savedSearchService, ObjectMapper objectMapper, MeterRegistry registry,
+                          ExecutorService deliveryExecutor) {
+        this.savedSearchService = savedSearchService;
+        this.objectMapper = objectMapper;
+        this.deliveryExecutor = deliveryExecutor;
+        this.streamDelivered = counter(registry, "stream", "delivered");
+        this.streamFailed = counter(registry, "stream", "failed");
+        this.webhookDelivered = counter(registry, "webhook", "delivered");
+        this.webhookFailed = counter(registry, "webhook", "failed");
+    }
+
+    /**
+     * Matches an indexed batch and hands the matches over for delivery. Failures are logged rather than thrown,
+     * so saved searches never fail indexing.
+     *
+     * @param event the indexed batch
+     */
+    @EventListener
+    public void onDocumentsIndexed(DocumentsIndexedEvent event) {
+        List<SavedSearchMatch> matches;
+        try {
+            matches = savedSearchService.percolate(event.getDocuments());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to match {} indexed documents against saved searches: {}",
+                    event.getDocuments().size(), e.getMessage());
+            return;
+        }
+        if (!matches.isEmpty()) {
+            logger.debug("{} saved searches matched {} indexed documents", matches.size(), event.getDocuments().size());
+            deliveryExecutor.execute(() -> matches.forEach(this::deliver));
+        }
+    }
+
+    /**
+     * Opens a stream of the user's matches, closed after the configured timeout. The stream starts with a
+     * comment, so the response is sent to the client right away rather than with the first match.
+     *
+     * @param owner name of the subscribing user
+     * @return the stream
+     */
+    public SseEmitter subscribe(String owner) {
+        SseEmitter emitter = new SseEmitter(streamTimeout);
+        try {
+            emitter.send(SseEmitter.event().comment("subscribed"));  // Buffered until the response is ready
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot open match stream", e);  // Not written yet, so not expected
+        }
+        streams.compute(owner, (name, emitters) -> {
+            List<SseEmitter> updated = emitters != null ? emitters : new CopyOnWriteArrayList<>();
+            updated.add(emitter);
+            return updated;
+        });
+        emitter.onCompletion(() -> remove(owner, emitter));
+        emitter.onTimeout(() -> remove(owner, emitter));
+        emitter.onError(error -> remove(owner, emitter));
+        return emitter;
+    }
+
+    /**
+     * @return the number of open streams
+     */
+    int streamCount() {
+        return streams.values().stream().mapToInt(List::size).sum();
+    }
+
+    /**
+     * Stops delivering when the application shuts down; matches not yet delivered are dropped.
+     */
+    @PreDestroy
+    public void stop() {
+        deliveryExecutor.shutdownNow();
+    }
+
+    private void deliver(SavedSearchMatch match) {
+        for (SseEmitter emitter : streams.getOrDefault(match.getOwner(), List.of())) {
+            try {
+                emitter.send(SseEmitter.event().name(MATCH_EVENT).id(match.getSavedSearchId())
+                        .data(match, MediaType.APPLICATION_JSON));
+                streamDelivered.increment();
+            } catch (IOException | IllegalStateException e) {
+                streamFailed.increment();
+                remove(match.getOwner(), emitter);  // Client has gone away
+                emitter.completeWithError(e);
+            }
+        }
+        if (match.getWebhook() != null) {
+            post(match);
+        }
+    }
+
+    private void post(SavedSearchMatch match) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(match.getWebhook()))
+                    .timeout(Duration.ofMillis(webhookTimeout))
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(match)))
+                    .build();
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            webhookFailed.increment();
+            logger.warn("Cannot post match of saved search {}: {}", match.getSavedSearchId(), e.getMessage());
+            return;
+        }
+
+        httpClient().sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            if (error == null && response.statusCode() / 100 == 2) {
+                webhookDelivered.increment();
+            } else {
+                webhookFailed.increment();
+                logger.warn("Webhook of saved search {} failed: {}", match.getSavedSearchId(),
+                        error != null ? error.getMessage() : "status " + response.statusCode());
+            }
+        });
+    }
+
+    private synchronized HttpClient httpClient() {
+        if (httpClient == null) {
+            httpClient = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofMillis(webhookTimeout))
+                    .followRedirects(HttpClient.Redirect.NEVER)  // Redirects could lead off the allowed hosts
+                    .build();
+        }
+        return httpClient;
+    }
+
+    private void remove(String owner, SseEmitter emitter) {
+        streams.computeIfPresent(owner, (name, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    private static Counter counter(MeterRegistry registry, String channel, String result) {
+        return Counter.builder("saved.search.deliveries").tag("channel", channel).tag("result", result)
+                .description("Saved search matches delivered to streams and webhooks")
+                .register(registry);
+    }
+}
@@ -0,0 +1,344 @@
+package com.example.searchservice.service.impl;
+
+import com.example.searchservice.converter.SearchableDocumentMapper;
+import com.example.searchservice.exception.ElasticsearchQueryException;
+import com.example.searchservice.exception.InvalidSavedSearchException;
+import com.example.searchservice.exception.SavedSearchNotFoundException;
+import com.example.searchservice.model.SavedSearch;
+import com.example.searchservice.model.SavedSearchMatch;
+import com.example.searchservice.model.SearchRequest;
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.service.IndexManagementService;
+import com.example.searchservice.service.SavedSearchService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.RestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@Profile("!embedded")  // Saved searches are stored as Elasticsearch percolator queries
+public class SavedSearchServiceImpl implements SavedSearchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SavedSearchServiceImpl.class);
+
+    private static final String SLOT_FIELD = "_percolator_document_slot";
+
+    private final RestClient restClient;
+    private final SearchServiceImpl searchService;
+    private final IndexManagementService indexManagementService;
+    private final SearchableDocumentMapper mapper = new SearchableDocumentMapper();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private volatile boolean indexCreated;  // Checked once per instance, on the first registration
+
+    @Value("${saved-search.index:${elasticsearch.index.name}-saved-searches}")
+    private String savedSearchIndex;
+
+    @Value("${saved-search.max-per-user:50}")
+    private int maxPerUser;  // Saved searches a user may register
+
+    @Value("${saved-search.max-matches:10000}")
+    private int maxMatches;  // Saved searches reported per indexed batch; beyond it, matches are dropped
+
+    @Value("${saved-search.webhook.allowed-hosts:localhost,127.0.0.1,[::1]}")
+    private String allowedWebhookHosts;  // Comma-separated hosts webhooks may point to
+
+    @Autowired
+    public SavedSearchServiceImpl(RestClient restClient, SearchServiceImpl searchService,
+                                  IndexManagementService indexManagementService) {
+        this.restClient = restClient;
+        this.searchService = searchService;
+        this.indexManagementService = indexManagementService;
+    }
+
+    /**
+     * Stores the search's query, as built for a regular search, in the percolator index. The request itself is
+     * kept alongside it so it can be listed as registered. Waits for a refresh, so the search matches the next
+     * indexed batch.
+     */
+    @Override
+    public SavedSearch register(SavedSearch savedSearch, String owner) {
+        validateWebhook(savedSearch.getWebhook());
+        ensureIndex();
+        if (count(owner) >= maxPerUser) {
+            throw new InvalidSavedSearchException("At most " + maxPerUser + " saved searches are allowed per user");
+        }
+
+        String id = UUID.randomUUID().toString();
+        Instant createdAt = Instant.now();
+        ObjectNode subscription = objectMapper.createObjectNode()
+                .put("owner", owner)
+                .put("name", savedSearch.getName())
+                .put("webhook", savedSearch.getWebhook())
+                .put("created", createdAt.toEpochMilli());
+        subscription.set("request", objectMapper.valueToTree(savedSearch.getSearch()));
+
+        Request request = new Request("PUT", "/" + savedSearchIndex + "/_doc/" + id);
+        request.addParameter("refresh", "wait_for");
+        try {
+            ObjectNode body = objectMapper.createObjectNode();
+            body.set("query", objectMapper.readTree(searchService.buildQuery(savedSearch.getSearch()).toString()));
+            body.set("subscription", subscription);
+            request.setJsonEntity(objectMapper.writeValueAsString(body));
+
+            restClient.performRequest(request);
+        } catch (IOException e) {
+            logger.error("Error registering saved search: {}", e.getMessage(), e);
+            throw new ElasticsearchQueryException("Failed to register saved search", e);
+        }
+        logger.info("Registered saved search {} '{}' of {}", id, savedSearch.getName(), owner);
+
+        savedSearch.setId(id);
+        savedSearch.setCreatedAt(createdAt);
+        return savedSearch;
+    }
+
+    @Override
+    public List<SavedSearch> list(String owner) {
+        Request request = new Request("POST", "/" + savedSearchIndex + "/_search");
+        request.addParameter("filter_path", "hits.hits._id,hits.hits._source");
+        request.setJsonEntity("{\"size\":" + maxPerUser + ",\"_source\":[\"subscription\"],"
+                + "\"query\":" + ownerQuery(owner) + ",\"sort\":[{\"subscription.created\":\"asc\"}]}");
+
+        JsonNode body;
+        try {
+            body = read(restClient.performRequest(request));
+        } catch (ResponseException e) {
+            if (e.getResponse().getStatusLine().getStatusCode() == 404) {
+                return Collections.emptyList();  // Nothing registered yet
+            }
+            throw failure("Failed to list saved searches", e);
+        } catch (IOException e) {
+            throw failure("Failed to list saved searches", e);
+        }
+
+        List<SavedSearch> savedSearches = new ArrayList<>();
+        for (JsonNode hit : body.path("hits").path("hits")) {
+            JsonNode subscription = hit.path("_source").path("subscription");
+            if (!owner.equals(subscription.path("owner").asText(null))) {
+                continue;
+            }
+            SavedSearch savedSearch = new SavedSearch();
+            savedSearch.setId(hit.path("_id").asText());
+            savedSearch.setName(subscription.path("name").asText(null));
+            savedSearch.setWebhook(subscription.path("webhook").asText(null));
+            savedSearch.setCreatedAt(Instant.ofEpochMilli(subscription.path("created").asLong()));
+            try {
+                savedSearch.setSearch(objectMapper.treeToValue(subscription.path("request"), SearchRequest.class));
+            } catch (IOException e) {
+                logger.warn("Saved search {} has an unreadable request: {}", savedSearch.getId(), e.getMessage());
+            }
+            savedSearches.add(savedSearch);
+        }
+        return savedSearches;
+    }
+
+    /**
+     * Deletes the search by id and owner in one request, so another user's search is left alone and reported
+     * as not found.
+     */
+    @Override
+    public void delete(String id, String owner) {
+        Request request = new Request("POST", "/" + savedSearchIndex + "/_delete_by_query");
+        request.addParameter("refresh", "true");
+        request.addParameter("filter_path", "deleted");
+        try (StringWriter writer = new StringWriter();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("query");
+            generator.writeObjectFieldStart("bool");
+            generator.writeArrayFieldStart("filter");
+            generator.writeStartObject();
+            generator.writeObjectFieldStart("ids");
+            generator.writeArrayFieldStart("values");
+            generator.writeString(id);
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeRawValue(ownerQuery(owner));
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.flush();
+            request.setJsonEntity(writer.toString());
+
+            if (read(restClient.performRequest(request)).path("deleted").asLong() == 0) {
+                throw new SavedSearchNotFoundException(id);
+            }
+        } catch (ResponseException e) {
+            if (e.getResponse().getStatusLine().getStatusCode() == 404) {
+                throw new SavedSearchNotFoundException(id);
+            }
+            throw failure("Failed to delete saved search", e);
+        } catch (IOException e) {
+            throw failure("Failed to delete saved search", e);
+        }
+        logger.info("Deleted saved search {} of {}", id, owner);
+    }
+
+    /**
+     * Runs one percolate query for the whole batch. Each hit is a saved search, with the positions of the
+     * documents it matched in {@code _percolator_document_slot}. Runs in filter context, since matches are not
+     * ranked.
+     */
+    @Override
+    public List<SavedSearchMatch> percolate(List<SearchableDocument> documents) {
+        if (documents.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Request request = new Request("POST", "/" + savedSearchIndex + "/_search");
+        request.addParameter("filter_path", "hits.hits._id,hits.hits._source,hits.hits.fields");
+        try (StringWriter writer = new StringWriter();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeNumberField("size", maxMatches);
+            generator.writeArrayFieldStart("_source");
+            generator.writeString("subscription.owner");
+            generator.writeString("subscription.name");
+            generator.writeString("subscription.webhook");
+            generator.writeEndArray();
+            generator.writeObjectFieldStart("query");
+            generator.writeObjectFieldStart("constant_score");
+            generator.writeObjectFieldStart("filter");
+            generator.writeObjectFieldStart("percolate");
+            generator.writeStringField("field", "query");
+            generator.writeArrayFieldStart("documents");
+            for (SearchableDocument document : documents) {
+                mapper.write(document, generator);
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.writeEndObject();
+            generator.flush();
+            request.setJsonEntity(writer.toString());
+
+            return readMatches(read(restClient.performRequest(request)), documents);
+        } catch (ResponseException e) {
+            if (e.getResponse().getStatusLine().getStatusCode() == 404) {
+                return Collections.emptyList();  // Nothing registered yet
+            }
+            throw failure("Failed to match saved searches", e);
+        } catch (IOException e) {
+            throw failure("Failed to match saved searches", e);
+        }
+    }
+
+    private List<SavedSearchMatch> readMatches(JsonNode body, List<SearchableDocument> documents) {
+        JsonNode hits = body.path("hits").path("hits");
+        if (hits.size() >= maxMatches) {
+            logger.warn("{} or more saved searches matched a batch of {} documents; further matches were dropped",
+                    maxMatches, documents.size());
+        }
+
+        Instant matchedAt = Instant.now();
+        List<SavedSearchMatch> matches = new ArrayList<>(hits.size());
+        for (JsonNode hit : hits) {
+            JsonNode subscription = hit.path("_source").path("subscription");
+            String owner = subscription.path("owner").asText(null);
+            if (owner == null) {
+                continue;  // Not a saved search
+            }
+            List<SearchableDocument> matched = new ArrayList<>();
+            for (JsonNode slot : hit.path("fields").path(SLOT_FIELD)) {
+                if (slot.asInt() < documents.size()) {
+                    matched.add(documents.get(slot.asInt()));
+                }
+            }
+            if (!matched.isEmpty()) {
+                matches.add(new SavedSearchMatch(hit.path("_id").asText(), subscription.path("name").asText(null),
+                        matched, matchedAt, owner, subscription.path("webhook").asText(null)));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Accepts only absolute http(s) URLs on an allowed host, so saved searches cannot make this service send
+     * requests to arbitrary hosts.
+     */
+    private void validateWebhook(String webhook) {
+        if (webhook == null) {
+            return;
+        }
+        URI uri;
+        try {
+            uri = new URI(webhook);
+        } catch (URISyntaxException e) {
+            throw new InvalidSavedSearchException("Webhook is not a valid URL");
+        }
+        String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase(Locale.ROOT) : "";
+        if (!scheme.equals("http") && !scheme.equals("https") || uri.getHost() == null) {
+            throw new InvalidSavedSearchException("Webhook must be an absolute http or https URL");
+        }
+        Set<String> allowed = Arrays.stream(allowedWebhookHosts.split(","))
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        if (!allowed.contains(uri.getHost().toLowerCase(Locale.ROOT))) {
+            throw new InvalidSavedSearchException("Webhook host " + uri.getHost() + " is not allowed");
+        }
+    }
+
+    private void ensureIndex() {
+        if (!indexCreated) {
+            indexManagementService.createPercolatorIndexIfMissing(savedSearchIndex);
+            indexCreated = true;
+        }
+    }
+
+    private long count(String owner) {
+        Request request = new Request("POST", "/" + savedSearchIndex + "/_count");
+        request.setJsonEntity("{\"query\":" + ownerQuery(owner) + "}");
+        try {
+            return read(restClient.performRequest(request)).path("count").asLong();
+        } catch (IOException e) {
+            throw failure("Failed to count saved searches", e);
+        }
+    }
+
+    private String ownerQuery(String owner) {
+        ObjectNode query = objectMapper.createObjectNode();
+        query.putObject("term").put("subscription.owner", owner);
+        return query.toString();
+    }
+
+    private JsonNode read(Response response) throws IOException {
+        try (InputStream content = response.getEntity().getContent()) {
+            return objectMapper.readTree(content);
+        }
+    }
+
+    private static ElasticsearchQueryException failure(String message, IOException e) {
+        logger.error("{}: {}", message, e.getMessage(), e);
+        return new ElasticsearchQueryException(message, e);
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.searchservice.service.impl;
+
+import com.example.searchservice.converter.SearchableDocumentMapper;
+import com.example.searchservice.model.SearchableDocument;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reads an Elasticsearch search response into documents, mapping each hit's {@code _source} straight from
+ * the token stream with {@link SearchableDocumentMapper}.
+ *
+ * <p>Expects a response limited by {@link #FILTER_PATH}, encoded as JSON or, when the client asks
+ * Elasticsearch for it, Smile.</p>
+ */
+class SearchResponseReader {
+
+    /**
+     * Response filter restricting Elasticsearch's output to what the reader uses.
+     */
+    static final String FILTER_PATH = "took,timed_out,_shards.failed,hits.total,hits.hits._id,hits.hits._source";
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final SmileFactory smileFactory = new SmileFactory();
+    private final SearchableDocumentMapper mapper;
+
+    /**
+     * @param mapper mapper for the hits' sources
+     */
+    SearchResponseReader(SearchableDocumentMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Reads a search response.
+     *
+     * @param body        response body
+     * @param contentType the response's content type, selecting JSON or Smile
+     * @return the documents, total and reported search time
+     * @throws IOException if the body cannot be read or is not a search response
+     */
+    Result read(InputStream body, String contentType) throws IOException {
+        try (JsonParser parser = createParser(body, contentType)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Unexpected Elasticsearch response: expected an object but found " + parser.currentToken());
+            }
+            return readSearchResponse(parser);
+        }
+    }
+
+    /**
+     * Creates a parser for a response body.
+     *
+     * @param body        response body
+     * @param contentType the response's content type, selecting JSON or Smile
+     * @return the parser, to be closed by the caller
+     * @throws IOException if the parser cannot be created
+     */
+    JsonParser createParser(InputStream body, String contentType) throws IOException {
+        JsonFactory factory = contentType != null && contentType.contains("smile") ? smileFactory : jsonFactory;
+        return factory.createParser(body);
+    }
+
+    /**
+     * Reads a search response object, such as the {@code response} of an async search.
+     *
+     * @param parser parser positioned on the object's start
+     * @return the documents, total and reported search time
+     * @throws IOException if the object cannot be read
+     */
+    Result readSearchResponse(JsonParser parser) throws IOException {
+        long took = 0;
+        boolean timedOut = false;
+        int failedShards = 0;
+        long totalHits = 0;
+        boolean exact = true;
+        List<SearchableDocument> documents = Collections.emptyList();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("took".equals(field)) {
+                took = parser.getLongValue();
+            } else if ("timed_out".equals(field)) {
+                timedOut = parser.getBooleanValue();
+            } else if ("_shards".equals(field)) {
+                failedShards = readFailedShards(parser);
+            } else if (!"hits".equals(field)) {
+                parser.skipChildren();
+            } else {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String hitsField = parser.getCurrentName();
+                    JsonToken value = parser.nextToken();
+                    if ("total".equals(hitsField)) {
+                        if (value == JsonToken.START_OBJECT) {
+                            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                                String totalField = parser.getCurrentName();
+                                parser.nextToken();
+                                if ("value".equals(totalField)) {
+                                    totalHits = parser.getLongValue();
+                                } else if ("relation".equals(totalField)) {
+                                    exact = !"gte".equals(parser.getText());
+                                }
+                            }
+                        } else {
+                            totalHits = parser.getLongValue();  // rest_total_hits_as_int form
+                        }
+                    } else if ("hits".equals(hitsField)) {
+                        documents = readHits(parser);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+
+        return new Result(took, totalHits, exact, documents, timedOut, failedShards);
+    }
+
+    /**
+     * Reads the number of failed shards from the {@code _shards} object.
+     */
+    static int readFailedShards(JsonParser parser) throws IOException {
+        int failed = 0;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            parser.nextToken();
+            if ("failed".equals(field)) {
+                failed = parser.getIntValue();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Reads the hits array, taking each document's id from {@code _id}.
+     */
+    private List<SearchableDocument> readHits(JsonParser parser) throws IOException {
+        List<SearchableDocument> documents = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            String id = null;
+            SearchableDocument document = null;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                if ("_id".equals(field)) {
+                    id = parser.getText();
+                } else if ("_source".equals(field)) {
+                    document = mapper.read(parser, null);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+
+            if (document == null) {
+                document = new SearchableDocument();  // Source disabled or filtered out
+            }
+            if (id != null) {
+                document.setId(id);
+            }
+            documents.add(document);
+        }
+        return documents;
+    }
+
+    /**
+     * A search response read into documents.
+     */
+    @Getter
+    static final class Result {
+
+        /**
+         * Search time reported by Elasticsearch in milliseconds.
+         */
+        private final long took;
+
+        /**
+         * Number of matching documents, or a lower bound when {@link #totalHitsExact} is false.
+         */
+        private final long totalHits;
+
+        /**
+         * Whether {@link #totalHits} is exact.
+         */
+        private final boolean totalHitsExact;
+
+        /**
+         * Documents of the requested page, in hit order.
+         */
+        private final List<SearchableDocument> documents;
+
+        /**
+         * Whether Elasticsearch stopped collecting hits when the search timeout was reached.
+         */
+        private final boolean timedOut;
+
+        /**
+         * Number of shards that could not be searched.
+         */
+        private final int failedShards;
+
+        Result(long took, long totalHits, boolean totalHitsExact, List<SearchableDocument> documents,
+               boolean timedOut, int failedShards) {
+            this.took = took;
+            this.totalHits = totalHits;
+            this.totalHitsExact = totalHitsExact;
+            this.documents = documents;
+            this.timedOut = timedOut;
+            this.failedShards = failedShards;
+        }
+    }
+}
@@ -1,95 +1,181 @@
 package com.example.searchservice.service.impl;
 
+import com.example.searchservice.converter.SearchableDocumentMapper;
 import com.example.searchservice.exception.ElasticsearchQueryException;
+import com.example.searchservice.exception.SearchTimeoutException;
+import com.example.searchservice.health.ElasticsearchHealthProbe;
+import com.example.searchservice.metrics.SearchMetrics;
+import com.example.searchservice.metrics.SlowQuery;
+import com.example.searchservice.metrics.SlowQueryLog;
+import com.example.searchservice.model.SearchProfile;
 import com.example.searchservice.model.SearchRequest;
 import com.example.searchservice.model.SearchResponse;
 import com.example.searchservice.model.SearchableDocument;
 import com.example.searchservice.service.SearchService;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.Header;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.Cancellable;
+import org.elasticsearch.client.Request;
 import org.elasticsearch.client.RequestOptions;
-import org.elasticsearch.client.RestHighLevelClient;
-import org.elasticsearch.client.indices.GetIndexRequest;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.Operator;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortOrder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
-import org.springframework.data.elasticsearch.core.SearchHit;
-import org.springframework.data.elasticsearch.core.SearchHits;
-import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
-import org.springframework.data.elasticsearch.core.query.Criteria;
-import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
+@Profile("!embedded")  // Replaced by EmbeddedSearchServiceImpl
 public class SearchServiceImpl implements SearchService {
 
     private static final Logger logger = LoggerFactory.getLogger(SearchServiceImpl.class);
 
-    private final ElasticsearchOperations elasticsearchOperations;
-    private final RestHighLevelClient restHighLevelClient;
+    /**
+     * Field the index is physically sorted on, see {@code index.sort} in elasticsearch-settings.json.
+     */
+    static final String INDEX_SORT_FIELD = "createdDate";
+
+    /**
+     * Response filter for profiled searches: the hit count, search time and profile, but no hits.
+     */
+    static final String PROFILE_FILTER_PATH = "took,hits.total,profile";
+
+    private final RestClient restClient;
+    private final ElasticsearchHealthProbe healthProbe;
+    private final SearchMetrics searchMetrics;
+    private final SlowQueryLog slowQueryLog;
+    private final RequestOptions searchResponseOptions;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SearchResponseReader responseReader = new SearchResponseReader(new SearchableDocumentMapper());
+    private final PassthroughResponseWriter passthroughWriter = new PassthroughResponseWriter(new JsonFactory());
+    private final SearchTaskCanceller taskCanceller;
 
     @Value("${elasticsearch.index.name}")
     private String indexName;
 
+    @Value("${elasticsearch.search.early-termination:true}")
+    private boolean earlyTerminationEnabled;  // Allows bounded hit counting for index-sorted queries
+
+    @Value("${elasticsearch.search.default-timeout:0}")
+    private long defaultTimeout;  // Milliseconds; applies to searches that set no timeout, 0 for none
+
+    @Value("${elasticsearch.search.timeout-margin:50}")
+    private long timeoutMargin;  // Milliseconds left for Elasticsearch's partial response to arrive before the deadline
+
     @Autowired
-    public SearchServiceImpl(ElasticsearchOperations elasticsearchOperations,
-                             RestHighLevelClient restHighLevelClient) {
-        this.elasticsearchOperations = elasticsearchOperations;
-        this.restHighLevelClient = restHighLevelClient;
+    public SearchServiceImpl(RestClient restClient,
+                             ElasticsearchHealthProbe healthProbe,
+                             SearchMetrics searchMetrics,
+                             SlowQueryLog slowQueryLog,
+                             RequestOptions searchResponseOptions) {
+        this.restClient = restClient;
+        this.healthProbe = healthProbe;
+        this.searchMetrics = searchMetrics;
+        this.slowQueryLog = slowQueryLog;
+        this.searchResponseOptions = searchResponseOptions;
+        this.taskCanceller = new SearchTaskCanceller(restClient, objectMapper);
     }
 
     /**
      * Performs a basic search using the provided search request.
      *
+     * <p>Query building, the Elasticsearch round trip, the {@code took} reported by Elasticsearch and
+     * hit mapping are each recorded in {@link SearchMetrics}. Searches over the slow-query threshold are
+     * added to the {@link SlowQueryLog} with the query sent to Elasticsearch.</p>
+     *
+     * <p>With a timeout, Elasticsearch returns the hits found by then, marked as partial, and a search still
+     * running at the deadline is cancelled; see {@link #execute}.</p>
+     *
      * @param searchRequest The search request containing query parameters
      * @return A search response with results and metadata
+     * @throws SearchTimeoutException if the search did not complete within its timeout
      */
     @Override
     public SearchResponse<SearchableDocument> search(SearchRequest searchRequest) {
         logger.info("Performing search with query: {}", searchRequest.getQuery());
 
-        long startTime = System.currentTimeMillis();
+        long startNanos = System.nanoTime();
 
         try {
-            // Create separate criteria for each field and combine them
-            Criteria titleCriteria = new Criteria("title").matches(searchRequest.getQuery());
-            Criteria contentCriteria = new Criteria("content").matches(searchRequest.getQuery());
-
-            // Combine with OR
-            Criteria combinedCriteria = titleCriteria.or(contentCriteria);
-
             // Create and configure the query
-            CriteriaQuery query = new CriteriaQuery(combinedCriteria);
-            query.setPageable(PageRequest.of(searchRequest.getPage(), searchRequest.getSize()));
+            Request request = buildSearchRequest(searchRequest, SearchResponseReader.FILTER_PATH);
+            request.setOptions(searchResponseOptions);  // Read according to its content type
+            long builtNanos = System.nanoTime();
+            searchMetrics.record(SearchMetrics.Stage.QUERY_BUILDING, searchRequest, builtNanos - startNanos);
 
             // Execute the search
-            SearchHits<SearchableDocument> searchHits = elasticsearchOperations.search(
-                    query,
-                    SearchableDocument.class,
-                    IndexCoordinates.of(indexName)
-            );
+            Response response = execute(request, timeoutOf(searchRequest), startNanos);
+            long respondedNanos = System.nanoTime();
+            searchMetrics.record(SearchMetrics.Stage.ELASTICSEARCH, searchRequest, respondedNanos - builtNanos);
 
-            // Extract results
-            List<SearchableDocument> documents = searchHits.getSearchHits().stream()
-                    .map(SearchHit::getContent)
-                    .collect(Collectors.toList());
+            // Map the hits straight from the response body
+            SearchResponseReader.Result result;
+            try (InputStream body = response.getEntity().getContent()) {
+                Header contentType = response.getEntity().getContentType();
+                result = responseReader.read(body, contentType != null ? contentType.getValue() : null);
+            }
+            long mappedNanos = System.nanoTime();
+            searchMetrics.record(SearchMetrics.Stage.HIT_MAPPING, searchRequest, mappedNanos - respondedNanos);
+            searchMetrics.recordTook(searchRequest, result.getTook());
 
-            long took = System.currentTimeMillis() - startTime;
+            if (slowQueryLog.isSlow(mappedNanos - startNanos)) {
+                Map<String, Long> stages = new LinkedHashMap<>();
+                stages.put(SearchMetrics.Stage.QUERY_BUILDING.getTag(), micros(builtNanos - startNanos));
+                stages.put(SearchMetrics.Stage.ELASTICSEARCH.getTag(), micros(respondedNanos - builtNanos));
+                stages.put(SearchMetrics.Stage.HIT_MAPPING.getTag(), micros(mappedNanos - respondedNanos));
+                recordSlowQuery(searchRequest, request, result.getTotalHits(), result.getTook(),
+                        mappedNanos - startNanos, stages);
+            }
 
             // Create response
-            return new SearchResponse<>(
-                    documents,
-                    searchHits.getTotalHits(),
+            SearchResponse<SearchableDocument> searchResponse = new SearchResponse<>(
+                    result.getDocuments(),
+                    result.getTotalHits(),
                     searchRequest.getPage(),
                     searchRequest.getSize(),
                     null,
-                    took
+                    (mappedNanos - startNanos) / 1_000_000
             );
+            searchResponse.setTotalHitsExact(result.isTotalHitsExact());
+            searchResponse.setTimedOut(result.isTimedOut());
+            searchResponse.setFailedShards(result.getFailedShards());
+            if (searchResponse.isPartial()) {
+                logger.info("Search returned partial results: timed out {}, {} failed shards",
+                        result.isTimedOut(), result.getFailedShards());
+            }
+            return searchResponse;
+        } catch (SearchTimeoutException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error during search: {}", e.getMessage(), e);
             throw new ElasticsearchQueryException("Failed to execute search query", e);
@@ -97,24 +183,340 @@ public class SearchServiceImpl implements SearchService {
     }
 
     /**
-     * Checks the health of the Elasticsearch connection.
+     * Runs a search and streams the matching hits to the output in Elasticsearch's hit shape, without
+     * binding them to documents. The query, sorting and hit counting are the same as for {@link #search}.
      *
-     * @return A status message indicating the health of the connection
+     * @param searchRequest The search request containing query parameters
+     * @param outputStream  Destination for the JSON response, left open
+     * @throws IOException if writing to the output fails
+     * @throws SearchTimeoutException if the search did not complete within its timeout
      */
     @Override
-    public String checkHealth() {
+    public void streamSearch(SearchRequest searchRequest, OutputStream outputStream) throws IOException {
+        logger.info("Performing passthrough search with query: {}", searchRequest.getQuery());
+
+        long startNanos = System.nanoTime();
+
+        Request request = buildSearchRequest(searchRequest, PassthroughResponseWriter.FILTER_PATH);
+        long builtNanos = System.nanoTime();
+        searchMetrics.record(SearchMetrics.Stage.QUERY_BUILDING, searchRequest, builtNanos - startNanos);
+
+        Response response;
+        try {
+            response = execute(request, timeoutOf(searchRequest), startNanos);
+        } catch (IOException e) {
+            logger.error("Error during passthrough search: {}", e.getMessage(), e);
+            throw new ElasticsearchQueryException("Failed to execute search query", e);
+        }
+        long respondedNanos = System.nanoTime();
+        searchMetrics.record(SearchMetrics.Stage.ELASTICSEARCH, searchRequest, respondedNanos - builtNanos);
+
+        long totalHits;
+        try (InputStream body = response.getEntity().getContent()) {
+            totalHits = passthroughWriter.write(body, outputStream, searchRequest.getPage(), searchRequest.getSize(), startNanos);
+        }
+        long writtenNanos = System.nanoTime();
+        searchMetrics.record(SearchMetrics.Stage.PASSTHROUGH, searchRequest, writtenNanos - respondedNanos);
+
+        if (slowQueryLog.isSlow(writtenNanos - startNanos)) {
+            Map<String, Long> stages = new LinkedHashMap<>();
+            stages.put(SearchMetrics.Stage.QUERY_BUILDING.getTag(), micros(builtNanos - startNanos));
+            stages.put(SearchMetrics.Stage.ELASTICSEARCH.getTag(), micros(respondedNanos - builtNanos));
+            stages.put(SearchMetrics.Stage.PASSTHROUGH.getTag(), micros(writtenNanos - respondedNanos));
+            recordSlowQuery(searchRequest, request, totalHits, -1, writtenNanos - startNanos, stages);
+        }
+    }
+
+    /**
+     * Runs the search with {@code profile: true} and returns the profile Elasticsearch collected on each shard.
+     * Profiled searches are not recorded in the metrics or the slow-query log, since profiling slows them down.
+     *
+     * @param searchRequest The search request to profile
+     * @return The query sent, hit count, search time and per-shard profile
+     */
+    @Override
+    public SearchProfile profile(SearchRequest searchRequest) {
+        logger.info("Profiling search with query: {}", searchRequest.getQuery());
+
         try {
-            boolean indexExists = restHighLevelClient.indices()
-                    .exists(new GetIndexRequest(indexName), RequestOptions.DEFAULT);
+            String source = buildSearchSource(searchRequest).profile(true).toString();
+            Request request = newSearchRequest(source, PROFILE_FILTER_PATH);
+
+            JsonNode body;
+            try (InputStream content = restClient.performRequest(request).getEntity().getContent()) {
+                body = objectMapper.readTree(content);
+            }
+
+            JsonNode total = body.path("hits").path("total");
+            return new SearchProfile(
+                    objectMapper.readTree(source),
+                    total.isObject() ? total.path("value").asLong() : total.asLong(),
+                    body.path("took").asLong(),
+                    body.path("profile").path("shards")
+            );
+        } catch (Exception e) {
+            logger.error("Error during search profiling: {}", e.getMessage(), e);
+            throw new ElasticsearchQueryException("Failed to profile search query", e);
+        }
+    }
+
+    /**
+     * Sends a search. Without a timeout this blocks like any other call. With one, Elasticsearch is asked to stop
+     * collecting hits {@code timeout-margin} before the deadline, so its partial results still arrive in time, and
+     * the call is aborted if the deadline passes or the waiting thread is interrupted anyway. Aborting closes the
+     * connection, on which Elasticsearch cancels the search; the task is also cancelled explicitly by the
+     * {@code X-Opaque-Id} it was sent with.
+     *
+     * @param request       The search to send; the timeout parameter and opaque id are added to it
+     * @param timeoutMillis Time allowed from {@code startNanos}, 0 for none
+     * @param startNanos    {@link System#nanoTime()} when handling the search started
+     * @return The response
+     * @throws IOException if the search fails or the thread is interrupted while waiting
+     * @throws SearchTimeoutException if the deadline passed before the response arrived
+     */
+    Response execute(Request request, long timeoutMillis, long startNanos) throws IOException {
+        if (timeoutMillis <= 0) {
+            return restClient.performRequest(request);
+        }
+
+        long deadlineNanos = startNanos + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        request.addParameter("timeout", Math.max(1, remainingMillis - timeoutMargin) + "ms");
+        String opaqueId = UUID.randomUUID().toString();
+        request.setOptions(request.getOptions().toBuilder().addHeader(SearchTaskCanceller.OPAQUE_ID_HEADER, opaqueId));
 
-            if (!indexExists) {
-                return "WARNING: Index '" + indexName + "' does not exist";
+        CompletableFuture<Response> result = new CompletableFuture<>();
+        Cancellable call = restClient.performRequestAsync(request, new ResponseListener() {
+            @Override
+            public void onSuccess(Response response) {
+                result.complete(response);
             }
 
-            return "OK: Connected to Elasticsearch, index '" + indexName + "' exists";
+            @Override
+            public void onFailure(Exception exception) {
+                result.completeExceptionally(exception);
+            }
+        });
+
+        try {
+            return result.get(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            cancel(call, opaqueId);
+            throw new SearchTimeoutException("Search did not complete within " + timeoutMillis + " ms");
+        } catch (InterruptedException e) {
+            cancel(call, opaqueId);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the search");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    private void cancel(Cancellable call, String opaqueId) {
+        logger.info("Cancelling search {}", opaqueId);
+        call.cancel();
+        taskCanceller.cancel(opaqueId);
+    }
+
+    /**
+     * @return The time allowed for a search in milliseconds: its own timeout or the default, 0 for none
+     */
+    private long timeoutOf(SearchRequest searchRequest) {
+        return searchRequest.getTimeout() != null ? searchRequest.getTimeout() : defaultTimeout;
+    }
+
+    /**
+     * Adds a search to the slow-query log. The query is read back from the request entity, so it is only
+     * serialized again for searches that are actually slow.
+     */
+    private void recordSlowQuery(SearchRequest searchRequest, Request request, long totalHits, long tookMillis,
+                                 long totalNanos, Map<String, Long> stageMicros) {
+        String dsl;
+        try {
+            dsl = EntityUtils.toString(request.getEntity());
         } catch (IOException e) {
-            logger.error("Error checking Elasticsearch health: {}", e.getMessage(), e);
-            return "ERROR: " + e.getMessage();
+            dsl = null;  // The entity is an in-memory string, so this does not happen in practice
+        }
+
+        long totalMillis = TimeUnit.NANOSECONDS.toMillis(totalNanos);
+        logger.warn("Slow search ({} ms, {} hits): {}", totalMillis, totalHits, dsl);
+        slowQueryLog.record(new SlowQuery(Instant.now().toString(), searchRequest.getQuery(), dsl,
+                searchRequest.getPage(), searchRequest.getSize(), totalHits, tookMillis, totalMillis, stageMicros));
+    }
+
+    private static long micros(long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    /**
+     * Builds the low-level search request shared by regular and passthrough searches.
+     *
+     * @param searchRequest The search request
+     * @param filterPath    Response filter limiting Elasticsearch's output to what the caller reads
+     * @return The request to send
+     */
+    Request buildSearchRequest(SearchRequest searchRequest, String filterPath) {
+        return newSearchRequest(buildSearchSource(searchRequest).toString(), filterPath);
+    }
+
+    private Request newSearchRequest(String source, String filterPath) {
+        Request request = new Request("POST", "/" + indexName + "/_search");
+        request.addParameter("filter_path", filterPath);
+        request.setJsonEntity(source);
+        return request;
+    }
+
+    /**
+     * Builds the search body: query, page, sort and hit counting.
+     *
+     * @param searchRequest The search request
+     * @return The search source
+     */
+    SearchSourceBuilder buildSearchSource(SearchRequest searchRequest) {
+        SearchSourceBuilder source = new SearchSourceBuilder()
+                .query(buildQuery(searchRequest))
+                .from(searchRequest.getPage() * searchRequest.getSize())
+                .size(searchRequest.getSize());
+
+        // Apply requested sort order, if any
+        Sort sort = buildSort(searchRequest.getSort());
+        sort.forEach(order -> source.sort(order.getProperty(), order.isAscending() ? SortOrder.ASC : SortOrder.DESC));
+
+        // Only count enough hits to fill this page and detect a next one, so each segment can stop early
+        if (canTerminateEarly(searchRequest, sort)) {
+            source.trackTotalHitsUpTo(hitCountBound(searchRequest));
+        } else {
+            source.trackTotalHits(true);
+        }
+        return source;
+    }
+
+    /**
+     * Builds the Elasticsearch query for a search request: the query text must match the title or the content,
+     * and every filter must match as well. Shared by regular and passthrough searches.
+     *
+     * @param searchRequest The search request
+     * @return The query to execute
+     */
+    QueryBuilder buildQuery(SearchRequest searchRequest) {
+        // Match either field; nested so that the filters below are required alongside it
+        BoolQueryBuilder query = QueryBuilders.boolQuery()
+                .must(QueryBuilders.boolQuery()
+                        .should(QueryBuilders.matchQuery("title", searchRequest.getQuery()))
+                        .should(QueryBuilders.matchQuery("content", searchRequest.getQuery())));
+
+        // Filters do not affect scoring, so they run in filter context where results can be cached
+        buildFilterQueries(searchRequest.getFilters()).forEach(query::filter);
+
+        return query;
+    }
+
+    /**
+     * Converts the request's filters into match queries. Collection values match any of their elements
+     * and null values are ignored. Keyword fields match exactly; text fields match when all terms are present.
+     * Metadata keys are addressed as {@code metadata.<key>}; they match exactly when metadata uses the
+     * flattened mapping, and are analyzed like any dynamic text field otherwise.
+     *
+     * @param filters Map of field names to required values, may be null
+     * @return One query per filter entry
+     */
+    List<QueryBuilder> buildFilterQueries(Map<String, Object> filters) {
+        if (filters == null || filters.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<QueryBuilder> queries = new ArrayList<>(filters.size());
+        filters.forEach((field, value) -> {
+            if (value instanceof Collection) {
+                BoolQueryBuilder anyOf = QueryBuilders.boolQuery().minimumShouldMatch(1);
+                ((Collection<?>) value).forEach(element -> anyOf.should(matchAll(field, element)));
+                queries.add(anyOf);
+            } else if (value != null) {
+                queries.add(matchAll(field, value));
+            }
+        });
+
+        return queries;
+    }
+
+    private static QueryBuilder matchAll(String field, Object value) {
+        return QueryBuilders.matchQuery(field, value).operator(Operator.AND);
+    }
+
+    /**
+     * Converts the request's field-to-direction map into a {@link Sort}, keeping the map's order.
+     * Directions other than "asc"/"desc" fall back to ascending.
+     *
+     * @param sortFields Map of field names to "asc" or "desc", may be null
+     * @return The sort to apply, or {@link Sort#unsorted()} if none was requested
+     */
+    Sort buildSort(Map<String, String> sortFields) {
+        if (sortFields == null || sortFields.isEmpty()) {
+            return Sort.unsorted();
+        }
+
+        List<Sort.Order> orders = new ArrayList<>(sortFields.size());
+        sortFields.forEach((field, direction) -> orders.add(new Sort.Order(
+                Sort.Direction.fromOptionalString(direction).orElse(Sort.Direction.ASC), field)));
+
+        return Sort.by(orders);
+    }
+
+    /**
+     * Determines whether a search can rely on the index sort to terminate early. This holds when
+     * exact totals are not requested and the primary sort matches the index sort ({@code createdDate} desc).
+     *
+     * @param searchRequest The search request
+     * @param sort The sort built from the request
+     * @return true if hit counting can be bounded
+     */
+    boolean canTerminateEarly(SearchRequest searchRequest, Sort sort) {
+        if (!earlyTerminationEnabled || searchRequest.isTrackTotalHits() || sort.isUnsorted()) {
+            return false;
+        }
+
+        Sort.Order primary = sort.iterator().next();
+        return INDEX_SORT_FIELD.equals(primary.getProperty()) && primary.isDescending();
+    }
+
+    /**
+     * Computes how many hits need to be counted to fill the requested page and know whether another page exists.
+     *
+     * @param searchRequest The search request
+     * @return The hit count bound, capped at {@link Integer#MAX_VALUE}
+     */
+    private int hitCountBound(SearchRequest searchRequest) {
+        long bound = (long) (searchRequest.getPage() + 1) * searchRequest.getSize() + 1;
+        return (int) Math.min(bound, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Reports the health of the Elasticsearch connection as found by the last background probe,
+     * without contacting Elasticsearch.
+     *
+     * @return A status message indicating the health of the connection
+     */
+    @Override
+    public String checkHealth() {
+        ElasticsearchHealthProbe.Result result = healthProbe.getLastResult();
+        if (result == null) {
+            return "UNKNOWN: Elasticsearch has not been probed yet";
+        }
+        if (result.getError() != null) {
+            return "ERROR: " + result.getError();
+        }
+        if (!result.isIndexExists()) {
+            return "WARNING: Index '" + indexName + "' does not exist";
+        }
+        if (!result.isReady()) {
+            return "WARNING: Cluster status is " + result.getClusterStatus();
         }
+        return "OK: Connected to Elasticsearch, index '" + indexName + "' exists";
     }
 }
\ No newline at end of file
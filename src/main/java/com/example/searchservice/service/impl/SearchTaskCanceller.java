@@ -0,0 +1,111 @@
+package com.example.searchservice.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cancels the Elasticsearch search task started by a request, found by the {@code X-Opaque-Id} header the request
+ * was sent with.
+ *
+ * <p>Elasticsearch also cancels a search when the HTTP connection it arrived on is closed, which aborting the
+ * request does. Cancelling the task explicitly covers proxies that keep their connection to the cluster open.
+ * Both calls are asynchronous and best effort: a task that has finished in the meantime is simply not found.</p>
+ */
+class SearchTaskCanceller {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchTaskCanceller.class);
+
+    /**
+     * Header carrying the request's id into the task list.
+     */
+    static final String OPAQUE_ID_HEADER = "X-Opaque-Id";
+
+    private static final String SEARCH_ACTION = "indices:data/read/search";
+
+    private final RestClient restClient;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param restClient   client for the task management API
+     * @param objectMapper mapper for the task list
+     */
+    SearchTaskCanceller(RestClient restClient, ObjectMapper objectMapper) {
+        this.restClient = restClient;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Looks up the search tasks sent with the given id and cancels them, without waiting for either.
+     *
+     * @param opaqueId value of the request's {@code X-Opaque-Id} header
+     */
+    void cancel(String opaqueId) {
+        Request tasks = new Request("GET", "/_tasks");
+        tasks.addParameter("actions", SEARCH_ACTION);
+        tasks.addParameter("filter_path", "nodes.*.tasks.*.headers");
+        restClient.performRequestAsync(tasks, listener(opaqueId, response -> {
+            for (String taskId : findTasks(response, opaqueId)) {
+                Request cancel = new Request("POST", "/_tasks/" + taskId + "/_cancel");
+                restClient.performRequestAsync(cancel,
+                        listener(opaqueId, cancelled -> logger.debug("Cancelled search task {} of request {}", taskId, opaqueId)));
+            }
+        }));
+    }
+
+    /**
+     * Reads the ids of the tasks carrying the opaque id from a task list.
+     */
+    List<String> findTasks(Response response, String opaqueId) throws IOException {
+        JsonNode body;
+        try (InputStream content = response.getEntity().getContent()) {
+            body = objectMapper.readTree(content);
+        }
+
+        List<String> ids = new ArrayList<>();
+        for (Iterator<JsonNode> nodes = body.path("nodes").elements(); nodes.hasNext(); ) {
+            for (Iterator<Map.Entry<String, JsonNode>> tasks = nodes.next().path("tasks").fields(); tasks.hasNext(); ) {
+                Map.Entry<String, JsonNode> task = tasks.next();
+                if (opaqueId.equals(task.getValue().path("headers").path(OPAQUE_ID_HEADER).asText(null))) {
+                    ids.add(task.getKey());
+                }
+            }
+        }
+        return ids;
+    }
+
+    private static ResponseListener listener(String opaqueId, ResponseHandler handler) {
+        return new ResponseListener() {
+            @Override
+            public void onSuccess(Response response) {
+                try {
+                    handler.handle(response);
+                } catch (IOException | RuntimeException e) {
+                    onFailure(e);
+                }
+            }
+
+            @Override
+            public void onFailure(Exception exception) {
+                logger.debug("Failed to cancel the search task of request {}: {}", opaqueId, exception.getMessage());
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface ResponseHandler {
+        void handle(Response response) throws IOException;
+    }
+}
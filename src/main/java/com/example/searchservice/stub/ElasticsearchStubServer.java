@@ -0,0 +1,632 @@
+package com.example.searchservice.stub;
+
+import com.example.searchservice.converter.SearchableDocumentMapper;
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.util.SearchDataGenerator;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.Getter;
+import lombok.Setter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process HTTP stand-in for an Elasticsearch 7.17 node, so benchmarks and tests can exercise the client side
+ * (connection pool, node selection, response parsing, retries) without a cluster.
+ *
+ * <p>Answers the calls this service makes: the version check of the high-level client, cluster health, node
+ * info for sniffing, index exists/create/delete, aliases, {@code _search}, {@code _msearch}, {@code _bulk},
+ * {@code _count} and {@code _async_search}. Async searches complete before the submission is answered and are kept
+ * for later gets until deleted, up to {@value #MAX_ASYNC_SEARCHES} of them. Search hits are taken in rotation from documents generated up front, so serving them costs
+ * little more than writing the bytes. Responses for {@code search}, {@code msearch}, {@code bulk} and {@code count} can instead be
+ * recorded from a real cluster (e.g. with curl) into {@code <name>.json} files of
+ * {@link Settings#getRecordings()}, which are then returned verbatim.</p>
+ *
+ * <p>Only the data endpoints are slowed down and fail: each such request waits for a delay drawn from
+ * {@link Settings#getLatency()}, then is rejected with 429 {@code es_rejected_execution_exception} or fails with
+ * 500 at the configured rates. Bulk items and multi-search responses are rejected individually at
+ * {@link Settings#getItemRejectionRate()}. The n-th data request draws from a random source derived from the seed
+ * and n, so a seeded run injects the same faults and delays in the same order.</p>
+ */
+public class ElasticsearchStubServer implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElasticsearchStubServer.class);
+
+    /**
+     * Version reported to clients; the high-level client refuses to talk to nodes it does not recognize.
+     */
+    static final String VERSION = "7.17.15";
+
+    private static final String CONTENT_TYPE = "application/json; charset=UTF-8";
+    private static final byte[] ACKNOWLEDGED = "{\"acknowledged\":true}".getBytes(StandardCharsets.UTF_8);
+    private static final List<String> RECORDABLE = Arrays.asList("search", "msearch", "bulk", "count");
+    private static final int MAX_ASYNC_SEARCHES = 1000;
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonFactory jsonFactory = objectMapper.getFactory();
+
+    private final List<SearchableDocument> documents;
+    private final List<String> sources;  // Documents pre-serialized as _source
+    private final Map<String, byte[]> recordings = new HashMap<>();
+    private final Set<String> indices = ConcurrentHashMap.newKeySet();
+    private final Map<String, byte[]> asyncSearches = Collections.synchronizedMap(new LinkedHashMap<String, byte[]>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+            return size() > MAX_ASYNC_SEARCHES;
+        }
+    });
+
+    private final AtomicLong dataRequests = new AtomicLong();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    /**
+     * Binds the server to the loopback interface; {@link #start()} begins serving.
+     *
+     * @param settings responses, delays and faults
+     * @throws IOException if the port cannot be bound or a recording cannot be read
+     */
+    public ElasticsearchStubServer(Settings settings) throws IOException {
+        this.settings = settings;
+        this.indices.addAll(settings.getIndices());
+
+        SearchableDocumentMapper mapper = new SearchableDocumentMapper();
+        this.documents = SearchDataGenerator.generateRandomDocuments(Math.max(1, settings.getDocuments()));
+        List<String> serialized = new ArrayList<>(documents.size());
+        for (SearchableDocument document : documents) {
+            StringWriter source = new StringWriter();
+            try (JsonGenerator generator = jsonFactory.createGenerator(source)) {
+                mapper.write(document, generator);
+            }
+            serialized.add(source.toString());
+        }
+        this.sources = serialized;
+
+        if (settings.getRecordings() != null) {
+            for (String name : RECORDABLE) {
+                Path recording = settings.getRecordings().resolve(name + ".json");
+                if (Files.isRegularFile(recording)) {
+                    recordings.put(name, Files.readAllBytes(recording));
+                }
+            }
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "elasticsearch-stub-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), settings.getPort()), 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    /**
+     * Starts serving requests.
+     */
+    public void start() {
+        server.start();
+        logger.info("Elasticsearch stub listening on {} with latency {}, error rate {}, rejection rate {}, "
+                        + "item rejection rate {}{}", getUrl(), settings.getLatency(), settings.getErrorRate(),
+                settings.getRejectionRate(), settings.getItemRejectionRate(),
+                recordings.isEmpty() ? "" : ", recorded " + recordings.keySet());
+    }
+
+    /**
+     * @return the port the server is bound to, which was chosen by the system if configured as 0
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return base URL of the server, usable as {@code elasticsearch.host}
+     */
+    public String getUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + getPort();
+    }
+
+    /**
+     * @return requests to data endpoints received so far
+     */
+    public long getDataRequests() {
+        return dataRequests.get();
+    }
+
+    /**
+     * @return requests and items rejected with 429 so far
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * @return requests failed with 500 so far
+     */
+    public long getFailed() {
+        return failed.sum();
+    }
+
+    /**
+     * Stops serving and releases the port.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String method = exchange.getRequestMethod().toUpperCase(Locale.ROOT);
+            List<String> path = new ArrayList<>();
+            for (String segment : exchange.getRequestURI().getPath().split("/")) {
+                if (!segment.isEmpty()) {
+                    path.add(segment);
+                }
+            }
+            String endpoint = path.isEmpty() ? "" : path.get(path.size() - 1);
+
+            if (path.isEmpty()) {
+                respond(exchange, 200, info());
+            } else if (endpoint.equals("_search") || endpoint.equals("_msearch") || endpoint.equals("_bulk")
+                    || endpoint.equals("_count")) {
+                handleData(exchange, endpoint.substring(1), path.size() > 1 ? path.get(0) : null);
+            } else if (endpoint.equals("_async_search") && path.size() == 2 && method.equals("POST")) {
+                handleData(exchange, "async_search", path.get(0));
+            } else if (path.get(0).equals("_async_search") && path.size() == 2) {
+                byte[] stored = method.equals("DELETE") ? asyncSearches.remove(endpoint) : asyncSearches.get(endpoint);
+                if (stored == null) {
+                    respond(exchange, 404, error(404, "resource_not_found_exception", endpoint));
+                } else {
+                    respond(exchange, 200, method.equals("DELETE") ? ACKNOWLEDGED : stored);
+                }
+            } else if (path.get(0).equals("_cluster") && endpoint.equals("health")) {
+                respond(exchange, 200, json("{\"cluster_name\":\"elasticsearch-stub\",\"status\":\"green\","
+                        + "\"timed_out\":false,\"number_of_nodes\":1,\"number_of_data_nodes\":1}"));
+            } else if (path.get(0).equals("_nodes")) {
+                // Node info for sniffers, listing the stub itself
+                respond(exchange, 200, json("{\"nodes\":{\"stub\":{\"name\":\"elasticsearch-stub\",\"version\":\""
+                        + VERSION + "\",\"roles\":[\"master\",\"data\"],\"http\":{\"publish_address\":\""
+                        + server.getAddress().getHostString() + ":" + getPort() + "\"}}}}"));
+            } else if (path.size() == 1 && !endpoint.startsWith("_")) {
+                handleIndex(exchange, method, endpoint);
+            } else if (endpoint.equals("_alias") || endpoint.equals("_aliases") || path.contains("_alias")) {
+                // Alias lookups find none, alias changes are acknowledged
+                respond(exchange, 200, method.equals("GET") ? json("{}") : ACKNOWLEDGED);
+            } else if (endpoint.equals("_refresh") || endpoint.equals("_flush")) {
+                respond(exchange, 200, json("{\"_shards\":{\"total\":1,\"successful\":1,\"failed\":0}}"));
+            } else {
+                respond(exchange, 200, ACKNOWLEDGED);  // Mapping and settings updates, index templates and the like
+            }
+        } catch (RuntimeException | IOException e) {
+            logger.warn("Elasticsearch stub failed to answer {} {}: {}", exchange.getRequestMethod(),
+                    exchange.getRequestURI(), e.getMessage());
+            respond(exchange, 500, error(500, "exception", e.toString()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleIndex(HttpExchange exchange, String method, String index) throws IOException {
+        switch (method) {
+            case "HEAD":
+                boolean exists = Arrays.stream(index.split(","))
+                        .allMatch(name -> name.contains("*") || indices.contains(name));
+                respond(exchange, exists ? 200 : 404, (byte[]) null);
+                break;
+            case "PUT":
+                indices.add(index);
+                respond(exchange, 200, json("{\"acknowledged\":true,\"shards_acknowledged\":true,\"index\":\""
+                        + index + "\"}"));
+                break;
+            case "DELETE":
+                indices.remove(index);
+                respond(exchange, 200, ACKNOWLEDGED);
+                break;
+            default:
+                respond(exchange, 200, json("{\"" + index + "\":{\"aliases\":{},\"mappings\":{},\"settings\":{}}}"));
+        }
+    }
+
+    /**
+     * Answers a data endpoint after the configured delay, unless the request draws a fault.
+     */
+    private void handleData(HttpExchange exchange, String endpoint, String index) throws IOException {
+        byte[] body = readBody(exchange);
+        SplittableRandom random = new SplittableRandom(settings.getSeed() + dataRequests.getAndIncrement() * 0x9E3779B97F4A7C15L);
+
+        long delay = settings.getLatency().sampleNanos(random);
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();  // Server is stopping
+                return;
+            }
+        }
+
+        double roll = random.nextDouble();
+        if (roll < settings.getRejectionRate()) {
+            rejected.increment();
+            respond(exchange, 429, error(429, "es_rejected_execution_exception",
+                    "rejected execution of coordinating operation [stub]"));
+            return;
+        }
+        if (roll < settings.getRejectionRate() + settings.getErrorRate()) {
+            failed.increment();
+            respond(exchange, 500, error(500, "search_phase_execution_exception", "all shards failed [stub]"));
+            return;
+        }
+
+        byte[] recorded = recordings.get(endpoint);
+        if (recorded != null) {
+            respond(exchange, 200, recorded);
+            return;
+        }
+        String resolvedIndex = index != null ? index : settings.getIndices().stream().findFirst().orElse("documents");
+        switch (endpoint) {
+            case "search":
+                respond(exchange, 200, search(objectMapper.readTree(body.length > 0 ? body : json("{}")),
+                        resolvedIndex, random));
+                break;
+            case "msearch":
+                respond(exchange, 200, multiSearch(body, resolvedIndex, random));
+                break;
+            case "async_search":
+                respond(exchange, 200, asyncSearch(objectMapper.readTree(body.length > 0 ? body : json("{}")),
+                        resolvedIndex, random, exchange.getRequestURI().getQuery()));
+                break;
+            case "bulk":
+                respond(exchange, 200, bulk(body, resolvedIndex, random));
+                break;
+            default:
+                respond(exchange, 200, json("{\"count\":" + settings.getTotalHits()
+                        + ",\"_shards\":{\"total\":1,\"successful\":1,\"skipped\":0,\"failed\":0}}"));
+        }
+    }
+
+    private byte[] search(JsonNode request, String index, SplittableRandom random) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            writeSearchResponse(generator, request, index, random);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Answers an async search as completed and keeps the response for later gets under a new id.
+     */
+    private byte[] asyncSearch(JsonNode request, String index, SplittableRandom random, String query) throws IOException {
+        String id = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeStringField("id", id);
+            generator.writeBooleanField("is_partial", false);
+            generator.writeBooleanField("is_running", false);
+            generator.writeNumberField("start_time_in_millis", now);
+            generator.writeNumberField("expiration_time_in_millis", now + TimeUnit.DAYS.toMillis(5));  // Default keep-alive
+            generator.writeFieldName("response");
+            writeSearchResponse(generator, request, index, random);
+            generator.writeEndObject();
+        }
+        byte[] response = out.toByteArray();
+        if (query == null || !query.contains("keep_on_completion=false")) {
+            asyncSearches.put(id, response);
+        }
+        return response;
+    }
+
+    private byte[] multiSearch(byte[] body, String index, SplittableRandom random) throws IOException {
+        List<String> lines = ndjsonLines(body);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("took", 1);
+            generator.writeArrayFieldStart("responses");
+            for (int i = 0; i + 1 < lines.size(); i += 2) {  // Header line, then body line
+                JsonNode header = objectMapper.readTree(lines.get(i));
+                String target = header.path("index").asText(index);
+                if (random.nextDouble() < settings.getItemRejectionRate()) {
+                    rejected.increment();
+                    generator.writeRawValue(new String(error(429, "es_rejected_execution_exception",
+                            "rejected execution of search [stub]"), StandardCharsets.UTF_8));
+                } else {
+                    generator.writeStartObject();
+                    writeSearchFields(generator, objectMapper.readTree(lines.get(i + 1)), target, random);
+                    generator.writeNumberField("status", 200);
+                    generator.writeEndObject();
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private void writeSearchResponse(JsonGenerator generator, JsonNode request, String index,
+                                     SplittableRandom random) throws IOException {
+        generator.writeStartObject();
+        writeSearchFields(generator, request, index, random);
+        generator.writeEndObject();
+    }
+
+    /**
+     * Writes the fields of a search response, honoring the request's {@code from}, {@code size} and
+     * {@code track_total_hits}.
+     */
+    private void writeSearchFields(JsonGenerator generator, JsonNode request, String index,
+                                   SplittableRandom random) throws IOException {
+        long totalHits = settings.getTotalHits();
+        int from = request.path("from").asInt(0);
+        int size = request.path("size").asInt(10);
+        int hits = (int) Math.max(0, Math.min(size, totalHits - from));
+
+        generator.writeNumberField("took", 1 + random.nextInt(5));
+        generator.writeBooleanField("timed_out", false);
+        generator.writeObjectFieldStart("_shards");
+        generator.writeNumberField("total", 1);
+        generator.writeNumberField("successful", 1);
+        generator.writeNumberField("skipped", 0);
+        generator.writeNumberField("failed", 0);
+        generator.writeEndObject();
+
+        generator.writeObjectFieldStart("hits");
+        // track_total_hits is true, false, a limit, or -1 for false as the high-level client writes it
+        JsonNode trackTotalHits = request.path("track_total_hits");
+        long trackUpTo = trackTotalHits.isBoolean() ? (trackTotalHits.asBoolean() ? Long.MAX_VALUE : -1)
+                : trackTotalHits.isNumber() ? trackTotalHits.asLong() : 10_000;
+        if (trackUpTo >= 0) {
+            generator.writeObjectFieldStart("total");
+            generator.writeNumberField("value", Math.min(totalHits, trackUpTo));
+            generator.writeStringField("relation", totalHits > trackUpTo ? "gte" : "eq");
+            generator.writeEndObject();
+        }
+        if (hits > 0) {
+            generator.writeNumberField("max_score", 1.0);
+        } else {
+            generator.writeNullField("max_score");
+        }
+        generator.writeArrayFieldStart("hits");
+        for (int i = 0; i < hits; i++) {
+            int document = (from + i) % documents.size();
+            generator.writeStartObject();
+            generator.writeStringField("_index", index);
+            generator.writeStringField("_type", "_doc");
+            generator.writeStringField("_id", documents.get(document).getId());
+            generator.writeNumberField("_score", 1.0);
+            generator.writeFieldName("_source");
+            generator.writeRawValue(sources.get(document));
+            generator.writeEndObject();
+        }
+        generator.writeEndArray();
+        generator.writeEndObject();
+    }
+
+    private byte[] bulk(byte[] body, String index, SplittableRandom random) throws IOException {
+        List<String> lines = ndjsonLines(body);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        boolean errors = false;
+        try (JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("took", 1 + random.nextInt(5));
+            generator.writeArrayFieldStart("items");
+            for (int i = 0; i < lines.size(); i++) {
+                JsonNode action = objectMapper.readTree(lines.get(i));
+                String operation = action.fieldNames().hasNext() ? action.fieldNames().next() : "index";
+                JsonNode metadata = action.path(operation);
+                if (!operation.equals("delete")) {
+                    i++;  // Skip the document line
+                }
+                boolean rejectedItem = random.nextDouble() < settings.getItemRejectionRate();
+                errors |= rejectedItem;
+
+                generator.writeStartObject();
+                generator.writeObjectFieldStart(operation);
+                generator.writeStringField("_index", metadata.path("_index").asText(index));
+                generator.writeStringField("_type", "_doc");
+                generator.writeStringField("_id", metadata.path("_id").asText(Long.toHexString(random.nextLong())));
+                if (rejectedItem) {
+                    rejected.increment();
+                    generator.writeNumberField("status", 429);
+                    generator.writeObjectFieldStart("error");
+                    generator.writeStringField("type", "es_rejected_execution_exception");
+                    generator.writeStringField("reason", "rejected execution of bulk item [stub]");
+                    generator.writeEndObject();
+                } else {
+                    generator.writeNumberField("_version", 1);
+                    generator.writeStringField("result", operation.equals("delete") ? "deleted" : "created");
+                    generator.writeObjectFieldStart("_shards");
+                    generator.writeNumberField("total", 1);
+                    generator.writeNumberField("successful", 1);
+                    generator.writeNumberField("failed", 0);
+                    generator.writeEndObject();
+                    generator.writeNumberField("_seq_no", i);
+                    generator.writeNumberField("_primary_term", 1);
+                    generator.writeNumberField("status", operation.equals("delete") ? 200 : 201);
+                }
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeBooleanField("errors", errors);
+            generator.writeEndObject();
+        }
+        return out.toByteArray();
+    }
+
+    private String info() {
+        return "{\"name\":\"elasticsearch-stub\",\"cluster_name\":\"elasticsearch-stub\",\"cluster_uuid\":\"stub\","
+                + "\"version\":{\"number\":\"" + VERSION + "\",\"build_flavor\":\"default\",\"build_type\":\"tar\","
+                + "\"build_hash\":\"stub\",\"build_date\":\"2023-11-10T22:03:46.987399016Z\",\"build_snapshot\":false,"
+                + "\"lucene_version\":\"8.11.1\",\"minimum_wire_compatibility_version\":\"6.8.0\","
+                + "\"minimum_index_compatibility_version\":\"6.0.0-beta1\"},\"tagline\":\"You Know, for Search\"}";
+    }
+
+    private static byte[] error(int status, String type, String reason) {
+        String cause = "{\"type\":\"" + type + "\",\"reason\":\"" + reason.replace("\"", "'") + "\"}";
+        return json("{\"error\":{\"root_cause\":[" + cause + "],\"type\":\"" + type + "\",\"reason\":\""
+                + reason.replace("\"", "'") + "\"},\"status\":" + status + "}");
+    }
+
+    private static byte[] json(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> ndjsonLines(byte[] body) {
+        List<String> lines = new ArrayList<>();
+        for (String line : new String(body, StandardCharsets.UTF_8).split("\n")) {
+            if (!line.trim().isEmpty()) {
+                lines.add(line);
+            }
+        }
+        return lines;
+    }
+
+    private static byte[] readBody(HttpExchange exchange) throws IOException {
+        InputStream body = exchange.getRequestBody();
+        if ("gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+            body = new GZIPInputStream(body);  // Sent by clients with compression enabled
+        }
+        try (InputStream in = body) {
+            return in.readAllBytes();
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        respond(exchange, status, json(body));
+    }
+
+    /**
+     * Sends a JSON response, gzip-compressed if the client accepts it.
+     *
+     * @param body response body, or null for a response without one (HEAD)
+     */
+    private static void respond(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("X-Elastic-Product", "Elasticsearch");
+        if (body == null || "HEAD".equalsIgnoreCase(exchange.getRequestMethod())) {
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            // The JDK server drops the connection after a response without a body; tell the client not to reuse it
+            exchange.getResponseHeaders().set("Connection", "close");
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+        if (acceptEncoding != null && acceptEncoding.toLowerCase(Locale.ROOT).contains("gzip")) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * What the stub answers and how it misbehaves.
+     */
+    @Getter
+    @Setter
+    public static class Settings {
+
+        /**
+         * Port to listen on, 0 for any free port.
+         */
+        private int port = 0;
+
+        /**
+         * Delay before each data endpoint answers.
+         */
+        private LatencyDistribution latency = LatencyDistribution.NONE;
+
+        /**
+         * Fraction of data requests failed with 500.
+         */
+        private double errorRate = 0;
+
+        /**
+         * Fraction of data requests rejected with 429, as a node with a full queue does.
+         */
+        private double rejectionRate = 0;
+
+        /**
+         * Fraction of bulk items and multi-search responses rejected with 429 inside a successful response.
+         */
+        private double itemRejectionRate = 0;
+
+        /**
+         * Number of distinct documents returned as hits.
+         */
+        private int documents = 200;
+
+        /**
+         * Total hits reported by searches and counts.
+         */
+        private long totalHits = 10_000;
+
+        /**
+         * Seed for delays, faults and generated values.
+         */
+        private long seed = 42;
+
+        /**
+         * Indices reported as existing; indices created through the stub are added.
+         */
+        private Set<String> indices = new LinkedHashSet<>(Collections.singletonList("documents"));
+
+        /**
+         * Directory with recorded {@code search.json}, {@code msearch.json}, {@code bulk.json} or
+         * {@code count.json} responses, or null to generate all responses.
+         */
+        private Path recordings;
+    }
+}
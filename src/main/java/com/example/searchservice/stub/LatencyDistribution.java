@@ -0,0 +1,160 @@
+package com.example.searchservice.stub;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response time added by {@link ElasticsearchStubServer} before it answers a request.
+ *
+ * <p>Distributions are written as {@code <kind>:<milliseconds>...}:</p>
+ * <ul>
+ *     <li>{@code none} - no delay</li>
+ *     <li>{@code constant:5} - always 5 ms</li>
+ *     <li>{@code uniform:2:20} - evenly spread between 2 and 20 ms</li>
+ *     <li>{@code lognormal:5:80} - median of 5 ms and 99th percentile of 80 ms, a long tail as real clusters show</li>
+ * </ul>
+ */
+public abstract class LatencyDistribution {
+
+    /**
+     * No delay.
+     */
+    public static final LatencyDistribution NONE = new Constant(0);
+
+    // Standard normal quantile of the 99th percentile
+    private static final double Z_99 = 2.3263478740408408;
+
+    private final String spec;
+
+    private LatencyDistribution(String spec) {
+        this.spec = spec;
+    }
+
+    /**
+     * Draws a delay.
+     *
+     * @param random random source, so a seeded server delays the same requests by the same amounts
+     * @return the delay in nanoseconds
+     */
+    public abstract long sampleNanos(SplittableRandom random);
+
+    /**
+     * Parses a distribution from its written form.
+     *
+     * @param spec e.g. {@code constant:5}, {@code uniform:2:20} or {@code lognormal:5:80}
+     * @return the distribution
+     * @throws IllegalArgumentException if the spec is malformed
+     */
+    public static LatencyDistribution parse(String spec) {
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        try {
+            switch (parts[0]) {
+                case "":
+                case "none":
+                    return NONE;
+                case "constant":
+                    requireArguments(spec, parts, 1);
+                    return new Constant(millis(parts[1]));
+                case "uniform":
+                    requireArguments(spec, parts, 2);
+                    return new Uniform(millis(parts[1]), millis(parts[2]));
+                case "lognormal":
+                    requireArguments(spec, parts, 2);
+                    return new LogNormal(millis(parts[1]), millis(parts[2]));
+                default:
+                    throw new IllegalArgumentException("Unknown latency distribution '" + spec
+                            + "', expected none, constant:<ms>, uniform:<min ms>:<max ms> or lognormal:<median ms>:<p99 ms>");
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed latency distribution '" + spec + "'", e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    private static void requireArguments(String spec, String[] parts, int count) {
+        if (parts.length != count + 1) {
+            throw new IllegalArgumentException("Latency distribution '" + spec + "' expects " + count + " value(s)");
+        }
+    }
+
+    private static double millis(String value) {
+        double millis = Double.parseDouble(value);
+        if (millis < 0) {
+            throw new IllegalArgumentException("Latency must not be negative: " + value);
+        }
+        return millis;
+    }
+
+    private static long toNanos(double millis) {
+        return (long) (millis * TimeUnit.MILLISECONDS.toNanos(1));
+    }
+
+    private static final class Constant extends LatencyDistribution {
+
+        private final long nanos;
+
+        Constant(double millis) {
+            super(millis == 0 ? "none" : "constant:" + millis);
+            this.nanos = toNanos(millis);
+        }
+
+        @Override
+        public long sampleNanos(SplittableRandom random) {
+            return nanos;
+        }
+    }
+
+    private static final class Uniform extends LatencyDistribution {
+
+        private final long minNanos;
+        private final long maxNanos;
+
+        Uniform(double minMillis, double maxMillis) {
+            super("uniform:" + minMillis + ":" + maxMillis);
+            if (maxMillis < minMillis) {
+                throw new IllegalArgumentException("Uniform latency needs min <= max, got " + minMillis + " and " + maxMillis);
+            }
+            this.minNanos = toNanos(minMillis);
+            this.maxNanos = toNanos(maxMillis);
+        }
+
+        @Override
+        public long sampleNanos(SplittableRandom random) {
+            return minNanos == maxNanos ? minNanos : random.nextLong(minNanos, maxNanos + 1);
+        }
+    }
+
+    private static final class LogNormal extends LatencyDistribution {
+
+        private final double mu;
+        private final double sigma;
+
+        LogNormal(double medianMillis, double p99Millis) {
+            super("lognormal:" + medianMillis + ":" + p99Millis);
+            if (medianMillis <= 0 || p99Millis < medianMillis) {
+                throw new IllegalArgumentException("Log-normal latency needs 0 < median <= p99, got "
+                        + medianMillis + " and " + p99Millis);
+            }
+            this.mu = Math.log(toNanos(medianMillis));
+            this.sigma = (Math.log(toNanos(p99Millis)) - mu) / Z_99;
+        }
+
+        @Override
+        public long sampleNanos(SplittableRandom random) {
+            return (long) Math.exp(mu + sigma * gaussian(random));
+        }
+
+        /**
+         * Standard normal value by the Box-Muller transform; SplittableRandom has no nextGaussian.
+         */
+        private static double gaussian(SplittableRandom random) {
+            double u = 1.0 - random.nextDouble();  // (0, 1], keeps the logarithm finite
+            return Math.sqrt(-2 * Math.log(u)) * Math.cos(2 * Math.PI * random.nextDouble());
+        }
+    }
+}
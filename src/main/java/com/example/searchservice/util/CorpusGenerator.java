@@ -0,0 +1,258 @@
+package com.example.searchservice.util;
+
+import com.example.searchservice.converter.SearchableDocumentMapper;
+import com.example.searchservice.model.SearchableDocument;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Generates documents like {@link SearchDataGenerator}, but reproducibly and fast enough for corpora of tens of
+ * millions of documents.
+ *
+ * <p>Document {@code n} is generated from its own {@link SplittableRandom}, seeded from the generator's seed and
+ * {@code n}, so it is the same however the work is split across threads and files, and threads share no random
+ * source. Ids are UUIDs drawn from that source rather than from {@link UUID#randomUUID()}, and dates are relative
+ * to a fixed reference time instead of the clock, so the seed and reference time fully determine the corpus.</p>
+ *
+ * <p>Documents are handed to a consumer or written to NDJSON files as they are generated; nothing is collected
+ * in memory.</p>
+ */
+public class CorpusGenerator {
+
+    /**
+     * Layout of the NDJSON files.
+     */
+    public enum Format {
+        /**
+         * One document source per line.
+         */
+        DOCUMENTS,
+        /**
+         * An {@code index} action line before each source, ready for {@code POST /<index>/_bulk}.
+         */
+        BULK
+    }
+
+    private static final int WRITE_BUFFER_SIZE = 1 << 20;
+    private static final long MAX_AGE_DAYS = 365 * 2;
+
+    private final long seed;
+    private final long referenceTimeMillis;
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final SearchableDocumentMapper mapper = new SearchableDocumentMapper();
+
+    /**
+     * @param seed                seed of the corpus
+     * @param referenceTimeMillis time the documents' dates count back from, in epoch milliseconds
+     */
+    public CorpusGenerator(long seed, long referenceTimeMillis) {
+        this.seed = seed;
+        this.referenceTimeMillis = referenceTimeMillis;
+    }
+
+    /**
+     * Generates one document of the corpus.
+     *
+     * @param n position of the document in the corpus, from 0
+     * @return the document, the same for the same seed, reference time and position
+     */
+    public SearchableDocument document(long n) {
+        return document(n, new StringBuilder(2048));
+    }
+
+    /**
+     * Generates documents in parallel and hands each to the consumer on the generating thread.
+     * Documents arrive in no particular order.
+     *
+     * @param count    number of documents
+     * @param threads  number of generating threads
+     * @param consumer receives each document; must be thread-safe when more than one thread is used
+     */
+    public void generate(long count, int threads, Consumer<SearchableDocument> consumer) {
+        runPartitioned(count, threads, threads, (partition, from, to) -> {
+            StringBuilder content = new StringBuilder(2048);
+            for (long n = from; n < to; n++) {
+                consumer.accept(document(n, content));
+            }
+        });
+    }
+
+    /**
+     * Writes the corpus to NDJSON files in parallel. File {@code i} holds a contiguous range of documents, so
+     * concatenating the files in name order yields the corpus in order.
+     *
+     * @param count     number of documents
+     * @param threads   number of writing threads
+     * @param files     number of files to split the corpus into
+     * @param directory directory for the files, created if missing
+     * @param format    file layout
+     * @return the files written, in corpus order
+     * @throws IOException if a file cannot be written
+     */
+    public List<Path> writeNdjson(long count, int threads, int files, Path directory, Format format) throws IOException {
+        Files.createDirectories(directory);
+        List<Path> paths = new ArrayList<>(files);
+        for (int i = 0; i < files; i++) {
+            paths.add(directory.resolve(String.format(Locale.ROOT, "corpus-%05d.ndjson", i)));
+        }
+
+        try {
+            runPartitioned(count, files, threads, (partition, from, to) -> {
+                try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(paths.get(partition)), WRITE_BUFFER_SIZE);
+                     JsonGenerator generator = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+                    generator.setRootValueSeparator(null);  // Lines are separated by the newlines written below
+                    StringBuilder content = new StringBuilder(2048);
+                    for (long n = from; n < to; n++) {
+                        SearchableDocument document = document(n, content);
+                        if (format == Format.BULK) {
+                            generator.writeStartObject();
+                            generator.writeObjectFieldStart("index");
+                            generator.writeStringField("_id", document.getId());
+                            generator.writeEndObject();
+                            generator.writeEndObject();
+                            generator.writeRaw('\n');
+                        }
+                        mapper.write(document, generator);
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        return paths;
+    }
+
+    private SearchableDocument document(long n, StringBuilder content) {
+        SplittableRandom random = new SplittableRandom(mix(seed + n * 0x9E3779B97F4A7C15L));
+        SearchableDocument document = new SearchableDocument();
+
+        // Version 4 UUID layout, so ids look like those of SearchDataGenerator
+        long most = (random.nextLong() & ~0xF000L) | 0x4000L;
+        long least = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        document.setId(new UUID(most, least).toString());
+
+        String category = pick(SearchDataGenerator.CATEGORIES, random);
+        document.setCategory(category);
+        document.setTitle(String.format(pick(SearchDataGenerator.TITLE_TEMPLATES, random), category));
+        document.setContent(content(3 + random.nextInt(5), random, content));
+        document.setAuthor(pick(SearchDataGenerator.AUTHORS, random));
+        document.setTags(tags(2 + random.nextInt(3), random));
+
+        long created = referenceTimeMillis - TimeUnit.DAYS.toMillis(random.nextLong(MAX_AGE_DAYS));
+        document.setCreatedDate(new Date(created));
+        document.setLastUpdatedDate(new Date(created + random.nextLong(Math.max(1, referenceTimeMillis - created))));
+        return document;
+    }
+
+    /**
+     * Paragraphs of 3-6 segments separated by blank lines, reusing the caller's builder.
+     */
+    private static String content(int paragraphs, SplittableRandom random, StringBuilder content) {
+        content.setLength(0);
+        for (int i = 0; i < paragraphs; i++) {
+            if (i > 0) {
+                content.append("\n\n");
+            }
+            int sentences = 3 + random.nextInt(4);
+            for (int j = 0; j < sentences; j++) {
+                content.append(pick(SearchDataGenerator.CONTENT_SEGMENTS, random));
+            }
+        }
+        content.setLength(content.length() - 1);  // Segments end with a space
+        return content.toString();
+    }
+
+    /**
+     * Distinct tags by a partial Fisher-Yates shuffle of the tag indices.
+     */
+    private static String[] tags(int count, SplittableRandom random) {
+        String[] all = SearchDataGenerator.TAGS;
+        int[] indices = new int[all.length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        String[] tags = new String[count];
+        for (int i = 0; i < count; i++) {
+            int swap = i + random.nextInt(indices.length - i);
+            int index = indices[swap];
+            indices[swap] = indices[i];
+            tags[i] = all[index];
+        }
+        return tags;
+    }
+
+    private static String pick(String[] values, SplittableRandom random) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Spreads consecutive seeds over the whole {@code long} range (the MurmurHash3 finalizer), so neighboring
+     * documents do not share random sequences.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    /**
+     * Splits {@code [0, count)} into contiguous partitions and runs them on a pool, rethrowing the first failure.
+     */
+    private static void runPartitioned(long count, int partitions, int threads, PartitionTask task) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, partitions)), runnable -> {
+            Thread thread = new Thread(runnable, "corpus-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<?>> futures = new ArrayList<>(partitions);
+            for (int i = 0; i < partitions; i++) {
+                int partition = i;
+                long from = count * i / partitions;
+                long to = count * (i + 1) / partitions;
+                futures.add(executor.submit(() -> task.run(partition, from, to)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating documents", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Document generation failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @FunctionalInterface
+    private interface PartitionTask {
+        void run(int partition, long from, long to);
+    }
+}
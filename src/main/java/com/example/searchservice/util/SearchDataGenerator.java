@@ -7,6 +7,8 @@ package com.example.searchservice.util;
 import com.example.searchservice.model.SearchableDocument;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
 import java.util.Random;
@@ -15,33 +17,34 @@ import java.util.concurrent.TimeUnit;
 
 /**
  * Generates random SearchableDocument instances for testing and development purposes.
+ * For large or reproducible data sets use {@link CorpusGenerator}, which draws from the same vocabulary.
  */
 public class SearchDataGenerator {
 
     private static final Random random = new Random();
 
     // Categories for documents
-    private static final String[] CATEGORIES = {
+    static final String[] CATEGORIES = {
             "Technology", "Science", "Business", "Finance", "Health",
             "Sports", "Entertainment", "Politics", "Education", "Environment"
     };
 
     // Authors for documents
-    private static final String[] AUTHORS = {
+    static final String[] AUTHORS = {
             "John Smith", "Emily Johnson", "Michael Brown", "Sarah Lee",
             "David Wilson", "Jennifer Garcia", "Robert Martinez", "Linda Anderson",
             "William Taylor", "Elizabeth Thomas"
     };
 
     // Tags for documents
-    private static final String[] TAGS = {
+    static final String[] TAGS = {
             "research", "report", "analysis", "guide", "tutorial",
             "review", "summary", "whitepaper", "case-study", "reference",
             "latest", "trending", "featured", "popular", "recommended"
     };
 
     // Sample titles with placeholder for category
-    private static final String[] TITLE_TEMPLATES = {
+    static final String[] TITLE_TEMPLATES = {
             "Comprehensive Guide to %s",
             "How to Master %s in 2025",
             "The Ultimate %s Handbook",
@@ -55,7 +58,7 @@ public class SearchDataGenerator {
     };
 
     // Sample content segments for building document content
-    private static final String[] CONTENT_SEGMENTS = {
+    static final String[] CONTENT_SEGMENTS = {
             "This comprehensive document explores the fundamental aspects of the subject matter. ",
             "In recent years, significant developments have transformed this field. ",
             "Experts agree that the most critical factor to consider is thorough research. ",
@@ -73,6 +76,33 @@ public class SearchDataGenerator {
             "Feedback from users has been incorporated into the recommendations. "
     };
 
+    /**
+     * Returns the categories assigned to generated documents, for building queries that match them.
+     *
+     * @return the categories, unmodifiable
+     */
+    public static List<String> getCategories() {
+        return Collections.unmodifiableList(Arrays.asList(CATEGORIES));
+    }
+
+    /**
+     * Returns the tags assigned to generated documents.
+     *
+     * @return the tags, unmodifiable
+     */
+    public static List<String> getTags() {
+        return Collections.unmodifiableList(Arrays.asList(TAGS));
+    }
+
+    /**
+     * Returns the title templates of generated documents, each with a {@code %s} placeholder for the category.
+     *
+     * @return the title templates, unmodifiable
+     */
+    public static List<String> getTitleTemplates() {
+        return Collections.unmodifiableList(Arrays.asList(TITLE_TEMPLATES));
+    }
+
     /**
      * Generates a specified number of random searchable documents.
      *
@@ -125,7 +155,7 @@ public class SearchDataGenerator {
         // Generate a last updated date between creation and now
         long createdTime = createdDate.getTime();
         long now = System.currentTimeMillis();
-        long updateTime = createdTime + Math.abs(random.nextLong() % (now - createdTime));  // Ensure update is after creation
+        long updateTime = createdTime + Math.abs(random.nextLong() % Math.max(1, now - createdTime));  // Ensure update is after creation
         document.setLastUpdatedDate(new Date(updateTime));
 
         return document;
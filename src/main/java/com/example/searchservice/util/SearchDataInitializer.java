@@ -2,28 +2,78 @@ package com.example.searchservice.util;
 
 import com.example.searchservice.model.SearchableDocument;
 import com.example.searchservice.repository.SearchRepository;
+import com.example.searchservice.service.DocumentsIndexedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Profile;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Initializes the Elasticsearch index with sample data on application startup.
  * This component is active only in "dev" and "test" profiles.
+ *
+ * <p>Loading runs on a background thread once the application is ready, so startup is not held up by the
+ * number of documents. Documents come from a seeded {@link CorpusGenerator} and are indexed in batches, several
+ * at a time. A batch is only started within {@code concurrency} batches of the lowest one not yet indexed, so
+ * the index never holds more than that many batches beyond the contiguous prefix already loaded. Since the same
+ * seed always yields the same ids, an interrupted load resumes by re-indexing from that many batches below the
+ * number of documents already in the index. Documents indexed again keep their ids and text, but get dates
+ * relative to the new start.</p>
+ *
+ * <p>Progress is published as {@code search.data.init.*} gauges and through {@code SampleDataHealthIndicator},
+ * which holds readiness back until loading finishes only when {@code elasticsearch.data.gate-readiness} is set.
+ * Each indexed batch is announced as a {@link DocumentsIndexedEvent}, so saved searches are matched against it.</p>
  */
 @Component
-@Profile({"dev", "test"}) // Only run in development and test environments
+@Profile("(dev | test) & !embedded") // Only run in development and test environments, against Elasticsearch
 public class SearchDataInitializer {
 
     private static final Logger logger = LoggerFactory.getLogger(SearchDataInitializer.class);
 
+    /**
+     * Progress of the sample data load.
+     */
+    public enum State {
+        /**
+         * Loading has not started yet.
+         */
+        PENDING,
+        /**
+         * Initialization is disabled by configuration.
+         */
+        DISABLED,
+        /**
+         * The index already held enough documents.
+         */
+        SKIPPED,
+        LOADING,
+        COMPLETED,
+        /**
+         * A batch failed or loading was interrupted; a restart resumes where it stopped.
+         */
+        FAILED
+    }
+
     private final SearchRepository searchRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${elasticsearch.data.initialize:false}")
     private boolean shouldInitializeData;  // Controls whether initialization should occur
@@ -31,24 +81,59 @@ public class SearchDataInitializer {
     @Value("${elasticsearch.data.count:50}")
     private int documentCount;  // Number of sample documents to generate
 
+    @Value("${elasticsearch.data.batch-size:1000}")
+    private int batchSize = 1000;  // Documents per bulk request
+
+    @Value("${elasticsearch.data.concurrency:2}")
+    private int concurrency = 2;  // Bulk requests in flight at once
+
+    @Value("${elasticsearch.data.seed:42}")
+    private long seed = 42;  // Seed of the generated corpus; keep it fixed so interrupted loads can resume
+
+    @Value("${elasticsearch.startup.deferred:false}")
+    private boolean deferredStartup;  // Loading is then started by DeferredStartupConfig once the index exists
+
+    private final AtomicReference<State> state = new AtomicReference<>(State.PENDING);
+    private final AtomicLong indexedDocuments = new AtomicLong();
+    private final AtomicInteger failedBatches = new AtomicInteger();
+    private volatile ExecutorService batchExecutor;
+    private volatile Thread loader;
+
     /**
      * Constructs a new SearchDataInitializer with the required repository dependency.
      *
      * @param searchRepository the repository for managing SearchableDocument entities
+     * @param eventPublisher   publisher announcing each indexed batch
      */
     @Autowired
-    public SearchDataInitializer(SearchRepository searchRepository) {
+    public SearchDataInitializer(SearchRepository searchRepository, ApplicationEventPublisher eventPublisher) {
         this.searchRepository = searchRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
-     * Initializes the Elasticsearch index with sample data when the application is fully started.
-     * This method runs only if data initialization is enabled and no documents exist in the index.
+     * Starts loading the sample data in the background when the application is fully started, unless startup
+     * is deferred.
      */
     @EventListener(ApplicationReadyEvent.class)
+    public void startLoading() {
+        if (deferredStartup) {
+            return;
+        }
+        Thread thread = new Thread(this::loadSampleData, "search-data-initializer");
+        thread.setDaemon(true);
+        loader = thread;
+        thread.start();
+    }
+
+    /**
+     * Initializes the Elasticsearch index with sample data, returning when loading has finished.
+     * This method runs only if data initialization is enabled and the index holds fewer documents than configured.
+     */
     public void loadSampleData() {
         // Check if initialization is disabled via configuration
         if (!shouldInitializeData) {
+            state.set(State.DISABLED);
             logger.info("Sample data initialization is disabled");
             return;
         }
@@ -59,21 +144,201 @@ public class SearchDataInitializer {
             // Check current document count in the index
             long existingCount = searchRepository.count();
 
-            // Skip initialization if data already exists
-            if (existingCount > 0) {
+            // Skip initialization if the data is already there
+            if (existingCount >= documentCount) {
+                state.set(State.SKIPPED);
                 logger.info("Elasticsearch already contains {} documents, skipping initialization", existingCount);
                 return;
             }
 
-            // Generate sample documents using the data generator
-            List<SearchableDocument> documents = SearchDataGenerator.generateRandomDocuments(documentCount);
-
-            // Persist all generated documents to Elasticsearch
-            searchRepository.saveAll(documents);
+            // At most the concurrency in batches was indexed beyond the first incomplete batch
+            long resumeFrom = Math.max(0, existingCount - (long) concurrency * batchSize) / batchSize * batchSize;
+            if (resumeFrom > 0) {
+                logger.info("Resuming sample data initialization at document {}", resumeFrom);
+            }
+            state.set(State.LOADING);
+            indexedDocuments.set(resumeFrom);
 
-            logger.info("Successfully initialized Elasticsearch with {} sample documents", documentCount);
+            long startNanos = System.nanoTime();
+            if (indexBatches(resumeFrom)) {
+                state.set(State.COMPLETED);
+                logger.info("Successfully initialized Elasticsearch with {} sample documents in {} ms", documentCount,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            } else {
+                state.set(State.FAILED);
+                logger.warn("Sample data initialization stopped after {} of {} documents; a restart resumes it",
+                        indexedDocuments.get(), documentCount);
+            }
         } catch (Exception e) {
+            state.set(State.FAILED);
             logger.error("Failed to initialize Elasticsearch with sample data", e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Stops loading when the application shuts down. Batches in flight may be cut short; they are indexed
+     * again on the next start.
+     */
+    @PreDestroy
+    public void stop() {
+        ExecutorService executor = batchExecutor;
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        Thread thread = loader;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Registers the progress gauges. Injected rather than implementing MeterBinder, which would make the
+     * registry depend on the repository.
+     *
+     * @param registry registry the gauges are published through
+     */
+    @Autowired(required = false)
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("search.data.init.documents", indexedDocuments, AtomicLong::get)
+                .description("Sample documents indexed so far")
+                .register(registry);
+        Gauge.builder("search.data.init.target", this, initializer -> initializer.documentCount)
+                .description("Sample documents to index")
+                .register(registry);
+        Gauge.builder("search.data.init.failed.batches", failedBatches, AtomicInteger::get)
+                .description("Sample document batches that could not be indexed")
+                .register(registry);
+    }
+
+    /**
+     * @return the progress of the load
+     */
+    public State getState() {
+        return state.get();
+    }
+
+    /**
+     * @return the number of documents indexed so far, including those found from an earlier run
+     */
+    public long getIndexedDocuments() {
+        return indexedDocuments.get();
+    }
+
+    /**
+     * @return the number of documents to index
+     */
+    public int getDocumentCount() {
+        return documentCount;
+    }
+
+    /**
+     * Indexes the documents from {@code from} onwards in batches, with up to {@code concurrency} batches in flight
+     * and none started more than {@code concurrency} batches beyond the lowest incomplete one.
+     *
+     * @return whether every batch was indexed
+     */
+    private boolean indexBatches(long from) throws InterruptedException {
+        CorpusGenerator generator = new CorpusGenerator(seed, System.currentTimeMillis());
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "search-data-initializer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        batchExecutor = executor;
+        int firstBatch = (int) (from / batchSize);
+        int endBatch = (int) ((documentCount + (long) batchSize - 1) / batchSize);
+        BatchWindow window = new BatchWindow(firstBatch, concurrency);
+        AtomicReference<Exception> failure = new AtomicReference<>();
+
+        try {
+            for (int batch = firstBatch; batch < endBatch; batch++) {
+                if (!window.awaitStart(batch)) {
+                    break;  // A batch failed
+                }
+                int batchNumber = batch;
+                long batchStart = (long) batch * batchSize;
+                long batchEnd = Math.min(batchStart + batchSize, documentCount);
+                executor.execute(() -> {
+                    try {
+                        indexBatch(generator, batchStart, batchEnd);
+                        window.complete(batchNumber);
+                    } catch (Exception e) {
+                        failedBatches.incrementAndGet();
+                        if (failure.compareAndSet(null, e)) {
+                            logger.error("Failed to index sample documents {} to {}", batchStart, batchEnd - 1, e);
+                        }
+                        window.fail();
+                    }
+                });
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                logger.debug("Waiting for the last sample document batches");
+            }
+        } finally {
+            executor.shutdownNow();
+            batchExecutor = null;
+        }
+        return failure.get() == null;
+    }
+
+    private void indexBatch(CorpusGenerator generator, long from, long to) {
+        List<SearchableDocument> documents = new ArrayList<>((int) (to - from));
+        for (long n = from; n < to; n++) {
+            documents.add(generator.document(n));
+        }
+
+        // Persist the batch to Elasticsearch
+        searchRepository.saveAll(documents);
+        eventPublisher.publishEvent(new DocumentsIndexedEvent(documents));
+
+        long indexed = indexedDocuments.addAndGet(to - from);
+        if (indexed * 10 / documentCount > (indexed - (to - from)) * 10 / documentCount) {
+            logger.info("Indexed {} of {} sample documents", indexed, documentCount);  // Roughly every 10%
+        }
+    }
+
+    /**
+     * Completed batches, and the lowest batch not yet completed. Batches may complete out of order, but a batch
+     * may only start within the window above the lowest incomplete one, which bounds how far the index can run
+     * ahead of the contiguous prefix of loaded batches.
+     */
+    private static final class BatchWindow {
+
+        private final BitSet completed = new BitSet();
+        private final int size;
+        private int lowestIncomplete;
+        private boolean failed;
+
+        private BatchWindow(int firstBatch, int size) {
+            this.lowestIncomplete = firstBatch;
+            this.size = size;
+        }
+
+        /**
+         * Waits until the batch lies within the window.
+         *
+         * @return false if a batch failed, in which case no further batches should start
+         */
+        synchronized boolean awaitStart(int batch) throws InterruptedException {
+            while (!failed && batch >= lowestIncomplete + size) {
+                wait();
+            }
+            return !failed;
+        }
+
+        synchronized void complete(int batch) {
+            completed.set(batch);
+            while (completed.get(lowestIncomplete)) {
+                lowestIncomplete++;
+            }
+            notifyAll();
+        }
+
+        synchronized void fail() {
+            failed = true;
+            notifyAll();
+        }
+    }
+}
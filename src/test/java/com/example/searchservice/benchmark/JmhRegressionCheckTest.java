@@ -0,0 +1,106 @@
+package com.example.searchservice.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the JmhRegressionCheck class.
+ *
+ * These tests compare small JMH result files and verify how each benchmark is classified.
+ */
+class JmhRegressionCheckTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Tests average-time benchmarks that got slower, faster or stayed within the threshold.
+     *
+     * Expected behavior: should flag only the slowdown beyond the threshold, matching results by parameters.
+     */
+    @Test
+    void testAverageTime() throws IOException {
+        JsonNode baseline = results(
+                result("a.b.SearchResponseBenchmark.serialize", "avgt", "pageSize", "20", 10.0, 0.2),
+                result("a.b.SearchResponseBenchmark.serialize", "avgt", "pageSize", "100", 50.0, 1.0),
+                result("a.b.QueryBuildingBenchmark.buildQuery", "avgt", null, null, 2.0, 0.1));
+        JsonNode current = results(
+                result("a.b.SearchResponseBenchmark.serialize", "avgt", "pageSize", "20", 12.0, 0.2),
+                result("a.b.SearchResponseBenchmark.serialize", "avgt", "pageSize", "100", 40.0, 1.0),
+                result("a.b.QueryBuildingBenchmark.buildQuery", "avgt", null, null, 2.1, 0.1));
+
+        Map<String, JmhRegressionCheck.Comparison> comparisons = byKey(JmhRegressionCheck.compare(baseline, current, 0.10));
+
+        assertEquals(JmhRegressionCheck.Verdict.REGRESSION,
+                comparisons.get("SearchResponseBenchmark.serialize:pageSize=20 (avgt)").getVerdict());
+        assertEquals(0.2, comparisons.get("SearchResponseBenchmark.serialize:pageSize=20 (avgt)").getChange(), 1e-9);
+        assertEquals(JmhRegressionCheck.Verdict.IMPROVED,
+                comparisons.get("SearchResponseBenchmark.serialize:pageSize=100 (avgt)").getVerdict());
+        assertEquals(JmhRegressionCheck.Verdict.OK,
+                comparisons.get("QueryBuildingBenchmark.buildQuery (avgt)").getVerdict());
+    }
+
+    /**
+     * Tests a throughput benchmark, where a lower score is worse.
+     *
+     * Expected behavior: should flag a drop in throughput as a regression.
+     */
+    @Test
+    void testThroughput() throws IOException {
+        JsonNode baseline = results(result("a.b.X.run", "thrpt", null, null, 1000.0, 10.0));
+        JsonNode current = results(result("a.b.X.run", "thrpt", null, null, 800.0, 10.0));
+
+        assertEquals(JmhRegressionCheck.Verdict.REGRESSION,
+                JmhRegressionCheck.compare(baseline, current, 0.10).get(0).getVerdict());
+    }
+
+    /**
+     * Tests a slowdown beyond the threshold that lies within the error margins.
+     *
+     * Expected behavior: should not flag it.
+     */
+    @Test
+    void testNoisyDifferenceIsNotFlagged() throws IOException {
+        JsonNode baseline = results(result("a.b.X.run", "avgt", null, null, 10.0, 2.0));
+        JsonNode current = results(result("a.b.X.run", "avgt", null, null, 13.0, 2.0));
+
+        assertEquals(JmhRegressionCheck.Verdict.OK, JmhRegressionCheck.compare(baseline, current, 0.10).get(0).getVerdict());
+    }
+
+    /**
+     * Tests benchmarks present in only one of the files.
+     *
+     * Expected behavior: should report them as new or missing rather than as regressions.
+     */
+    @Test
+    void testNewAndMissingBenchmarks() throws IOException {
+        JsonNode baseline = results(result("a.b.X.removed", "avgt", null, null, 1.0, 0.1));
+        JsonNode current = results(result("a.b.X.added", "avgt", null, null, 1.0, 0.1));
+
+        Map<String, JmhRegressionCheck.Comparison> comparisons = byKey(JmhRegressionCheck.compare(baseline, current, 0.10));
+        assertEquals(JmhRegressionCheck.Verdict.NEW, comparisons.get("X.added (avgt)").getVerdict());
+        assertEquals(JmhRegressionCheck.Verdict.MISSING, comparisons.get("X.removed (avgt)").getVerdict());
+    }
+
+    private JsonNode results(String... results) throws IOException {
+        return objectMapper.readTree("[" + String.join(",", results) + "]");
+    }
+
+    private static String result(String benchmark, String mode, String param, String value, double score, double error) {
+        String params = param == null ? "" : ",\"params\":{\"" + param + "\":\"" + value + "\"}";
+        return "{\"benchmark\":\"" + benchmark + "\",\"mode\":\"" + mode + "\"" + params
+                + ",\"primaryMetric\":{\"score\":" + score + ",\"scoreError\":" + error + ",\"scoreUnit\":\"us/op\"}}";
+    }
+
+    private static Map<String, JmhRegressionCheck.Comparison> byKey(List<JmhRegressionCheck.Comparison> comparisons) {
+        return comparisons.stream().collect(Collectors.toMap(JmhRegressionCheck.Comparison::getKey, Function.identity()));
+    }
+}
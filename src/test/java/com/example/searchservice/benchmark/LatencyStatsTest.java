@@ -0,0 +1,53 @@
+package com.example.searchservice.benchmark;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the LatencyStats class.
+ *
+ * These tests verify sample recording, growth beyond the initial capacity and the
+ * percentile and mean calculations used in benchmark reports.
+ */
+class LatencyStatsTest {
+
+    /**
+     * Tests percentile and mean calculation over a known set of samples.
+     *
+     * Expected behavior: should report nearest-rank percentiles and the mean in milliseconds,
+     * growing the buffer when more samples than expected are recorded.
+     */
+    @Test
+    void testPercentilesAndMean() {
+        LatencyStats stats = new LatencyStats(1);
+
+        // Record 1..100 ms in reverse order to exercise sorting and growth
+        for (int i = 100; i >= 1; i--) {
+            stats.record(TimeUnit.MILLISECONDS.toNanos(i));
+        }
+
+        assertEquals(100, stats.getCount(), "All samples should be recorded");
+        assertEquals(50.0, stats.percentileMillis(50), 0.001, "p50 should match");
+        assertEquals(99.0, stats.percentileMillis(99), 0.001, "p99 should match");
+        assertEquals(100.0, stats.percentileMillis(100), 0.001, "max should match");
+        assertEquals(50.5, stats.meanMillis(), 0.001, "Mean should match");
+        assertTrue(stats.summary("scenario").startsWith("scenario"), "Summary should start with the label");
+    }
+
+    /**
+     * Tests the statistics of an empty recorder.
+     *
+     * Expected behavior: should return zero instead of failing.
+     */
+    @Test
+    void testEmptyStats() {
+        LatencyStats stats = new LatencyStats(10);
+
+        assertEquals(0, stats.getCount());
+        assertEquals(0.0, stats.percentileMillis(99));
+        assertEquals(0.0, stats.meanMillis());
+    }
+}
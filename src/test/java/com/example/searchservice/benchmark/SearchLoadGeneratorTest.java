@@ -0,0 +1,85 @@
+package com.example.searchservice.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the constant-rate scheduling of SearchLoadGenerator, using an in-process sender instead of HTTP.
+ */
+class SearchLoadGeneratorTest {
+
+    private final ScheduledExecutorService server = Executors.newScheduledThreadPool(4);
+    private final List<byte[]> bodies = Collections.singletonList(new byte[0]);
+
+    @AfterEach
+    void tearDown() {
+        server.shutdownNow();
+    }
+
+    /**
+     * Tests a run against a fast server that rejects every tenth request.
+     *
+     * Expected behavior: should send rate times duration requests, count the rejected ones as errors
+     * and record a latency for each.
+     */
+    @Test
+    void testSendsAtConstantRate() {
+        AtomicInteger sent = new AtomicInteger();
+        SearchLoadGenerator.Result result = SearchLoadGenerator.run(
+                body -> CompletableFuture.completedFuture(sent.incrementAndGet() % 10 == 0 ? 500 : 200),
+                bodies, 1000, TimeUnit.MILLISECONDS.toNanos(200), 16);
+
+        assertEquals(200, result.getRequests());
+        assertEquals(200, sent.get());
+        assertEquals(20, result.getErrors());
+        assertEquals(200, result.getHistogram().getTotalCount());
+        assertTrue(result.getThroughput() > 500, "throughput " + result.getThroughput());
+    }
+
+    /**
+     * Tests a server that handles one request at a time and needs 20 ms for each, offered 500 requests per second.
+     *
+     * Expected behavior: should charge queued requests the time they waited, so latencies grow far beyond 20 ms
+     * instead of looking like 20 ms at a lower rate.
+     */
+    @Test
+    void testQueueingIsIncludedInLatency() {
+        SearchLoadGenerator.Result result = SearchLoadGenerator.run(body -> {
+            CompletableFuture<Integer> response = new CompletableFuture<>();
+            server.schedule(() -> response.complete(200), 20, TimeUnit.MILLISECONDS);
+            return response;
+        }, bodies, 500, TimeUnit.MILLISECONDS.toNanos(200), 1);
+
+        assertEquals(100, result.getRequests());
+        assertEquals(0, result.getErrors());
+        // The last request is scheduled at 200 ms but only completes after all 100 have taken 20 ms each
+        assertTrue(result.getHistogram().getMaxValue() > TimeUnit.MILLISECONDS.toMicros(1000),
+                "max " + result.getHistogram().getMaxValue() + " us");
+        assertTrue(result.getMaxSendLagNanos() > TimeUnit.MILLISECONDS.toNanos(1000));
+    }
+
+    /**
+     * Tests a sender that fails before returning a response.
+     *
+     * Expected behavior: should count the failure as an error and keep going.
+     */
+    @Test
+    void testSenderFailureIsAnError() {
+        SearchLoadGenerator.Result result = SearchLoadGenerator.run(body -> {
+            throw new IllegalStateException("connection refused");
+        }, bodies, 1000, TimeUnit.MILLISECONDS.toNanos(50), 4);
+
+        assertEquals(50, result.getRequests());
+        assertEquals(50, result.getErrors());
+    }
+}
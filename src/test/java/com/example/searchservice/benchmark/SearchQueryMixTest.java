@@ -0,0 +1,81 @@
+package com.example.searchservice.benchmark;
+
+import com.example.searchservice.model.SearchRequest;
+import com.example.searchservice.util.SearchDataGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SearchQueryMix class.
+ *
+ * These tests verify that generated requests are valid, deterministic per seed and shaped as each scenario describes.
+ */
+class SearchQueryMixTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Tests the bodies generated for every scenario.
+     *
+     * Expected behavior: should produce requests that pass validation, and the same bodies for the same seed.
+     */
+    @Test
+    void testBodiesAreValidAndDeterministic() throws IOException {
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Validator validator = factory.getValidator();
+            for (SearchQueryMix.Scenario scenario : SearchQueryMix.Scenario.values()) {
+                List<byte[]> first = new SearchQueryMix(7).bodies(scenario, 50);
+                List<byte[]> second = new SearchQueryMix(7).bodies(scenario, 50);
+
+                for (int i = 0; i < first.size(); i++) {
+                    assertArrayEquals(first.get(i), second.get(i));
+                    SearchRequest request = objectMapper.readValue(first.get(i), SearchRequest.class);
+                    assertTrue(validator.validate(request).isEmpty(), scenario + ": " + new String(first.get(i)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Tests the shape of the filtered and paged scenarios.
+     *
+     * Expected behavior: should filter on generator categories and two distinct tags, sort the tag scenario
+     * like the index, and request deep pages.
+     */
+    @Test
+    void testScenarioShapes() {
+        SearchQueryMix mix = new SearchQueryMix(1);
+
+        SearchRequest categoryFiltered = mix.request(SearchQueryMix.Scenario.CATEGORY_FILTERED);
+        assertTrue(SearchDataGenerator.getCategories().contains(categoryFiltered.getFilters().get("category")));
+
+        SearchRequest tagSorted = mix.request(SearchQueryMix.Scenario.TAG_FILTERED_SORTED);
+        List<?> tags = (List<?>) tagSorted.getFilters().get("tags");
+        assertEquals(2, tags.size());
+        assertNotEquals(tags.get(0), tags.get(1));
+        assertEquals("desc", tagSorted.getSort().get("createdDate"));
+        assertFalse(tagSorted.isTrackTotalHits());
+
+        SearchRequest deepPage = mix.request(SearchQueryMix.Scenario.DEEP_PAGE);
+        assertTrue(deepPage.getPage() >= 5 && deepPage.getPage() <= 20);
+    }
+
+    /**
+     * Tests looking scenarios up by label.
+     *
+     * Expected behavior: should ignore case and surrounding spaces, and reject unknown labels.
+     */
+    @Test
+    void testFromLabel() {
+        assertEquals(SearchQueryMix.Scenario.DEEP_PAGE, SearchQueryMix.Scenario.fromLabel(" Deep_Page"));
+        assertThrows(IllegalArgumentException.class, () -> SearchQueryMix.Scenario.fromLabel("unknown"));
+    }
+}
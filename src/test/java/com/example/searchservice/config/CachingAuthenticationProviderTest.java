@@ -0,0 +1,194 @@
+package com.example.searchservice.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.DisabledException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the CachingAuthenticationProvider class.
+ *
+ * These tests verify that repeated successful authentications skip the password check, that failures and
+ * changed users are never answered from the cache, and that entries expire and are bounded in number.
+ */
+class CachingAuthenticationProviderTest {
+
+    private final PasswordEncoder encoder = new BCryptPasswordEncoder(4);  // Lowest cost, tests only
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private InMemoryUserDetailsManager users;
+    private DaoAuthenticationProvider delegate;
+
+    /**
+     * Creates a user store with two users and a spied password-checking provider.
+     */
+    @BeforeEach
+    void setUp() {
+        users = new InMemoryUserDetailsManager(user("user", "password"), user("other", "secret"));
+        DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
+        provider.setUserDetailsService(users);
+        provider.setPasswordEncoder(encoder);
+        delegate = spy(provider);
+    }
+
+    /**
+     * Tests a repeated authentication with the same credentials.
+     *
+     * Expected behavior: should check the password once and answer the second request from the cache.
+     */
+    @Test
+    void testRepeatedAuthenticationHitsCache() {
+        CachingAuthenticationProvider provider = provider(Duration.ofMinutes(5), 100);
+
+        Authentication first = provider.authenticate(token("user", "password"));
+        Authentication second = provider.authenticate(token("user", "password"));
+
+        assertTrue(first.isAuthenticated());
+        assertTrue(second.isAuthenticated());
+        assertEquals("user", second.getName());
+        assertNull(second.getCredentials(), "Cached authentications should not carry the password");
+        assertTrue(second.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_USER")));
+        verify(delegate, times(1)).authenticate(any());
+        assertEquals(1.0, registry.get("security.authentication.cache").tag("result", "hit").counter().count());
+        assertEquals(1.0, registry.get("security.authentication.cache").tag("result", "miss").counter().count());
+        assertEquals(1.0, registry.get("security.authentication.cache.size").gauge().value());
+    }
+
+    /**
+     * Tests a wrong password after a successful authentication of the same user.
+     *
+     * Expected behavior: should pass the request to the delegate and reject it.
+     */
+    @Test
+    void testWrongPasswordIsNotAnsweredFromCache() {
+        CachingAuthenticationProvider provider = provider(Duration.ofMinutes(5), 100);
+        provider.authenticate(token("user", "password"));
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("user", "wrong")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("user", "wrong")));
+        verify(delegate, times(3)).authenticate(any());
+        assertEquals(1, provider.size(), "Failures should not be cached");
+    }
+
+    /**
+     * Tests a password change after the old password was cached.
+     *
+     * Expected behavior: should reject the old password and drop its entry.
+     */
+    @Test
+    void testPasswordChangeInvalidatesEntry() {
+        CachingAuthenticationProvider provider = provider(Duration.ofMinutes(5), 100);
+        provider.authenticate(token("user", "password"));
+
+        users.updateUser(user("user", "changed"));
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("user", "password")));
+        assertTrue(provider.authenticate(token("user", "changed")).isAuthenticated());
+        verify(delegate, times(3)).authenticate(any());
+    }
+
+    /**
+     * Tests disabling a user whose authentication is cached.
+     *
+     * Expected behavior: should pass the request to the delegate, which reports the account as disabled.
+     */
+    @Test
+    void testDisabledUserInvalidatesEntry() {
+        CachingAuthenticationProvider provider = provider(Duration.ofMinutes(5), 100);
+        provider.authenticate(token("user", "password"));
+
+        UserDetails current = users.loadUserByUsername("user");
+        users.updateUser(User.withUserDetails(current).disabled(true).build());
+
+        assertThrows(DisabledException.class, () -> provider.authenticate(token("user", "password")));
+        assertEquals(0, provider.size());
+    }
+
+    /**
+     * Tests reuse of an entry after its time-to-live.
+     *
+     * Expected behavior: should check the password again.
+     */
+    @Test
+    void testExpiredEntryIsNotUsed() {
+        CachingAuthenticationProvider provider = provider(Duration.ofNanos(1), 100);
+
+        provider.authenticate(token("user", "password"));
+        provider.authenticate(token("user", "password"));
+
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    /**
+     * Tests the bound on the number of entries.
+     *
+     * Expected behavior: should drop the least recently used credentials beyond the maximum, keeping those
+     * used since they were cached.
+     */
+    @Test
+    void testLeastRecentlyUsedEntriesAreEvicted() {
+        CachingAuthenticationProvider provider = provider(Duration.ofMinutes(5), 1);
+
+        provider.authenticate(token("user", "password"));
+        provider.authenticate(token("other", "secret"));
+        provider.authenticate(token("user", "password"));
+
+        assertEquals(1, provider.size());
+        verify(delegate, times(3)).authenticate(any());
+
+        users.createUser(user("third", "secret"));
+        CachingAuthenticationProvider larger = provider(Duration.ofMinutes(5), 2);
+        larger.authenticate(token("user", "password"));
+        larger.authenticate(token("other", "secret"));
+        larger.authenticate(token("user", "password"));  // Hit, so "other" is now the least recently used
+        larger.authenticate(token("third", "secret"));
+
+        assertEquals(2, larger.size());
+        larger.authenticate(token("user", "password"));
+        verify(delegate, times(6)).authenticate(any());  // 3 above, then user, other and third once each
+    }
+
+    /**
+     * Tests clearing the cache.
+     *
+     * Expected behavior: should check the password again on the next request.
+     */
+    @Test
+    void testClearForgetsEntries() {
+        CachingAuthenticationProvider provider = provider(Duration.ofMinutes(5), 100);
+        provider.authenticate(token("user", "password"));
+
+        provider.clear();
+        provider.authenticate(token("user", "password"));
+
+        assertEquals(1, provider.size());
+        verify(delegate, times(2)).authenticate(any());
+    }
+
+    private CachingAuthenticationProvider provider(Duration ttl, int maxEntries) {
+        return new CachingAuthenticationProvider(delegate, users, ttl, maxEntries, registry);
+    }
+
+    private UserDetails user(String username, String password) {
+        return User.builder().username(username).password(encoder.encode(password)).roles("USER").build();
+    }
+
+    private static UsernamePasswordAuthenticationToken token(String username, String password) {
+        return new UsernamePasswordAuthenticationToken(username, password);
+    }
+}
@@ -1,5 +1,10 @@
 package com.example.searchservice.config;
 
+import com.example.searchservice.converter.SearchableDocumentConverter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.Node;
+import org.elasticsearch.client.RestClient;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,7 +15,11 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 /**
  * Integration tests for {@link ElasticsearchConfig}.
@@ -22,7 +31,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 @SpringBootTest
 @ActiveProfiles("test")
 @TestPropertySource(properties = {
-        "elasticsearch.host=localhost:9200",
+        "elasticsearch.host=localhost:9200, http://localhost:9201",
+        "spring.elasticsearch.rest.connection.pool.max-connections=42",
         "elasticsearch.connection.timeout=3000",
         "elasticsearch.socket.timeout=5000"
 })
@@ -37,6 +47,12 @@ class ElasticsearchConfigTest {
     @Autowired
     private ElasticsearchOperations elasticsearchOperations;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RestClient restClient;
+
     /**
      * Test: Ensure that the {@link ElasticsearchConfig} bean is loaded into the context.
      */
@@ -86,4 +102,41 @@ class ElasticsearchConfigTest {
         // Validate it's not null
         assertNotNull(operations, "ElasticsearchOperations from config should not be null");
     }
+
+    /**
+     * Test: Verify that every configured host becomes a node of the client.
+     */
+    @Test
+    void clientShouldUseAllConfiguredHosts() {
+        assertArrayEquals(new HttpHost[]{HttpHost.create("localhost:9200"), HttpHost.create("http://localhost:9201")},
+                elasticsearchConfig.parseHosts());
+        assertEquals(2, restHighLevelClient.getLowLevelClient().getNodes().size());
+        assertEquals(new HttpHost("localhost", 9201), restHighLevelClient.getLowLevelClient().getNodes().stream()
+                .map(Node::getHost).skip(1).findFirst().orElse(null));
+    }
+
+    /**
+     * Test: Verify that the configured pool size is applied and published as a metric.
+     */
+    @Test
+    void connectionPoolShouldHonorConfiguredSize() {
+        assertEquals(42.0, meterRegistry.get("elasticsearch.client.pool.max").gauge().value());
+    }
+
+    /**
+     * Test: Verify that the injected template maps documents with the reflection-free converter.
+     */
+    @Test
+    void operationsShouldUseSearchableDocumentConverter() {
+        assertInstanceOf(SearchableDocumentConverter.class, elasticsearchOperations.getElasticsearchConverter());
+        assertInstanceOf(SearchableDocumentConverter.class, elasticsearchConfig.elasticsearchOperations().getElasticsearchConverter());
+    }
+
+    /**
+     * Test: Verify that the injected low-level client is the one underlying the high-level client.
+     */
+    @Test
+    void restClientShouldBeLowLevelClientOfHighLevelClient() {
+        assertSame(restHighLevelClient.getLowLevelClient(), restClient);
+    }
 }
@@ -0,0 +1,78 @@
+package com.example.searchservice.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.pool.PoolStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ElasticsearchConnectionPool class.
+ *
+ * These tests verify that configured pool limits are applied and that pool usage is published as gauges.
+ */
+class ElasticsearchConnectionPoolTest {
+
+    private ElasticsearchConnectionPool pool;
+
+    /**
+     * Creates a pool with 40 connections in total and 8 per node.
+     */
+    @BeforeEach
+    void setUp() {
+        pool = new ElasticsearchConnectionPool(40, 8, 30000);
+    }
+
+    /**
+     * Stops the eviction task and the connection manager.
+     */
+    @AfterEach
+    void tearDown() throws Exception {
+        pool.close();
+        pool.getConnectionManager().shutdown();
+    }
+
+    /**
+     * Tests that pool limits are applied to the connection manager.
+     *
+     * Expected behavior: should use the configured total and per-node limits.
+     */
+    @Test
+    void testPoolLimitsAreApplied() {
+        assertEquals(40, pool.getConnectionManager().getMaxTotal());
+        assertEquals(8, pool.getConnectionManager().getDefaultMaxPerRoute());
+
+        PoolStats stats = pool.getStats();
+        assertEquals(40, stats.getMax());
+        assertEquals(0, stats.getLeased());
+    }
+
+    /**
+     * Tests metric registration.
+     *
+     * Expected behavior: should register leased, pending, available and max gauges reflecting the pool.
+     */
+    @Test
+    void testBindToRegistersGauges() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+        pool.bindTo(registry);
+
+        assertEquals(40.0, registry.get("elasticsearch.client.pool.max").gauge().value());
+        assertEquals(0.0, registry.get("elasticsearch.client.pool.leased").gauge().value());
+        assertEquals(0.0, registry.get("elasticsearch.client.pool.pending").gauge().value());
+        assertEquals(0.0, registry.get("elasticsearch.client.pool.available").gauge().value());
+    }
+
+    /**
+     * Tests idle connection eviction on an empty pool.
+     *
+     * Expected behavior: should complete without errors.
+     */
+    @Test
+    void testEvictIdleConnections() {
+        assertDoesNotThrow(() -> pool.evictIdleConnections(1000));
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.searchservice.config;
+
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.Node;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the LatencyAwareNodeSelector class.
+ *
+ * These tests verify the moving average calculation, that slow nodes are skipped while at least
+ * one node always remains, and that stale averages stop excluding a node.
+ */
+class LatencyAwareNodeSelectorTest {
+
+    private static final HttpHost FAST = new HttpHost("es-1", 9200);
+    private static final HttpHost SLOW = new HttpHost("es-2", 9200);
+
+    private final AtomicLong clock = new AtomicLong();
+    private LatencyAwareNodeSelector selector;
+
+    /**
+     * Creates a selector with alpha 0.5, slow factor 2 and a one second staleness window on a manual clock.
+     */
+    @BeforeEach
+    void setUp() {
+        selector = new LatencyAwareNodeSelector(0.5, 2.0, 1000, clock::get);
+    }
+
+    /**
+     * Tests the moving average update.
+     *
+     * Expected behavior: should start from the first sample and blend later samples by alpha.
+     */
+    @Test
+    void testRecordLatencyUpdatesAverage() {
+        selector.recordLatency(FAST, millis(10));
+        assertEquals(10.0, selector.getAverageMillis(FAST), 0.001);
+
+        selector.recordLatency(FAST, millis(20));
+        assertEquals(15.0, selector.getAverageMillis(FAST), 0.001);
+
+        assertEquals(0.0, selector.getAverageMillis(SLOW), 0.001, "Unknown nodes should report no latency");
+    }
+
+    /**
+     * Tests selection with one node much slower than the other.
+     *
+     * Expected behavior: should remove the slow node and keep the fast one.
+     */
+    @Test
+    void testSelectSkipsSlowNodes() {
+        selector.recordLatency(FAST, millis(10));
+        selector.recordLatency(SLOW, millis(50));
+
+        List<Node> nodes = nodes(FAST, SLOW);
+        selector.select(nodes);
+
+        assertEquals(1, nodes.size());
+        assertEquals(FAST, nodes.get(0).getHost());
+    }
+
+    /**
+     * Tests selection with nodes within the slow factor of each other.
+     *
+     * Expected behavior: should keep all nodes so load stays spread.
+     */
+    @Test
+    void testSelectKeepsComparableNodes() {
+        selector.recordLatency(FAST, millis(10));
+        selector.recordLatency(SLOW, millis(15));
+
+        List<Node> nodes = nodes(FAST, SLOW);
+        selector.select(nodes);
+
+        assertEquals(2, nodes.size());
+    }
+
+    /**
+     * Tests selection after a slow node's average has gone stale.
+     *
+     * Expected behavior: should make the node eligible again so it can be re-measured, while still selecting
+     * the node with a fresh sample.
+     */
+    @Test
+    void testSelectProbesNodesWithStaleAverages() {
+        selector.recordLatency(SLOW, millis(50));
+        clock.addAndGet(millis(1500));
+        selector.recordLatency(FAST, millis(10));
+
+        List<Node> nodes = nodes(FAST, SLOW);
+        selector.select(nodes);
+
+        assertEquals(2, nodes.size(), "A stale node should be probed alongside the fresh one");
+        assertEquals(FAST, nodes.get(0).getHost());
+    }
+
+    /**
+     * Tests selection with an unmeasured node next to a fast and a slow one, and with no node measured.
+     *
+     * Expected behavior: should keep the unmeasured node without letting it exclude the fresh fast node,
+     * still skip the slow node, and keep all nodes when none has been measured.
+     */
+    @Test
+    void testSelectKeepsFreshNodesNextToUnknownOnes() {
+        HttpHost unknown = new HttpHost("es-3", 9200);
+        selector.recordLatency(FAST, millis(10));
+        selector.recordLatency(SLOW, millis(50));
+
+        List<Node> nodes = nodes(FAST, SLOW, unknown);
+        selector.select(nodes);
+
+        assertEquals(2, nodes.size());
+        assertEquals(FAST, nodes.get(0).getHost());
+        assertEquals(unknown, nodes.get(1).getHost());
+
+        clock.addAndGet(millis(1500));
+        List<Node> unmeasured = nodes(FAST, SLOW, unknown);
+        selector.select(unmeasured);
+        assertEquals(3, unmeasured.size());
+    }
+
+    /**
+     * Tests constructor validation.
+     *
+     * Expected behavior: should reject alpha outside (0, 1] and slow factors below 1.
+     */
+    @Test
+    void testRejectsInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class, () -> new LatencyAwareNodeSelector(0, 2.0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyAwareNodeSelector(1.5, 2.0, 1000));
+        assertThrows(IllegalArgumentException.class, () -> new LatencyAwareNodeSelector(0.3, 0.5, 1000));
+    }
+
+    private static long millis(long value) {
+        return value * 1_000_000L;
+    }
+
+    private static List<Node> nodes(HttpHost... hosts) {
+        List<Node> nodes = new ArrayList<>();
+        Arrays.stream(hosts).map(Node::new).forEach(nodes::add);
+        return nodes;
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.searchservice.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.Settings;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the MappingProfile enum.
+ *
+ * These tests verify that each profile applies the expected settings and field mapping changes
+ * and that profiles can be resolved from configuration values.
+ */
+class MappingProfileTest {
+
+    private Settings settings;
+    private Document mapping;
+
+    /**
+     * Sets up a mapping resembling the one generated from SearchableDocument.
+     */
+    @BeforeEach
+    void setUp() {
+        settings = new Settings().append("index.number_of_shards", "3");
+        mapping = Document.parse("{\"properties\":{"
+                + "\"title\":{\"type\":\"text\",\"analyzer\":\"standard\"},"
+                + "\"content\":{\"type\":\"text\",\"analyzer\":\"standard\"},"
+                + "\"author\":{\"type\":\"keyword\"},"
+                + "\"category\":{\"type\":\"keyword\"},"
+                + "\"tags\":{\"type\":\"keyword\"}}}");
+    }
+
+    /**
+     * Tests that the default profile leaves settings and mapping unchanged.
+     *
+     * Expected behavior: should not add or modify any keys.
+     */
+    @Test
+    void testDefaultProfileLeavesMappingUnchanged() {
+        String before = mapping.toJson();
+
+        MappingProfile.DEFAULT.apply(settings, mapping);
+
+        assertEquals(before, mapping.toJson(), "Mapping should be unchanged");
+        assertNull(settings.get("index.codec"), "Codec should not be set");
+    }
+
+    /**
+     * Tests the latency profile.
+     *
+     * Expected behavior: should switch text fields to custom_analyzer and enable eager global ordinals on facet fields.
+     */
+    @Test
+    void testLatencyProfile() {
+        MappingProfile.LATENCY.apply(settings, mapping);
+
+        assertEquals("custom_analyzer", property("title").get("analyzer"));
+        assertEquals("custom_analyzer", property("content").get("analyzer"));
+        assertEquals(true, property("category").get("eager_global_ordinals"));
+        assertEquals(true, property("tags").get("eager_global_ordinals"));
+        assertNull(settings.get("index.codec"), "Latency profile should keep the default codec");
+    }
+
+    /**
+     * Tests the storage profile.
+     *
+     * Expected behavior: should enable best_compression and drop norms and positions from content only.
+     */
+    @Test
+    void testStorageProfile() {
+        MappingProfile.STORAGE.apply(settings, mapping);
+
+        assertEquals("best_compression", settings.get("index.codec"));
+        assertEquals(false, property("content").get("norms"));
+        assertEquals("freqs", property("content").get("index_options"));
+        assertNull(property("title").get("norms"), "Title should keep norms for scoring");
+        assertNull(property("category").get("eager_global_ordinals"));
+    }
+
+    /**
+     * Tests resolving profiles from configuration values.
+     *
+     * Expected behavior: should ignore case and surrounding whitespace, and reject unknown names.
+     */
+    @Test
+    void testFromName() {
+        assertEquals(MappingProfile.LATENCY, MappingProfile.fromName("latency"));
+        assertEquals(MappingProfile.STORAGE, MappingProfile.fromName(" Storage "));
+        assertThrows(IllegalArgumentException.class, () -> MappingProfile.fromName("fastest"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> property(String name) {
+        return (Map<String, Object>) mapping.get("properties", Map.class).get(name);
+    }
+}
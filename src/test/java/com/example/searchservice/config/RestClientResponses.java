@@ -0,0 +1,71 @@
+package com.example.searchservice.config;
+
+import org.apache.http.HttpHost;
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicRequestLine;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.nio.entity.NStringEntity;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.RestClient;
+
+import java.io.IOException;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Mocked low-level client responses shared by the tests of services that call Elasticsearch directly.
+ */
+public final class RestClientResponses {
+
+    private RestClientResponses() {
+    }
+
+    /**
+     * Stubs the client to answer successive requests with the given JSON bodies, repeating the last one.
+     *
+     * @param restClient mocked client
+     * @param first      body of the first response
+     * @param more       bodies of the following responses
+     */
+    public static void stubResponses(RestClient restClient, String first, String... more) throws IOException {
+        Response[] responses = new Response[more.length];
+        for (int i = 0; i < more.length; i++) {
+            responses[i] = response(more[i]);
+        }
+        Response firstResponse = response(first);  // Created before stubbing, since it is stubbed itself
+        when(restClient.performRequest(any(Request.class))).thenReturn(firstResponse, responses);
+    }
+
+    /**
+     * Creates a response with a JSON body.
+     *
+     * @param json response body
+     * @return mocked response
+     */
+    public static Response response(String json) {
+        Response response = mock(Response.class);
+        when(response.getEntity()).thenReturn(new NStringEntity(json, ContentType.APPLICATION_JSON));
+        return response;
+    }
+
+    /**
+     * Creates the exception the client throws for an error status.
+     *
+     * @param method   method of the failed request
+     * @param endpoint endpoint of the failed request
+     * @param status   HTTP status of the response
+     * @return exception carrying a mocked response
+     */
+    public static ResponseException responseException(String method, String endpoint, int status) throws IOException {
+        Response response = mock(Response.class);
+        when(response.getRequestLine()).thenReturn(new BasicRequestLine(method, endpoint, HttpVersion.HTTP_1_1));
+        when(response.getHost()).thenReturn(new HttpHost("localhost", 9200));
+        when(response.getStatusLine()).thenReturn(new BasicStatusLine(HttpVersion.HTTP_1_1, status, "error"));
+        return new ResponseException(response);
+    }
+}
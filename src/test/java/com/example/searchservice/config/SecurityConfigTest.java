@@ -11,12 +11,15 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestBuilders.formLogin;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.authenticated;
 import static org.springframework.security.test.web.servlet.response.SecurityMockMvcResultMatchers.unauthenticated;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
@@ -96,6 +99,18 @@ class SecurityConfigTest {
                 .andExpect(status().isOk());
     }
 
+    /**
+     * Test: Actuator liveness and readiness groups should be publicly accessible and answer from the cached probe.
+     * Elasticsearch is not running in tests, so the service is live but not ready.
+     */
+    @Test
+    void healthProbesShouldBeAccessible() throws Exception {
+        mockMvc.perform(get("/actuator/health/liveness"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health/readiness"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
     /**
      * Test: Search endpoint (/api/search) should require authentication.
      */
@@ -122,4 +137,37 @@ class SecurityConfigTest {
         mockMvc.perform(formLogin().user("user").password("wrongpassword"))
                 .andExpect(unauthenticated());
     }
+
+    /**
+     * Test: API calls with HTTP Basic credentials should not create a session.
+     * Expected behavior: should authenticate the request, so a non-admin is forbidden rather than unauthorized,
+     * and leave no HttpSession behind.
+     */
+    @Test
+    void apiCallsShouldBeStateless() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/admin/index/promote").with(httpBasic("user", "password")))
+                .andExpect(status().isForbidden())
+                .andReturn();
+
+        assertNull(result.getRequest().getSession(false), "API calls should not create a session");
+    }
+
+    /**
+     * Test: Startup and metrics actuator endpoints should be restricted to admins.
+     * Expected behavior: should forbid a non-admin from reading or draining the startup timeline and from reading
+     * metrics, and let an admin read metrics.
+     */
+    @Test
+    void startupAndMetricsEndpointsShouldRequireAdmin() throws Exception {
+        mockMvc.perform(get("/actuator/startup").with(httpBasic("user", "password")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/actuator/startup").with(httpBasic("user", "password")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(httpBasic("user", "password")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics/search.stage").with(httpBasic("user", "password")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics").with(httpBasic("admin", "admin")))
+                .andExpect(status().isOk());
+    }
 }
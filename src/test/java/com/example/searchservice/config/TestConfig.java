@@ -1,6 +1,8 @@
 package com.example.searchservice.config;
 
 import com.example.searchservice.repository.SearchRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.mockito.Mockito;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
@@ -73,4 +75,14 @@ public class TestConfig {
     public SimpleElasticsearchMappingContext elasticsearchMappingContext() {
         return new SimpleElasticsearchMappingContext();
     }
+
+    /**
+     * Provides an in-memory meter registry for the metrics wired into the web layer.
+     *
+     * @return SimpleMeterRegistry instance
+     */
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
 }
@@ -0,0 +1,151 @@
+package com.example.searchservice.controller;
+
+import com.example.searchservice.config.SecurityConfig;
+import com.example.searchservice.config.TestConfig;
+import com.example.searchservice.exception.AsyncSearchNotFoundException;
+import com.example.searchservice.exception.GlobalExceptionHandler;
+import com.example.searchservice.governor.QueryGovernor;
+import com.example.searchservice.model.AsyncSearchResponse;
+import com.example.searchservice.model.SearchRequest;
+import com.example.searchservice.model.SearchResponse;
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.service.AsyncSearchService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for AsyncSearchController using WebMvcTest and MockMvc.
+ */
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(
+        controllers = AsyncSearchController.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ANNOTATION,
+                classes = EnableElasticsearchRepositories.class
+        )
+)
+@Import({TestConfig.class, SecurityConfig.class, GlobalExceptionHandler.class, QueryGovernor.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchDataAutoConfiguration,org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchRepositoriesAutoConfiguration"
+})
+class AsyncSearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AsyncSearchService asyncSearchService;
+
+    /**
+     * Verifies that a search still running after the wait is answered with 202, its id and a Location to poll,
+     * and is submitted under the caller's name.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testSubmitRunning() throws Exception {
+        when(asyncSearchService.submit(any(SearchRequest.class), eq("user"))).thenReturn(
+                new AsyncSearchResponse("FmRl", true, true, Instant.ofEpochMilli(0), Instant.ofEpochMilli(300000), null));
+
+        mockMvc.perform(post("/api/search/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"query\":\"annual report\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/search/async/FmRl"))
+                .andExpect(jsonPath("$.id", is("FmRl")))
+                .andExpect(jsonPath("$.running", is(true)));
+
+        verify(asyncSearchService).submit(argThat(request -> "annual report".equals(request.getQuery())), eq("user"));
+    }
+
+    /**
+     * Verifies that a completed search is answered with 200 and its results, and that searches over the query
+     * budget are rejected before being submitted.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testSubmitCompletedAndOverBudget() throws Exception {
+        SearchResponse<SearchableDocument> results = new SearchResponse<>(Collections.emptyList(), 3L, 0, 10, null, 8L);
+        when(asyncSearchService.submit(any(SearchRequest.class), eq("user"))).thenReturn(
+                new AsyncSearchResponse("FmRl", false, false, Instant.ofEpochMilli(0), Instant.ofEpochMilli(300000), results));
+
+        mockMvc.perform(post("/api/search/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"query\":\"annual report\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.totalHits", is(3)));
+
+        mockMvc.perform(post("/api/search/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"query\":\"annual report\",\"page\":1000,\"size\":100}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].field", is("page")));
+        verify(asyncSearchService, times(1)).submit(any(SearchRequest.class), any());
+    }
+
+    /**
+     * Verifies that polling passes the wait and the caller's name, and that unknown or foreign searches are 404.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testGet() throws Exception {
+        when(asyncSearchService.get("FmRl", "user", 2000)).thenReturn(
+                new AsyncSearchResponse("FmRl", false, false, Instant.ofEpochMilli(0), Instant.ofEpochMilli(300000), null));
+        when(asyncSearchService.get(eq("other"), eq("user"), anyLong())).thenThrow(new AsyncSearchNotFoundException("other"));
+
+        mockMvc.perform(get("/api/search/async/FmRl").param("wait", "2000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.running", is(false)));
+        mockMvc.perform(get("/api/search/async/other"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.status", is(404)));
+    }
+
+    /**
+     * Verifies that deleting a search is answered with 204 and passes the caller's name.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testDelete() throws Exception {
+        mockMvc.perform(delete("/api/search/async/FmRl"))
+                .andExpect(status().isNoContent());
+
+        verify(asyncSearchService).delete("FmRl", "user");
+    }
+
+    /**
+     * Verifies that async searches require authentication.
+     */
+    @Test
+    void testRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/api/search/async/FmRl"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(asyncSearchService);
+    }
+}
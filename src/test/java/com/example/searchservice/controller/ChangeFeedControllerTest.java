@@ -0,0 +1,167 @@
+package com.example.searchservice.controller;
+
+import com.example.searchservice.config.SecurityConfig;
+import com.example.searchservice.config.TestConfig;
+import com.example.searchservice.exception.ElasticsearchQueryException;
+import com.example.searchservice.exception.GlobalExceptionHandler;
+import com.example.searchservice.model.ChangeToken;
+import com.example.searchservice.service.ChangeFeedService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for ChangeFeedController using WebMvcTest and MockMvc.
+ */
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(
+        controllers = ChangeFeedController.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ANNOTATION,
+                classes = EnableElasticsearchRepositories.class
+        )
+)
+@Import({TestConfig.class, SecurityConfig.class, GlobalExceptionHandler.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchDataAutoConfiguration,org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchRepositoriesAutoConfiguration"
+})
+class ChangeFeedControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ChangeFeedService changeFeedService;
+
+    /**
+     * Verifies that the changes after the decoded token are awaited asynchronously and then streamed as NDJSON
+     * with the requested limit and wait.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testChanges() throws Exception {
+        ChangeToken since = new ChangeToken(1700000000000L, "doc-1");
+        String line = "{\"token\":\"MTcwMDAwMDAwMDAwMTpkb2MtMg\",\"document\":{\"id\":\"doc-2\"}}\n";
+        CompletableFuture<Boolean> changed = new CompletableFuture<>();
+        when(changeFeedService.awaitChanges(since, 20000L)).thenReturn(changed);
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(2);
+            out.write(line.getBytes(StandardCharsets.UTF_8));
+            return new ChangeToken(1700000000001L, "doc-2");
+        }).when(changeFeedService).streamChanges(eq(since), eq(500), any(OutputStream.class));
+
+        MvcResult waiting = mockMvc.perform(get("/api/changes")
+                        .param("since", since.encode())
+                        .param("limit", "500")
+                        .param("wait", "20000"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        verify(changeFeedService, never()).streamChanges(any(), anyInt(), any(OutputStream.class));
+
+        changed.complete(true);
+        mockMvc.perform(asyncDispatch(stream(waiting)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ChangeFeedController.NDJSON))
+                .andExpect(content().string(line));
+    }
+
+    /**
+     * Verifies that omitting the token starts from the beginning with the default limit and no wait.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testChangesFromBeginning() throws Exception {
+        when(changeFeedService.awaitChanges(null, 0L)).thenReturn(CompletableFuture.completedFuture(true));
+
+        MvcResult result = mockMvc.perform(get("/api/changes")).andReturn();
+        mockMvc.perform(asyncDispatch(stream(result)))
+                .andExpect(status().isOk());
+
+        verify(changeFeedService).streamChanges(isNull(), eq(1000), any(OutputStream.class));
+    }
+
+    /**
+     * Verifies that a wait running out without changes is answered with an empty feed without reading it, and
+     * that a failure while waiting is answered as a failed search.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testWaitRunsOutOrFails() throws Exception {
+        when(changeFeedService.awaitChanges(null, 1000L)).thenReturn(CompletableFuture.completedFuture(false));
+
+        MvcResult result = mockMvc.perform(get("/api/changes").param("wait", "1000")).andReturn();
+        mockMvc.perform(asyncDispatch(stream(result)))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+        verify(changeFeedService, never()).streamChanges(any(), anyInt(), any(OutputStream.class));
+
+        CompletableFuture<Boolean> failed = new CompletableFuture<>();
+        failed.completeExceptionally(new ElasticsearchQueryException("Failed to read changes", new IOException("refused")));
+        when(changeFeedService.awaitChanges(null, 2000L)).thenReturn(failed);
+
+        MvcResult failure = mockMvc.perform(get("/api/changes").param("wait", "2000")).andReturn();
+        mockMvc.perform(asyncDispatch(failure))
+                .andExpect(status().is5xxServerError());
+    }
+
+    /**
+     * Verifies that a malformed token is answered with 400 without reading any changes.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testInvalidToken() throws Exception {
+        mockMvc.perform(get("/api/changes").param("since", "not-a-token"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].field", is("since")));
+
+        verifyNoInteractions(changeFeedService);
+    }
+
+    /**
+     * Verifies that the change feed requires authentication.
+     */
+    @Test
+    void testRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/api/changes"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(changeFeedService);
+    }
+
+    /**
+     * Dispatches the awaited result, which starts streaming the body asynchronously in turn.
+     */
+    private MvcResult stream(MvcResult waiting) throws Exception {
+        return mockMvc.perform(asyncDispatch(waiting))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.searchservice.controller;
+
+import com.example.searchservice.config.SecurityConfig;
+import com.example.searchservice.config.TestConfig;
+import com.example.searchservice.exception.GlobalExceptionHandler;
+import com.example.searchservice.service.IndexManagementService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for IndexAdminController using WebMvcTest and MockMvc.
+ */
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(
+        controllers = IndexAdminController.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ANNOTATION,
+                classes = EnableElasticsearchRepositories.class
+        )
+)
+@Import({TestConfig.class, SecurityConfig.class, GlobalExceptionHandler.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchDataAutoConfiguration,org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchRepositoriesAutoConfiguration"
+})
+class IndexAdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private IndexManagementService indexManagementService;
+
+    /**
+     * Verifies that an administrator can start a reindex and receives the task id.
+     */
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER", "ADMIN"})
+    void testReindexAsAdmin() throws Exception {
+        when(indexManagementService.startReindex(null, "documents_v2")).thenReturn("node:42");
+
+        mockMvc.perform(post("/api/admin/index/reindex")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"targetIndex\":\"documents_v2\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.taskId", is("node:42")));
+
+        verify(indexManagementService).startReindex(null, "documents_v2");
+    }
+
+    /**
+     * Ensures that a request without a target index is rejected.
+     */
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER", "ADMIN"})
+    void testReindexWithoutTarget() throws Exception {
+        mockMvc.perform(post("/api/admin/index/reindex")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(indexManagementService, never()).startReindex(any(), any());
+    }
+
+    /**
+     * Verifies that an administrator can promote a reindexed index.
+     */
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER", "ADMIN"})
+    void testPromoteAsAdmin() throws Exception {
+        mockMvc.perform(post("/api/admin/index/promote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"targetIndex\":\"documents_v2\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.index", is("documents_v2")));
+
+        verify(indexManagementService).promoteIndex("documents_v2");
+    }
+
+    /**
+     * Ensures that regular users cannot run index maintenance.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testPromoteForbiddenForUser() throws Exception {
+        mockMvc.perform(post("/api/admin/index/promote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"targetIndex\":\"documents_v2\"}"))
+                .andExpect(status().isForbidden());
+
+        verify(indexManagementService, never()).promoteIndex(any());
+    }
+}
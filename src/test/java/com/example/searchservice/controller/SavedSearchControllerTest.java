@@ -0,0 +1,169 @@
+package com.example.searchservice.controller;
+
+import com.example.searchservice.config.SecurityConfig;
+import com.example.searchservice.config.TestConfig;
+import com.example.searchservice.exception.GlobalExceptionHandler;
+import com.example.searchservice.exception.InvalidSavedSearchException;
+import com.example.searchservice.exception.SavedSearchNotFoundException;
+import com.example.searchservice.governor.QueryGovernor;
+import com.example.searchservice.model.SavedSearch;
+import com.example.searchservice.service.SavedSearchService;
+import com.example.searchservice.service.impl.SavedSearchDispatcher;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for SavedSearchController using WebMvcTest and MockMvc.
+ */
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(
+        controllers = SavedSearchController.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ANNOTATION,
+                classes = EnableElasticsearchRepositories.class
+        )
+)
+@Import({TestConfig.class, SecurityConfig.class, GlobalExceptionHandler.class, QueryGovernor.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchDataAutoConfiguration,org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchRepositoriesAutoConfiguration"
+})
+class SavedSearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SavedSearchService savedSearchService;
+
+    @MockBean
+    private SavedSearchDispatcher dispatcher;
+
+    /**
+     * Verifies that a saved search is registered under the caller's name and answered with 201 and its Location.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testRegister() throws Exception {
+        when(savedSearchService.register(any(SavedSearch.class), eq("user"))).thenAnswer(invocation -> {
+            SavedSearch savedSearch = invocation.getArgument(0);
+            savedSearch.setId("a1");
+            savedSearch.setCreatedAt(Instant.ofEpochMilli(0));
+            return savedSearch;
+        });
+
+        mockMvc.perform(post("/api/saved-searches")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Reports\",\"search\":{\"query\":\"annual report\"}}"))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Location", "/api/saved-searches/a1"))
+                .andExpect(jsonPath("$.id", is("a1")))
+                .andExpect(jsonPath("$.search.query", is("annual report")));
+
+        verify(savedSearchService).register(argThat(savedSearch -> "Reports".equals(savedSearch.getName())), eq("user"));
+    }
+
+    /**
+     * Verifies that saved searches without a name or search, with an invalid search, over the query budget or
+     * refused by the service are answered with 400.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testRegisterInvalid() throws Exception {
+        mockMvc.perform(post("/api/saved-searches")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"search\":{\"query\":\"a\"}}"))
+                .andExpect(status().isBadRequest());
+
+        String manyTerms = String.join(" ", Collections.nCopies(40, "term"));
+        mockMvc.perform(post("/api/saved-searches")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Everything\",\"search\":{\"query\":\"" + manyTerms + "\"}}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errors[0].field", is("query")));
+        verifyNoInteractions(savedSearchService);
+
+        when(savedSearchService.register(any(SavedSearch.class), eq("user")))
+                .thenThrow(new InvalidSavedSearchException("Webhook host example.com is not allowed"));
+        mockMvc.perform(post("/api/saved-searches")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Reports\",\"search\":{\"query\":\"annual report\"},"
+                                + "\"webhook\":\"http://example.com/hook\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Webhook host example.com is not allowed")));
+    }
+
+    /**
+     * Verifies that listing and deleting pass the caller's name, and that unknown saved searches are 404.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testListAndDelete() throws Exception {
+        SavedSearch savedSearch = new SavedSearch();
+        savedSearch.setId("a1");
+        savedSearch.setName("Reports");
+        when(savedSearchService.list("user")).thenReturn(Collections.singletonList(savedSearch));
+        doThrow(new SavedSearchNotFoundException("b2")).when(savedSearchService).delete("b2", "user");
+
+        mockMvc.perform(get("/api/saved-searches"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name", is("Reports")));
+        mockMvc.perform(delete("/api/saved-searches/a1"))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/saved-searches/b2"))
+                .andExpect(status().isNotFound());
+
+        verify(savedSearchService).delete("a1", "user");
+    }
+
+    /**
+     * Verifies that the match stream is opened for the caller as an event stream.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testStream() throws Exception {
+        when(dispatcher.subscribe("user")).thenReturn(new SseEmitter(1000L));
+
+        mockMvc.perform(get("/api/saved-searches/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted());
+
+        verify(dispatcher).subscribe("user");
+    }
+
+    /**
+     * Verifies that saved searches require authentication.
+     */
+    @Test
+    void testRequiresAuthentication() throws Exception {
+        mockMvc.perform(get("/api/saved-searches"))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(savedSearchService, dispatcher);
+    }
+}
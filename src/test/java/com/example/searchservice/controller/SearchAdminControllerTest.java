@@ -0,0 +1,110 @@
+package com.example.searchservice.controller;
+
+import com.example.searchservice.config.SecurityConfig;
+import com.example.searchservice.config.TestConfig;
+import com.example.searchservice.exception.GlobalExceptionHandler;
+import com.example.searchservice.model.SearchProfile;
+import com.example.searchservice.model.SearchRequest;
+import com.example.searchservice.service.SearchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for SearchAdminController using WebMvcTest and MockMvc.
+ */
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(
+        controllers = SearchAdminController.class,
+        excludeFilters = @ComponentScan.Filter(
+                type = FilterType.ANNOTATION,
+                classes = EnableElasticsearchRepositories.class
+        )
+)
+@Import({TestConfig.class, SecurityConfig.class, GlobalExceptionHandler.class})
+@ActiveProfiles("test")
+@TestPropertySource(properties = {
+        "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchDataAutoConfiguration,org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchRepositoriesAutoConfiguration"
+})
+class SearchAdminControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SearchService searchService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Verifies that an administrator can profile a search and receives the per-shard profile.
+     */
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER", "ADMIN"})
+    void testProfileAsAdmin() throws Exception {
+        SearchProfile profile = new SearchProfile(
+                objectMapper.readTree("{\"profile\":true}"),
+                9,
+                40,
+                objectMapper.readTree("[{\"id\":\"[node][documents][0]\"}]"));
+        when(searchService.profile(any(SearchRequest.class))).thenReturn(profile);
+
+        mockMvc.perform(post("/api/admin/search/profile")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"query\":\"slow query\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalHits", is(9)))
+                .andExpect(jsonPath("$.took", is(40)))
+                .andExpect(jsonPath("$.query.profile", is(true)))
+                .andExpect(jsonPath("$.shards[0].id", is("[node][documents][0]")));
+
+        verify(searchService).profile(argThat(request -> "slow query".equals(request.getQuery())));
+    }
+
+    /**
+     * Ensures that a profile request without a query is rejected.
+     */
+    @Test
+    @WithMockUser(username = "admin", roles = {"USER", "ADMIN"})
+    void testProfileWithoutQuery() throws Exception {
+        mockMvc.perform(post("/api/admin/search/profile")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isBadRequest());
+
+        verify(searchService, never()).profile(any());
+    }
+
+    /**
+     * Ensures that regular users cannot profile searches.
+     */
+    @Test
+    @WithMockUser(username = "user", roles = "USER")
+    void testProfileForbiddenForUser() throws Exception {
+        mockMvc.perform(post("/api/admin/search/profile")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"query\":\"slow query\"}"))
+                .andExpect(status().isForbidden());
+
+        verify(searchService, never()).profile(any());
+    }
+}
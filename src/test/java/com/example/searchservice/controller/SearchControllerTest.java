@@ -1,15 +1,24 @@
 package com.example.searchservice.controller;
 
+import com.example.searchservice.config.BinaryFormatConfig;
 import com.example.searchservice.config.SecurityConfig;
 import com.example.searchservice.config.TestConfig;
 import com.example.searchservice.exception.GlobalExceptionHandler;
+import com.example.searchservice.exception.SearchTimeoutException;
+import com.example.searchservice.governor.QueryGovernor;
+import com.example.searchservice.metrics.SearchMetrics;
 import com.example.searchservice.model.SearchRequest;
 import com.example.searchservice.model.SearchResponse;
 import com.example.searchservice.model.SearchableDocument;
 import com.example.searchservice.service.SearchService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -24,10 +33,13 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -45,7 +57,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
                 classes = EnableElasticsearchRepositories.class
         )
 )
-@Import({TestConfig.class, SecurityConfig.class, GlobalExceptionHandler.class})
+@Import({TestConfig.class, SecurityConfig.class, GlobalExceptionHandler.class, BinaryFormatConfig.class, QueryGovernor.class})
 @ActiveProfiles("test")
 @TestPropertySource(properties = {
         "spring.autoconfigure.exclude=org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchDataAutoConfiguration,org.springframework.boot.autoconfigure.data.elasticsearch.ElasticsearchRepositoriesAutoConfiguration"
@@ -58,6 +70,9 @@ class SearchControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @MockBean
     private SearchService searchService;
 
@@ -102,6 +117,8 @@ class SearchControllerTest {
         );
 
         when(searchService.search(any(SearchRequest.class))).thenReturn(response);
+        long validations = stageCount("validation");
+        long serializations = stageCount("serialization");
 
         // Execute POST and validate response body
         mockMvc.perform(post("/api/search")
@@ -117,6 +134,84 @@ class SearchControllerTest {
                 .andExpect(jsonPath("$.took", is(42)));
 
         verify(searchService).search(any(SearchRequest.class));
+
+        // Validation and serialization are timed in the web layer
+        assertEquals(validations + 1, stageCount("validation"));
+        assertEquals(serializations + 1, stageCount("serialization"));
+    }
+
+    /**
+     * Verifies that the timeout header shortens the request's own timeout but never lengthens it,
+     * and that a search missing its deadline is answered with 504.
+     */
+    @Test
+    @WithMockUser(username = "user", password = "password", roles = "USER")
+    void testSearchTimeout() throws Exception {
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("test");
+        searchRequest.setTimeout(500L);
+
+        when(searchService.search(any(SearchRequest.class)))
+                .thenReturn(new SearchResponse<>(new ArrayList<>(), 0L, 0, 10, null, 1L));
+        mockMvc.perform(post("/api/search")
+                        .header(SearchController.TIMEOUT_HEADER, "200")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(searchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.partial", is(false)));
+        mockMvc.perform(post("/api/search")
+                        .header(SearchController.TIMEOUT_HEADER, "900")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(searchRequest)))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(searchService, times(2)).search(captor.capture());
+        assertEquals(200L, captor.getAllValues().get(0).getTimeout());
+        assertEquals(500L, captor.getAllValues().get(1).getTimeout());
+
+        when(searchService.search(any(SearchRequest.class)))
+                .thenThrow(new SearchTimeoutException("Search did not complete within 500 ms"));
+        mockMvc.perform(post("/api/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(searchRequest)))
+                .andExpect(status().isGatewayTimeout())
+                .andExpect(jsonPath("$.status", is(504)));
+    }
+
+    /**
+     * Verifies that oversized pages are clamped with a rewrite header, and that searches paging beyond the
+     * user budget's window are answered with 400 naming the field without reaching the service.
+     */
+    @Test
+    @WithMockUser(username = "user", password = "password", roles = "USER")
+    void testSearchOverBudget() throws Exception {
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("test");
+        searchRequest.setSize(500);
+
+        when(searchService.search(any(SearchRequest.class)))
+                .thenReturn(new SearchResponse<>(new ArrayList<>(), 0L, 0, 100, null, 1L));
+        mockMvc.perform(post("/api/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(searchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().string(SearchController.REWRITTEN_HEADER, "size clamped from 500 to 100"));
+
+        ArgumentCaptor<SearchRequest> captor = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(searchService).search(captor.capture());
+        assertEquals(100, captor.getValue().getSize());
+
+        searchRequest.setSize(100);
+        searchRequest.setPage(200);
+        mockMvc.perform(post("/api/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(searchRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message", is("Search exceeds the query budget")))
+                .andExpect(jsonPath("$.errors[0].field", is("page")))
+                .andExpect(jsonPath("$.errors[0].message", containsString("beyond the deepest 10000")));
+        verifyNoMoreInteractions(searchService);
     }
 
     /**
@@ -157,4 +252,76 @@ class SearchControllerTest {
 
         verify(searchService, never()).search(any(SearchRequest.class));
     }
+
+    /**
+     * Verifies that clients can exchange search requests and responses in Smile and CBOR.
+     */
+    @Test
+    @WithMockUser(username = "user", password = "password", roles = "USER")
+    void testSearchWithBinaryFormats() throws Exception {
+        SearchableDocument document = new SearchableDocument();
+        document.setId("1");
+        document.setTitle("Test Document");
+        when(searchService.search(any(SearchRequest.class))).thenReturn(
+                new SearchResponse<>(List.of(document), 1L, 0, 10, null, 42L));
+
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("test");
+
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory());
+        ObjectMapper cborMapper = new ObjectMapper(new CBORFactory());
+        MediaType smile = MediaType.parseMediaType("application/x-jackson-smile");
+
+        // Smile request and response
+        byte[] smileBody = mockMvc.perform(post("/api/search")
+                        .contentType(smile)
+                        .accept(smile)
+                        .content(smileMapper.writeValueAsBytes(searchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(smile))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode smileResponse = smileMapper.readTree(smileBody);
+        assertEquals("Test Document", smileResponse.path("items").path(0).path("title").asText());
+
+        // JSON request, CBOR response
+        byte[] cborBody = mockMvc.perform(post("/api/search")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(objectMapper.writeValueAsString(searchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals(1, cborMapper.readTree(cborBody).path("totalHits").asLong());
+    }
+
+    /**
+     * Verifies that the passthrough endpoint streams the service output as JSON.
+     */
+    @Test
+    @WithMockUser(username = "user", password = "password", roles = "USER")
+    void testSearchRaw() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("{\"totalHits\":1,\"hits\":[{\"_id\":\"1\",\"_source\":{\"title\":\"Test Document\"}}]}"
+                    .getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(searchService).streamSearch(any(SearchRequest.class), any(OutputStream.class));
+
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("test");
+
+        mockMvc.perform(post("/api/search/raw")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(searchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.hits[0]._source.title", is("Test Document")));
+
+        verify(searchService).streamSearch(any(SearchRequest.class), any(OutputStream.class));
+    }
+
+    private long stageCount(String stage) {
+        return meterRegistry.find(SearchMetrics.STAGE_TIMER).tag("stage", stage).timers().stream()
+                .mapToLong(timer -> timer.count()).sum();
+    }
 }
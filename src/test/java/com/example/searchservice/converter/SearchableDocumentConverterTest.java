@@ -0,0 +1,84 @@
+package com.example.searchservice.converter;
+
+import com.example.searchservice.model.SearchableDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SearchableDocumentConverter class.
+ *
+ * These tests verify that SearchableDocument is mapped by the generated mapper
+ * and that other types still go through the regular conversion.
+ */
+class SearchableDocumentConverterTest {
+
+    private SearchableDocumentConverter converter;
+
+    /**
+     * Sets up a converter with a fresh mapping context.
+     */
+    @BeforeEach
+    void setUp() {
+        converter = new SearchableDocumentConverter(new SimpleElasticsearchMappingContext());
+        converter.afterPropertiesSet();
+    }
+
+    /**
+     * Tests writing and reading back a SearchableDocument.
+     *
+     * Expected behavior: should set the document id and restore all written fields.
+     */
+    @Test
+    void testSearchableDocumentRoundTrip() {
+        SearchableDocument document = new SearchableDocument();
+        document.setId("doc-1");
+        document.setTitle("Title");
+        document.setCreatedDate(new Date(1700000000123L));
+        document.setTags(new String[]{"a"});
+
+        Document sink = converter.mapObject(document);
+        assertEquals("doc-1", sink.getId());
+        assertEquals("2023-11-14T22:13:20.123Z", sink.get("createdDate"));
+
+        SearchableDocument read = converter.read(SearchableDocument.class, sink);
+        assertEquals("doc-1", read.getId());
+        assertEquals("Title", read.getTitle());
+        assertEquals(document.getCreatedDate(), read.getCreatedDate());
+        assertArrayEquals(new String[]{"a"}, read.getTags());
+    }
+
+    /**
+     * Tests an entity other than SearchableDocument.
+     *
+     * Expected behavior: should fall back to the mapping-based conversion.
+     */
+    @Test
+    void testOtherTypesUseMappingConversion() {
+        Other other = new Other();
+        other.id = "other-1";
+        other.name = "name";
+
+        Document sink = converter.mapObject(other);
+        assertEquals(Other.class.getName(), sink.get("_class"));
+        assertEquals("name", sink.get("name"));
+
+        Other read = converter.read(Other.class, sink);
+        assertEquals("name", read.name);
+    }
+
+    /**
+     * Minimal entity that is not handled by the generated mapper.
+     */
+    static class Other {
+        @Id
+        String id;
+        String name;
+    }
+}
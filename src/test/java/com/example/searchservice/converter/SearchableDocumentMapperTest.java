@@ -0,0 +1,210 @@
+package com.example.searchservice.converter;
+
+import com.example.searchservice.model.SearchableDocument;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SearchableDocumentMapper class.
+ *
+ * These tests compare the mapper with Spring Data's reflection-based converter in both directions,
+ * for the token stream and the source map forms.
+ */
+class SearchableDocumentMapperTest {
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SearchableDocumentMapper mapper;
+    private MappingElasticsearchConverter referenceConverter;
+
+    /**
+     * Sets up the mapper and the reflection-based converter it replaces.
+     */
+    @BeforeEach
+    void setUp() {
+        mapper = new SearchableDocumentMapper();
+        referenceConverter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        referenceConverter.afterPropertiesSet();
+    }
+
+    /**
+     * Tests writing a fully populated document as JSON.
+     *
+     * Expected behavior: should produce the same source as the reflection-based converter.
+     */
+    @Test
+    void testWriteMatchesReferenceConverter() throws IOException {
+        SearchableDocument document = createDocument();
+
+        Document expected = Document.create();
+        referenceConverter.write(document, expected);
+
+        assertEquals(objectMapper.readTree(expected.toJson()), objectMapper.readTree(writeJson(document)));
+
+        Document sink = Document.create();
+        mapper.write(document, sink);
+        assertEquals(objectMapper.readTree(expected.toJson()), objectMapper.readTree(sink.toJson()));
+    }
+
+    /**
+     * Tests reading the source written by the reflection-based converter.
+     *
+     * Expected behavior: should restore every field, taking the id from the hit rather than the source.
+     */
+    @Test
+    void testReadsReferenceSource() throws IOException {
+        SearchableDocument original = createDocument();
+        Document source = Document.create();
+        referenceConverter.write(original, source);
+
+        SearchableDocument fromStream;
+        try (JsonParser parser = jsonFactory.createParser(source.toJson())) {
+            fromStream = mapper.read(parser, "hit-id");
+        }
+        SearchableDocument fromMap = mapper.read(source, "hit-id");
+
+        for (SearchableDocument read : Arrays.asList(fromStream, fromMap)) {
+            assertEquals("hit-id", read.getId());
+            assertEquals(original.getTitle(), read.getTitle());
+            assertEquals(original.getContent(), read.getContent());
+            assertEquals(original.getAuthor(), read.getAuthor());
+            assertEquals(original.getCategory(), read.getCategory());
+            assertEquals(original.getCreatedDate(), read.getCreatedDate());
+            assertEquals(original.getLastUpdatedDate(), read.getLastUpdatedDate());
+            assertArrayEquals(original.getTags(), read.getTags());
+            assertEquals(objectMapper.valueToTree(original.getMetadata()), objectMapper.valueToTree(read.getMetadata()));
+        }
+    }
+
+    /**
+     * Tests sources with epoch-millisecond and offset dates, nulls and unknown fields, and a tag written as a single value.
+     *
+     * Expected behavior: should read the same values as the reflection-based converter, and also accept the single tag.
+     */
+    @Test
+    void testReadsAlternativeForms() throws IOException {
+        String json = "{\"_class\":\"x\",\"id\":\"source-id\",\"createdDate\":1700000000123,"
+                + "\"lastUpdatedDate\":\"2023-11-14T23:13:20.000+01:00\",\"tags\":[\"single\"],\"author\":null,"
+                + "\"extra\":{\"nested\":[1,2]},\"metadata\":{\"list\":[true,1.5,\"a\"]}}";
+
+        SearchableDocument expected = referenceConverter.read(SearchableDocument.class, Document.parse(json));
+        SearchableDocument read;
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            read = mapper.read(parser, null);
+        }
+
+        assertEquals("source-id", read.getId());
+        assertNull(read.getAuthor());
+        assertEquals(expected.getCreatedDate(), read.getCreatedDate());
+        assertEquals(expected.getLastUpdatedDate(), read.getLastUpdatedDate());
+        assertArrayEquals(new String[]{"single"}, read.getTags());
+        assertEquals(Arrays.asList(true, 1.5, "a"), read.getMetadata().get("list"));
+
+        SearchableDocument fromMap = mapper.read(Document.parse(json), null);
+        assertEquals(expected.getCreatedDate(), fromMap.getCreatedDate());
+        assertEquals(expected.getLastUpdatedDate(), fromMap.getLastUpdatedDate());
+        assertArrayEquals(new String[]{"single"}, fromMap.getTags());
+
+        // Elasticsearch accepts a single value for an array field; the reflection-based converter does not
+        String singleTag = "{\"tags\":\"single\"}";
+        try (JsonParser parser = jsonFactory.createParser(singleTag)) {
+            assertArrayEquals(new String[]{"single"}, mapper.read(parser, null).getTags());
+        }
+        assertArrayEquals(new String[]{"single"}, mapper.read(Document.parse(singleTag), null).getTags());
+    }
+
+    /**
+     * Tests the date forms Elasticsearch accepts for a date field without a pattern.
+     *
+     * Expected behavior: should parse epoch milliseconds, timestamps with and without offset, and plain dates as UTC.
+     */
+    @Test
+    void testParseDate() {
+        assertEquals(new Date(1700000000123L), SearchableDocumentMapper.parseDate("1700000000123"));
+        assertEquals(new Date(1700000000123L), SearchableDocumentMapper.parseDate("2023-11-14T22:13:20.123Z"));
+        assertEquals(new Date(1700000000000L), SearchableDocumentMapper.parseDate("2023-11-14T22:13:20"));
+        assertEquals(new Date(1706659200000L), SearchableDocumentMapper.parseDate("2024-01-31"));
+        assertEquals("2023-11-14T22:13:20.000Z", SearchableDocumentMapper.formatDate(new Date(1700000000000L)));
+    }
+
+    /**
+     * Tests a document with only an id.
+     *
+     * Expected behavior: should write only the type hint and the id, and read it back.
+     */
+    @Test
+    void testMinimalDocument() throws IOException {
+        SearchableDocument document = new SearchableDocument();
+        document.setId("only-id");
+
+        String json = writeJson(document);
+        assertEquals("{\"_class\":\"" + SearchableDocument.class.getName() + "\",\"id\":\"only-id\"}", json);
+
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            SearchableDocument read = mapper.read(parser, null);
+            assertEquals("only-id", read.getId());
+            assertNull(read.getTags());
+            assertNull(read.getMetadata());
+        }
+    }
+
+    /**
+     * Tests input that is not a JSON object.
+     *
+     * Expected behavior: should throw an IOException.
+     */
+    @Test
+    void testRejectsNonObject() throws IOException {
+        try (JsonParser parser = jsonFactory.createParser("[1]")) {
+            assertThrows(IOException.class, () -> mapper.read(parser, null));
+        }
+    }
+
+    private String writeJson(SearchableDocument document) throws IOException {
+        StringWriter out = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(out)) {
+            mapper.write(document, generator);
+        }
+        return out.toString();
+    }
+
+    private static SearchableDocument createDocument() {
+        SearchableDocument document = new SearchableDocument();
+        document.setId("doc-1");
+        document.setTitle("Elasticsearch \"quoted\" title");
+        document.setContent("Content with unicode é中");
+        document.setAuthor("Jane Doe");
+        document.setCreatedDate(new Date(1700000000123L));
+        document.setLastUpdatedDate(new Date(1700000000000L));
+        document.setCategory("Technology");
+        document.setTags(new String[]{"search", "java"});
+
+        Map<String, Object> nested = new LinkedHashMap<>();
+        nested.put("level", 2);
+        nested.put("values", Arrays.asList("a", "b"));
+        Map<String, Object> metadata = new LinkedHashMap<>();
+        metadata.put("views", 42);
+        metadata.put("rating", 4.5);
+        metadata.put("featured", true);
+        metadata.put("nested", nested);
+        document.setMetadata(metadata);
+        return document;
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.searchservice.embedded;
+
+import com.example.searchservice.model.SearchRequest;
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.util.SearchDataGenerator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the InMemoryIndex class.
+ *
+ * These tests index a handful of hand-written documents and check matching, BM25 scores, filters, date ranges,
+ * sorting and paging.
+ */
+class InMemoryIndexTest {
+
+    private InMemoryIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new InMemoryIndex();
+        index.addAll(Arrays.asList(
+                document("1", "Quick brown fox", "A fox jumps over the lazy dog", "Alice", "Science",
+                        "2024-01-10T00:00:00Z", "tutorial", "guide"),
+                document("2", "Lazy dogs sleeping all day", "Dogs and more dogs", "Bob", "Sports",
+                        "2024-03-05T12:00:00Z", "review"),
+                document("3", "Fox news", "Nothing about animals", "Alice", "Business",
+                        "2023-12-31T23:00:00Z", "guide"),
+                document("4", "Cats", "The fox hunts at night, a fox is quick", "Carol", "Science",
+                        null, "tutorial")));
+    }
+
+    /**
+     * Tests the analyzer.
+     * Expected behavior: should split on anything but letters and digits and lowercase the words.
+     */
+    @Test
+    void testAnalyze() {
+        assertEquals(Arrays.asList("how", "to", "master", "science", "in", "2025"),
+                InMemoryIndex.analyze("How to Master Science in 2025!"));
+        assertEquals(Arrays.asList("case", "study", "a"), InMemoryIndex.analyze("  case-study: a "));
+        assertTrue(InMemoryIndex.analyze(null).isEmpty());
+    }
+
+    /**
+     * Tests matching and counting.
+     * Expected behavior: should match documents containing any query word in the title or content.
+     */
+    @Test
+    void testMatchesAnyWordInTitleOrContent() {
+        assertEquals(Arrays.asList("1", "3", "4"), sortedIds(index.search(request("fox"))));
+        assertEquals(Arrays.asList("1", "2"), sortedIds(index.search(request("dog sleeping"))));
+        assertEquals(0, index.search(request("elephant")).getTotalHits());
+        assertEquals(0, index.search(request("!!")).getTotalHits());
+    }
+
+    /**
+     * Tests the BM25 score against a value computed by hand.
+     * Expected behavior: a one-word title match should score idf * tf / (tf + k1 * (1 - b + b * length / average)).
+     */
+    @Test
+    void testBm25Score() {
+        InMemoryIndex.Result result = index.search(request("cats"));
+
+        // "cats" occurs once, only in the one-word title of document 4; titles have 3, 5, 2 and 1 words
+        double idf = Math.log(1 + (4 - 1 + 0.5) / (1 + 0.5));
+        double norm = InMemoryIndex.K1 * (1 - InMemoryIndex.B + InMemoryIndex.B * 1 / (11 / 4.0));
+        assertEquals(1, result.getTotalHits());
+        assertEquals(idf * 1 / (1 + norm), result.getHits().get(0).getScore(), 1e-5);
+    }
+
+    /**
+     * Tests ranking by score.
+     * Expected behavior: a short title containing the word and repeated occurrences should rank first.
+     */
+    @Test
+    void testRanksByScore() {
+        List<InMemoryIndex.Hit> hits = index.search(request("fox")).getHits();
+
+        assertEquals(3, hits.size());
+        assertEquals("1", hits.get(0).getDocument().getId());  // In the title and the content
+        for (int i = 1; i < hits.size(); i++) {
+            assertTrue(hits.get(i - 1).getScore() >= hits.get(i).getScore());
+        }
+    }
+
+    /**
+     * Tests keyword and text filters.
+     * Expected behavior: keyword values should match exactly, collections any value, text filters all words.
+     */
+    @Test
+    void testFilters() {
+        SearchRequest byCategory = request("fox");
+        byCategory.setFilters(Collections.singletonMap("category", "Science"));
+        assertEquals(Arrays.asList("1", "4"), sortedIds(index.search(byCategory)));
+
+        SearchRequest byTags = request("fox dogs");
+        byTags.setFilters(Collections.singletonMap("tags", Arrays.asList("review", "guide")));
+        assertEquals(Arrays.asList("1", "2", "3"), sortedIds(index.search(byTags)));
+
+        SearchRequest combined = request("fox");
+        Map<String, Object> filters = new LinkedHashMap<>();
+        filters.put("author", "Alice");
+        filters.put("tags", "tutorial");
+        combined.setFilters(filters);
+        assertEquals(Collections.singletonList("1"), sortedIds(index.search(combined)));
+
+        SearchRequest byTitle = request("fox");
+        byTitle.setFilters(Collections.singletonMap("title", "BROWN quick"));
+        assertEquals(Collections.singletonList("1"), sortedIds(index.search(byTitle)));
+
+        SearchRequest caseSensitive = request("fox");
+        caseSensitive.setFilters(Collections.singletonMap("category", "science"));
+        assertEquals(0, index.search(caseSensitive).getTotalHits());
+    }
+
+    /**
+     * Tests filters on fields the index does not have.
+     * Expected behavior: should throw IllegalArgumentException naming the field.
+     */
+    @Test
+    void testUnsupportedFields() {
+        SearchRequest filter = request("fox");
+        filter.setFilters(Collections.singletonMap("metadata.region", "eu"));
+        assertTrue(assertThrows(IllegalArgumentException.class, () -> index.search(filter))
+                .getMessage().contains("metadata.region"));
+
+        SearchRequest sort = request("fox");
+        sort.setSort(Collections.singletonMap("title", "asc"));
+        assertThrows(IllegalArgumentException.class, () -> index.search(sort));
+
+        SearchRequest range = request("fox");
+        range.setDateFrom("2024-01-01");
+        range.setDateField("publishedDate");
+        assertThrows(IllegalArgumentException.class, () -> index.search(range));
+    }
+
+    /**
+     * Tests date ranges.
+     * Expected behavior: bounds should be inclusive, a date-only upper bound covering its whole day,
+     * and documents without the date should not match.
+     */
+    @Test
+    void testDateRange() {
+        SearchRequest from2024 = request("fox dogs");
+        from2024.setDateFrom("2024-01-01");
+        assertEquals(Arrays.asList("1", "2"), sortedIds(index.search(from2024)));
+
+        SearchRequest until = request("fox dogs");
+        until.setDateTo("2024-01-10");
+        assertEquals(Arrays.asList("1", "3"), sortedIds(index.search(until)));
+
+        SearchRequest instants = request("fox dogs");
+        instants.setDateFrom("2024-01-10T00:00:00Z");
+        instants.setDateTo("2024-03-05T11:59:59Z");
+        assertEquals(Collections.singletonList("1"), sortedIds(index.search(instants)));
+
+        SearchRequest invalid = request("fox");
+        invalid.setDateFrom("last week");
+        assertThrows(IllegalArgumentException.class, () -> index.search(invalid));
+    }
+
+    /**
+     * Tests sorting on a date and on a keyword.
+     * Expected behavior: should order by the field in the requested direction with missing values last.
+     */
+    @Test
+    void testSort() {
+        SearchRequest newestFirst = request("fox dogs");
+        newestFirst.setSort(Collections.singletonMap("createdDate", "desc"));
+        assertEquals(Arrays.asList("2", "1", "3", "4"), ids(index.search(newestFirst)));
+
+        SearchRequest oldestFirst = request("fox dogs");
+        oldestFirst.setSort(Collections.singletonMap("createdDate", "asc"));
+        assertEquals(Arrays.asList("3", "1", "2", "4"), ids(index.search(oldestFirst)));
+
+        SearchRequest byAuthor = request("fox dogs");
+        Map<String, String> sort = new LinkedHashMap<>();
+        sort.put("author", "asc");
+        sort.put("createdDate", "desc");
+        byAuthor.setSort(sort);
+        assertEquals(Arrays.asList("1", "3", "2", "4"), ids(index.search(byAuthor)));
+    }
+
+    /**
+     * Tests paging and the minimum score.
+     * Expected behavior: pages should partition the ranked hits, and hits below the minimum should not count.
+     */
+    @Test
+    void testPagingAndMinScore() {
+        List<String> all = ids(index.search(request("fox dogs")));
+
+        List<String> paged = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            SearchRequest request = request("fox dogs");
+            request.setSize(2);
+            request.setPage(page);
+            InMemoryIndex.Result result = index.search(request);
+            assertEquals(4, result.getTotalHits());
+            paged.addAll(ids(result));
+        }
+        assertEquals(all, paged);
+
+        InMemoryIndex.Result ranked = index.search(request("fox dogs"));
+        SearchRequest minScore = request("fox dogs");
+        minScore.setMinScore(ranked.getHits().get(1).getScore());
+        assertEquals(all.subList(0, 2), ids(index.search(minScore)));
+    }
+
+    /**
+     * Tests adding a document with an existing id.
+     * Expected behavior: should replace the old version, which no longer matches.
+     */
+    @Test
+    void testReplacesDocumentsWithSameId() {
+        index.addAll(Collections.singletonList(document("3", "Penguins", "Birds only", "Alice", "Business",
+                "2023-12-31T23:00:00Z", "guide")));
+
+        assertEquals(4, index.size());
+        assertEquals(Arrays.asList("1", "4"), sortedIds(index.search(request("fox"))));
+        assertEquals(Collections.singletonList("3"), sortedIds(index.search(request("penguins"))));
+    }
+
+    /**
+     * Tests the top hits on a larger generated corpus.
+     * Expected behavior: should equal a full sort of all matches by score.
+     */
+    @Test
+    void testTopHitsMatchFullSort() {
+        InMemoryIndex generated = new InMemoryIndex();
+        generated.addAll(SearchDataGenerator.generateRandomDocuments(2_000));
+
+        SearchRequest all = request("science guide research");
+        all.setSize(5_000);
+        InMemoryIndex.Result everything = generated.search(all);
+        SearchRequest top = request("science guide research");
+        top.setSize(25);
+        InMemoryIndex.Result best = generated.search(top);
+
+        assertEquals(everything.getTotalHits(), best.getTotalHits());
+        assertEquals(ids(everything).subList(0, 25), ids(best));
+    }
+
+    private static SearchRequest request(String query) {
+        SearchRequest request = new SearchRequest();
+        request.setQuery(query);
+        return request;
+    }
+
+    private static List<String> ids(InMemoryIndex.Result result) {
+        return result.getHits().stream().map(hit -> hit.getDocument().getId()).collect(Collectors.toList());
+    }
+
+    private static List<String> sortedIds(InMemoryIndex.Result result) {
+        return ids(result).stream().sorted().collect(Collectors.toList());
+    }
+
+    private static SearchableDocument document(String id, String title, String content, String author,
+                                               String category, String createdDate, String... tags) {
+        SearchableDocument document = new SearchableDocument();
+        document.setId(id);
+        document.setTitle(title);
+        document.setContent(content);
+        document.setAuthor(author);
+        document.setCategory(category);
+        document.setCreatedDate(createdDate != null ? Date.from(Instant.parse(createdDate)) : null);
+        document.setTags(tags);
+        return document;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.searchservice.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ClusterReadinessFilter class.
+ *
+ * These tests verify that requests are turned away until Elasticsearch is first ready, and let through
+ * for good afterwards.
+ */
+class ClusterReadinessFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    /**
+     * Tests a request while Elasticsearch is not ready.
+     *
+     * Expected behavior: should answer 503 with a Retry-After header and an error body, without calling the chain.
+     */
+    @Test
+    void testRejectsUntilReady() throws Exception {
+        ClusterReadinessFilter filter = new ClusterReadinessFilter(() -> Health.outOfService().build(), objectMapper, 5);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/search"), response, chain);
+
+        assertEquals(503, response.getStatus());
+        assertEquals("5", response.getHeader(HttpHeaders.RETRY_AFTER));
+        JsonNode body = objectMapper.readTree(response.getContentAsString());
+        assertEquals(503, body.get("status").asInt());
+        assertEquals("/api/search", body.get("path").asText());
+        assertNull(chain.getRequest(), "The request should not reach the controller");
+    }
+
+    /**
+     * Tests requests once Elasticsearch has been ready, including after it becomes unavailable again.
+     *
+     * Expected behavior: should pass every request on and stop consulting the indicator once it reported UP.
+     */
+    @Test
+    void testPassesThroughOnceReady() throws Exception {
+        AtomicReference<Health> health = new AtomicReference<>(Health.up().build());
+        AtomicInteger checks = new AtomicInteger();
+        ClusterReadinessFilter filter = new ClusterReadinessFilter(() -> {
+            checks.incrementAndGet();
+            return health.get();
+        }, objectMapper, 5);
+
+        MockFilterChain first = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/search"), new MockHttpServletResponse(), first);
+        health.set(Health.outOfService().build());
+        MockFilterChain second = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/search"), response, second);
+
+        assertNotNull(first.getRequest());
+        assertNotNull(second.getRequest());
+        assertEquals(200, response.getStatus());
+        assertEquals(1, checks.get());
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.searchservice.filter;
+
+import com.example.searchservice.filter.TokenBucketRateLimiter.Budget;
+import com.example.searchservice.filter.TokenBucketRateLimiter.Quota;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the RateLimitFilter class.
+ *
+ * These tests verify that requests over the quota get 429 with rate limit headers, that routes select the
+ * budget, that ADMIN principals get their own quotas and that anonymous requests are not limited.
+ */
+class RateLimitFilterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private TokenBucketRateLimiter limiter;
+    private RateLimitFilter filter;
+
+    /**
+     * Creates a filter allowing users 2 searches, 1 export and 1 batch request, and admins 5 searches.
+     */
+    @BeforeEach
+    void setUp() {
+        Map<String, Budget> routes = new LinkedHashMap<>();
+        routes.put("/api/search/raw", Budget.EXPORT);
+        routes.put("/api/search/**", Budget.SEARCH);
+        routes.put("/api/changes", Budget.EXPORT);
+        routes.put("POST /api/saved-searches", Budget.BATCH);
+        routes.put("/api/saved-searches/**", Budget.SEARCH);
+        limiter = new TokenBucketRateLimiter(60_000, () -> 0L);
+        filter = new RateLimitFilter(limiter, Quota.parse("search=1:2,export=1:1,batch=1:1"), Quota.parse("search=1:5"),
+                routes, objectMapper, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        limiter.close();
+    }
+
+    /**
+     * Tests searches of a user beyond the burst.
+     *
+     * Expected behavior: should pass the burst on with remaining counts, then answer 429 with Retry-After and an
+     * error body without calling the chain.
+     */
+    @Test
+    void testThrottlesOverQuota() throws Exception {
+        authenticate("user", "ROLE_USER");
+
+        MockHttpServletResponse first = perform("/api/search");
+        assertEquals(200, first.getStatus());
+        assertEquals("2", first.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals("1", first.getHeader(RateLimitFilter.REMAINING_HEADER));
+        perform("/api/search");
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse throttled = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/search"), throttled, chain);
+
+        assertEquals(429, throttled.getStatus());
+        assertEquals("1", throttled.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals("0", throttled.getHeader(RateLimitFilter.REMAINING_HEADER));
+        JsonNode body = objectMapper.readTree(throttled.getContentAsString());
+        assertEquals(429, body.get("status").asInt());
+        assertNull(chain.getRequest(), "The request should not reach the controller");
+        assertEquals(1.0, registry.get("api.rate.limit").tag("budget", "search").tag("result", "throttled")
+                .counter().count());
+    }
+
+    /**
+     * Tests an export after the user's searches are used up.
+     *
+     * Expected behavior: should charge the export budget, matched before the search pattern.
+     */
+    @Test
+    void testRoutesSelectBudget() throws Exception {
+        authenticate("user", "ROLE_USER");
+        perform("/api/search");
+        perform("/api/search");
+
+        assertEquals(200, perform("/api/search/raw").getStatus());
+        assertEquals(429, perform("/api/search/raw").getStatus());
+        assertNull(perform("/api/health").getHeader(RateLimitFilter.LIMIT_HEADER), "Unrouted paths are not limited");
+    }
+
+    /**
+     * Tests change feed and saved search requests.
+     *
+     * Expected behavior: should charge the change feed to the export budget, registering a saved search to the
+     * batch budget and listing, deleting and streaming saved searches to the search budget.
+     */
+    @Test
+    void testChangeFeedAndSavedSearchRoutes() throws Exception {
+        authenticate("user", "ROLE_USER");
+
+        assertEquals(200, perform("/api/changes").getStatus());
+        assertEquals(429, perform("/api/search/raw").getStatus());  // Shares the export bucket
+
+        assertEquals(200, perform("/api/saved-searches").getStatus());
+        assertEquals(429, perform("/api/saved-searches").getStatus());
+        MockHttpServletResponse list = perform("GET", "/api/saved-searches");
+        assertEquals(200, list.getStatus());
+        assertEquals("2", list.getHeader(RateLimitFilter.LIMIT_HEADER));
+        assertEquals(200, perform("DELETE", "/api/saved-searches/a1").getStatus());
+        assertEquals(429, perform("GET", "/api/saved-searches/stream").getStatus());  // Shares the search bucket
+    }
+
+    /**
+     * Tests admin requests.
+     *
+     * Expected behavior: should apply the admin quotas and leave budgets without an admin quota unlimited.
+     */
+    @Test
+    void testAdminQuotas() throws Exception {
+        authenticate("admin", "ROLE_USER", "ROLE_ADMIN");
+
+        assertEquals("5", perform("/api/search").getHeader(RateLimitFilter.LIMIT_HEADER));
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform("/api/search/raw").getStatus());
+        }
+    }
+
+    /**
+     * Tests anonymous requests to a limited path.
+     *
+     * Expected behavior: should pass them on without using a bucket.
+     */
+    @Test
+    void testAnonymousRequestsAreNotLimited() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new AnonymousAuthenticationToken("key", "anonymousUser",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, perform("/api/search").getStatus());
+        }
+        assertEquals(0, limiter.size());
+    }
+
+    private void authenticate(String name, String... roles) {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(name, null,
+                AuthorityUtils.createAuthorityList(roles)));
+    }
+
+    private MockHttpServletResponse perform(String path) throws Exception {
+        return perform("POST", path);
+    }
+
+    private MockHttpServletResponse perform(String method, String path) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, path), response, new MockFilterChain());
+        return response;
+    }
+}
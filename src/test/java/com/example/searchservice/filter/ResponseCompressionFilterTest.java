@@ -0,0 +1,258 @@
+package com.example.searchservice.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for the ResponseCompressionFilter class.
+ *
+ * These tests verify content negotiation, the size threshold, content type filtering, that bodies are
+ * compressed as they are written, and that compression metrics are recorded.
+ */
+class ResponseCompressionFilterTest {
+
+    private static final String LARGE_BODY = "{\"items\":[" + String.join(",", Collections.nCopies(200, "\"document\"")) + "]}";
+
+    private SimpleMeterRegistry registry;
+    private ResponseCompressionFilter filter;
+
+    /**
+     * Creates a filter compressing JSON responses of at least 512 bytes.
+     */
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        filter = new ResponseCompressionFilter(512, Arrays.asList(MediaType.APPLICATION_JSON), registry);
+    }
+
+    /**
+     * Tests a large JSON response to a client accepting gzip.
+     *
+     * Expected behavior: should gzip the body, set Content-Encoding and record ratio, CPU time and byte counts.
+     */
+    @Test
+    void testCompressesLargeJsonResponse() throws Exception {
+        MockHttpServletResponse response = execute("gzip, deflate", MediaType.APPLICATION_JSON_VALUE, LARGE_BODY);
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(HttpHeaders.ACCEPT_ENCODING, response.getHeader(HttpHeaders.VARY));
+        assertTrue(response.getContentAsByteArray().length < LARGE_BODY.length());
+        assertEquals(LARGE_BODY, gunzip(response.getContentAsByteArray()));
+
+        assertEquals(1, registry.get("http.server.compression.ratio").summary().count());
+        assertTrue(registry.get("http.server.compression.ratio").summary().max() < 1.0);
+        assertEquals(1, registry.get("http.server.compression.cpu").timer().count());
+        assertEquals(LARGE_BODY.length(), registry.get("http.server.compression.bytes").tag("stage", "original").counter().count());
+    }
+
+    /**
+     * Tests a response below the size threshold.
+     *
+     * Expected behavior: should send the body uncompressed and record no metrics.
+     */
+    @Test
+    void testSkipsSmallResponse() throws Exception {
+        MockHttpServletResponse response = execute("gzip", MediaType.APPLICATION_JSON_VALUE, "{\"items\":[]}");
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"items\":[]}", response.getContentAsString());
+        assertEquals(0, registry.get("http.server.compression.ratio").summary().count());
+    }
+
+    /**
+     * Tests clients that do not accept gzip, including an explicit q=0.
+     *
+     * Expected behavior: should send the body uncompressed.
+     */
+    @Test
+    void testSkipsClientsNotAcceptingGzip() throws Exception {
+        assertNull(execute(null, MediaType.APPLICATION_JSON_VALUE, LARGE_BODY).getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(execute("gzip;q=0", MediaType.APPLICATION_JSON_VALUE, LARGE_BODY).getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE_BODY, execute("br", MediaType.APPLICATION_JSON_VALUE, LARGE_BODY).getContentAsString());
+    }
+
+    /**
+     * Tests a large response of a content type that is not configured for compression.
+     *
+     * Expected behavior: should send the body uncompressed.
+     */
+    @Test
+    void testSkipsOtherContentTypes() throws Exception {
+        MockHttpServletResponse response = execute("gzip", MediaType.IMAGE_PNG_VALUE, LARGE_BODY);
+
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE_BODY, response.getContentAsString());
+    }
+
+    /**
+     * Tests a large response written in two parts with a flush in between.
+     *
+     * Expected behavior: should send the compressed first part on the flush, before the body is complete,
+     * and produce a single gzip stream of the whole body without a Content-Length.
+     */
+    @Test
+    void testCompressesAsBodyIsWritten() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/changes");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        int[] sentOnFlush = new int[1];
+
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                resp.setContentLength(2 * LARGE_BODY.length());
+                resp.getOutputStream().write(LARGE_BODY.getBytes(StandardCharsets.UTF_8));
+                resp.getOutputStream().flush();
+                sentOnFlush[0] = response.getContentAsByteArray().length;
+                resp.getOutputStream().write(LARGE_BODY.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+
+        assertTrue(sentOnFlush[0] > 0, "The first part should be sent on the flush");
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertNull(response.getHeader(HttpHeaders.CONTENT_LENGTH));
+        assertEquals(LARGE_BODY + LARGE_BODY, gunzip(response.getContentAsByteArray()));
+        assertEquals(2.0 * LARGE_BODY.length(), registry.get("http.server.compression.bytes").tag("stage", "original").counter().count());
+    }
+
+    /**
+     * Tests a compressible response flushed before reaching the size threshold, as event streams are.
+     *
+     * Expected behavior: should send the flushed part right away and the whole body uncompressed.
+     */
+    @Test
+    void testPassesThroughBodyFlushedBeforeThreshold() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/search/raw");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String[] sentOnFlush = new String[1];
+
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                resp.getWriter().write("{\"hits\":[");
+                resp.flushBuffer();
+                sentOnFlush[0] = response.getContentAsString();
+                resp.getWriter().write(LARGE_BODY + "]}");
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+
+        assertEquals("{\"hits\":[", sentOnFlush[0]);
+        assertNull(response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"hits\":[" + LARGE_BODY + "]}", response.getContentAsString());
+        assertEquals(0, registry.get("http.server.compression.ratio").summary().count());
+    }
+
+    /**
+     * Tests a servlet checking readiness and registering a write listener on the response stream.
+     *
+     * Expected behavior: should report the readiness of the underlying stream and register the listener on it.
+     */
+    @Test
+    void testDelegatesNonBlockingWritesToResponseStream() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/changes");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        WriteListener[] registered = new WriteListener[1];
+        ServletOutputStream rawStream = new ServletOutputStream() {
+            @Override
+            public boolean isReady() {
+                return false;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                registered[0] = writeListener;
+            }
+
+            @Override
+            public void write(int b) {
+            }
+        };
+        HttpServletResponse response = new HttpServletResponseWrapper(new MockHttpServletResponse()) {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return rawStream;
+            }
+        };
+        WriteListener listener = mock(WriteListener.class);
+        boolean[] ready = {true};
+
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                ready[0] = resp.getOutputStream().isReady();
+                resp.getOutputStream().setWriteListener(listener);
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+
+        assertFalse(ready[0]);
+        assertSame(listener, registered[0]);
+    }
+
+    /**
+     * Tests a large NDJSON response with the default compressible content types.
+     *
+     * Expected behavior: should gzip the body, as change feed pages are flushed whole so they can be compressed.
+     */
+    @Test
+    void testCompressesNdjsonWithDefaultTypes() throws Exception {
+        filter = new ResponseCompressionFilter(512,
+                MediaType.parseMediaTypes("application/json,application/x-ndjson,text/plain"), registry);
+
+        MockHttpServletResponse response = execute("gzip", "application/x-ndjson", LARGE_BODY);
+
+        assertEquals("gzip", response.getHeader(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE_BODY, gunzip(response.getContentAsByteArray()));
+    }
+
+    private MockHttpServletResponse execute(String acceptEncoding, String contentType, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/search");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        HttpServlet servlet = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                resp.setContentType(contentType);
+                resp.getOutputStream().write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        };
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+        return response;
+    }
+
+    private static String gunzip(byte[] compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
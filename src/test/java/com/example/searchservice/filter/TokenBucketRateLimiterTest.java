@@ -0,0 +1,165 @@
+package com.example.searchservice.filter;
+
+import com.example.searchservice.filter.TokenBucketRateLimiter.Budget;
+import com.example.searchservice.filter.TokenBucketRateLimiter.Quota;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the TokenBucketRateLimiter class.
+ *
+ * These tests verify bursts and refill, that principals and budgets are limited independently, that concurrent
+ * callers never take more tokens than the bucket holds, and that idle principals are evicted.
+ */
+class TokenBucketRateLimiterTest {
+
+    private static final Quota TEN_PER_SECOND = new Quota(10, 5);
+
+    private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+    private TokenBucketRateLimiter limiter;
+
+    /**
+     * Creates a limiter with a one minute idle timeout on a manual clock.
+     */
+    @BeforeEach
+    void setUp() {
+        limiter = new TokenBucketRateLimiter(60_000, clock::get);
+    }
+
+    @AfterEach
+    void tearDown() {
+        limiter.close();
+    }
+
+    /**
+     * Tests a burst of requests from a new principal.
+     *
+     * Expected behavior: should admit the burst size with decreasing remaining tokens, then report the wait.
+     */
+    @Test
+    void testBurstThenReject() {
+        for (int remaining = 4; remaining >= 0; remaining--) {
+            assertEquals(remaining, limiter.tryAcquire("user", Budget.SEARCH, TEN_PER_SECOND));
+        }
+
+        long result = limiter.tryAcquire("user", Budget.SEARCH, TEN_PER_SECOND);
+        assertFalse(TokenBucketRateLimiter.isAdmitted(result));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), TokenBucketRateLimiter.retryAfterNanos(result));
+    }
+
+    /**
+     * Tests requests after the bucket was emptied and time passed.
+     *
+     * Expected behavior: should add one token per interval and never more than the burst size.
+     */
+    @Test
+    void testRefill() {
+        drain("user", Budget.SEARCH);
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(0, limiter.tryAcquire("user", Budget.SEARCH, TEN_PER_SECOND));
+        assertFalse(TokenBucketRateLimiter.isAdmitted(limiter.tryAcquire("user", Budget.SEARCH, TEN_PER_SECOND)));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        assertEquals(4, limiter.tryAcquire("user", Budget.SEARCH, TEN_PER_SECOND), "Refill should stop at the burst size");
+    }
+
+    /**
+     * Tests an empty bucket's effect on other budgets and principals.
+     *
+     * Expected behavior: should still admit the same principal's exports and other principals' searches.
+     */
+    @Test
+    void testBudgetsAndPrincipalsAreIndependent() {
+        drain("user", Budget.SEARCH);
+
+        assertTrue(TokenBucketRateLimiter.isAdmitted(limiter.tryAcquire("user", Budget.EXPORT, TEN_PER_SECOND)));
+        assertTrue(TokenBucketRateLimiter.isAdmitted(limiter.tryAcquire("other", Budget.SEARCH, TEN_PER_SECOND)));
+    }
+
+    /**
+     * Tests many threads taking tokens from one bucket at the same instant.
+     *
+     * Expected behavior: should admit exactly the burst size.
+     */
+    @Test
+    void testConcurrentCallersShareBucket() throws Exception {
+        Quota quota = new Quota(1, 1000);
+        AtomicInteger admitted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            for (int thread = 0; thread < 8; thread++) {
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    for (int i = 0; i < 500; i++) {
+                        if (TokenBucketRateLimiter.isAdmitted(limiter.tryAcquire("user", Budget.SEARCH, quota))) {
+                            admitted.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1000, admitted.get());
+    }
+
+    /**
+     * Tests eviction of principals whose buckets refilled a while ago.
+     *
+     * Expected behavior: should keep recently limited principals and drop idle ones.
+     */
+    @Test
+    void testEvictIdle() {
+        limiter.tryAcquire("idle", Budget.SEARCH, TEN_PER_SECOND);
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(61));
+        limiter.tryAcquire("active", Budget.SEARCH, TEN_PER_SECOND);
+
+        limiter.evictIdle();
+
+        assertEquals(1, limiter.size());
+        assertEquals(4, limiter.tryAcquire("idle", Budget.SEARCH, TEN_PER_SECOND), "An evicted principal starts full");
+    }
+
+    /**
+     * Tests parsing of quota settings.
+     *
+     * Expected behavior: should read rate and burst per budget and reject malformed entries.
+     */
+    @Test
+    void testParseQuotas() {
+        Map<Budget, Quota> quotas = Quota.parse("search=20:40, export=0.5:2");
+
+        assertEquals(40, quotas.get(Budget.SEARCH).getBurst());
+        assertEquals(2, quotas.get(Budget.EXPORT).getBurst());
+        assertFalse(quotas.containsKey(Budget.BATCH), "Unlisted budgets should not be limited");
+        assertThrows(IllegalArgumentException.class, () -> Quota.parse("search=20"));
+        assertThrows(IllegalArgumentException.class, () -> Quota.parse("search=0:1"));
+    }
+
+    private void drain(String principal, Budget budget) {
+        while (TokenBucketRateLimiter.isAdmitted(limiter.tryAcquire(principal, budget, TEN_PER_SECOND))) {
+            // Take every token
+        }
+    }
+}
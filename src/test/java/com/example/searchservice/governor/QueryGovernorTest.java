@@ -0,0 +1,209 @@
+package com.example.searchservice.governor;
+
+import com.example.searchservice.exception.QueryRejectedException;
+import com.example.searchservice.model.SearchRequest;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the QueryGovernor class.
+ *
+ * These tests verify that searches within budget pass unchanged, that oversized pages are clamped, that deep
+ * pages and searches with too many terms, clauses or too high an estimated cost are rejected per field, and that
+ * ADMIN principals get their own budget.
+ */
+class QueryGovernorTest {
+
+    private static final Authentication USER = authentication("user", "ROLE_USER");
+    private static final Authentication ADMIN = authentication("admin", "ROLE_ADMIN");
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private QueryGovernor governor;
+
+    /**
+     * Creates a governor allowing users pages of 50 up to hit 1000 and admins pages of 500 up to hit 5000.
+     */
+    @BeforeEach
+    void setUp() {
+        governor = new QueryGovernor("size=50,window=1000,terms=4,clauses=10,cost=5000",
+                "size=500,window=5000,terms=16,clauses=40,cost=50000", registry);
+        ReflectionTestUtils.setField(governor, "enabled", true);
+    }
+
+    /**
+     * Tests a small search.
+     *
+     * Expected behavior: should return no rewrites, leave the request unchanged and count it as accepted.
+     */
+    @Test
+    void testAcceptsSearchWithinBudget() {
+        SearchRequest searchRequest = searchRequest("elastic search", 2, 20);
+
+        assertTrue(governor.review(searchRequest, USER).isEmpty());
+        assertEquals(2, searchRequest.getPage());
+        assertEquals(20, searchRequest.getSize());
+        assertEquals(1.0, count("accepted"));
+    }
+
+    /**
+     * Tests pages larger than the budget's size.
+     *
+     * Expected behavior: should clamp the size and move the page so the first hit stays the same, and reject the
+     * search when the offset is not a multiple of the allowed size.
+     */
+    @Test
+    void testClampsOversizedPage() {
+        SearchRequest searchRequest = searchRequest("elastic", 1, 100);
+
+        List<String> rewrites = governor.review(searchRequest, USER);
+
+        assertEquals(Collections.singletonList("size clamped from 100 to 50"), rewrites);
+        assertEquals(2, searchRequest.getPage());
+        assertEquals(50, searchRequest.getSize());
+        assertEquals(1.0, count("rewritten"));
+
+        QueryRejectedException rejected = assertThrows(QueryRejectedException.class,
+                () -> governor.review(searchRequest("elastic", 1, 75), USER));
+        assertTrue(rejected.getViolations().get("size").contains("exceeds the limit of 50"));
+    }
+
+    /**
+     * Tests a search paging beyond the window.
+     *
+     * Expected behavior: should reject it with a message on the page field pointing at filters, and count it.
+     */
+    @Test
+    void testRejectsDeepPage() {
+        QueryRejectedException rejected = assertThrows(QueryRejectedException.class,
+                () -> governor.review(searchRequest("elastic", 20, 50), USER));
+
+        assertEquals(Collections.singleton("page"), rejected.getViolations().keySet());
+        assertTrue(rejected.getViolations().get("page").contains("reaches hit 1050, beyond the deepest 1000"));
+        assertTrue(rejected.getViolations().get("page").contains("narrow the search with filters"));
+        assertEquals(1.0, count("rejected"));
+    }
+
+    /**
+     * Tests searches with too many query terms and filter values.
+     *
+     * Expected behavior: should count runs of letters and digits as terms, each filter value as a clause, and
+     * report both limits in one rejection.
+     */
+    @Test
+    void testRejectsTooManyTermsAndClauses() {
+        SearchRequest searchRequest = searchRequest("the quick, brown fox-jumps", 0, 10);
+        Map<String, Object> filters = new HashMap<>();
+        filters.put("category", Arrays.asList("news", "blog", "docs"));
+        filters.put("author", "jane");
+        searchRequest.setFilters(filters);
+
+        QueryRejectedException rejected = assertThrows(QueryRejectedException.class,
+                () -> governor.review(searchRequest, USER));
+
+        assertTrue(rejected.getViolations().get("query").contains("5 terms"));
+        assertTrue(rejected.getViolations().get("filters").contains("14 query and filter clauses"));
+        assertEquals(5, QueryGovernor.countTerms("the quick, brown fox-jumps"));
+        assertEquals(0, QueryGovernor.countTerms("  -- "));
+    }
+
+    /**
+     * Tests a search within every single limit whose combined cost is too high.
+     *
+     * Expected behavior: should estimate window + 10 * size + 100 * clauses and reject it on the cost.
+     */
+    @Test
+    void testRejectsOverCost() {
+        governor = new QueryGovernor("size=50,window=1000,terms=4,clauses=10,cost=2000",
+                "size=500,window=5000,terms=16,clauses=40,cost=50000", registry);
+        ReflectionTestUtils.setField(governor, "enabled", true);
+        SearchRequest searchRequest = searchRequest("quick brown fox jumps", 5, 50);
+        searchRequest.setDateFrom("2024-01-01");  // Not applied by the search, so not charged
+
+        assertEquals(300 + 500 + 800, governor.estimateCost(searchRequest));
+        assertTrue(governor.review(searchRequest, USER).isEmpty());
+
+        searchRequest.setPage(19);
+        QueryRejectedException rejected = assertThrows(QueryRejectedException.class,
+                () -> governor.review(searchRequest, USER));
+        assertEquals(Collections.singleton("query"), rejected.getViolations().keySet());
+        assertTrue(rejected.getViolations().get("query").contains("Estimated cost 2300 exceeds the limit of 2000"));
+    }
+
+    /**
+     * Tests a search over the user budget from an ADMIN principal.
+     *
+     * Expected behavior: should accept it under the admin budget.
+     */
+    @Test
+    void testAdminBudget() {
+        SearchRequest searchRequest = searchRequest("elastic search", 4, 400);
+
+        assertTrue(governor.review(searchRequest, ADMIN).isEmpty());
+        assertEquals(400, searchRequest.getSize());
+        assertThrows(QueryRejectedException.class, () -> governor.review(searchRequest("elastic search", 4, 400), USER));
+    }
+
+    /**
+     * Tests a disabled governor.
+     *
+     * Expected behavior: should pass any search through unchanged.
+     */
+    @Test
+    void testDisabled() {
+        ReflectionTestUtils.setField(governor, "enabled", false);
+        SearchRequest searchRequest = searchRequest("elastic", 100, 1000);
+
+        assertTrue(governor.review(searchRequest, null).isEmpty());
+        assertEquals(1000, searchRequest.getSize());
+    }
+
+    /**
+     * Tests parsing of budgets.
+     *
+     * Expected behavior: should read every limit and refuse budgets with a missing, unknown or invalid limit.
+     */
+    @Test
+    void testParseBudget() {
+        QueryBudget budget = QueryBudget.parse("size=10, window=100,terms=3,clauses=7,cost=9000000000");
+
+        assertEquals(10, budget.getMaxSize());
+        assertEquals(100, budget.getMaxWindow());
+        assertEquals(3, budget.getMaxTerms());
+        assertEquals(7, budget.getMaxClauses());
+        assertEquals(9_000_000_000L, budget.getMaxCost());
+        assertThrows(IllegalArgumentException.class, () -> QueryBudget.parse("size=10,window=100,terms=3,clauses=7"));
+        assertThrows(IllegalArgumentException.class,
+                () -> QueryBudget.parse("size=10,window=100,terms=3,clauses=7,cost=1,depth=2"));
+        assertThrows(IllegalArgumentException.class, () -> QueryBudget.parse("size=0,window=100,terms=3,clauses=7,cost=1"));
+    }
+
+    private double count(String outcome) {
+        return registry.get("search.governor").tag("outcome", outcome).counter().count();
+    }
+
+    private static SearchRequest searchRequest(String query, int page, int size) {
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery(query);
+        searchRequest.setPage(page);
+        searchRequest.setSize(size);
+        return searchRequest;
+    }
+
+    private static Authentication authentication(String name, String role) {
+        return new UsernamePasswordAuthenticationToken(name, "n/a", AuthorityUtils.createAuthorityList(role));
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.searchservice.health;
+
+import org.apache.http.HttpVersion;
+import org.apache.http.entity.ContentType;
+import org.apache.http.message.BasicStatusLine;
+import org.apache.http.nio.entity.NStringEntity;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ElasticsearchHealthProbe class.
+ *
+ * These tests run single probes against a mocked low-level client and check the requests sent and the result kept.
+ */
+class ElasticsearchHealthProbeTest {
+
+    private RestClient restClient;
+    private ElasticsearchHealthProbe probe;
+
+    /**
+     * Creates a probe for the "documents" index that is not started, so each test runs probes itself.
+     */
+    @BeforeEach
+    void setUp() {
+        restClient = mock(RestClient.class);
+        probe = new ElasticsearchHealthProbe(restClient, "documents", 500);
+    }
+
+    @AfterEach
+    void tearDown() {
+        probe.close();
+    }
+
+    /**
+     * Tests a probe against a healthy cluster.
+     *
+     * Expected behavior: should check cluster health, the index and run a bounded canary search,
+     * then keep a ready result.
+     */
+    @Test
+    void testHealthyCluster() throws IOException {
+        stub("GET", 200, "{\"status\":\"yellow\"}");
+        stub("HEAD", 200, null);
+        stub("POST", 200, "{\"took\":1}");
+
+        assertNull(probe.getLastResult());
+        ElasticsearchHealthProbe.Result result = probe.probe();
+
+        assertSame(result, probe.getLastResult());
+        assertTrue(result.isReady());
+        assertEquals("yellow", result.getClusterStatus());
+        assertTrue(result.isIndexExists());
+        assertTrue(result.getCanaryMillis() >= 0);
+        assertNull(result.getError());
+
+        ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+        verify(restClient, times(3)).performRequest(captor.capture());
+        List<Request> requests = captor.getAllValues();
+        assertEquals("/_cluster/health", requests.get(0).getEndpoint());
+        assertEquals("/documents", requests.get(1).getEndpoint());
+        assertEquals("/documents/_search", requests.get(2).getEndpoint());
+        String canary = EntityUtils.toString(requests.get(2).getEntity());
+        assertTrue(canary.contains("\"terminate_after\":1"));
+        assertTrue(canary.contains("\"timeout\":\"500ms\""));
+        assertEquals(500, requests.get(2).getOptions().getRequestConfig().getSocketTimeout());
+    }
+
+    /**
+     * Tests a probe when the index is missing.
+     *
+     * Expected behavior: should skip the canary search and keep a result that is not ready.
+     */
+    @Test
+    void testMissingIndex() throws IOException {
+        stub("GET", 200, "{\"status\":\"green\"}");
+        stub("HEAD", 404, null);
+
+        ElasticsearchHealthProbe.Result result = probe.probe();
+
+        assertFalse(result.isReady());
+        assertFalse(result.isIndexExists());
+        assertEquals(-1, result.getCanaryMillis());
+        verify(restClient, never()).performRequest(argThat(request -> "POST".equals(request.getMethod())));
+    }
+
+    /**
+     * Tests a probe when Elasticsearch cannot be reached.
+     *
+     * Expected behavior: should keep a result carrying the error instead of throwing.
+     */
+    @Test
+    void testUnreachableCluster() throws IOException {
+        when(restClient.performRequest(any(Request.class))).thenThrow(new ConnectException("Connection refused"));
+
+        ElasticsearchHealthProbe.Result result = probe.probe();
+
+        assertFalse(result.isReady());
+        assertNull(result.getClusterStatus());
+        assertEquals("Connection refused", result.getError());
+        assertSame(result, probe.getLastResult());
+    }
+
+    /**
+     * Tests a red cluster.
+     *
+     * Expected behavior: should not be ready even though the index exists and the canary search succeeds.
+     */
+    @Test
+    void testRedCluster() throws IOException {
+        stub("GET", 200, "{\"status\":\"red\"}");
+        stub("HEAD", 200, null);
+        stub("POST", 200, "{\"took\":1}");
+
+        assertFalse(probe.probe().isReady());
+    }
+
+    private void stub(String method, int status, String json) throws IOException {
+        Response response = mock(Response.class);
+        when(response.getStatusLine()).thenReturn(new BasicStatusLine(HttpVersion.HTTP_1_1, status, ""));
+        if (json != null) {
+            when(response.getEntity()).thenReturn(new NStringEntity(json, ContentType.APPLICATION_JSON));
+        }
+        when(restClient.performRequest(argThat(request -> request != null && method.equals(request.getMethod()))))
+                .thenReturn(response);
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.searchservice.health;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ElasticsearchLivenessIndicator class.
+ *
+ * These tests verify that liveness depends on the probe making progress, not on Elasticsearch being available.
+ */
+class ElasticsearchLivenessIndicatorTest {
+
+    private final ElasticsearchHealthProbe probe = mock(ElasticsearchHealthProbe.class);
+    private final ElasticsearchLivenessIndicator indicator = new ElasticsearchLivenessIndicator(probe, 30_000);
+
+    /**
+     * Tests liveness while probes complete, including failed ones, and shortly after startup.
+     *
+     * Expected behavior: should report UP.
+     */
+    @Test
+    void testUpWhileProbing() {
+        when(probe.getStartedAtMillis()).thenReturn(System.currentTimeMillis());
+        assertEquals(Status.UP, indicator.health().getStatus());
+
+        when(probe.getLastResult()).thenReturn(new ElasticsearchHealthProbe.Result(
+                System.currentTimeMillis(), null, false, -1, "Connection refused", 2000));
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+
+    /**
+     * Tests liveness when no probe has completed for longer than the stale limit.
+     *
+     * Expected behavior: should report DOWN.
+     */
+    @Test
+    void testDownWhenProbeIsStuck() {
+        when(probe.getStartedAtMillis()).thenReturn(System.currentTimeMillis() - 60_000);
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+
+        when(probe.getLastResult()).thenReturn(new ElasticsearchHealthProbe.Result(
+                System.currentTimeMillis() - 60_000, "green", true, 1, null, 3));
+        assertEquals(Status.DOWN, indicator.health().getStatus());
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.searchservice.health;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ElasticsearchReadinessIndicator class.
+ *
+ * These tests verify that readiness follows the probe's last result and its age.
+ */
+class ElasticsearchReadinessIndicatorTest {
+
+    private final ElasticsearchHealthProbe probe = mock(ElasticsearchHealthProbe.class);
+    private final ElasticsearchReadinessIndicator indicator = new ElasticsearchReadinessIndicator(probe, 30_000);
+
+    /**
+     * Tests readiness before the first probe has completed.
+     *
+     * Expected behavior: should report OUT_OF_SERVICE.
+     */
+    @Test
+    void testNotProbedYet() {
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+    }
+
+    /**
+     * Tests readiness after a recent successful probe.
+     *
+     * Expected behavior: should report UP with the probe's findings as details.
+     */
+    @Test
+    void testReady() {
+        when(probe.getLastResult()).thenReturn(result(System.currentTimeMillis(), "green", null));
+
+        Health health = indicator.health();
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals("green", health.getDetails().get("clusterStatus"));
+        assertEquals(4L, health.getDetails().get("canaryMillis"));
+    }
+
+    /**
+     * Tests readiness after a failed probe and after a successful but old one.
+     *
+     * Expected behavior: should report OUT_OF_SERVICE, with the error or the reason as detail.
+     */
+    @Test
+    void testNotReady() {
+        when(probe.getLastResult()).thenReturn(result(System.currentTimeMillis(), null, "Connection refused"));
+        Health failed = indicator.health();
+        assertEquals(Status.OUT_OF_SERVICE, failed.getStatus());
+        assertEquals("Connection refused", failed.getDetails().get("error"));
+
+        when(probe.getLastResult()).thenReturn(result(System.currentTimeMillis() - 60_000, "green", null));
+        Health stale = indicator.health();
+        assertEquals(Status.OUT_OF_SERVICE, stale.getStatus());
+        assertTrue(stale.getDetails().containsKey("reason"));
+    }
+
+    private static ElasticsearchHealthProbe.Result result(long checkedAt, String clusterStatus, String error) {
+        return new ElasticsearchHealthProbe.Result(checkedAt, clusterStatus, error == null, error == null ? 4 : -1, error, 6);
+    }
+}
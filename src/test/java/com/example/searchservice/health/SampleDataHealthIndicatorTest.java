@@ -0,0 +1,57 @@
+package com.example.searchservice.health;
+
+import com.example.searchservice.util.SearchDataInitializer;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the SampleDataHealthIndicator class.
+ *
+ * These tests verify that the sample data load holds readiness back only when configured to.
+ */
+class SampleDataHealthIndicatorTest {
+
+    private final SearchDataInitializer initializer = mock(SearchDataInitializer.class);
+
+    /**
+     * Tests the indicator while loading without readiness gating.
+     *
+     * Expected behavior: should report UP with the progress as details.
+     */
+    @Test
+    void testLoadingWithoutGate() {
+        when(initializer.getState()).thenReturn(SearchDataInitializer.State.LOADING);
+        when(initializer.getIndexedDocuments()).thenReturn(300L);
+        when(initializer.getDocumentCount()).thenReturn(1000);
+
+        Health health = new SampleDataHealthIndicator(initializer, false).health();
+
+        assertEquals(Status.UP, health.getStatus());
+        assertEquals("LOADING", health.getDetails().get("state"));
+        assertEquals(300L, health.getDetails().get("indexed"));
+        assertEquals(1000, health.getDetails().get("target"));
+    }
+
+    /**
+     * Tests the indicator with readiness gating in each state.
+     *
+     * Expected behavior: should report OUT_OF_SERVICE until loading has finished, whether or not it succeeded.
+     */
+    @Test
+    void testGatedReadiness() {
+        SampleDataHealthIndicator indicator = new SampleDataHealthIndicator(initializer, true);
+
+        when(initializer.getState()).thenReturn(SearchDataInitializer.State.PENDING);
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+        when(initializer.getState()).thenReturn(SearchDataInitializer.State.LOADING);
+        assertEquals(Status.OUT_OF_SERVICE, indicator.health().getStatus());
+        when(initializer.getState()).thenReturn(SearchDataInitializer.State.COMPLETED);
+        assertEquals(Status.UP, indicator.health().getStatus());
+        when(initializer.getState()).thenReturn(SearchDataInitializer.State.FAILED);
+        assertEquals(Status.UP, indicator.health().getStatus());
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.searchservice.metrics;
+
+import com.example.searchservice.model.SearchRequest;
+import com.example.searchservice.model.SearchResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SearchMetricsInterceptor together with SerializationTimingAdvice.
+ *
+ * These tests verify that serialization is timed from the advice to the end of the handler,
+ * and only for search responses.
+ */
+class SearchMetricsInterceptorTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SearchMetricsInterceptor interceptor = new SearchMetricsInterceptor(new SearchMetrics(registry));
+    private final SerializationTimingAdvice advice = new SerializationTimingAdvice();
+
+    /**
+     * Tests a search response written for a request carrying its search request.
+     *
+     * Expected behavior: should record one serialization timing.
+     */
+    @Test
+    void testRecordsSerializationOfSearchResponse() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/search");
+        request.setAttribute(SearchMetrics.SEARCH_REQUEST_ATTRIBUTE, new SearchRequest());
+
+        writeBody(request, new SearchResponse<>(Collections.emptyList(), 0, 0, 10, null, 1));
+        interceptor.postHandle(request, new MockHttpServletResponse(), new Object(), null);
+
+        assertEquals(1, registry.get(SearchMetrics.STAGE_TIMER).tag("stage", "serialization").timer().count());
+    }
+
+    /**
+     * Tests a response body other than a search response, such as an error.
+     *
+     * Expected behavior: should record nothing.
+     */
+    @Test
+    void testIgnoresOtherBodies() {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/search");
+        request.setAttribute(SearchMetrics.SEARCH_REQUEST_ATTRIBUTE, new SearchRequest());
+
+        writeBody(request, "error");
+        interceptor.postHandle(request, new MockHttpServletResponse(), new Object(), null);
+
+        assertNull(registry.find(SearchMetrics.STAGE_TIMER).timer());
+    }
+
+    private void writeBody(MockHttpServletRequest request, Object body) {
+        advice.beforeBodyWrite(body, null, MediaType.APPLICATION_JSON, null,
+                new ServletServerHttpRequest(request), new ServletServerHttpResponse(new MockHttpServletResponse()));
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.searchservice.metrics;
+
+import com.example.searchservice.model.SearchRequest;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SearchMetrics class.
+ *
+ * These tests verify the tags of the stage timers, that timers are reused, and the shape and page size buckets.
+ */
+class SearchMetricsTest {
+
+    private SimpleMeterRegistry registry;
+    private SearchMetrics searchMetrics;
+
+    /**
+     * Creates metrics backed by a simple registry.
+     */
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        searchMetrics = new SearchMetrics(registry);
+    }
+
+    /**
+     * Tests recording the same stage twice for a filtered request.
+     *
+     * Expected behavior: should record both durations on one timer tagged with stage, shape and page size bucket.
+     */
+    @Test
+    void testRecordsStageWithTags() {
+        SearchRequest request = new SearchRequest();
+        request.setFilters(Collections.singletonMap("category", "Technology"));
+        request.setSize(25);
+
+        searchMetrics.record(SearchMetrics.Stage.HIT_MAPPING, request, 1_000_000);
+        searchMetrics.record(SearchMetrics.Stage.HIT_MAPPING, request, 3_000_000);
+
+        Timer timer = registry.get(SearchMetrics.STAGE_TIMER)
+                .tag("stage", "hit_mapping").tag("shape", "text_filtered").tag("page_size", "le_50").timer();
+        assertEquals(2, timer.count());
+        assertEquals(4.0, timer.totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, registry.find(SearchMetrics.STAGE_TIMER).timers().size());
+    }
+
+    /**
+     * Tests recording the took reported by Elasticsearch.
+     *
+     * Expected behavior: should record it in milliseconds on the took timer.
+     */
+    @Test
+    void testRecordsTook() {
+        searchMetrics.recordTook(new SearchRequest(), 15);
+
+        assertEquals(15.0, registry.get(SearchMetrics.TOOK_TIMER).tag("shape", "text").tag("page_size", "le_10")
+                .timer().totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Tests classifying requests and page sizes.
+     *
+     * Expected behavior: should combine filters and sort into the shape and map sizes onto the fixed buckets.
+     */
+    @Test
+    void testShapeAndPageSizeBuckets() {
+        SearchRequest request = new SearchRequest();
+        assertEquals("text", SearchMetrics.queryShape(request));
+        request.setSort(Collections.singletonMap("createdDate", "desc"));
+        assertEquals("text_sorted", SearchMetrics.queryShape(request));
+        request.setFilters(Collections.singletonMap("author", "x"));
+        assertEquals("text_filtered_sorted", SearchMetrics.queryShape(request));
+
+        assertEquals("le_10", SearchMetrics.pageSizeBucket(1));
+        assertEquals("le_20", SearchMetrics.pageSizeBucket(20));
+        assertEquals("le_100", SearchMetrics.pageSizeBucket(51));
+        assertEquals("gt_100", SearchMetrics.pageSizeBucket(500));
+    }
+}
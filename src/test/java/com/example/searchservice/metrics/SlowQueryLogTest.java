@@ -0,0 +1,150 @@
+package com.example.searchservice.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for SlowQueryLog and the SlowQueryEndpoint exposing it.
+ *
+ * These tests verify the threshold, the ring buffer's overwrite order and its behavior under concurrent writers.
+ */
+class SlowQueryLogTest {
+
+    /**
+     * Tests the threshold check.
+     *
+     * Expected behavior: should accept durations at or above the threshold, and none when the threshold is negative.
+     */
+    @Test
+    void testIsSlow() {
+        SlowQueryLog log = new SlowQueryLog(100, 4);
+        assertFalse(log.isSlow(TimeUnit.MILLISECONDS.toNanos(99)));
+        assertTrue(log.isSlow(TimeUnit.MILLISECONDS.toNanos(100)));
+        assertEquals(100, log.getThresholdMillis());
+
+        SlowQueryLog disabled = new SlowQueryLog(-1, 4);
+        assertFalse(disabled.isSlow(Long.MAX_VALUE));
+        assertEquals(-1, disabled.getThresholdMillis());
+
+        assertThrows(IllegalArgumentException.class, () -> new SlowQueryLog(100, 0));
+    }
+
+    /**
+     * Tests recording more entries than the buffer holds.
+     *
+     * Expected behavior: should keep the most recent entries, newest first, and count all of them.
+     */
+    @Test
+    void testKeepsMostRecentEntries() {
+        SlowQueryLog log = new SlowQueryLog(0, 3);
+        assertTrue(log.entries().isEmpty());
+
+        for (int i = 0; i < 5; i++) {
+            log.record(entry("q" + i));
+        }
+
+        assertEquals(List.of("q4", "q3", "q2"), queries(log.entries()));
+        assertEquals(5, log.getRecorded());
+        assertEquals(3, log.getCapacity());
+    }
+
+    /**
+     * Tests a writer delayed until its slot already holds a newer entry.
+     *
+     * Expected behavior: should keep the newer entry rather than go back to the older one.
+     */
+    @Test
+    void testDelayedWriterKeepsNewerEntry() {
+        SlowQueryLog log = new SlowQueryLog(0, 2);
+        for (int i = 0; i < 3; i++) {
+            log.record(entry("q" + i));
+        }
+
+        log.store(0, entry("late"));  // Claimed sequence 0, but only stored after sequence 2 reused its slot
+
+        assertEquals(List.of("q2", "q1"), queries(log.entries()));
+    }
+
+    /**
+     * Tests many threads recording at once.
+     *
+     * Expected behavior: should count every entry and hold a full buffer of distinct entries afterwards.
+     */
+    @Test
+    void testConcurrentWriters() throws InterruptedException {
+        SlowQueryLog log = new SlowQueryLog(0, 64);
+        int threads = 8;
+        int perThread = 1_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < perThread; i++) {
+                    log.record(entry(thread + "-" + i));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        List<SlowQuery> entries = log.entries();
+        Set<String> distinct = new HashSet<>(queries(entries));
+        assertEquals(threads * perThread, log.getRecorded());
+        assertEquals(64, entries.size());
+        assertEquals(64, distinct.size());
+    }
+
+    /**
+     * Tests the actuator endpoint's output.
+     *
+     * Expected behavior: should report the settings and the entries, with the query DSL as JSON rather than a string.
+     */
+    @Test
+    void testEndpoint() throws JsonProcessingException {
+        SlowQueryLog log = new SlowQueryLog(250, 10);
+        log.record(entry("slow"));
+
+        Map<String, Object> body = new SlowQueryEndpoint(log).slowQueries();
+        assertEquals(250L, body.get("thresholdMillis"));
+        assertEquals(10, body.get("capacity"));
+        assertEquals(1L, body.get("recorded"));
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode json = objectMapper.readTree(objectMapper.writeValueAsString(body));
+        assertEquals("slow", json.at("/queries/0/query").asText());
+        assertEquals(10, json.at("/queries/0/dsl/size").asInt());
+        assertEquals(5, json.at("/queries/0/stageMicros/elasticsearch").asLong());
+    }
+
+    private static SlowQuery entry(String query) {
+        return new SlowQuery("2024-01-01T00:00:00Z", query, "{\"size\":10}", 0, 10, 1, 2, 3,
+                Collections.singletonMap("elasticsearch", 5L));
+    }
+
+    private static List<String> queries(List<SlowQuery> entries) {
+        return entries.stream().map(SlowQuery::getQuery).collect(Collectors.toCollection(ArrayList::new));
+    }
+}
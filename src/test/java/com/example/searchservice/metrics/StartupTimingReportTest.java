@@ -0,0 +1,59 @@
+package com.example.searchservice.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.core.metrics.StartupStep;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the StartupTimingReport class.
+ *
+ * These tests verify that phases are listed in start order and that beans are ranked by the time
+ * spent creating them, excluding the beans they depend on.
+ */
+class StartupTimingReportTest {
+
+    /**
+     * Tests a startup with two phases and a bean creating a slower dependency.
+     *
+     * Expected behavior: should list the top-level steps in start order and rank the dependency first,
+     * with the dependent bean charged only for its own time.
+     */
+    @Test
+    void testPhasesAndBeanSelfTime() throws InterruptedException {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(100);
+
+        startup.start("spring.boot.application.starting").end();
+        StartupStep refresh = startup.start("spring.context.refresh");
+        StartupStep controller = startup.start("spring.beans.instantiate").tag("beanName", "searchController");
+        StartupStep client = startup.start("spring.beans.instantiate").tag("beanName", "elasticsearchClient");
+        Thread.sleep(60);
+        client.end();
+        Thread.sleep(5);
+        controller.end();
+        StartupStep metrics = startup.start("spring.beans.instantiate").tag("beanName", "searchMetrics");
+        Thread.sleep(20);
+        metrics.end();
+        refresh.end();
+
+        StartupTimingReport report = new StartupTimingReport(startup, 2);
+
+        List<String> phases = report.getPhases().stream().map(StartupTimingReport.Entry::getName).collect(Collectors.toList());
+        assertEquals(List.of("spring.boot.application.starting", "spring.context.refresh"), phases);
+
+        List<StartupTimingReport.Entry> beans = report.getSlowestBeans();
+        assertEquals(2, beans.size());
+        assertEquals("elasticsearchClient", beans.get(0).getName());
+        assertEquals("searchMetrics", beans.get(1).getName());
+        assertTrue(beans.get(0).getDuration().toMillis() >= 60);
+
+        String text = report.format();
+        assertTrue(text.contains("spring.context.refresh"));
+        assertTrue(text.contains("elasticsearchClient"));
+        assertFalse(text.contains("searchController"), "Only the two slowest beans should be listed");
+    }
+}
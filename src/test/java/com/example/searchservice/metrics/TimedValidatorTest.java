@@ -0,0 +1,43 @@
+package com.example.searchservice.metrics;
+
+import com.example.searchservice.model.SearchRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the TimedValidator class.
+ *
+ * These tests verify that validation results are unchanged and that only search requests are timed.
+ */
+class TimedValidatorTest {
+
+    /**
+     * Tests validating an invalid search request and another object.
+     *
+     * Expected behavior: should report the constraint violations and record one validation timing.
+     */
+    @Test
+    void testTimesSearchRequestValidation() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        LocalValidatorFactoryBean beanValidator = new LocalValidatorFactoryBean();
+        beanValidator.afterPropertiesSet();
+        TimedValidator validator = new TimedValidator(beanValidator, new SearchMetrics(registry));
+
+        SearchRequest request = new SearchRequest();
+        request.setQuery("a");
+        Errors errors = new BeanPropertyBindingResult(request, "searchRequest");
+        validator.validate(request, errors);
+
+        assertTrue(errors.hasFieldErrors("query"));
+        Object other = "not a search request";
+        validator.validate(other, new BeanPropertyBindingResult(other, "other"));
+
+        assertEquals(1, registry.get(SearchMetrics.STAGE_TIMER).tag("stage", "validation").timer().count());
+        beanValidator.close();
+    }
+}
@@ -8,6 +8,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Unit tests for the SearchRequest class.
@@ -29,6 +30,7 @@ class SearchRequestTest {
         assertEquals(0, request.getPage(), "Default page should be 0");
         assertEquals(10, request.getSize(), "Default size should be 10");
         assertEquals("createdDate", request.getDateField(), "Default dateField should be createdDate");
+        assertTrue(request.isTrackTotalHits(), "Exact total hits should be tracked by default");
     }
 
     /**
@@ -45,6 +45,7 @@ class SearchResponseTest {
         assertEquals(size, response.getSize(), "Size should match");
         assertEquals(aggregations, response.getAggregations(), "Aggregations should match");
         assertEquals(took, response.getTook(), "Took should match");
+        assertTrue(response.isTotalHitsExact(), "TotalHits should be exact by default");
     }
 
     /**
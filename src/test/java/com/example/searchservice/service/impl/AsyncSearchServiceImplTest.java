@@ -0,0 +1,225 @@
+package com.example.searchservice.service.impl;
+
+import com.example.searchservice.exception.AsyncSearchNotFoundException;
+import com.example.searchservice.exception.ElasticsearchQueryException;
+import com.example.searchservice.model.AsyncSearchResponse;
+import com.example.searchservice.model.SearchRequest;
+import org.apache.http.HttpHeaders;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.List;
+
+import static com.example.searchservice.config.RestClientResponses.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the AsyncSearchServiceImpl class.
+ *
+ * These tests verify that searches are submitted to _async_search with the configured waits and keep-alives, that
+ * the state and partial results are read from the response, that searches are only visible to their submitter and
+ * that polling stops extending a search after the maximum retention.
+ */
+class AsyncSearchServiceImplTest {
+
+    private static final String RUNNING = "{\"id\":\"FmRl\",\"is_running\":true,\"is_partial\":true,"
+            + "\"start_time_in_millis\":1700000000000,\"expiration_time_in_millis\":%d,"
+            + "\"response\":{\"took\":1200,\"timed_out\":false,\"_shards\":{\"failed\":0},"
+            + "\"hits\":{\"total\":{\"value\":5000,\"relation\":\"gte\"},\"hits\":[]}}}";
+
+    private static final String COMPLETED = "{\"id\":\"FmRl\",\"is_running\":false,\"is_partial\":false,"
+            + "\"start_time_in_millis\":1700000000000,\"expiration_time_in_millis\":%d,"
+            + "\"response\":{\"took\":9000,\"timed_out\":false,\"_shards\":{\"failed\":0},"
+            + "\"hits\":{\"total\":{\"value\":12000,\"relation\":\"eq\"},"
+            + "\"hits\":[{\"_id\":\"7\",\"_source\":{\"title\":\"Annual report\"}}]}}}";
+
+    private static final RequestOptions SMILE_OPTIONS = RequestOptions.DEFAULT.toBuilder()
+            .addHeader(HttpHeaders.ACCEPT, "application/smile")
+            .build();
+
+    @Mock
+    private RestClient restClient;
+
+    @Mock
+    private SearchServiceImpl searchService;
+
+    private AsyncSearchServiceImpl asyncSearchService;
+
+    /**
+     * Creates the service asking for Smile results, with a 1 s submission wait, a 5 minute keep-alive and a one
+     * hour maximum retention.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(searchService.buildSearchSource(any(SearchRequest.class)))
+                .thenReturn(new SearchSourceBuilder().query(QueryBuilders.matchQuery("title", "report")));
+        asyncSearchService = new AsyncSearchServiceImpl(restClient, searchService, SMILE_OPTIONS);
+        ReflectionTestUtils.setField(asyncSearchService, "indexName", "test_index");
+        ReflectionTestUtils.setField(asyncSearchService, "waitForCompletion", 1000L);
+        ReflectionTestUtils.setField(asyncSearchService, "keepAlive", 300000L);
+        ReflectionTestUtils.setField(asyncSearchService, "maxRetention", 3600000L);
+        ReflectionTestUtils.setField(asyncSearchService, "maxWait", 5000L);
+    }
+
+    /**
+     * Tests submitting a search that is still running after the wait.
+     *
+     * Expected behavior: should post the regular search body to _async_search, keeping results on completion, and
+     * return the id, state and partial totals with the requested page.
+     */
+    @Test
+    void testSubmit() throws Exception {
+        stubResponses(restClient, String.format(RUNNING, expiresIn(300000)));
+
+        AsyncSearchResponse response = asyncSearchService.submit(searchRequest(), "user");
+
+        assertEquals("FmRl", response.getId());
+        assertTrue(response.isRunning());
+        assertTrue(response.isPartial());
+        assertEquals(Instant.ofEpochMilli(1700000000000L), response.getStartTime());
+        assertEquals(5000L, response.getResults().getTotalHits());
+        assertFalse(response.getResults().isTotalHitsExact());
+        assertTrue(response.getResults().getItems().isEmpty());
+        assertEquals(2, response.getResults().getPage());
+        assertEquals(1, asyncSearchService.size());
+
+        Request request = captureRequests().get(0);
+        assertEquals("POST", request.getMethod());
+        assertEquals("/test_index/_async_search", request.getEndpoint());
+        assertEquals("1000ms", request.getParameters().get("wait_for_completion_timeout"));
+        assertEquals("300000ms", request.getParameters().get("keep_alive"));
+        assertEquals("true", request.getParameters().get("keep_on_completion"));
+        assertEquals(AsyncSearchServiceImpl.FILTER_PATH, request.getParameters().get("filter_path"));
+        assertTrue(AsyncSearchServiceImpl.FILTER_PATH.contains("response.hits.hits._source"));
+        assertTrue(EntityUtils.toString(request.getEntity()).contains("\"report\""));
+        assertEquals(SMILE_OPTIONS, request.getOptions());
+    }
+
+    /**
+     * Tests polling a search until it completes.
+     *
+     * Expected behavior: should cap the wait, extend the keep-alive and return the hits once complete.
+     */
+    @Test
+    void testGet() throws Exception {
+        stubResponses(restClient, String.format(RUNNING, expiresIn(300000)), String.format(COMPLETED, expiresIn(300000)));
+        asyncSearchService.submit(searchRequest(), "user");
+
+        AsyncSearchResponse response = asyncSearchService.get("FmRl", "user", 60000);
+
+        assertFalse(response.isRunning());
+        assertFalse(response.isPartial());
+        assertEquals(12000L, response.getResults().getTotalHits());
+        assertEquals("Annual report", response.getResults().getItems().get(0).getTitle());
+        assertEquals("7", response.getResults().getItems().get(0).getId());
+
+        Request request = captureRequests().get(1);
+        assertEquals("GET", request.getMethod());
+        assertEquals("/_async_search/FmRl", request.getEndpoint());
+        assertEquals("5000ms", request.getParameters().get("wait_for_completion_timeout"));
+        assertEquals("300000ms", request.getParameters().get("keep_alive"));
+        assertEquals(SMILE_OPTIONS, request.getOptions());
+    }
+
+    /**
+     * Tests polling and deleting another user's search, and one that is not known.
+     *
+     * Expected behavior: should answer both as not found without contacting Elasticsearch.
+     */
+    @Test
+    void testScopedToOwner() throws Exception {
+        stubResponses(restClient, String.format(RUNNING, expiresIn(300000)));
+        asyncSearchService.submit(searchRequest(), "user");
+
+        assertThrows(AsyncSearchNotFoundException.class, () -> asyncSearchService.get("FmRl", "other", 0));
+        assertThrows(AsyncSearchNotFoundException.class, () -> asyncSearchService.delete("FmRl", "other"));
+        assertThrows(AsyncSearchNotFoundException.class, () -> asyncSearchService.get("unknown", "user", 0));
+        verify(restClient, times(1)).performRequest(any(Request.class));
+    }
+
+    /**
+     * Tests polling a search past its maximum retention, and one that has expired.
+     *
+     * Expected behavior: should poll without extending the keep-alive, and forget expired searches.
+     */
+    @Test
+    void testRetention() throws Exception {
+        ReflectionTestUtils.setField(asyncSearchService, "maxRetention", 500L);
+        stubResponses(restClient, String.format(RUNNING, expiresIn(300000)), String.format(RUNNING, expiresIn(-1)));
+        asyncSearchService.submit(searchRequest(), "user");
+
+        asyncSearchService.get("FmRl", "user", 0);
+
+        assertNull(captureRequests().get(1).getParameters().get("keep_alive"));
+        assertThrows(AsyncSearchNotFoundException.class, () -> asyncSearchService.get("FmRl", "user", 0));
+        assertEquals(0, asyncSearchService.size());
+    }
+
+    /**
+     * Tests deleting a search, and polling one Elasticsearch no longer knows.
+     *
+     * Expected behavior: should delete it from Elasticsearch and forget it; a 404 from Elasticsearch is reported as
+     * not found, other errors as query failures.
+     */
+    @Test
+    void testDelete() throws Exception {
+        stubResponses(restClient, String.format(RUNNING, expiresIn(300000)));
+        asyncSearchService.submit(searchRequest(), "user");
+
+        asyncSearchService.delete("FmRl", "user");
+
+        Request request = captureRequests().get(1);
+        assertEquals("DELETE", request.getMethod());
+        assertEquals("/_async_search/FmRl", request.getEndpoint());
+        assertEquals(0, asyncSearchService.size());
+
+        asyncSearchService.submit(searchRequest(), "user");
+        ResponseException notFound = responseException("GET", "/_async_search/FmRl", 404);
+        doThrow(notFound).when(restClient).performRequest(any(Request.class));
+        assertThrows(AsyncSearchNotFoundException.class, () -> asyncSearchService.get("FmRl", "user", 0));
+        assertEquals(0, asyncSearchService.size());
+
+        Response running = response(String.format(RUNNING, expiresIn(300000)));
+        doReturn(running).when(restClient).performRequest(any(Request.class));
+        asyncSearchService.submit(searchRequest(), "user");
+        ResponseException failure = responseException("GET", "/_async_search/FmRl", 500);
+        doThrow(failure).when(restClient).performRequest(any(Request.class));
+        assertThrows(ElasticsearchQueryException.class, () -> asyncSearchService.delete("FmRl", "user"));
+        assertEquals(1, asyncSearchService.size());
+    }
+
+    private static SearchRequest searchRequest() {
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("report");
+        searchRequest.setPage(2);
+        searchRequest.setSize(20);
+        return searchRequest;
+    }
+
+    private static long expiresIn(long millis) {
+        return System.currentTimeMillis() + millis;
+    }
+
+    private List<Request> captureRequests() throws IOException {
+        ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+        verify(restClient, atLeastOnce()).performRequest(captor.capture());
+        return captor.getAllValues();
+    }
+}
@@ -0,0 +1,272 @@
+package com.example.searchservice.service.impl;
+
+import com.example.searchservice.exception.ElasticsearchQueryException;
+import com.example.searchservice.exception.InvalidChangeTokenException;
+import com.example.searchservice.model.ChangeToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.searchservice.config.RestClientResponses.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the ChangeFeedServiceImpl class.
+ *
+ * These tests verify that changes are read in lastUpdatedDate and id order with search_after, that each
+ * document is streamed with the token to resume after it, that requests stop at the limit or once caught up,
+ * and that an empty feed is checked asynchronously until changes arrive or the wait runs out.
+ */
+class ChangeFeedServiceImplTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String EMPTY = "{\"took\":1,\"timed_out\":false,\"hits\":{\"hits\":[]}}";
+
+    @Mock
+    private RestClient restClient;
+
+    private ChangeFeedServiceImpl changeFeedService;
+
+    /**
+     * Creates the service with pages of 2 documents, a 1 s settle time, a 10 ms poll interval and id mapped as a
+     * keyword.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        changeFeedService = new ChangeFeedServiceImpl(restClient, OBJECT_MAPPER, RequestOptions.DEFAULT);
+        ReflectionTestUtils.setField(changeFeedService, "indexName", "test_index");
+        ReflectionTestUtils.setField(changeFeedService, "tieBreaker", "id");
+        ReflectionTestUtils.setField(changeFeedService, "sortField", "id");  // As if the mapping was checked
+        ReflectionTestUtils.setField(changeFeedService, "pageSize", 2);
+        ReflectionTestUtils.setField(changeFeedService, "maxLimit", 100);
+        ReflectionTestUtils.setField(changeFeedService, "settleTime", 1000L);
+        ReflectionTestUtils.setField(changeFeedService, "maxWait", 5000L);
+        ReflectionTestUtils.setField(changeFeedService, "pollInterval", 10L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        changeFeedService.stop();
+    }
+
+    /**
+     * Tests streaming changes over several pages until caught up.
+     *
+     * Expected behavior: should continue each page after the last document of the previous one, stream one line
+     * per document with its resume token, flush once per page rather than per document, and stop at a partial
+     * page.
+     */
+    @Test
+    void testStreamsChangesInPages() throws Exception {
+        stubResponses(restClient, page(hit("a", 1000), hit("b", 1000)), page(hit("c", 2000)));
+        int[] flushes = new int[1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushes[0]++;
+            }
+        };
+
+        ChangeToken last = changeFeedService.streamChanges(null, 10, out);
+        assertEquals(2, flushes[0]);
+
+        assertEquals(new ChangeToken(2000, "c"), last);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        JsonNode first = OBJECT_MAPPER.readTree(lines[0]);
+        assertEquals("a", first.path("document").path("id").asText());
+        assertEquals(new ChangeToken(1000, "a"), ChangeToken.parse(first.path("token").asText()));
+        assertEquals(last.encode(), OBJECT_MAPPER.readTree(lines[2]).path("token").asText());
+
+        List<Request> requests = captureRequests();
+        assertEquals(2, requests.size());
+        assertEquals("/test_index/_search", requests.get(0).getEndpoint());
+        JsonNode second = OBJECT_MAPPER.readTree(EntityUtils.toString(requests.get(1).getEntity()));
+        assertEquals(1000, second.path("search_after").get(0).asLong());
+        assertEquals("b", second.path("search_after").get(1).asText());
+    }
+
+    /**
+     * Tests the search for a page.
+     *
+     * Expected behavior: should sort by lastUpdatedDate and the tie-breaker without counting hits, hold back
+     * documents updated after the upper bound, and search only from the position's date onwards.
+     */
+    @Test
+    void testBuildSearchSource() throws Exception {
+        JsonNode first = OBJECT_MAPPER.readTree(changeFeedService.buildSearchSource(null, 2, 9000, "id").toString());
+        assertEquals(-1, first.path("track_total_hits").asInt());  // Not counted
+        assertEquals("asc", first.path("sort").get(0).path("lastUpdatedDate").path("order").asText());
+        assertEquals("asc", first.path("sort").get(1).path("id").path("order").asText());
+        JsonNode range = first.path("query").path("bool").path("filter").get(0).path("range").path("lastUpdatedDate");
+        assertEquals(9000, range.path("to").asLong());
+        assertTrue(range.path("from").isNull());
+        assertTrue(first.path("search_after").isMissingNode());
+
+        JsonNode next = OBJECT_MAPPER.readTree(changeFeedService.buildSearchSource(new ChangeToken(5000, "x"), 2, 9000, "id").toString());
+        assertEquals(5000, next.path("query").path("bool").path("filter").get(0).path("range").path("lastUpdatedDate").path("from").asLong());
+        assertEquals("x", next.path("search_after").get(1).asText());
+    }
+
+    /**
+     * Tests a request limited to fewer documents than are available.
+     *
+     * Expected behavior: should fetch no more than the limit and stop once it is reached.
+     */
+    @Test
+    void testStopsAtLimit() throws Exception {
+        stubResponses(restClient, page(hit("a", 1000), hit("b", 1000)), page(hit("c", 2000)));
+
+        ChangeToken last = changeFeedService.streamChanges(null, 2, new ByteArrayOutputStream());
+
+        assertEquals(new ChangeToken(1000, "b"), last);
+        verify(restClient, times(1)).performRequest(any(Request.class));
+    }
+
+    /**
+     * Tests waiting for changes on an empty feed, and not waiting.
+     *
+     * Expected behavior: should check asynchronously with single-document searches until changes arrive, and
+     * complete right away without searching when not waiting.
+     */
+    @Test
+    void testAwaitChanges() throws Exception {
+        ChangeToken since = new ChangeToken(500, "z");
+        stubAsyncResponses(EMPTY, EMPTY, page(hit("a", 1000)));
+
+        assertTrue(changeFeedService.awaitChanges(since, 5000).get(5, TimeUnit.SECONDS));
+        ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+        verify(restClient, times(3)).performRequestAsync(captor.capture(), any(ResponseListener.class));
+        JsonNode search = OBJECT_MAPPER.readTree(EntityUtils.toString(captor.getValue().getEntity()));
+        assertEquals(1, search.path("size").asInt());
+        assertEquals("z", search.path("search_after").get(1).asText());
+
+        clearInvocations(restClient);
+        assertTrue(changeFeedService.awaitChanges(since, 0).isDone());
+        verifyNoInteractions(restClient);
+    }
+
+    /**
+     * Tests waiting on a feed that stays empty, and a failing search.
+     *
+     * Expected behavior: should complete with false once the wait runs out, and fail with the query error.
+     */
+    @Test
+    void testAwaitChangesRunsOutOrFails() throws Exception {
+        stubAsyncResponses(EMPTY);
+
+        assertFalse(changeFeedService.awaitChanges(null, 50).get(5, TimeUnit.SECONDS));
+
+        doAnswer(invocation -> {
+            invocation.<ResponseListener>getArgument(1).onFailure(new IOException("Connection refused"));
+            return null;
+        }).when(restClient).performRequestAsync(any(Request.class), any(ResponseListener.class));
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> changeFeedService.awaitChanges(null, 5000).get(5, TimeUnit.SECONDS));
+        assertInstanceOf(ElasticsearchQueryException.class, failure.getCause());
+    }
+
+    /**
+     * Tests resolving the tie-breaker against the index mapping.
+     *
+     * Expected behavior: should sort by a keyword id as is and by the keyword subfield of a text id, remembering
+     * the result; keep checking while the index has no mapping for it; and refuse a text id without a keyword
+     * subfield.
+     */
+    @Test
+    void testSortField() throws Exception {
+        ReflectionTestUtils.setField(changeFeedService, "sortField", null);
+        stubResponses(restClient, "{}", mapping("{\"type\":\"text\",\"fields\":{\"keyword\":{\"type\":\"keyword\"}}}"));
+
+        assertEquals("id", changeFeedService.sortField());  // No documents yet
+        assertEquals("id.keyword", changeFeedService.sortField());
+        assertEquals("id.keyword", changeFeedService.sortField());
+        List<Request> requests = captureRequests();
+        assertEquals(2, requests.size());
+        assertEquals("/test_index/_mapping/field/id", requests.get(0).getEndpoint());
+
+        ReflectionTestUtils.setField(changeFeedService, "sortField", null);
+        stubResponses(restClient, mapping("{\"type\":\"keyword\"}"));
+        assertEquals("id", changeFeedService.sortField());
+
+        ReflectionTestUtils.setField(changeFeedService, "sortField", null);
+        stubResponses(restClient, mapping("{\"type\":\"text\"}"));
+        assertThrows(IllegalStateException.class, () -> changeFeedService.sortField());
+    }
+
+    /**
+     * Tests encoding and decoding tokens, including malformed ones.
+     *
+     * Expected behavior: should round-trip ids containing the separator, and reject tokens that are not base64,
+     * lack the separator or have no numeric date.
+     */
+    @Test
+    void testChangeToken() {
+        ChangeToken token = new ChangeToken(1700000000000L, "doc:1");
+        assertEquals(token, ChangeToken.parse(token.encode()));
+        assertFalse(token.encode().contains("="));
+
+        assertThrows(InvalidChangeTokenException.class, () -> ChangeToken.parse("***"));
+        assertThrows(InvalidChangeTokenException.class, () -> ChangeToken.parse(encode("1700000000000")));
+        assertThrows(InvalidChangeTokenException.class, () -> ChangeToken.parse(encode("yesterday:doc")));
+        assertThrows(InvalidChangeTokenException.class, () -> ChangeToken.parse(encode("1700000000000:")));
+    }
+
+    private static String encode(String text) {
+        return Base64.getUrlEncoder().encodeToString(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String hit(String id, long lastUpdatedMillis) {
+        return "{\"_id\":\"" + id + "\",\"_source\":{\"id\":\"" + id + "\",\"title\":\"Document " + id + "\","
+                + "\"lastUpdatedDate\":\"" + lastUpdatedMillis + "\"}}";
+    }
+
+    private static String mapping(String id) {
+        return "{\"test_index-v1\":{\"mappings\":{\"id\":{\"full_name\":\"id\",\"mapping\":{\"id\":" + id + "}}}}}";
+    }
+
+    private static String page(String... hits) {
+        return "{\"took\":1,\"timed_out\":false,\"hits\":{\"hits\":[" + String.join(",", hits) + "]}}";
+    }
+
+    private void stubAsyncResponses(String... bodies) {
+        Deque<String> remaining = new ArrayDeque<>(Arrays.asList(bodies));
+        doAnswer(invocation -> {
+            String body = remaining.size() > 1 ? remaining.poll() : remaining.peek();  // Repeats the last one
+            invocation.<ResponseListener>getArgument(1).onSuccess(response(body));
+            return null;
+        }).when(restClient).performRequestAsync(any(Request.class), any(ResponseListener.class));
+    }
+
+    private List<Request> captureRequests() throws IOException {
+        ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+        verify(restClient, atLeastOnce()).performRequest(captor.capture());
+        return captor.getAllValues();
+    }
+}
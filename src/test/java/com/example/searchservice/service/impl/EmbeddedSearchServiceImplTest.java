@@ -0,0 +1,147 @@
+package com.example.searchservice.service.impl;
+
+import com.example.searchservice.exception.ElasticsearchQueryException;
+import com.example.searchservice.metrics.SearchMetrics;
+import com.example.searchservice.metrics.SlowQueryLog;
+import com.example.searchservice.model.SearchProfile;
+import com.example.searchservice.model.SearchRequest;
+import com.example.searchservice.model.SearchResponse;
+import com.example.searchservice.model.SearchableDocument;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the EmbeddedSearchServiceImpl class.
+ *
+ * These tests search a small in-memory index through the service and check the responses, metrics and logs.
+ */
+class EmbeddedSearchServiceImplTest {
+
+    private MeterRegistry meterRegistry;
+    private SlowQueryLog slowQueryLog;
+    private EmbeddedSearchServiceImpl searchService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        slowQueryLog = new SlowQueryLog(0, 10);
+        searchService = new EmbeddedSearchServiceImpl(new SearchMetrics(meterRegistry), slowQueryLog);
+
+        List<SearchableDocument> documents = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            SearchableDocument document = new SearchableDocument();
+            document.setId("doc-" + i);
+            document.setTitle(i % 2 == 0 ? "Elasticsearch guide " + i : "Cooking tips " + i);
+            document.setContent("Sample content");
+            document.setCategory(i % 2 == 0 ? "Technology" : "Food");
+            documents.add(document);
+        }
+        searchService.index(documents);
+    }
+
+    /**
+     * Tests a search through the service.
+     * Expected behavior: should return the page of matching documents with exact totals and record the stage.
+     */
+    @Test
+    void testSearch() {
+        SearchRequest request = request("elasticsearch");
+        request.setSize(5);
+        request.setPage(1);
+
+        SearchResponse<SearchableDocument> response = searchService.search(request);
+
+        assertEquals(13, response.getTotalHits());
+        assertTrue(response.isTotalHitsExact());
+        assertEquals(5, response.getItems().size());
+        assertEquals(3, response.getTotalPages());
+        assertTrue(response.isHasNext());
+        response.getItems().forEach(document -> assertEquals("Technology", document.getCategory()));
+        assertEquals(1, meterRegistry.get("search.stage").tag("stage", "embedded").timer().count());
+        assertEquals(1, slowQueryLog.getRecorded());
+    }
+
+    /**
+     * Tests the passthrough search.
+     * Expected behavior: should write the paging envelope and hits in Elasticsearch's shape.
+     */
+    @Test
+    void testStreamSearch() throws IOException {
+        SearchRequest request = request("cooking");
+        request.setSize(10);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        searchService.streamSearch(request, output);
+
+        JsonNode body = new ObjectMapper().readTree(output.toByteArray());
+        assertEquals(12, body.path("totalHits").asLong());
+        assertTrue(body.path("totalHitsExact").asBoolean());
+        assertEquals(2, body.path("totalPages").asInt());
+        assertTrue(body.path("hasNext").asBoolean());
+        assertEquals(10, body.path("hits").size());
+        JsonNode hit = body.path("hits").get(0);
+        assertEquals(hit.path("_id").asText(), hit.path("_source").path("id").asText());
+        assertEquals("Food", hit.path("_source").path("category").asText());
+        assertTrue(body.has("took"));
+    }
+
+    /**
+     * Tests profiling.
+     * Expected behavior: should report the analyzed words, the hit count and one profile entry.
+     */
+    @Test
+    void testProfile() {
+        SearchRequest request = request("Cooking TIPS");
+        request.setFilters(Collections.singletonMap("category", "Food"));
+
+        SearchProfile profile = searchService.profile(request);
+
+        assertEquals("cooking", profile.getQuery().path("terms").get(0).asText());
+        assertEquals("tips", profile.getQuery().path("terms").get(1).asText());
+        assertEquals("Food", profile.getQuery().path("filters").path("category").asText());
+        assertEquals(12, profile.getTotalHits());
+        assertEquals(1, profile.getShards().size());
+        assertEquals(25, profile.getShards().get(0).path("documents").asInt());
+    }
+
+    /**
+     * Tests a request the index cannot answer.
+     * Expected behavior: should throw ElasticsearchQueryException like the Elasticsearch backend.
+     */
+    @Test
+    void testSearchThrowsException() {
+        SearchRequest request = request("cooking");
+        request.setFilters(Collections.singletonMap("metadata.region", "eu"));
+
+        ElasticsearchQueryException exception = assertThrows(ElasticsearchQueryException.class,
+                () -> searchService.search(request));
+        assertEquals("Failed to execute search query", exception.getMessage());
+    }
+
+    /**
+     * Tests the health check.
+     * Expected behavior: should report OK with the number of documents.
+     */
+    @Test
+    void testCheckHealth() {
+        assertEquals("OK: Embedded index holds 25 documents", searchService.checkHealth());
+    }
+
+    private static SearchRequest request(String query) {
+        SearchRequest request = new SearchRequest();
+        request.setQuery(query);
+        return request;
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.searchservice.service.impl;
+
+import com.example.searchservice.config.MappingProfile;
+import com.example.searchservice.exception.ElasticsearchQueryException;
+import com.example.searchservice.model.SearchableDocument;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.index.reindex.ReindexRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.AliasData;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the IndexManagementServiceImpl class.
+ *
+ * These tests verify that the index is created only when missing, that the configured mapping
+ * profile and metadata mapping are applied, that startup failures are contained, and that
+ * reindexing and alias promotion issue the expected requests.
+ */
+class IndexManagementServiceImplTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private IndexOperations indexOperations;
+
+    @Mock
+    private RestHighLevelClient restHighLevelClient;
+
+    @InjectMocks
+    private IndexManagementServiceImpl indexManagementService;
+
+    /**
+     * Sets up the test environment before each test case.
+     *
+     * Initializes mocks, configures the index name and profile, and stubs settings and mapping generation.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(indexManagementService, "indexName", "test_index");
+        ReflectionTestUtils.setField(indexManagementService, "mappingProfile", "storage");
+
+        when(elasticsearchOperations.indexOps(any(IndexCoordinates.class))).thenReturn(indexOperations);
+        when(indexOperations.createSettings(SearchableDocument.class)).thenReturn(new Settings());
+        when(indexOperations.createMapping(SearchableDocument.class))
+                .thenReturn(Document.parse("{\"properties\":{\"content\":{\"type\":\"text\"},\"metadata\":{\"type\":\"object\"}}}"));
+        when(indexOperations.create(any(), any(Document.class))).thenReturn(true);
+    }
+
+    /**
+     * Tests index creation when the index does not exist.
+     *
+     * Expected behavior: should create the index with the configured profile applied.
+     */
+    @Test
+    void testCreateIndexIfMissingCreatesIndex() {
+        when(indexOperations.exists()).thenReturn(false);
+
+        assertTrue(indexManagementService.createIndexIfMissing());
+
+        ArgumentCaptor<Settings> settings = ArgumentCaptor.forClass(Settings.class);
+        verify(indexOperations).create(settings.capture(), any(Document.class));
+        assertEquals("best_compression", settings.getValue().get("index.codec"), "Storage profile should be applied");
+    }
+
+    /**
+     * Tests index creation when the index already exists.
+     *
+     * Expected behavior: should leave the existing index untouched.
+     */
+    @Test
+    void testCreateIndexIfMissingSkipsExistingIndex() {
+        when(indexOperations.exists()).thenReturn(true);
+
+        assertFalse(indexManagementService.createIndexIfMissing());
+
+        verify(indexOperations, never()).create(any(), any(Document.class));
+    }
+
+    /**
+     * Tests startup initialization when Elasticsearch is unreachable.
+     *
+     * Expected behavior: should log the failure without throwing.
+     */
+    @Test
+    void testInitializeIndexHandlesExceptions() {
+        when(indexOperations.exists()).thenThrow(new RuntimeException("Connection refused"));
+
+        assertDoesNotThrow(() -> indexManagementService.initializeIndex());
+    }
+
+    /**
+     * Tests startup index initialization with deferred startup.
+     *
+     * Expected behavior: should not contact Elasticsearch while the context starts.
+     */
+    @Test
+    void testInitializeIndexSkippedWithDeferredStartup() {
+        ReflectionTestUtils.setField(indexManagementService, "deferredStartup", true);
+
+        indexManagementService.initializeIndex();
+
+        verifyNoInteractions(elasticsearchOperations);
+    }
+
+    /**
+     * Tests creating an index with an explicit profile, as used by the comparison tool.
+     *
+     * Expected behavior: should create the named index with the default profile leaving settings untouched.
+     */
+    @Test
+    void testCreateIndexWithExplicitProfile() {
+        assertTrue(indexManagementService.createIndex("bench-index", MappingProfile.DEFAULT));
+
+        verify(elasticsearchOperations).indexOps(IndexCoordinates.of("bench-index"));
+        ArgumentCaptor<Settings> settings = ArgumentCaptor.forClass(Settings.class);
+        verify(indexOperations).create(settings.capture(), any(Document.class));
+        assertNull(settings.getValue().get("index.codec"));
+    }
+
+    /**
+     * Tests index creation with flattened metadata configured.
+     *
+     * Expected behavior: should map metadata as a single flattened field with the configured depth limit.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateIndexWithFlattenedMetadata() {
+        ReflectionTestUtils.setField(indexManagementService, "metadataMapping", "flattened");
+        ReflectionTestUtils.setField(indexManagementService, "metadataDepthLimit", 5);
+
+        indexManagementService.createIndex("test_index", MappingProfile.DEFAULT);
+
+        ArgumentCaptor<Document> mapping = ArgumentCaptor.forClass(Document.class);
+        verify(indexOperations).create(any(), mapping.capture());
+        Map<String, Object> metadata = (Map<String, Object>) mapping.getValue().get("properties", Map.class).get("metadata");
+        assertEquals("flattened", metadata.get("type"));
+        assertEquals(5, metadata.get("depth_limit"));
+    }
+
+    /**
+     * Tests index creation with the default object metadata mapping.
+     *
+     * Expected behavior: should keep the generated object mapping for metadata.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateIndexKeepsObjectMetadataByDefault() {
+        ReflectionTestUtils.setField(indexManagementService, "metadataMapping", "object");
+
+        indexManagementService.createIndex("test_index", MappingProfile.DEFAULT);
+
+        ArgumentCaptor<Document> mapping = ArgumentCaptor.forClass(Document.class);
+        verify(indexOperations).create(any(), mapping.capture());
+        Map<String, Object> metadata = (Map<String, Object>) mapping.getValue().get("properties", Map.class).get("metadata");
+        assertEquals("object", metadata.get("type"));
+    }
+
+    /**
+     * Tests creating the percolator index for saved searches.
+     *
+     * Expected behavior: should create a single-shard index with the document mapping, the configured profile,
+     * a percolator query field and the subscription fields, and skip an existing index.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreatePercolatorIndexIfMissing() {
+        when(indexOperations.exists()).thenReturn(false, true);
+
+        assertTrue(indexManagementService.createPercolatorIndexIfMissing("test_index-saved-searches"));
+        assertFalse(indexManagementService.createPercolatorIndexIfMissing("test_index-saved-searches"));
+
+        verify(elasticsearchOperations, times(2)).indexOps(IndexCoordinates.of("test_index-saved-searches"));
+        ArgumentCaptor<Settings> settings = ArgumentCaptor.forClass(Settings.class);
+        ArgumentCaptor<Document> mapping = ArgumentCaptor.forClass(Document.class);
+        verify(indexOperations, times(1)).create(settings.capture(), mapping.capture());
+        assertEquals(1, settings.getValue().get("index.number_of_shards"));
+        assertEquals(true, settings.getValue().get("index.percolator.map_unmapped_fields_as_text"));
+        assertEquals("best_compression", settings.getValue().get("index.codec"));
+
+        Map<String, Object> properties = mapping.getValue().get("properties", Map.class);
+        assertEquals("percolator", ((Map<String, Object>) properties.get("query")).get("type"));
+        assertTrue(properties.containsKey("content"));
+        Map<String, Object> subscription = (Map<String, Object>) ((Map<String, Object>) properties.get("subscription")).get("properties");
+        assertEquals("keyword", ((Map<String, Object>) subscription.get("owner")).get("type"));
+        assertEquals(false, ((Map<String, Object>) subscription.get("request")).get("enabled"));
+    }
+
+    /**
+     * Tests building the reindex request.
+     *
+     * Expected behavior: should copy from the source into the target and refresh the target when done.
+     */
+    @Test
+    void testBuildReindexRequest() {
+        ReindexRequest request = indexManagementService.buildReindexRequest("test_index", "test_index_v2");
+
+        assertArrayEquals(new String[]{"test_index"}, request.getSearchRequest().indices());
+        assertEquals("test_index_v2", request.getDestination().index());
+        assertTrue(request.isRefresh());
+    }
+
+    /**
+     * Tests starting a reindex when Elasticsearch cannot be reached.
+     *
+     * Expected behavior: should create the missing target first and wrap the failure in an ElasticsearchQueryException.
+     */
+    @Test
+    void testStartReindexHandlesIOException() throws IOException {
+        when(indexOperations.exists()).thenReturn(false);
+        // RestHighLevelClient methods are final, so use a real client pointing at a closed port
+        try (RestHighLevelClient unreachableClient = new RestHighLevelClient(RestClient.builder(new HttpHost("localhost", 1)))) {
+            IndexManagementServiceImpl service = new IndexManagementServiceImpl(elasticsearchOperations, unreachableClient);
+            ReflectionTestUtils.setField(service, "indexName", "test_index");
+            ReflectionTestUtils.setField(service, "mappingProfile", "default");
+
+            assertThrows(ElasticsearchQueryException.class, () -> service.startReindex(null, "test_index_v2"));
+        }
+
+        verify(indexOperations).create(any(), any(Document.class));
+    }
+
+    /**
+     * Tests promoting a target while the configured name is still a concrete index.
+     *
+     * Expected behavior: should delete the concrete index and add the alias in one update.
+     */
+    @Test
+    void testPromoteIndexReplacesConcreteIndex() {
+        when(elasticsearchOperations.count(any(Query.class), any(IndexCoordinates.class))).thenReturn(10L);
+        when(indexOperations.getAliases("test_index")).thenReturn(Collections.emptyMap());
+        when(indexOperations.exists()).thenReturn(true);
+
+        indexManagementService.promoteIndex("test_index_v2");
+
+        List<AliasAction> actions = capturedAliasActions();
+        assertEquals(2, actions.size());
+        assertTrue(actions.get(0) instanceof AliasAction.RemoveIndex);
+        assertTrue(actions.get(1) instanceof AliasAction.Add);
+        assertArrayEquals(new String[]{"test_index_v2"}, actions.get(1).getParameters().getIndices());
+        assertArrayEquals(new String[]{"test_index"}, actions.get(1).getParameters().getAliases());
+    }
+
+    /**
+     * Tests promoting a target when the configured name is already an alias.
+     *
+     * Expected behavior: should move the alias from its current index to the target.
+     */
+    @Test
+    void testPromoteIndexMovesAlias() {
+        when(elasticsearchOperations.count(any(Query.class), any(IndexCoordinates.class))).thenReturn(10L);
+        Map<String, Set<AliasData>> holders = Collections.singletonMap("test_index_v1", Collections.emptySet());
+        when(indexOperations.getAliases("test_index")).thenReturn(holders);
+
+        indexManagementService.promoteIndex("test_index_v2");
+
+        List<AliasAction> actions = capturedAliasActions();
+        assertEquals(2, actions.size());
+        assertTrue(actions.get(0) instanceof AliasAction.Remove);
+        assertArrayEquals(new String[]{"test_index_v1"}, actions.get(0).getParameters().getIndices());
+        assertTrue(actions.get(1) instanceof AliasAction.Add);
+    }
+
+    /**
+     * Tests promoting a target that holds fewer documents than the current index.
+     *
+     * Expected behavior: should refuse the switch and leave aliases untouched.
+     */
+    @Test
+    void testPromoteIndexRefusesIncompleteTarget() {
+        when(elasticsearchOperations.count(any(Query.class), eq(IndexCoordinates.of("test_index")))).thenReturn(10L);
+        when(elasticsearchOperations.count(any(Query.class), eq(IndexCoordinates.of("test_index_v2")))).thenReturn(4L);
+
+        assertThrows(IllegalStateException.class, () -> indexManagementService.promoteIndex("test_index_v2"));
+
+        verify(indexOperations, never()).alias(any());
+    }
+
+    private List<AliasAction> capturedAliasActions() {
+        ArgumentCaptor<AliasActions> actions = ArgumentCaptor.forClass(AliasActions.class);
+        verify(indexOperations).alias(actions.capture());
+        return actions.getValue().getActions();
+    }
+}
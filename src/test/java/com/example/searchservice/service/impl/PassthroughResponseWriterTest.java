@@ -0,0 +1,117 @@
+package com.example.searchservice.service.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the PassthroughResponseWriter class.
+ *
+ * These tests verify that hits are copied unchanged into the envelope, that total hit counts in both
+ * Elasticsearch formats are understood, and that empty results still produce a complete envelope.
+ */
+class PassthroughResponseWriterTest {
+
+    private final PassthroughResponseWriter writer = new PassthroughResponseWriter(new JsonFactory());
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Tests copying hits from a filtered search response.
+     *
+     * Expected behavior: should copy each hit's _id and _source verbatim and write the paging envelope around them.
+     */
+    @Test
+    void testWriteCopiesHitsIntoEnvelope() throws IOException {
+        String esResponse = "{\"hits\":{\"total\":{\"value\":25,\"relation\":\"eq\"},\"hits\":["
+                + "{\"_id\":\"1\",\"_source\":{\"title\":\"First\",\"tags\":[\"a\",\"b\"],\"metadata\":{\"views\":3}}},"
+                + "{\"_id\":\"2\",\"_source\":{\"title\":\"Second\",\"createdDate\":\"2024-01-01T00:00:00.000Z\"}}]}}";
+
+        JsonNode result = write(esResponse, 1, 10);
+
+        assertEquals(25, result.path("totalHits").asLong());
+        assertTrue(result.path("totalHitsExact").asBoolean());
+        assertEquals(1, result.path("page").asInt());
+        assertEquals(10, result.path("size").asInt());
+        assertEquals(3, result.path("totalPages").asInt());
+        assertTrue(result.path("hasNext").asBoolean());
+        assertTrue(result.has("took"));
+
+        JsonNode hits = result.path("hits");
+        assertEquals(2, hits.size());
+        assertEquals("1", hits.get(0).path("_id").asText());
+        assertEquals(objectMapper.readTree("{\"title\":\"First\",\"tags\":[\"a\",\"b\"],\"metadata\":{\"views\":3}}"),
+                hits.get(0).path("_source"));
+        assertEquals("2024-01-01T00:00:00.000Z", hits.get(1).path("_source").path("createdDate").asText());
+    }
+
+    /**
+     * Tests a lower-bound total and the integer total format.
+     *
+     * Expected behavior: should report inexact totals for relation gte and read plain integer totals.
+     */
+    @Test
+    void testWriteReadsTotalFormats() throws IOException {
+        JsonNode bounded = write("{\"hits\":{\"total\":{\"value\":11,\"relation\":\"gte\"},\"hits\":[{\"_id\":\"1\",\"_source\":{}}]}}", 0, 10);
+        assertEquals(11, bounded.path("totalHits").asLong());
+        assertFalse(bounded.path("totalHitsExact").asBoolean());
+
+        JsonNode legacy = write("{\"hits\":{\"total\":4,\"hits\":[]}}", 0, 10);
+        assertEquals(4, legacy.path("totalHits").asLong());
+    }
+
+    /**
+     * Tests a response without hits, where the filter path removes the hits array.
+     *
+     * Expected behavior: should write the envelope with an empty hits array.
+     */
+    @Test
+    void testWriteWithoutHits() throws IOException {
+        JsonNode result = write("{\"hits\":{\"total\":{\"value\":0,\"relation\":\"eq\"}}}", 0, 10);
+
+        assertEquals(0, result.path("totalHits").asLong());
+        assertTrue(result.path("hits").isArray());
+        assertEquals(0, result.path("hits").size());
+        assertFalse(result.path("hasNext").asBoolean());
+    }
+
+    /**
+     * Tests a response cut short by the search timeout.
+     *
+     * Expected behavior: should mark the envelope as partial with the timeout flag and failed shard count.
+     */
+    @Test
+    void testWriteReportsPartialResults() throws IOException {
+        JsonNode partial = write("{\"timed_out\":true,\"_shards\":{\"failed\":1},"
+                + "\"hits\":{\"total\":{\"value\":1,\"relation\":\"eq\"},\"hits\":[{\"_id\":\"1\",\"_source\":{}}]}}", 0, 10);
+        assertTrue(partial.path("timedOut").asBoolean());
+        assertEquals(1, partial.path("failedShards").asInt());
+        assertTrue(partial.path("partial").asBoolean());
+
+        JsonNode complete = write("{\"hits\":{\"total\":0}}", 0, 10);
+        assertFalse(complete.path("partial").asBoolean());
+    }
+
+    /**
+     * Tests a response that is not a JSON object.
+     *
+     * Expected behavior: should fail with an IOException.
+     */
+    @Test
+    void testWriteRejectsUnexpectedResponse() {
+        assertThrows(IOException.class, () -> write("[]", 0, 10));
+    }
+
+    private JsonNode write(String esResponse, int page, int size) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        writer.write(new ByteArrayInputStream(esResponse.getBytes(StandardCharsets.UTF_8)), output, page, size, System.nanoTime());
+        return objectMapper.readTree(output.toByteArray());
+    }
+}
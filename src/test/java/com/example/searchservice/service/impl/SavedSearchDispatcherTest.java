@@ -0,0 +1,171 @@
+package com.example.searchservice.service.impl;
+
+import com.example.searchservice.exception.ElasticsearchQueryException;
+import com.example.searchservice.model.SavedSearchMatch;
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.service.DocumentsIndexedEvent;
+import com.example.searchservice.service.SavedSearchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.InputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the SavedSearchDispatcher class.
+ *
+ * These tests verify that indexed batches are matched against the saved searches, that matches reach the owner's
+ * open streams and webhooks and are counted, and that failures never reach the indexing thread.
+ */
+class SavedSearchDispatcherTest {
+
+    @Mock
+    private SavedSearchService savedSearchService;
+
+    private SimpleMeterRegistry registry;
+    private ExecutorService deliveryExecutor;
+    private SavedSearchDispatcher dispatcher;
+    private HttpServer webhookServer;
+
+    /**
+     * Creates the dispatcher with its own delivery thread, which tests shut down to wait for delivery.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        registry = new SimpleMeterRegistry();
+        deliveryExecutor = Executors.newSingleThreadExecutor();
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        dispatcher = new SavedSearchDispatcher(savedSearchService, objectMapper, registry, deliveryExecutor);
+        ReflectionTestUtils.setField(dispatcher, "webhookTimeout", 5000L);
+        ReflectionTestUtils.setField(dispatcher, "streamTimeout", 60000L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.stop();
+        if (webhookServer != null) {
+            webhookServer.stop(0);
+        }
+    }
+
+    /**
+     * Tests delivering a match to the owner's streams, one of which has been closed.
+     *
+     * Expected behavior: should send the match to the open stream, drop the closed one, leave other users'
+     * streams alone and count both outcomes.
+     */
+    @Test
+    void testDeliversToOwnerStreams() throws Exception {
+        dispatcher.subscribe("user");
+        SseEmitter closed = dispatcher.subscribe("user");
+        dispatcher.subscribe("admin");
+        closed.complete();
+        when(savedSearchService.percolate(anyList())).thenReturn(Collections.singletonList(match(null)));
+
+        dispatcher.onDocumentsIndexed(new DocumentsIndexedEvent(Collections.singletonList(document())));
+        awaitDelivery();
+
+        assertEquals(1.0, registry.get("saved.search.deliveries").tag("channel", "stream").tag("result", "delivered").counter().count());
+        assertEquals(1.0, registry.get("saved.search.deliveries").tag("channel", "stream").tag("result", "failed").counter().count());
+        assertEquals(2, dispatcher.streamCount());
+    }
+
+    /**
+     * Tests delivering a match of a saved search with a webhook.
+     *
+     * Expected behavior: should post the match as JSON, without its owner or webhook, and count the delivery.
+     */
+    @Test
+    void testPostsToWebhook() throws Exception {
+        BlockingQueue<String> bodies = new ArrayBlockingQueue<>(1);
+        webhookServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        webhookServer.createContext("/hook", exchange -> {
+            try (InputStream body = exchange.getRequestBody()) {
+                bodies.add(new String(body.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        webhookServer.start();
+        String webhook = "http://127.0.0.1:" + webhookServer.getAddress().getPort() + "/hook";
+        when(savedSearchService.percolate(anyList())).thenReturn(Collections.singletonList(match(webhook)));
+
+        dispatcher.onDocumentsIndexed(new DocumentsIndexedEvent(Collections.singletonList(document())));
+
+        String body = bodies.poll(10, TimeUnit.SECONDS);
+        assertNotNull(body);
+        assertTrue(body.contains("\"savedSearchId\":\"a1\""));
+        assertTrue(body.contains("\"title\":\"Annual report\""));
+        assertTrue(body.contains("\"matchedAt\":\"2024-01-01T00:00:00Z\""));
+        assertFalse(body.contains("owner"));
+        assertFalse(body.contains("webhook"));
+        for (int i = 0; i < 100 && registry.get("saved.search.deliveries").tag("channel", "webhook")
+                .tag("result", "delivered").counter().count() == 0; i++) {
+            Thread.sleep(50);  // Counted once the response has been read
+        }
+        assertEquals(1.0, registry.get("saved.search.deliveries").tag("channel", "webhook").tag("result", "delivered").counter().count());
+    }
+
+    /**
+     * Tests an indexed batch when matching fails, and one matching no saved search.
+     *
+     * Expected behavior: should not throw to the indexing thread and deliver nothing.
+     */
+    @Test
+    void testMatchingFailureDoesNotFailIndexing() throws Exception {
+        dispatcher.subscribe("user");
+        List<SearchableDocument> documents = Collections.singletonList(document());
+        when(savedSearchService.percolate(documents))
+                .thenThrow(new ElasticsearchQueryException("Failed to match saved searches", new RuntimeException()))
+                .thenReturn(Collections.emptyList());
+
+        assertDoesNotThrow(() -> dispatcher.onDocumentsIndexed(new DocumentsIndexedEvent(documents)));
+        dispatcher.onDocumentsIndexed(new DocumentsIndexedEvent(documents));
+        awaitDelivery();
+
+        verify(savedSearchService, times(2)).percolate(documents);
+        assertEquals(0.0, registry.get("saved.search.deliveries").tag("channel", "stream").tag("result", "delivered").counter().count());
+    }
+
+    private void awaitDelivery() throws InterruptedException {
+        deliveryExecutor.shutdown();
+        assertTrue(deliveryExecutor.awaitTermination(10, TimeUnit.SECONDS));
+    }
+
+    private static SavedSearchMatch match(String webhook) {
+        return new SavedSearchMatch("a1", "Reports", Collections.singletonList(document()),
+                Instant.parse("2024-01-01T00:00:00Z"), "user", webhook);
+    }
+
+    private static SearchableDocument document() {
+        SearchableDocument document = new SearchableDocument();
+        document.setId("7");
+        document.setTitle("Annual report");
+        return document;
+    }
+}
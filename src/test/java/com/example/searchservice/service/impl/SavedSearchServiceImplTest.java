@@ -0,0 +1,242 @@
+package com.example.searchservice.service.impl;
+
+import com.example.searchservice.exception.InvalidSavedSearchException;
+import com.example.searchservice.exception.SavedSearchNotFoundException;
+import com.example.searchservice.model.SavedSearch;
+import com.example.searchservice.model.SavedSearchMatch;
+import com.example.searchservice.model.SearchRequest;
+import com.example.searchservice.model.SearchableDocument;
+import com.example.searchservice.service.IndexManagementService;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.index.query.QueryBuilders;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.example.searchservice.config.RestClientResponses.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the SavedSearchServiceImpl class.
+ *
+ * These tests verify that saved searches are stored as percolator queries under their owner, that webhooks and
+ * the per-user limit are enforced, that saved searches are listed and deleted only for their owner, and that a
+ * batch of documents is percolated in one request with matches assigned by document slot.
+ */
+class SavedSearchServiceImplTest {
+
+    @Mock
+    private RestClient restClient;
+
+    @Mock
+    private SearchServiceImpl searchService;
+
+    @Mock
+    private IndexManagementService indexManagementService;
+
+    private SavedSearchServiceImpl savedSearchService;
+
+    /**
+     * Creates the service with a limit of 2 saved searches per user and 100 matches per batch.
+     */
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(searchService.buildQuery(any(SearchRequest.class))).thenReturn(QueryBuilders.matchQuery("title", "report"));
+        savedSearchService = new SavedSearchServiceImpl(restClient, searchService, indexManagementService);
+        ReflectionTestUtils.setField(savedSearchService, "savedSearchIndex", "test_index-saved-searches");
+        ReflectionTestUtils.setField(savedSearchService, "maxPerUser", 2);
+        ReflectionTestUtils.setField(savedSearchService, "maxMatches", 100);
+        ReflectionTestUtils.setField(savedSearchService, "allowedWebhookHosts", "localhost, 127.0.0.1");
+    }
+
+    /**
+     * Tests registering a saved search.
+     *
+     * Expected behavior: should create the percolator index, store the search's query with the owner, name,
+     * webhook and original request, wait for a refresh and return the assigned id.
+     */
+    @Test
+    void testRegister() throws Exception {
+        stubResponses(restClient, "{\"count\":1}", "{\"result\":\"created\"}");
+
+        SavedSearch registered = savedSearchService.register(savedSearch("http://localhost:8080/hook"), "user");
+
+        assertNotNull(registered.getId());
+        assertNotNull(registered.getCreatedAt());
+        verify(indexManagementService).createPercolatorIndexIfMissing("test_index-saved-searches");
+
+        List<Request> requests = captureRequests();
+        assertEquals("/test_index-saved-searches/_count", requests.get(0).getEndpoint());
+        assertTrue(EntityUtils.toString(requests.get(0).getEntity()).contains("{\"term\":{\"subscription.owner\":\"user\"}}"));
+
+        Request put = requests.get(1);
+        assertEquals("PUT", put.getMethod());
+        assertEquals("/test_index-saved-searches/_doc/" + registered.getId(), put.getEndpoint());
+        assertEquals("wait_for", put.getParameters().get("refresh"));
+        String body = EntityUtils.toString(put.getEntity());
+        assertTrue(body.contains("\"query\":{\"match\":{\"title\""));
+        assertTrue(body.contains("\"owner\":\"user\""));
+        assertTrue(body.contains("\"name\":\"Reports\""));
+        assertTrue(body.contains("\"webhook\":\"http://localhost:8080/hook\""));
+        assertTrue(body.contains("\"request\":{\"query\":\"annual report\""));
+    }
+
+    /**
+     * Tests registering saved searches with webhooks that are not allowed, and beyond the per-user limit.
+     *
+     * Expected behavior: should refuse them, without storing anything.
+     */
+    @Test
+    void testRegisterRefusesInvalidWebhooksAndLimit() throws Exception {
+        assertThrows(InvalidSavedSearchException.class,
+                () -> savedSearchService.register(savedSearch("http://169.254.169.254/latest"), "user"));
+        assertThrows(InvalidSavedSearchException.class,
+                () -> savedSearchService.register(savedSearch("file:///etc/passwd"), "user"));
+        assertThrows(InvalidSavedSearchException.class,
+                () -> savedSearchService.register(savedSearch("not a url"), "user"));
+        verifyNoInteractions(restClient);
+
+        stubResponses(restClient, "{\"count\":2}");
+        InvalidSavedSearchException limit = assertThrows(InvalidSavedSearchException.class,
+                () -> savedSearchService.register(savedSearch(null), "user"));
+        assertTrue(limit.getMessage().contains("At most 2"));
+        verify(restClient, times(1)).performRequest(any(Request.class));
+    }
+
+    /**
+     * Tests listing saved searches, and listing before any were registered.
+     *
+     * Expected behavior: should return the owner's saved searches with their requests, and nothing when the
+     * index does not exist.
+     */
+    @Test
+    void testList() throws Exception {
+        stubResponses(restClient, "{\"hits\":{\"hits\":[{\"_id\":\"a1\",\"_source\":{\"subscription\":{\"owner\":\"user\","
+                + "\"name\":\"Reports\",\"webhook\":null,\"created\":1700000000000,"
+                + "\"request\":{\"query\":\"annual report\",\"filters\":{\"category\":\"Finance\"}}}}}]}}");
+
+        List<SavedSearch> savedSearches = savedSearchService.list("user");
+
+        assertEquals(1, savedSearches.size());
+        assertEquals("a1", savedSearches.get(0).getId());
+        assertEquals("Reports", savedSearches.get(0).getName());
+        assertNull(savedSearches.get(0).getWebhook());
+        assertEquals(1700000000000L, savedSearches.get(0).getCreatedAt().toEpochMilli());
+        assertEquals("annual report", savedSearches.get(0).getSearch().getQuery());
+        assertEquals("Finance", savedSearches.get(0).getSearch().getFilters().get("category"));
+        assertTrue(EntityUtils.toString(captureRequests().get(0).getEntity()).contains("\"subscription.owner\":\"user\""));
+
+        ResponseException notFound = responseException("POST", "/test_index-saved-searches/_search", 404);
+        doThrow(notFound).when(restClient).performRequest(any(Request.class));
+        assertTrue(savedSearchService.list("user").isEmpty());
+    }
+
+    /**
+     * Tests deleting a saved search, another user's, and one that does not exist.
+     *
+     * Expected behavior: should delete by id and owner in one request, and report nothing deleted as not found.
+     */
+    @Test
+    void testDelete() throws Exception {
+        stubResponses(restClient, "{\"deleted\":1}", "{\"deleted\":0}");
+
+        savedSearchService.delete("a1", "user");
+        assertThrows(SavedSearchNotFoundException.class, () -> savedSearchService.delete("a1", "other"));
+
+        Request request = captureRequests().get(0);
+        assertEquals("/test_index-saved-searches/_delete_by_query", request.getEndpoint());
+        String body = EntityUtils.toString(request.getEntity());
+        assertTrue(body.contains("{\"ids\":{\"values\":[\"a1\"]}}"));
+        assertTrue(body.contains("{\"term\":{\"subscription.owner\":\"user\"}}"));
+
+        ResponseException notFound = responseException("POST", "/test_index-saved-searches/_search", 404);
+        doThrow(notFound).when(restClient).performRequest(any(Request.class));
+        assertThrows(SavedSearchNotFoundException.class, () -> savedSearchService.delete("a1", "user"));
+    }
+
+    /**
+     * Tests percolating a batch of documents.
+     *
+     * Expected behavior: should send all documents in one percolate query and assign each matching saved search
+     * the documents in its slots, with its owner and webhook for delivery.
+     */
+    @Test
+    void testPercolate() throws Exception {
+        stubResponses(restClient, "{\"hits\":{\"hits\":["
+                + "{\"_id\":\"a1\",\"_source\":{\"subscription\":{\"owner\":\"user\",\"name\":\"Reports\","
+                + "\"webhook\":\"http://localhost/hook\"}},\"fields\":{\"_percolator_document_slot\":[0,2]}},"
+                + "{\"_id\":\"b2\",\"_source\":{\"subscription\":{\"owner\":\"admin\",\"name\":\"Memos\"}},"
+                + "\"fields\":{\"_percolator_document_slot\":[1]}}]}}");
+        List<SearchableDocument> documents = Arrays.asList(document("1"), document("2"), document("3"));
+
+        List<SavedSearchMatch> matches = savedSearchService.percolate(documents);
+
+        assertEquals(2, matches.size());
+        assertEquals("a1", matches.get(0).getSavedSearchId());
+        assertEquals("user", matches.get(0).getOwner());
+        assertEquals("http://localhost/hook", matches.get(0).getWebhook());
+        assertEquals(Arrays.asList(documents.get(0), documents.get(2)), matches.get(0).getDocuments());
+        assertEquals("Memos", matches.get(1).getName());
+        assertNull(matches.get(1).getWebhook());
+        assertEquals(Collections.singletonList(documents.get(1)), matches.get(1).getDocuments());
+
+        Request request = captureRequests().get(0);
+        assertEquals("/test_index-saved-searches/_search", request.getEndpoint());
+        String body = EntityUtils.toString(request.getEntity());
+        assertTrue(body.contains("\"size\":100"));
+        assertTrue(body.contains("\"percolate\":{\"field\":\"query\",\"documents\":[{"));
+        assertTrue(body.contains("\"title\":\"Report 3\""));
+    }
+
+    /**
+     * Tests percolating an empty batch, and before any saved search was registered.
+     *
+     * Expected behavior: should not query for an empty batch, and find no matches without the index.
+     */
+    @Test
+    void testPercolateWithoutSavedSearches() throws Exception {
+        assertTrue(savedSearchService.percolate(Collections.emptyList()).isEmpty());
+        verifyNoInteractions(restClient);
+
+        ResponseException notFound = responseException("POST", "/test_index-saved-searches/_search", 404);
+        doThrow(notFound).when(restClient).performRequest(any(Request.class));
+        assertTrue(savedSearchService.percolate(Collections.singletonList(document("1"))).isEmpty());
+    }
+
+    private static SavedSearch savedSearch(String webhook) {
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("annual report");
+        SavedSearch savedSearch = new SavedSearch();
+        savedSearch.setName("Reports");
+        savedSearch.setSearch(searchRequest);
+        savedSearch.setWebhook(webhook);
+        return savedSearch;
+    }
+
+    private static SearchableDocument document(String id) {
+        SearchableDocument document = new SearchableDocument();
+        document.setId(id);
+        document.setTitle("Report " + id);
+        return document;
+    }
+
+    private List<Request> captureRequests() throws IOException {
+        ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+        verify(restClient, atLeastOnce()).performRequest(captor.capture());
+        return captor.getAllValues();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.searchservice.service.impl;
+
+import com.example.searchservice.converter.SearchableDocumentMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SearchResponseReader class.
+ *
+ * These tests verify reading took, totals and documents from JSON and Smile search responses.
+ */
+class SearchResponseReaderTest {
+
+    private static final String RESPONSE = "{\"took\":12,\"hits\":{\"total\":{\"value\":40,\"relation\":\"gte\"},"
+            + "\"hits\":[{\"_id\":\"a\",\"_source\":{\"title\":\"First\",\"tags\":[\"x\"]}},{\"_id\":\"b\"}]}}";
+
+    private final SearchResponseReader reader = new SearchResponseReader(new SearchableDocumentMapper());
+
+    /**
+     * Tests a JSON response with a lower-bound total and a hit without source.
+     *
+     * Expected behavior: should read took, the inexact total and both documents with their ids.
+     */
+    @Test
+    void testReadsJsonResponse() throws IOException {
+        SearchResponseReader.Result result = reader.read(stream(RESPONSE.getBytes(StandardCharsets.UTF_8)), "application/json");
+
+        assertEquals(12, result.getTook());
+        assertEquals(40, result.getTotalHits());
+        assertFalse(result.isTotalHitsExact());
+        assertEquals(2, result.getDocuments().size());
+        assertEquals("a", result.getDocuments().get(0).getId());
+        assertEquals("First", result.getDocuments().get(0).getTitle());
+        assertArrayEquals(new String[]{"x"}, result.getDocuments().get(0).getTags());
+        assertEquals("b", result.getDocuments().get(1).getId());
+    }
+
+    /**
+     * Tests a Smile-encoded response.
+     *
+     * Expected behavior: should select the Smile parser from the content type and read the same values.
+     */
+    @Test
+    void testReadsSmileResponse() throws IOException {
+        byte[] smile = new ObjectMapper(new SmileFactory()).writeValueAsBytes(new ObjectMapper().readTree(RESPONSE));
+
+        SearchResponseReader.Result result = reader.read(stream(smile), "application/smile");
+
+        assertEquals(40, result.getTotalHits());
+        assertEquals("First", result.getDocuments().get(0).getTitle());
+    }
+
+    /**
+     * Tests a response without matches, where the filter path drops the hits array, and the integer total format.
+     *
+     * Expected behavior: should return no documents and an exact total.
+     */
+    @Test
+    void testReadsEmptyResponse() throws IOException {
+        SearchResponseReader.Result result = reader.read(
+                stream("{\"took\":1,\"hits\":{\"total\":0}}".getBytes(StandardCharsets.UTF_8)), null);
+
+        assertEquals(0, result.getTotalHits());
+        assertTrue(result.isTotalHitsExact());
+        assertTrue(result.getDocuments().isEmpty());
+    }
+
+    /**
+     * Tests a response cut short by the search timeout with a failed shard.
+     *
+     * Expected behavior: should report the timeout and the number of failed shards; complete responses report neither.
+     */
+    @Test
+    void testReadsPartialResponse() throws IOException {
+        SearchResponseReader.Result partial = reader.read(stream(("{\"took\":100,\"timed_out\":true,"
+                + "\"_shards\":{\"failed\":2},\"hits\":{\"total\":0}}").getBytes(StandardCharsets.UTF_8)), null);
+        assertTrue(partial.isTimedOut());
+        assertEquals(2, partial.getFailedShards());
+
+        SearchResponseReader.Result complete = reader.read(stream(RESPONSE.getBytes(StandardCharsets.UTF_8)), null);
+        assertFalse(complete.isTimedOut());
+        assertEquals(0, complete.getFailedShards());
+    }
+
+    private static ByteArrayInputStream stream(byte[] bytes) {
+        return new ByteArrayInputStream(bytes);
+    }
+}
@@ -1,26 +1,53 @@
 package com.example.searchservice.service.impl;
 
 import com.example.searchservice.exception.ElasticsearchQueryException;
+import com.example.searchservice.exception.SearchTimeoutException;
+import com.example.searchservice.health.ElasticsearchHealthProbe;
+import com.example.searchservice.metrics.SearchMetrics;
+import com.example.searchservice.metrics.SlowQuery;
+import com.example.searchservice.metrics.SlowQueryLog;
+import com.example.searchservice.model.SearchProfile;
 import com.example.searchservice.model.SearchRequest;
 import com.example.searchservice.model.SearchResponse;
 import com.example.searchservice.model.SearchableDocument;
-import org.elasticsearch.client.RestHighLevelClient;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.search.MeterNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpHeaders;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.entity.NStringEntity;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.Cancellable;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseListener;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.MatchQueryBuilder;
+import org.elasticsearch.index.query.Operator;
+import org.elasticsearch.index.query.QueryBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
-import org.springframework.data.elasticsearch.core.SearchHit;
-import org.springframework.data.elasticsearch.core.SearchHits;
-import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
-import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.util.ReflectionTestUtils;
 
-import java.util.ArrayList;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 /**
@@ -31,74 +58,84 @@ import static org.mockito.Mockito.*;
  */
 class SearchServiceImplTest {
 
-    @Mock
-    private ElasticsearchOperations elasticsearchOperations;
+    private static final String SMILE = "application/smile";
+
+    private static final RequestOptions SMILE_OPTIONS = RequestOptions.DEFAULT.toBuilder()
+            .addHeader(HttpHeaders.ACCEPT, SMILE)
+            .build();
 
     @Mock
-    private SearchHits<SearchableDocument> searchHits;
+    private RestClient restClient;
 
     @Mock
-    private RestHighLevelClient restHighLevelClient;
+    private ElasticsearchHealthProbe healthProbe;
+
+    private SimpleMeterRegistry meterRegistry;
 
-    @InjectMocks
     private SearchServiceImpl searchService;
 
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
     private final String indexName = "test_index";
 
     /**
      * Sets up the test environment before each test case.
      *
-     * Initializes Mockito annotations and sets the index name field in the SearchServiceImpl instance.
+     * Initializes Mockito annotations, creates the service with metrics backed by a simple registry
+     * and the slow-query log disabled, asking for Smile search results, and sets the index name field in the SearchServiceImpl instance.
      */
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        createService(new SlowQueryLog(-1, 10));
+    }
+
+    private void createService(SlowQueryLog slowQueryLog) {
+        searchService = new SearchServiceImpl(restClient, healthProbe, new SearchMetrics(meterRegistry), slowQueryLog,
+                SMILE_OPTIONS);
         ReflectionTestUtils.setField(searchService, "indexName", indexName);
+        ReflectionTestUtils.setField(searchService, "earlyTerminationEnabled", true);
     }
 
     /**
      * Tests the search functionality with a valid search request.
      *
-     * Expected behavior: should return a SearchResponse containing the search results with correct total hits and items.
+     * Expected behavior: should return a SearchResponse containing the search results with correct total hits and items,
+     * and record the timing of each stage and the took reported by Elasticsearch.
      */
     @Test
-    void testSearch() {
-        // Create a new instance to avoid running the real search logic
-        SearchServiceImpl mockService = spy(searchService);
-
+    void testSearch() throws Exception {
         // Arrange
         SearchRequest searchRequest = new SearchRequest();
         searchRequest.setQuery("test");  // Use a single term for testing
         searchRequest.setPage(0);
         searchRequest.setSize(10);
 
-        List<SearchHit<SearchableDocument>> hits = new ArrayList<>();
-        SearchHit<SearchableDocument> hit1 = mock(SearchHit.class);
-        SearchableDocument doc1 = new SearchableDocument();
-        doc1.setId("1");
-        doc1.setTitle("Test Document");
-        when(hit1.getContent()).thenReturn(doc1);
-        hits.add(hit1);
-
-        when(searchHits.getSearchHits()).thenReturn(hits);
-        when(searchHits.getTotalHits()).thenReturn(1L);
-
-        // Stub the search method to avoid the criteria query validation
-        doReturn(searchHits).when(elasticsearchOperations).search(
-                any(CriteriaQuery.class),
-                eq(SearchableDocument.class),
-                any(IndexCoordinates.class)
-        );
+        stubResponse("{\"took\":7,\"hits\":{\"total\":{\"value\":1,\"relation\":\"eq\"},"
+                + "\"hits\":[{\"_id\":\"1\",\"_source\":{\"title\":\"Test Document\"}}]}}");
 
         // Act
-        SearchResponse<SearchableDocument> response = mockService.search(searchRequest);
+        SearchResponse<SearchableDocument> response = searchService.search(searchRequest);
 
         // Assert
         assertNotNull(response);
         assertEquals(1, response.getItems().size());
+        assertEquals("1", response.getItems().get(0).getId());
         assertEquals("Test Document", response.getItems().get(0).getTitle());
         assertEquals(1L, response.getTotalHits());
-        verify(elasticsearchOperations).search(any(CriteriaQuery.class), eq(SearchableDocument.class), any(IndexCoordinates.class));
+        assertTrue(response.isTotalHitsExact());
+
+        Request request = captureRequest();
+        assertEquals("/test_index/_search", request.getEndpoint());
+        assertEquals(SearchResponseReader.FILTER_PATH, request.getParameters().get("filter_path"));
+        assertEquals(SMILE, accept(request));  // Read according to its content type
+
+        for (String stage : Arrays.asList("query_building", "elasticsearch", "hit_mapping")) {
+            assertEquals(1, meterRegistry.get(SearchMetrics.STAGE_TIMER).tag("stage", stage)
+                    .tag("shape", "text").tag("page_size", "le_10").timer().count(), stage);
+        }
+        assertEquals(7.0, meterRegistry.get(SearchMetrics.TOOK_TIMER).timer().totalTime(TimeUnit.MILLISECONDS));
     }
 
     /**
@@ -107,32 +144,395 @@ class SearchServiceImplTest {
      * Expected behavior: should throw an ElasticsearchQueryException when the underlying search fails.
      */
     @Test
-    void testSearchThrowsException() {
+    void testSearchThrowsException() throws Exception {
         // Arrange
         SearchRequest searchRequest = new SearchRequest();
         searchRequest.setQuery("test query");
-        when(elasticsearchOperations.search(any(CriteriaQuery.class), eq(SearchableDocument.class), any(IndexCoordinates.class)))
-                .thenThrow(new RuntimeException("Test exception"));
+        when(restClient.performRequest(any(Request.class))).thenThrow(new IOException("Test exception"));
 
         // Act & Assert
         assertThrows(ElasticsearchQueryException.class, () -> searchService.search(searchRequest));
     }
 
+    /**
+     * Tests a search with a timeout that Elasticsearch reached before collecting all hits.
+     *
+     * Expected behavior: should send the search asynchronously with an Elasticsearch timeout below the caller's
+     * and an opaque id, and report the results as partial.
+     */
+    @Test
+    void testSearchWithTimeoutReportsPartialResults() throws Exception {
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("test");
+        searchRequest.setTimeout(1000L);
+        ReflectionTestUtils.setField(searchService, "timeoutMargin", 50L);
+
+        Response response = mock(Response.class);
+        when(response.getEntity()).thenReturn(new NStringEntity("{\"took\":940,\"timed_out\":true,\"_shards\":{\"failed\":0},"
+                + "\"hits\":{\"total\":{\"value\":3,\"relation\":\"eq\"}}}", ContentType.APPLICATION_JSON));
+        when(restClient.performRequestAsync(any(Request.class), any(ResponseListener.class))).thenAnswer(invocation -> {
+            invocation.<ResponseListener>getArgument(1).onSuccess(response);
+            return mock(Cancellable.class);
+        });
+
+        SearchResponse<SearchableDocument> result = searchService.search(searchRequest);
+
+        assertTrue(result.isTimedOut());
+        assertTrue(result.isPartial());
+        assertEquals(3, result.getTotalHits());
+
+        ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+        verify(restClient).performRequestAsync(captor.capture(), any(ResponseListener.class));
+        verify(restClient, never()).performRequest(any(Request.class));
+        String timeout = captor.getValue().getParameters().get("timeout");
+        assertTrue(timeout.endsWith("ms"), timeout);
+        long timeoutMillis = Long.parseLong(timeout.substring(0, timeout.length() - 2));
+        assertTrue(timeoutMillis > 0 && timeoutMillis <= 950, "Elasticsearch should stop before the deadline: " + timeout);
+        assertTrue(captor.getValue().getOptions().getHeaders().stream()
+                .anyMatch(header -> header.getName().equals(SearchTaskCanceller.OPAQUE_ID_HEADER)));
+    }
+
+    /**
+     * Tests a search still running when its deadline passes.
+     *
+     * Expected behavior: should abort the HTTP request, cancel the Elasticsearch task sent with the request's opaque
+     * id and throw a SearchTimeoutException.
+     */
+    @Test
+    void testSearchIsCancelledAtDeadline() throws Exception {
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("test");
+        searchRequest.setTimeout(50L);
+
+        Cancellable call = mock(Cancellable.class);
+        AtomicReference<String> opaqueId = new AtomicReference<>();
+        when(restClient.performRequestAsync(any(Request.class), any(ResponseListener.class))).thenAnswer(invocation -> {
+            Request request = invocation.getArgument(0);
+            if (request.getEndpoint().endsWith("/_search")) {
+                request.getOptions().getHeaders().stream()
+                        .filter(header -> header.getName().equals(SearchTaskCanceller.OPAQUE_ID_HEADER))
+                        .forEach(header -> opaqueId.set(header.getValue()));
+                return call;  // Never answers
+            }
+            if (request.getEndpoint().equals("/_tasks")) {
+                Response tasks = mock(Response.class);
+                when(tasks.getEntity()).thenReturn(new NStringEntity("{\"nodes\":{\"n1\":{\"tasks\":{"
+                        + "\"n1:7\":{\"headers\":{}},"
+                        + "\"n1:42\":{\"headers\":{\"X-Opaque-Id\":\"" + opaqueId.get() + "\"}}}}}}",
+                        ContentType.APPLICATION_JSON));
+                invocation.<ResponseListener>getArgument(1).onSuccess(tasks);
+            }
+            return mock(Cancellable.class);
+        });
+
+        assertThrows(SearchTimeoutException.class, () -> searchService.search(searchRequest));
+
+        verify(call).cancel();
+        ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+        verify(restClient, times(3)).performRequestAsync(captor.capture(), any(ResponseListener.class));
+        assertEquals("/_tasks/n1:42/_cancel", captor.getAllValues().get(2).getEndpoint(), "Only the request's task is cancelled");
+    }
+
+    /**
+     * Tests that the requested sort is applied to the query in the order given.
+     *
+     * Expected behavior: should add a sort with each field and its direction, defaulting unknown directions to ascending.
+     */
+    @Test
+    void testSearchAppliesRequestedSort() throws Exception {
+        // Arrange
+        Map<String, String> sort = new LinkedHashMap<>();
+        sort.put("createdDate", "desc");
+        sort.put("author", "sideways");
+
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("test");
+        searchRequest.setSort(sort);
+
+        stubResponse("{\"took\":1,\"hits\":{\"total\":{\"value\":0,\"relation\":\"eq\"}}}");
+
+        // Act
+        searchService.search(searchRequest);
+
+        // Assert
+        JsonNode body = objectMapper.readTree(EntityUtils.toString(captureRequest().getEntity()));
+        assertEquals("desc", body.at("/sort/0/createdDate/order").asText());
+        assertEquals("asc", body.at("/sort/1/author/order").asText());
+        assertTrue(body.get("track_total_hits").asBoolean(), "Exact totals should be tracked by default");
+    }
+
+    /**
+     * Tests that recency-sorted searches without exact totals bound hit counting so the index sort can terminate early.
+     *
+     * Expected behavior: should track hits only up to the end of the requested page plus one and
+     * report the total as inexact when Elasticsearch returns a lower bound.
+     */
+    @Test
+    void testSearchBoundsHitCountingForIndexSortedQuery() throws Exception {
+        // Arrange
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("test");
+        searchRequest.setPage(2);
+        searchRequest.setSize(10);
+        searchRequest.setSort(Collections.singletonMap("createdDate", "desc"));
+        searchRequest.setTrackTotalHits(false);
+
+        stubResponse("{\"took\":1,\"hits\":{\"total\":{\"value\":31,\"relation\":\"gte\"}}}");
+
+        // Act
+        SearchResponse<SearchableDocument> response = searchService.search(searchRequest);
+
+        // Assert
+        JsonNode body = objectMapper.readTree(EntityUtils.toString(captureRequest().getEntity()));
+        assertEquals(31, body.get("track_total_hits").asInt());
+        assertEquals(20, body.get("from").asInt());
+        assertFalse(response.isTotalHitsExact(), "Bounded totals should be reported as inexact");
+        assertTrue(response.isHasNext(), "A lower bound past this page should indicate a next page");
+    }
+
+    /**
+     * Tests the passthrough search.
+     *
+     * Expected behavior: should request JSON with the passthrough filter path, copy the hits into the envelope
+     * and record the copy as the passthrough stage.
+     */
+    @Test
+    void testStreamSearch() throws Exception {
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("test");
+
+        stubResponse("{\"hits\":{\"total\":{\"value\":1,\"relation\":\"eq\"},"
+                + "\"hits\":[{\"_id\":\"1\",\"_source\":{\"title\":\"Raw\"}}]}}");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        searchService.streamSearch(searchRequest, output);
+
+        JsonNode body = objectMapper.readTree(output.toByteArray());
+        assertEquals(1, body.get("totalHits").asLong());
+        assertEquals("Raw", body.at("/hits/0/_source/title").asText());
+
+        Request request = captureRequest();
+        assertEquals(PassthroughResponseWriter.FILTER_PATH, request.getParameters().get("filter_path"));
+        assertNull(accept(request), "Copied as JSON text, so left to the client's default");
+        assertEquals(1, meterRegistry.get(SearchMetrics.STAGE_TIMER).tag("stage", "passthrough").timer().count());
+    }
+
+    /**
+     * Tests searches reaching the slow-query threshold.
+     *
+     * Expected behavior: should record the query sent to Elasticsearch, the hit count, took and the stage
+     * durations of both regular and passthrough searches, newest first.
+     */
+    @Test
+    void testSlowSearchesAreRecorded() throws Exception {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(0, 10);
+        createService(slowQueryLog);
+
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("slow");
+        searchRequest.setSize(5);
+        stubResponse("{\"took\":12,\"hits\":{\"total\":{\"value\":3,\"relation\":\"eq\"},\"hits\":[]}}");
+
+        searchService.search(searchRequest);
+        searchService.streamSearch(searchRequest, new ByteArrayOutputStream());
+
+        List<SlowQuery> entries = slowQueryLog.entries();
+        assertEquals(2, entries.size());
+
+        SlowQuery regular = entries.get(1);
+        assertEquals("slow", regular.getQuery());
+        assertEquals(5, regular.getSize());
+        assertEquals(3, regular.getTotalHits());
+        assertEquals(12, regular.getTookMillis());
+        assertEquals(Arrays.asList("query_building", "elasticsearch", "hit_mapping"),
+                Arrays.asList(regular.getStageMicros().keySet().toArray()));
+        assertEquals(5, objectMapper.readTree(regular.getDsl()).get("size").asInt());
+        assertEquals("slow", objectMapper.readTree(regular.getDsl()).findValue("match").at("/title/query").asText());
+
+        SlowQuery passthrough = entries.get(0);
+        assertEquals(3, passthrough.getTotalHits());
+        assertEquals(-1, passthrough.getTookMillis());
+        assertTrue(passthrough.getStageMicros().containsKey("passthrough"));
+    }
+
+    /**
+     * Tests searches below the slow-query threshold.
+     *
+     * Expected behavior: should not record anything.
+     */
+    @Test
+    void testFastSearchesAreNotRecorded() throws Exception {
+        SlowQueryLog slowQueryLog = new SlowQueryLog(60_000, 10);
+        createService(slowQueryLog);
+
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("fast");
+        stubResponse("{\"took\":1,\"hits\":{\"total\":{\"value\":0,\"relation\":\"eq\"}}}");
+
+        searchService.search(searchRequest);
+
+        assertTrue(slowQueryLog.entries().isEmpty());
+        assertEquals(0, slowQueryLog.getRecorded());
+    }
+
+    /**
+     * Tests profiling a search.
+     *
+     * Expected behavior: should send the regular search body with profile enabled and the profile filter path,
+     * and return the query, hit count, took and per-shard profile from the response.
+     */
+    @Test
+    void testProfile() throws Exception {
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("profiled");
+        stubResponse("{\"took\":40,\"hits\":{\"total\":{\"value\":9,\"relation\":\"eq\"}},"
+                + "\"profile\":{\"shards\":[{\"id\":\"[node][test_index][0]\",\"searches\":[]}]}}");
+
+        SearchProfile profile = searchService.profile(searchRequest);
+
+        assertEquals(9, profile.getTotalHits());
+        assertEquals(40, profile.getTook());
+        assertTrue(profile.getQuery().get("profile").asBoolean());
+        assertEquals("[node][test_index][0]", profile.getShards().get(0).get("id").asText());
+
+        Request request = captureRequest();
+        assertEquals(SearchServiceImpl.PROFILE_FILTER_PATH, request.getParameters().get("filter_path"));
+        assertTrue(objectMapper.readTree(EntityUtils.toString(request.getEntity())).get("profile").asBoolean());
+        assertThrows(MeterNotFoundException.class, () -> meterRegistry.get(SearchMetrics.STAGE_TIMER).timer());
+    }
+
+    /**
+     * Tests profiling when Elasticsearch cannot be reached.
+     *
+     * Expected behavior: should throw an ElasticsearchQueryException.
+     */
+    @Test
+    void testProfileThrowsException() throws Exception {
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("profiled");
+        when(restClient.performRequest(any(Request.class))).thenThrow(new IOException("Test exception"));
+
+        assertThrows(ElasticsearchQueryException.class, () -> searchService.profile(searchRequest));
+    }
+
+    /**
+     * Tests the conditions under which early termination is allowed.
+     *
+     * Expected behavior: should only allow it for createdDate descending as the primary sort,
+     * when exact totals are not requested and the feature is enabled.
+     */
+    @Test
+    void testCanTerminateEarly() {
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setTrackTotalHits(false);
+
+        assertTrue(searchService.canTerminateEarly(searchRequest, Sort.by(Sort.Order.desc("createdDate"), Sort.Order.asc("title"))));
+        assertFalse(searchService.canTerminateEarly(searchRequest, Sort.by(Sort.Order.asc("createdDate"))));
+        assertFalse(searchService.canTerminateEarly(searchRequest, Sort.by(Sort.Order.desc("lastUpdatedDate"))));
+        assertFalse(searchService.canTerminateEarly(searchRequest, Sort.unsorted()));
+
+        searchRequest.setTrackTotalHits(true);
+        assertFalse(searchService.canTerminateEarly(searchRequest, Sort.by(Sort.Order.desc("createdDate"))));
+
+        searchRequest.setTrackTotalHits(false);
+        ReflectionTestUtils.setField(searchService, "earlyTerminationEnabled", false);
+        assertFalse(searchService.canTerminateEarly(searchRequest, Sort.by(Sort.Order.desc("createdDate"))));
+    }
+
+    /**
+     * Tests the query built for a search request.
+     *
+     * Expected behavior: should require a title or content match and add each filter in filter context.
+     */
+    @Test
+    void testBuildQuery() {
+        SearchRequest searchRequest = new SearchRequest();
+        searchRequest.setQuery("elasticsearch");
+        searchRequest.setFilters(Collections.singletonMap("category", "Technology"));
+
+        BoolQueryBuilder query = (BoolQueryBuilder) searchService.buildQuery(searchRequest);
+
+        assertEquals(1, query.must().size());
+        BoolQueryBuilder text = (BoolQueryBuilder) query.must().get(0);
+        assertEquals(2, text.should().size());
+        assertEquals("title", ((MatchQueryBuilder) text.should().get(0)).fieldName());
+        assertEquals("content", ((MatchQueryBuilder) text.should().get(1)).fieldName());
+        assertEquals(1, query.filter().size());
+        assertTrue(query.should().isEmpty(), "Text matches must not be optional next to filters");
+    }
+
+    /**
+     * Tests translating request filters into queries.
+     *
+     * Expected behavior: should produce an all-terms match for single values, an any-of match for collections,
+     * keep dotted metadata keys as field paths and skip null values.
+     */
+    @Test
+    void testBuildFilterQueries() {
+        Map<String, Object> filters = new LinkedHashMap<>();
+        filters.put("category", "Technology");
+        filters.put("tags", Arrays.asList("java", "search"));
+        filters.put("metadata.region", "eu");
+        filters.put("author", null);
+
+        List<QueryBuilder> queries = searchService.buildFilterQueries(filters);
+
+        assertEquals(3, queries.size(), "Null filter values should be skipped");
+        MatchQueryBuilder category = (MatchQueryBuilder) queries.get(0);
+        assertEquals("category", category.fieldName());
+        assertEquals("Technology", category.value());
+        assertEquals(Operator.AND, category.operator());
+        BoolQueryBuilder tags = (BoolQueryBuilder) queries.get(1);
+        assertEquals(2, tags.should().size());
+        assertEquals("1", tags.minimumShouldMatch());
+        assertEquals("metadata.region", ((MatchQueryBuilder) queries.get(2)).fieldName());
+
+        assertTrue(searchService.buildFilterQueries(null).isEmpty());
+    }
+
     /**
      * Tests the health check functionality of the search service.
      *
-     * Expected behavior: should return a status message starting with "OK:" when the index exists and connection is successful.
+     * Expected behavior: should describe the last probe result without contacting Elasticsearch.
      */
     @Test
     void testCheckHealth() {
-        // Override the real method to avoid using IndicesClient
-        SearchServiceImpl searchServiceSpy = spy(searchService);
+        assertTrue(searchService.checkHealth().startsWith("UNKNOWN:"));
 
-        // Case 1: Index exists
-        doReturn("OK: Connected to Elasticsearch, index 'test_index' exists")
-                .when(searchServiceSpy).checkHealth();
+        when(healthProbe.getLastResult()).thenReturn(
+                new ElasticsearchHealthProbe.Result(System.currentTimeMillis(), "green", true, 3, null, 5));
+        assertEquals("OK: Connected to Elasticsearch, index 'test_index' exists", searchService.checkHealth());
+
+        when(healthProbe.getLastResult()).thenReturn(
+                new ElasticsearchHealthProbe.Result(System.currentTimeMillis(), "yellow", false, -1, null, 5));
+        assertEquals("WARNING: Index 'test_index' does not exist", searchService.checkHealth());
+
+        when(healthProbe.getLastResult()).thenReturn(
+                new ElasticsearchHealthProbe.Result(System.currentTimeMillis(), "red", true, -1, null, 5));
+        assertEquals("WARNING: Cluster status is red", searchService.checkHealth());
+
+        when(healthProbe.getLastResult()).thenReturn(
+                new ElasticsearchHealthProbe.Result(System.currentTimeMillis(), null, false, -1, "Connection refused", 5));
+        assertEquals("ERROR: Connection refused", searchService.checkHealth());
+
+        verifyNoInteractions(restClient);
+    }
+
+    private void stubResponse(String json) throws IOException {
+        Response response = mock(Response.class);
+        when(response.getEntity()).thenReturn(new NStringEntity(json, ContentType.APPLICATION_JSON));
+        when(restClient.performRequest(any(Request.class))).thenReturn(response);
+    }
+
+    private static String accept(Request request) {
+        return request.getOptions().getHeaders().stream()
+                .filter(header -> HttpHeaders.ACCEPT.equals(header.getName()))
+                .map(header -> header.getValue()).findFirst().orElse(null);
+    }
 
-        String result = searchServiceSpy.checkHealth();
-        assertTrue(result.startsWith("OK:"));
+    private Request captureRequest() throws IOException {
+        ArgumentCaptor<Request> captor = ArgumentCaptor.forClass(Request.class);
+        verify(restClient).performRequest(captor.capture());
+        return captor.getValue();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,83 @@
+package com.example.searchservice.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the SearchTaskCanceller class.
+ *
+ * These tests run the canceller against a local HTTP server standing in for the task management API.
+ */
+class SearchTaskCancellerTest {
+
+    private static final String TASKS = "{\"nodes\":{\"n1\":{\"tasks\":{"
+            + "\"n1:7\":{\"headers\":{\"X-Opaque-Id\":\"request-1\"}},"
+            + "\"n1:8\":{\"headers\":{\"X-Opaque-Id\":\"request-2\"}}}}}}";
+
+    private final BlockingQueue<String> requests = new ArrayBlockingQueue<>(10);
+    private HttpServer server;
+    private RestClient restClient;
+    private SearchTaskCanceller canceller;
+
+    /**
+     * Starts a server that answers the task list and records each request.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/_tasks", exchange -> {
+            requests.add(exchange.getRequestMethod() + " " + exchange.getRequestURI().getPath());
+            String body = "GET".equals(exchange.getRequestMethod()) ? TASKS : "{}";
+            respond(exchange, body.getBytes(StandardCharsets.UTF_8));
+        });
+        server.start();
+
+        restClient = RestClient.builder(new HttpHost("127.0.0.1", server.getAddress().getPort())).build();
+        canceller = new SearchTaskCanceller(restClient, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        restClient.close();
+        server.stop(0);
+    }
+
+    /**
+     * Tests cancelling the task of a request.
+     *
+     * Expected behavior: should list the tasks and cancel only the one carrying the request's id.
+     */
+    @Test
+    void testCancelsOnlyTaskOfRequest() throws Exception {
+        canceller.cancel("request-1");
+
+        assertEquals("GET /_tasks", requests.poll(10, TimeUnit.SECONDS));
+        assertEquals("POST /_tasks/n1:7/_cancel", requests.poll(10, TimeUnit.SECONDS));
+        assertNull(requests.poll(200, TimeUnit.MILLISECONDS), "Only the request's own task should be cancelled");
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add(HttpHeaders.CONTENT_TYPE, "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.example.searchservice.stub;
+
+import org.apache.http.HttpHost;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.action.search.MultiSearchRequest;
+import org.elasticsearch.action.search.MultiSearchResponse;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.ResponseException;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.elasticsearch.client.core.CountRequest;
+import org.elasticsearch.rest.RestStatus;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.xcontent.XContentType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the ElasticsearchStubServer class.
+ *
+ * These tests start the stub on a free port and call it with the Elasticsearch clients, so the responses are
+ * checked by the same parsers the service uses.
+ */
+class ElasticsearchStubServerTest {
+
+    private final List<ElasticsearchStubServer> servers = new ArrayList<>();
+    private final List<RestHighLevelClient> clients = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (RestHighLevelClient client : clients) {
+            client.close();
+        }
+        servers.forEach(ElasticsearchStubServer::close);
+    }
+
+    /**
+     * Tests a search through the high-level client, which first checks the node's version and product header.
+     * Expected behavior: should return the requested page of generated documents and the configured total.
+     */
+    @Test
+    void testSearchWithHighLevelClient() throws IOException {
+        RestHighLevelClient client = client(start(new ElasticsearchStubServer.Settings()));
+
+        SearchResponse response = client.search(new SearchRequest("documents")
+                .source(new SearchSourceBuilder().size(5)), RequestOptions.DEFAULT);
+
+        assertEquals(RestStatus.OK, response.status());
+        assertEquals(10_000, response.getHits().getTotalHits().value);
+        assertEquals(5, response.getHits().getHits().length);
+        assertEquals("documents", response.getHits().getAt(0).getIndex());
+        assertNotNull(response.getHits().getAt(0).getSourceAsMap().get("title"));
+    }
+
+    /**
+     * Tests paging and hit counting.
+     * Expected behavior: should stop at the total hits and leave out the total when it is not tracked.
+     */
+    @Test
+    void testPagingAndTrackTotalHits() throws IOException {
+        RestHighLevelClient client = client(start(new ElasticsearchStubServer.Settings()));
+
+        SearchResponse lastPage = client.search(new SearchRequest("documents")
+                .source(new SearchSourceBuilder().from(9_998).size(10)), RequestOptions.DEFAULT);
+        assertEquals(2, lastPage.getHits().getHits().length);
+
+        SearchResponse untracked = client.search(new SearchRequest("documents")
+                .source(new SearchSourceBuilder().size(3).trackTotalHits(false)), RequestOptions.DEFAULT);
+        assertNull(untracked.getHits().getTotalHits());
+        assertEquals(3, untracked.getHits().getHits().length);
+    }
+
+    /**
+     * Tests multi-search, bulk and count through the high-level client.
+     * Expected behavior: should answer every sub-request and bulk item successfully.
+     */
+    @Test
+    void testMultiSearchBulkAndCount() throws IOException {
+        RestHighLevelClient client = client(start(new ElasticsearchStubServer.Settings()));
+
+        MultiSearchResponse multiSearch = client.msearch(new MultiSearchRequest()
+                .add(new SearchRequest("documents").source(new SearchSourceBuilder().size(2)))
+                .add(new SearchRequest("documents").source(new SearchSourceBuilder().size(4))), RequestOptions.DEFAULT);
+        assertEquals(2, multiSearch.getResponses().length);
+        assertEquals(2, multiSearch.getResponses()[0].getResponse().getHits().getHits().length);
+        assertEquals(4, multiSearch.getResponses()[1].getResponse().getHits().getHits().length);
+
+        BulkResponse bulk = client.bulk(bulkOf(3), RequestOptions.DEFAULT);
+        assertFalse(bulk.hasFailures());
+        assertEquals(3, bulk.getItems().length);
+        assertEquals("1", bulk.getItems()[1].getId());
+
+        assertEquals(10_000, client.count(new CountRequest("documents"), RequestOptions.DEFAULT).getCount());
+    }
+
+    /**
+     * Tests item-level rejections.
+     * Expected behavior: bulk items and multi-search responses should fail with 429 inside a 200 response.
+     */
+    @Test
+    void testItemRejections() throws IOException {
+        ElasticsearchStubServer.Settings settings = new ElasticsearchStubServer.Settings();
+        settings.setItemRejectionRate(1);
+        ElasticsearchStubServer server = start(settings);
+        RestHighLevelClient client = client(server);
+
+        BulkResponse bulk = client.bulk(bulkOf(2), RequestOptions.DEFAULT);
+        assertTrue(bulk.hasFailures());
+        assertEquals(RestStatus.TOO_MANY_REQUESTS, bulk.getItems()[0].getFailure().getStatus());
+
+        MultiSearchResponse multiSearch = client.msearch(new MultiSearchRequest()
+                .add(new SearchRequest("documents")), RequestOptions.DEFAULT);
+        assertTrue(multiSearch.getResponses()[0].isFailure());
+        assertEquals(3, server.getRejected());
+    }
+
+    /**
+     * Tests index existence and creation.
+     * Expected behavior: configured and created indices should exist, others should not.
+     */
+    @Test
+    void testIndexExistsAndCreate() throws IOException {
+        RestClient client = client(start(new ElasticsearchStubServer.Settings())).getLowLevelClient();
+
+        assertEquals(200, status(client, new Request("HEAD", "/documents")));
+        assertEquals(404, status(client, new Request("HEAD", "/other")));
+        assertEquals(200, status(client, new Request("PUT", "/other")));
+        assertEquals(200, status(client, new Request("HEAD", "/other")));
+        assertEquals(200, status(client, new Request("GET", "/_cluster/health")));
+    }
+
+    /**
+     * Tests async search submission, get and delete.
+     * Expected behavior: should answer the submission as completed with an id, return the same response on get
+     * and forget it once deleted.
+     */
+    @Test
+    void testAsyncSearch() throws IOException {
+        RestClient client = client(start(new ElasticsearchStubServer.Settings())).getLowLevelClient();
+        Request submit = new Request("POST", "/documents/_async_search");
+        submit.setJsonEntity("{\"size\":2}");
+
+        String submitted = EntityUtils.toString(client.performRequest(submit).getEntity());
+        String id = submitted.replaceAll("^\\{\"id\":\"([^\"]+)\".*$", "$1");
+
+        assertTrue(submitted.contains("\"is_running\":false"));
+        assertTrue(submitted.contains("\"response\":{\"took\""));
+        assertEquals(submitted, EntityUtils.toString(client.performRequest(new Request("GET", "/_async_search/" + id)).getEntity()));
+        assertEquals(200, status(client, new Request("DELETE", "/_async_search/" + id)));
+        assertEquals(404, status(client, new Request("GET", "/_async_search/" + id)));
+    }
+
+    /**
+     * Tests request-level faults.
+     * Expected behavior: should reject with 429 or fail with 500 at a rate of 1, and leave other endpoints alone.
+     */
+    @Test
+    void testRejectionsAndErrors() throws IOException {
+        ElasticsearchStubServer.Settings rejecting = new ElasticsearchStubServer.Settings();
+        rejecting.setRejectionRate(1);
+        ElasticsearchStubServer rejectingServer = start(rejecting);
+        RestClient client = client(rejectingServer).getLowLevelClient();
+        assertEquals(429, status(client, search()));
+        assertEquals(200, status(client, new Request("HEAD", "/documents")));
+        assertEquals(1, rejectingServer.getRejected());
+
+        ElasticsearchStubServer.Settings failing = new ElasticsearchStubServer.Settings();
+        failing.setErrorRate(1);
+        ElasticsearchStubServer failingServer = start(failing);
+        ResponseException exception = assertThrows(ResponseException.class,
+                () -> client(failingServer).getLowLevelClient().performRequest(search()));
+        assertEquals(500, exception.getResponse().getStatusLine().getStatusCode());
+        assertTrue(EntityUtils.toString(exception.getResponse().getEntity()).contains("search_phase_execution_exception"));
+        assertEquals(1, failingServer.getFailed());
+    }
+
+    /**
+     * Tests that faults follow the seed.
+     * Expected behavior: two stubs with the same seed should fail the same requests, at about the configured rate.
+     */
+    @Test
+    void testFaultsAreDeterministic() throws IOException {
+        List<List<Integer>> runs = new ArrayList<>();
+        for (int run = 0; run < 2; run++) {
+            ElasticsearchStubServer.Settings settings = new ElasticsearchStubServer.Settings();
+            settings.setRejectionRate(0.3);
+            settings.setSeed(11);
+            RestClient client = client(start(settings)).getLowLevelClient();
+            List<Integer> statuses = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                statuses.add(status(client, search()));
+            }
+            runs.add(statuses);
+        }
+
+        assertEquals(runs.get(0), runs.get(1));
+        long rejected = runs.get(0).stream().filter(status -> status == 429).count();
+        assertTrue(rejected > 15 && rejected < 45, "rejected " + rejected);
+    }
+
+    /**
+     * Tests the configured latency.
+     * Expected behavior: data requests should be delayed, index-exists calls should not.
+     */
+    @Test
+    void testLatency() throws IOException {
+        ElasticsearchStubServer.Settings settings = new ElasticsearchStubServer.Settings();
+        settings.setLatency(LatencyDistribution.parse("constant:200"));
+        RestClient client = client(start(settings)).getLowLevelClient();
+        status(client, new Request("HEAD", "/documents"));  // Open the connection
+
+        long start = System.nanoTime();
+        status(client, new Request("HEAD", "/documents"));
+        long head = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        status(client, search());
+        long search = System.nanoTime() - start;
+
+        assertTrue(search >= 200_000_000L, "search took " + search + " ns");
+        assertTrue(head < 200_000_000L, "HEAD took " + head + " ns");
+    }
+
+    /**
+     * Tests recorded responses.
+     * Expected behavior: should return a recorded search response verbatim and generate the others.
+     */
+    @Test
+    void testRecordedResponses(@TempDir Path recordings) throws IOException {
+        String recorded = "{\"took\":3,\"timed_out\":false,\"hits\":{\"total\":{\"value\":1,\"relation\":\"eq\"},"
+                + "\"hits\":[{\"_id\":\"recorded\",\"_source\":{\"title\":\"Recorded\"}}]}}";
+        Files.write(recordings.resolve("search.json"), recorded.getBytes(StandardCharsets.UTF_8));
+        ElasticsearchStubServer.Settings settings = new ElasticsearchStubServer.Settings();
+        settings.setRecordings(recordings);
+        RestClient client = client(start(settings)).getLowLevelClient();
+
+        Response response = client.performRequest(search());
+        assertEquals(recorded, EntityUtils.toString(response.getEntity()));
+        assertTrue(EntityUtils.toString(client.performRequest(new Request("GET", "/documents/_count")).getEntity())
+                .contains("\"count\":10000"));
+    }
+
+    private ElasticsearchStubServer start(ElasticsearchStubServer.Settings settings) throws IOException {
+        ElasticsearchStubServer server = new ElasticsearchStubServer(settings);
+        servers.add(server);
+        server.start();
+        return server;
+    }
+
+    private RestHighLevelClient client(ElasticsearchStubServer server) {
+        RestHighLevelClient client = new RestHighLevelClient(RestClient.builder(HttpHost.create(server.getUrl())));
+        clients.add(client);
+        return client;
+    }
+
+    private static BulkRequest bulkOf(int count) {
+        BulkRequest bulk = new BulkRequest();
+        for (int i = 0; i < count; i++) {
+            bulk.add(new IndexRequest("documents").id(String.valueOf(i)).source("{\"title\":\"t\"}", XContentType.JSON));
+        }
+        return bulk;
+    }
+
+    private static Request search() {
+        Request request = new Request("POST", "/documents/_search");
+        request.setJsonEntity("{\"size\":1}");
+        return request;
+    }
+
+    private static int status(RestClient client, Request request) throws IOException {
+        try {
+            return client.performRequest(request).getStatusLine().getStatusCode();
+        } catch (ResponseException e) {
+            return e.getResponse().getStatusLine().getStatusCode();
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.searchservice.stub;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the LatencyDistribution class.
+ */
+class LatencyDistributionTest {
+
+    /**
+     * Tests the fixed distributions.
+     * Expected behavior: none should never delay and constant should always delay by the given time.
+     */
+    @Test
+    void testNoneAndConstant() {
+        SplittableRandom random = new SplittableRandom(1);
+        assertEquals(0, LatencyDistribution.parse("none").sampleNanos(random));
+        assertEquals(0, LatencyDistribution.parse("").sampleNanos(random));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(5), LatencyDistribution.parse("constant:5").sampleNanos(random));
+        assertEquals(TimeUnit.MICROSECONDS.toNanos(500), LatencyDistribution.parse("constant:0.5").sampleNanos(random));
+    }
+
+    /**
+     * Tests the uniform distribution.
+     * Expected behavior: should stay within its bounds and reach both ends of the range.
+     */
+    @Test
+    void testUniform() {
+        LatencyDistribution uniform = LatencyDistribution.parse("uniform:2:20");
+        SplittableRandom random = new SplittableRandom(1);
+        long min = Long.MAX_VALUE;
+        long max = 0;
+        for (int i = 0; i < 10_000; i++) {
+            long sample = uniform.sampleNanos(random);
+            min = Math.min(min, sample);
+            max = Math.max(max, sample);
+        }
+        assertTrue(min >= TimeUnit.MILLISECONDS.toNanos(2));
+        assertTrue(max <= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(min < TimeUnit.MILLISECONDS.toNanos(3) && max > TimeUnit.MILLISECONDS.toNanos(19));
+    }
+
+    /**
+     * Tests the log-normal distribution.
+     * Expected behavior: the sample median and 99th percentile should be close to the configured ones.
+     */
+    @Test
+    void testLogNormalPercentiles() {
+        LatencyDistribution logNormal = LatencyDistribution.parse("lognormal:5:80");
+        SplittableRandom random = new SplittableRandom(7);
+        long[] samples = new long[100_000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = logNormal.sampleNanos(random);
+        }
+        Arrays.sort(samples);
+
+        double median = samples[samples.length / 2] / 1e6;
+        double p99 = samples[(int) (samples.length * 0.99)] / 1e6;
+        assertEquals(5, median, 0.25);
+        assertEquals(80, p99, 8);
+    }
+
+    /**
+     * Tests that sampling is reproducible.
+     * Expected behavior: the same seed should yield the same delays.
+     */
+    @Test
+    void testSameSeedSameSamples() {
+        LatencyDistribution logNormal = LatencyDistribution.parse("lognormal:5:80");
+        SplittableRandom first = new SplittableRandom(3);
+        SplittableRandom second = new SplittableRandom(3);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(logNormal.sampleNanos(first), logNormal.sampleNanos(second));
+        }
+    }
+
+    /**
+     * Tests malformed specs.
+     * Expected behavior: should throw IllegalArgumentException naming the spec.
+     */
+    @Test
+    void testInvalidSpecs() {
+        for (String spec : new String[]{"gaussian:5", "constant", "constant:abc", "constant:-1", "uniform:20:2",
+                "lognormal:50:5", "lognormal:0:5", "uniform:1:2:3"}) {
+            IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                    () -> LatencyDistribution.parse(spec), spec);
+            assertNotNull(exception.getMessage());
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.searchservice.util;
+
+import com.example.searchservice.model.SearchableDocument;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the CorpusGenerator class.
+ *
+ * These tests verify that the corpus is determined by its seed alone, that documents are valid,
+ * and that the NDJSON files hold the corpus in order in both formats.
+ */
+class CorpusGeneratorTest {
+
+    private static final long NOW = 1735689600000L;  // 2025-01-01T00:00:00Z
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * Tests that generation is reproducible.
+     *
+     * Expected behavior: should produce identical documents for the same seed and position, and different
+     * documents for a different seed.
+     */
+    @Test
+    void testSameSeedProducesSameDocuments() {
+        CorpusGenerator first = new CorpusGenerator(7, NOW);
+        CorpusGenerator second = new CorpusGenerator(7, NOW);
+        CorpusGenerator other = new CorpusGenerator(8, NOW);
+
+        for (long n = 0; n < 50; n++) {
+            SearchableDocument a = first.document(n);
+            SearchableDocument b = second.document(n);
+            assertEquals(a.getId(), b.getId(), "Document " + n + " should be reproducible");
+            assertEquals(a.getTitle(), b.getTitle());
+            assertEquals(a.getContent(), b.getContent());
+            assertEquals(a.getAuthor(), b.getAuthor());
+            assertArrayEquals(a.getTags(), b.getTags());
+            assertEquals(a.getCreatedDate(), b.getCreatedDate());
+            assertEquals(a.getLastUpdatedDate(), b.getLastUpdatedDate());
+            assertNotEquals(first.document(n).getId(), other.document(n).getId(), "Another seed should give other ids");
+        }
+    }
+
+    /**
+     * Tests the fields of generated documents.
+     *
+     * Expected behavior: should produce unique ids, 2-4 distinct tags from the generator's vocabulary, content
+     * without surrounding whitespace and dates in order before the reference time.
+     */
+    @Test
+    void testDocumentsAreValid() {
+        CorpusGenerator generator = new CorpusGenerator(42, NOW);
+        Set<String> ids = new HashSet<>();
+        for (long n = 0; n < 2000; n++) {
+            SearchableDocument document = generator.document(n);
+            assertTrue(ids.add(document.getId()), "Ids should be unique");
+            assertTrue(SearchDataGenerator.getCategories().contains(document.getCategory()));
+            assertTrue(document.getTitle().contains(document.getCategory()), "Title should name the category");
+            assertEquals(document.getContent().trim(), document.getContent());
+
+            String[] tags = document.getTags();
+            assertTrue(tags.length >= 2 && tags.length <= 4, "Documents should have 2-4 tags");
+            assertEquals(tags.length, new HashSet<>(Arrays.asList(tags)).size(), "Tags should be distinct");
+            assertTrue(SearchDataGenerator.getTags().containsAll(Arrays.asList(tags)));
+
+            assertTrue(document.getCreatedDate().getTime() <= NOW);
+            assertTrue(document.getLastUpdatedDate().getTime() >= document.getCreatedDate().getTime());
+            assertTrue(document.getLastUpdatedDate().getTime() <= NOW);
+        }
+    }
+
+    /**
+     * Tests parallel generation into a consumer.
+     *
+     * Expected behavior: should hand every document of the corpus to the consumer exactly once, each equal to
+     * the document generated on its own.
+     */
+    @Test
+    void testGenerateIsIndependentOfThreadCount() {
+        CorpusGenerator generator = new CorpusGenerator(42, NOW);
+        Set<String> expected = new HashSet<>();
+        for (long n = 0; n < 1000; n++) {
+            expected.add(generator.document(n).getId());
+        }
+
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        AtomicLong count = new AtomicLong();
+        generator.generate(1000, 4, document -> {
+            ids.add(document.getId());
+            count.incrementAndGet();
+        });
+
+        assertEquals(1000, count.get());
+        assertEquals(expected, ids);
+    }
+
+    /**
+     * Tests writing documents to NDJSON files.
+     *
+     * Expected behavior: should write one source per line, split across the requested files, so that the
+     * concatenated files equal the corpus in order whatever the number of files and threads.
+     */
+    @Test
+    void testWriteDocuments(@TempDir Path directory) throws IOException {
+        CorpusGenerator generator = new CorpusGenerator(42, NOW);
+
+        List<Path> files = generator.writeNdjson(101, 3, 4, directory.resolve("split"), CorpusGenerator.Format.DOCUMENTS);
+        List<Path> single = generator.writeNdjson(101, 1, 1, directory.resolve("single"), CorpusGenerator.Format.DOCUMENTS);
+
+        assertEquals(4, files.size());
+        List<String> lines = readAll(files);
+        assertEquals(readAll(single), lines, "Content should not depend on the number of files");
+        assertEquals(101, lines.size());
+        for (int n = 0; n < lines.size(); n++) {
+            JsonNode source = objectMapper.readTree(lines.get(n));
+            assertEquals(generator.document(n).getId(), source.get("id").asText());
+            assertEquals(generator.document(n).getTitle(), source.get("title").asText());
+        }
+    }
+
+    /**
+     * Tests writing documents as bulk request bodies.
+     *
+     * Expected behavior: should precede each source with an index action carrying the document id.
+     */
+    @Test
+    void testWriteBulk(@TempDir Path directory) throws IOException {
+        CorpusGenerator generator = new CorpusGenerator(42, NOW);
+
+        List<String> lines = readAll(generator.writeNdjson(10, 2, 2, directory, CorpusGenerator.Format.BULK));
+
+        assertEquals(20, lines.size());
+        for (int n = 0; n < 10; n++) {
+            JsonNode action = objectMapper.readTree(lines.get(2 * n));
+            JsonNode source = objectMapper.readTree(lines.get(2 * n + 1));
+            assertEquals(generator.document(n).getId(), action.get("index").get("_id").asText());
+            assertEquals(generator.document(n).getId(), source.get("id").asText());
+        }
+    }
+
+    private static List<String> readAll(List<Path> files) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Path file : files) {
+            lines.addAll(Files.readAllLines(file, StandardCharsets.UTF_8));
+        }
+        return lines;
+    }
+}
@@ -1,14 +1,26 @@
 package com.example.searchservice.util;
 
+import com.example.searchservice.model.SearchableDocument;
 import com.example.searchservice.repository.SearchRepository;
+import com.example.searchservice.service.DocumentsIndexedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -23,6 +35,9 @@ class SearchDataInitializerTest {
     @Mock
     private SearchRepository searchRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private SearchDataInitializer searchDataInitializer;
 
@@ -92,4 +107,157 @@ class SearchDataInitializerTest {
         verify(searchRepository).count();
         verify(searchRepository, never()).saveAll(anyList());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests loading in batches.
+     *
+     * Expected behavior: should index the documents in batches of the configured size, each document once,
+     * announce each indexed batch and report the load as completed.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLoadSampleDataInBatches() {
+        // Arrange
+        ReflectionTestUtils.setField(searchDataInitializer, "documentCount", 25);
+        ReflectionTestUtils.setField(searchDataInitializer, "batchSize", 10);
+        ReflectionTestUtils.setField(searchDataInitializer, "concurrency", 3);
+        when(searchRepository.count()).thenReturn(0L);
+
+        // Act
+        searchDataInitializer.loadSampleData();
+
+        // Assert
+        ArgumentCaptor<List<SearchableDocument>> batches = ArgumentCaptor.forClass(List.class);
+        verify(searchRepository, times(3)).saveAll(batches.capture());
+        Set<String> ids = new HashSet<>();
+        batches.getAllValues().forEach(batch -> batch.forEach(document -> ids.add(document.getId())));
+        assertEquals(25, ids.size());
+        ArgumentCaptor<DocumentsIndexedEvent> events = ArgumentCaptor.forClass(DocumentsIndexedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertEquals(25, events.getAllValues().stream().mapToInt(event -> event.getDocuments().size()).sum());
+        assertEquals(SearchDataInitializer.State.COMPLETED, searchDataInitializer.getState());
+        assertEquals(25, searchDataInitializer.getIndexedDocuments());
+    }
+
+    /**
+     * Tests resuming an interrupted load.
+     *
+     * Expected behavior: should re-index from the last batch boundary that is certainly complete, with the
+     * same ids as the first run, and not index the earlier batches again.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testLoadSampleDataResumes() {
+        // Arrange
+        ReflectionTestUtils.setField(searchDataInitializer, "documentCount", 50);
+        ReflectionTestUtils.setField(searchDataInitializer, "batchSize", 10);
+        ReflectionTestUtils.setField(searchDataInitializer, "concurrency", 1);
+        when(searchRepository.count()).thenReturn(0L);
+        searchDataInitializer.loadSampleData();
+        ArgumentCaptor<List<SearchableDocument>> firstRun = ArgumentCaptor.forClass(List.class);
+        verify(searchRepository, times(5)).saveAll(firstRun.capture());
+        List<String> allIds = ids(firstRun.getAllValues());
+
+        reset(searchRepository);
+        when(searchRepository.count()).thenReturn(25L);
+
+        // Act
+        searchDataInitializer.loadSampleData();
+
+        // Assert: one batch in flight may have been lost, so 10-19 are indexed again
+        ArgumentCaptor<List<SearchableDocument>> secondRun = ArgumentCaptor.forClass(List.class);
+        verify(searchRepository, times(4)).saveAll(secondRun.capture());
+        assertEquals(allIds.subList(10, 50), ids(secondRun.getAllValues()));
+        assertEquals(50, searchDataInitializer.getIndexedDocuments());
+    }
+
+    /**
+     * Tests loading while one batch is stuck.
+     *
+     * Expected behavior: should not start batches more than the concurrency beyond the stuck one, so a load
+     * interrupted now resumes at or below it, and index the rest once it completes.
+     */
+    @Test
+    void testLoadSampleDataBoundsBatchesAheadOfIncompleteOne() throws Exception {
+        // Arrange
+        ReflectionTestUtils.setField(searchDataInitializer, "documentCount", 100);
+        ReflectionTestUtils.setField(searchDataInitializer, "batchSize", 10);
+        ReflectionTestUtils.setField(searchDataInitializer, "concurrency", 3);
+        when(searchRepository.count()).thenReturn(0L);
+        String firstId = new CorpusGenerator(42, 0).document(0).getId();
+        CountDownLatch release = new CountDownLatch(1);
+        Set<String> started = ConcurrentHashMap.newKeySet();
+        when(searchRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<SearchableDocument> batch = invocation.getArgument(0);
+            started.add(batch.get(0).getId());
+            if (firstId.equals(batch.get(0).getId())) {
+                release.await();  // The first batch is stuck until released
+            }
+            return batch;
+        });
+        Thread loader = new Thread(searchDataInitializer::loadSampleData);
+
+        // Act
+        loader.start();
+        Thread.sleep(300);
+        int startedWhileStuck = started.size();
+        release.countDown();
+        loader.join(10000);
+
+        // Assert: batches 0-2 may be in the index, so a resume from (30 - 3 * 10) covers the stuck batch
+        assertEquals(3, startedWhileStuck);
+        verify(searchRepository, times(10)).saveAll(anyList());
+        assertEquals(SearchDataInitializer.State.COMPLETED, searchDataInitializer.getState());
+    }
+
+    /**
+     * Tests loading when a batch cannot be indexed.
+     *
+     * Expected behavior: should stop dispatching batches, report the load as failed and count the failed batch.
+     */
+    @Test
+    void testLoadSampleDataStopsOnBatchFailure() {
+        // Arrange
+        ReflectionTestUtils.setField(searchDataInitializer, "documentCount", 100);
+        ReflectionTestUtils.setField(searchDataInitializer, "batchSize", 10);
+        ReflectionTestUtils.setField(searchDataInitializer, "concurrency", 1);
+        when(searchRepository.count()).thenReturn(0L);
+        when(searchRepository.saveAll(anyList())).thenThrow(new RuntimeException("Bulk rejected"));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        searchDataInitializer.bindTo(registry);
+
+        // Act
+        assertDoesNotThrow(() -> searchDataInitializer.loadSampleData());
+
+        // Assert
+        verify(searchRepository, times(1)).saveAll(anyList());
+        assertEquals(SearchDataInitializer.State.FAILED, searchDataInitializer.getState());
+        assertEquals(1.0, registry.get("search.data.init.failed.batches").gauge().value());
+        assertEquals(100.0, registry.get("search.data.init.target").gauge().value());
+        assertEquals(0.0, registry.get("search.data.init.documents").gauge().value());
+    }
+
+    /**
+     * Tests the ready event with deferred startup.
+     *
+     * Expected behavior: should leave loading to the deferred startup task and not touch the repository.
+     */
+    @Test
+    void testStartLoadingSkippedWithDeferredStartup() {
+        // Arrange
+        ReflectionTestUtils.setField(searchDataInitializer, "deferredStartup", true);
+
+        // Act
+        searchDataInitializer.startLoading();
+
+        // Assert
+        verifyNoInteractions(searchRepository);
+        assertEquals(SearchDataInitializer.State.PENDING, searchDataInitializer.getState());
+    }
+
+    private static List<String> ids(List<List<SearchableDocument>> batches) {
+        List<String> ids = new ArrayList<>();
+        batches.forEach(batch -> batch.forEach(document -> ids.add(document.getId())));
+        return ids;
+    }
+}